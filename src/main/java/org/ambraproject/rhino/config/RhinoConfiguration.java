@@ -31,48 +31,69 @@ import java.lang.reflect.Type;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import org.ambraproject.rhino.config.json.AdapterRegistry;
 import org.ambraproject.rhino.content.xml.CustomMetadataExtractor;
 import org.ambraproject.rhino.content.xml.XpathReader;
+import org.ambraproject.rhino.rest.GzipVariantCache;
+import org.ambraproject.rhino.rest.response.InMemoryResponseCacheStore;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.service.ArticleExportService;
 import org.ambraproject.rhino.service.ArticleListCrudService;
 import org.ambraproject.rhino.service.ArticleRevisionWriteService;
 import org.ambraproject.rhino.service.AssetCrudService;
 import org.ambraproject.rhino.service.CommentCrudService;
 import org.ambraproject.rhino.service.ConfigurationReadService;
 import org.ambraproject.rhino.service.ContentRepoPersistenceService;
+import org.ambraproject.rhino.service.EditorialContentService;
 import org.ambraproject.rhino.service.HibernatePersistenceService;
 import org.ambraproject.rhino.service.IssueCrudService;
 import org.ambraproject.rhino.service.JournalCrudService;
+import org.ambraproject.rhino.service.JournalTreeService;
 import org.ambraproject.rhino.service.VolumeCrudService;
 import org.ambraproject.rhino.service.impl.ArticleCrudServiceImpl;
+import org.ambraproject.rhino.service.impl.ArticleExportServiceImpl;
 import org.ambraproject.rhino.service.impl.ArticleListCrudServiceImpl;
 import org.ambraproject.rhino.service.impl.ArticleRevisionWriteServiceImpl;
 import org.ambraproject.rhino.service.impl.AssetCrudServiceImpl;
 import org.ambraproject.rhino.service.impl.CommentCrudServiceImpl;
 import org.ambraproject.rhino.service.impl.ConfigurationReadServiceImpl;
 import org.ambraproject.rhino.service.impl.ContentRepoPersistenceServiceImpl;
+import org.ambraproject.rhino.service.impl.EditorialContentServiceImpl;
 import org.ambraproject.rhino.service.impl.HibernatePersistenceServiceImpl;
 import org.ambraproject.rhino.service.impl.IngestionService;
 import org.ambraproject.rhino.service.impl.IssueCrudServiceImpl;
 import org.ambraproject.rhino.service.impl.JournalCrudServiceImpl;
+import org.ambraproject.rhino.service.impl.JournalTreeServiceImpl;
 import org.ambraproject.rhino.service.impl.VolumeCrudServiceImpl;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyClassificationService;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
 import org.ambraproject.rhino.service.taxonomy.impl.TaxonomyClassificationServiceImpl;
 import org.ambraproject.rhino.service.taxonomy.impl.TaxonomyServiceImpl;
+import org.ambraproject.rhino.util.ArchiveBufferPool;
+import org.ambraproject.rhino.util.FileCache;
 import org.ambraproject.rhino.util.GitInfo;
+import org.ambraproject.rhino.util.HibernateCacheMetrics;
 import org.ambraproject.rhino.util.Java8TimeGsonAdapters;
 import org.ambraproject.rhino.util.JsonAdapterUtil;
+import org.ambraproject.rhino.util.RequestCoalescer;
 import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.ambraproject.rhino.view.article.ArticleIngestionView;
 import org.ambraproject.rhino.view.article.ArticleRevisionView;
 import org.ambraproject.rhino.view.article.ItemSetView;
@@ -125,6 +146,8 @@ public class RhinoConfiguration {
     hibernateProperties.setProperty("hibernate.dialect", org.hibernate.dialect.MySQLDialect.class.getName());
     hibernateProperties.setProperty("hibernate.show_sql", Boolean.toString(hibernateIsInDebugMode));
     hibernateProperties.setProperty("hibernate.format_sql", Boolean.toString(hibernateIsInDebugMode));
+    setEntityCacheProperties(hibernateProperties,
+        runtimeConfiguration.getCacheConfiguration().isEntityCacheEnabled());
     bean.setHibernateProperties(hibernateProperties);
 
     bean.setPackagesToScan("org.ambraproject.rhino.model");
@@ -140,6 +163,32 @@ public class RhinoConfiguration {
     return bean;
   }
 
+  /**
+   * Configure Hibernate's second-level entity and query caches. When enabled, they are backed by an in-process Ehcache
+   * manager whose regions are configured in {@code ehcache-hibernate.xml}, and Hibernate collects the statistics
+   * reported by {@link HibernateCacheMetrics}. Only entities annotated with {@link org.hibernate.annotations.Cache} and
+   * queries marked as cacheable are cached.
+   *
+   * @param hibernateProperties the properties to modify
+   * @param enabled             whether to enable the caches
+   */
+  public static void setEntityCacheProperties(Properties hibernateProperties, boolean enabled) {
+    // Must be switched off explicitly, because Hibernate otherwise rejects cache annotations when it has no provider
+    hibernateProperties.setProperty("hibernate.cache.use_second_level_cache", Boolean.toString(enabled));
+    hibernateProperties.setProperty("hibernate.cache.use_query_cache", Boolean.toString(enabled));
+    hibernateProperties.setProperty("hibernate.generate_statistics", Boolean.toString(enabled));
+    if (enabled) {
+      hibernateProperties.setProperty("hibernate.cache.region.factory_class",
+          "net.sf.ehcache.hibernate.SingletonEhCacheRegionFactory");
+      hibernateProperties.setProperty("net.sf.ehcache.configurationResourceName", "/ehcache-hibernate.xml");
+    }
+  }
+
+  @Bean
+  public HibernateCacheMetrics hibernateCacheMetrics(SessionFactory sessionFactory) {
+    return new HibernateCacheMetrics(sessionFactory);
+  }
+
   @Bean
   public HibernateTemplate hibernateTemplate(SessionFactory sessionFactory) {
     return new HibernateTemplate(sessionFactory);
@@ -162,21 +211,39 @@ public class RhinoConfiguration {
    */
   @Bean
   public Gson entityGson(RuntimeConfiguration runtimeConfiguration) {
-    GsonBuilder builder = JsonAdapterUtil.makeGsonBuilder();
+    GsonBuilder builder = makeEntityGsonBuilder(true);
     if (runtimeConfiguration.prettyPrintJson()) {
       builder.setPrettyPrinting();
     }
+    return builder.create();
+  }
+
+  /**
+   * Create a builder with the adapters of {@link #entityGson}.
+   *
+   * @param streaming whether {@link StreamingOutputView}s write directly to the output; if {@code false}, every view is
+   *                  serialized through a tree with {@link JsonOutputView#serialize}, for comparing the two forms
+   * @return the builder
+   */
+  public static GsonBuilder makeEntityGsonBuilder(boolean streaming) {
+    GsonBuilder builder = JsonAdapterUtil.makeGsonBuilder();
 
     // Bulk-apply special cases defined in org.ambraproject.rhino.config.json
     for (Class<? extends JsonOutputView> viewClass : AdapterRegistry.getOutputViewClasses()) {
-      builder.registerTypeAdapter(viewClass, JsonOutputView.SERIALIZER);
+      if (streaming && StreamingOutputView.class.isAssignableFrom(viewClass)) {
+        // Write directly to the output instead of building a JsonObject tree
+        builder.registerTypeAdapterFactory(
+            StreamingOutputView.adapterFactoryFor(viewClass.asSubclass(StreamingOutputView.class)));
+      } else {
+        builder.registerTypeAdapter(viewClass, JsonOutputView.SERIALIZER);
+      }
     }
     for (Map.Entry<Type, Object> entry : AdapterRegistry.getCustomAdapters().entrySet()) {
       builder.registerTypeAdapter(entry.getKey(), entry.getValue());
     }
     Java8TimeGsonAdapters.register(builder);
 
-    return builder.create();
+    return builder;
   }
 
   /**
@@ -202,6 +269,70 @@ public class RhinoConfiguration {
     return HttpClientBuilder.create().setConnectionManager(manager).build();
   }
 
+  /**
+   * Thread pool that fetches archive entries from the content repo ahead of writing them. See {@link
+   * org.ambraproject.rhino.util.Archive#write(java.io.OutputStream, ExecutorService, int)}.
+   */
+  @Bean
+  public ExecutorService repackPrefetchExecutor(RuntimeConfiguration runtimeConfiguration) {
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setNameFormat("repack-prefetch-%d").setDaemon(true).build();
+    return Executors.newFixedThreadPool(runtimeConfiguration.getRepackConfiguration().getPrefetchThreads(),
+        threadFactory);
+  }
+
+  /**
+   * Local disk cache of repacked ingestible archives.
+   */
+  @Bean
+  public FileCache repackCache(RuntimeConfiguration runtimeConfiguration) {
+    RuntimeConfiguration.RepackConfiguration repackConfiguration = runtimeConfiguration.getRepackConfiguration();
+    FileCache repackCache = new FileCache(repackConfiguration.getCacheDirectory(),
+        repackConfiguration.getCacheMaxSize(), repackConfiguration.getCacheMaxAge());
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setNameFormat("repack-cache-eviction-%d").setDaemon(true).build();
+    repackCache.scheduleEviction(Executors.newSingleThreadScheduledExecutor(threadFactory));
+    return repackCache;
+  }
+
+  /**
+   * Off-heap memory for holding the entries of uploaded ingestible archives.
+   */
+  @Bean
+  public ArchiveBufferPool archiveBufferPool(RuntimeConfiguration runtimeConfiguration) {
+    return new ArchiveBufferPool(runtimeConfiguration.getIngestionConfiguration().getArchiveBufferMaxSize());
+  }
+
+  @Bean
+  public GzipVariantCache gzipVariantCache(RuntimeConfiguration runtimeConfiguration) {
+    RuntimeConfiguration.CacheConfiguration cacheConfiguration = runtimeConfiguration.getCacheConfiguration();
+    return new GzipVariantCache(cacheConfiguration.getGzipVariantMaxSize(),
+        cacheConfiguration.getGzipVariantMaxEntrySize());
+  }
+
+  @Bean
+  public RequestCoalescer requestCoalescer(RuntimeConfiguration runtimeConfiguration) {
+    return new RequestCoalescer(runtimeConfiguration.getCacheConfiguration().getCoalescingTimeout());
+  }
+
+  /**
+   * Cache of serialized JSON response bodies. Stale bodies are rebuilt by a single background thread, so that a burst
+   * of stale hits does not compete with request threads for database connections.
+   */
+  @Bean
+  public JsonResponseCache jsonResponseCache(RuntimeConfiguration runtimeConfiguration, Gson entityGson,
+                                             HibernateTransactionManager transactionManager,
+                                             RequestCoalescer requestCoalescer) {
+    RuntimeConfiguration.CacheConfiguration cacheConfiguration = runtimeConfiguration.getCacheConfiguration();
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setNameFormat("response-refresh-%d").setDaemon(true).build();
+    ExecutorService refreshExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(1000), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    return new JsonResponseCache(new InMemoryResponseCacheStore(cacheConfiguration.getResponseMaxSize()), entityGson,
+        cacheConfiguration.getResponseFreshTime(), cacheConfiguration.getResponseStaleTime(),
+        refreshExecutor, transactionManager, requestCoalescer);
+  }
+
   @Bean
   public ContentRepoService contentRepoService(RuntimeConfiguration runtimeConfiguration,
                                                final CloseableHttpClient httpClient) {
@@ -212,11 +343,36 @@ public class RhinoConfiguration {
     return new ContentRepoServiceImpl(repoServer, HttpClientFunction.from(httpClient));
   }
 
+  /**
+   * Cached reads from the editorial bucket. The editorial content repo client is not exposed as a bean, so that {@link
+   * #contentRepoService} remains the only {@link ContentRepoService}. In dev mode (a {@code file:} address), editorial
+   * content is served directly from disk and no client is needed.
+   */
+  @Bean
+  public EditorialContentService editorialContentService(RuntimeConfiguration runtimeConfiguration,
+                                                         CloseableHttpClient httpClient) {
+    RuntimeConfiguration.ContentRepoEndpoint editorial = runtimeConfiguration.getEditorialStorage();
+    ContentRepoService editorialRepo = null;
+    String bucketName = null;
+    if (editorial != null && editorial.getAddress() != null && !"file".equals(editorial.getAddress().getScheme())) {
+      editorialRepo = new ContentRepoServiceImpl(editorial.getAddress().toString(), HttpClientFunction.from(httpClient));
+      bucketName = editorial.getDefaultBucket();
+    }
+    RuntimeConfiguration.CacheConfiguration cacheConfiguration = runtimeConfiguration.getCacheConfiguration();
+    return new EditorialContentServiceImpl(editorialRepo, bucketName,
+        cacheConfiguration.getEditorialMaxSize(), cacheConfiguration.getEditorialTimeToLive());
+  }
+
   @Bean
   public ArticleCrudService articleCrudService() {
     return new ArticleCrudServiceImpl();
   }
 
+  @Bean
+  public ArticleExportService articleExportService() {
+    return new ArticleExportServiceImpl();
+  }
+
   @Bean
   public AssetCrudService assetCrudService() {
     return new AssetCrudServiceImpl();
@@ -242,6 +398,17 @@ public class RhinoConfiguration {
     return new JournalCrudServiceImpl();
   }
 
+  /**
+   * Serialized journals, volumes and issues, held in memory. The tree is rebuilt in a transaction of its own, after any
+   * change to them commits, and once it is older than the response fresh time.
+   */
+  @Bean
+  public JournalTreeService journalTreeService(HibernateTransactionManager transactionManager,
+                                               RuntimeConfiguration runtimeConfiguration) {
+    return new JournalTreeServiceImpl(transactionManager,
+        runtimeConfiguration.getCacheConfiguration().getResponseFreshTime());
+  }
+
   @Bean
   public CommentCrudService annotationCrudService() {
     return new CommentCrudServiceImpl();
@@ -26,6 +26,8 @@ import com.google.common.collect.ImmutableSet;
 
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Set;
 
@@ -96,6 +98,105 @@ public interface RuntimeConfiguration {
 
   HttpConnectionPoolConfiguration getHttpConnectionPoolConfiguration();
 
+  /**
+   * Settings for repacking an ingestion's files into a zip archive.
+   */
+  interface RepackConfiguration {
+    /**
+     * @return the number of threads that fetch archive entries from the content repo, shared by all requests
+     */
+    int getPrefetchThreads();
+
+    /**
+     * @return the number of entries to fetch ahead of the one being written; zero to fetch serially
+     */
+    int getPrefetchDepth();
+
+    /**
+     * @return the local directory in which to cache repacked archives
+     */
+    Path getCacheDirectory();
+
+    /**
+     * @return the maximum total size of cached archives, in bytes; zero to disable the cache
+     */
+    long getCacheMaxSize();
+
+    /**
+     * @return the time after which a cached archive that has not been read is deleted
+     */
+    Duration getCacheMaxAge();
+  }
+
+  RepackConfiguration getRepackConfiguration();
+
+  /**
+   * Settings for reading uploaded ingestible archives.
+   */
+  interface IngestionConfiguration {
+    /**
+     * @return the maximum total size, in bytes, of off-heap buffers holding the entries of uploaded archives, shared by
+     * all requests; entries that do not fit are spilled to temp files
+     */
+    long getArchiveBufferMaxSize();
+  }
+
+  IngestionConfiguration getIngestionConfiguration();
+
+  /**
+   * Sizes and lifetimes of in-process caches.
+   */
+  interface CacheConfiguration {
+    /**
+     * @return the maximum total size, in bytes, of cached gzip-compressed variants of text assets
+     */
+    long getGzipVariantMaxSize();
+
+    /**
+     * @return the size, in bytes, of the largest asset whose compressed variant is cached
+     */
+    long getGzipVariantMaxEntrySize();
+
+    /**
+     * @return the maximum total size, in bytes, of cached editorial content
+     */
+    long getEditorialMaxSize();
+
+    /**
+     * @return the time for which a cached editorial object is served before it is revalidated against the content repo
+     */
+    Duration getEditorialTimeToLive();
+
+    /**
+     * @return the maximum total size, in bytes, of cached JSON response bodies
+     */
+    long getResponseMaxSize();
+
+    /**
+     * @return the time for which a cached response whose version is unknown is served without being rebuilt
+     */
+    Duration getResponseFreshTime();
+
+    /**
+     * @return the additional time for which a cached response whose version is unknown is served while it is rebuilt
+     * in the background
+     */
+    Duration getResponseStaleTime();
+
+    /**
+     * @return how long a read waits for an identical read in flight before computing its own result
+     */
+    Duration getCoalescingTimeout();
+
+    /**
+     * @return {@code true} if Hibernate should keep journals, volumes, issues and categories, and the results of queries
+     * that look them up, in its second-level cache
+     */
+    boolean isEntityCacheEnabled();
+  }
+
+  CacheConfiguration getCacheConfiguration();
+
   interface TaxonomyConfiguration {
     URL getServer();
 
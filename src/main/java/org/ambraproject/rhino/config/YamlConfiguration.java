@@ -27,6 +27,9 @@ import com.google.common.collect.ImmutableSet;
 
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
@@ -170,6 +173,124 @@ public class YamlConfiguration implements RuntimeConfiguration {
   }
 
 
+  private final RepackConfiguration repackConfiguration = new RepackConfiguration() {
+    @Override
+    public int getPrefetchThreads() {
+      return (input.repack == null || input.repack.prefetchThreads == null) ? 8 : input.repack.prefetchThreads;
+    }
+
+    @Override
+    public int getPrefetchDepth() {
+      return (input.repack == null || input.repack.prefetchDepth == null) ? 4 : input.repack.prefetchDepth;
+    }
+
+    @Override
+    public Path getCacheDirectory() {
+      return (input.repack == null || input.repack.cacheDirectory == null)
+          ? Paths.get(System.getProperty("java.io.tmpdir"), "rhino-repack-cache")
+          : Paths.get(input.repack.cacheDirectory);
+    }
+
+    @Override
+    public long getCacheMaxSize() {
+      long megabytes = (input.repack == null || input.repack.cacheMaxMegabytes == null) ? 2048
+          : input.repack.cacheMaxMegabytes;
+      return megabytes << 20;
+    }
+
+    @Override
+    public Duration getCacheMaxAge() {
+      return Duration.ofHours((input.repack == null || input.repack.cacheMaxAgeHours == null) ? 168
+          : input.repack.cacheMaxAgeHours);
+    }
+  };
+
+  @Override
+  public RepackConfiguration getRepackConfiguration() {
+    return repackConfiguration;
+  }
+
+
+  private final IngestionConfiguration ingestionConfiguration = new IngestionConfiguration() {
+    @Override
+    public long getArchiveBufferMaxSize() {
+      long megabytes = (input.ingestion == null || input.ingestion.archiveBufferMaxMegabytes == null) ? 256
+          : input.ingestion.archiveBufferMaxMegabytes;
+      return megabytes << 20;
+    }
+  };
+
+  @Override
+  public IngestionConfiguration getIngestionConfiguration() {
+    return ingestionConfiguration;
+  }
+
+
+  private final CacheConfiguration cacheConfiguration = new CacheConfiguration() {
+    @Override
+    public long getGzipVariantMaxSize() {
+      long megabytes = (input.cache == null || input.cache.gzipVariantMaxMegabytes == null) ? 64
+          : input.cache.gzipVariantMaxMegabytes;
+      return megabytes << 20;
+    }
+
+    @Override
+    public long getGzipVariantMaxEntrySize() {
+      long megabytes = (input.cache == null || input.cache.gzipVariantMaxEntryMegabytes == null) ? 8
+          : input.cache.gzipVariantMaxEntryMegabytes;
+      return megabytes << 20;
+    }
+
+    @Override
+    public long getEditorialMaxSize() {
+      long megabytes = (input.cache == null || input.cache.editorialMaxMegabytes == null) ? 32
+          : input.cache.editorialMaxMegabytes;
+      return megabytes << 20;
+    }
+
+    @Override
+    public Duration getEditorialTimeToLive() {
+      return Duration.ofSeconds((input.cache == null || input.cache.editorialTtlSeconds == null) ? 60
+          : input.cache.editorialTtlSeconds);
+    }
+
+    @Override
+    public long getResponseMaxSize() {
+      long megabytes = (input.cache == null || input.cache.responseMaxMegabytes == null) ? 64
+          : input.cache.responseMaxMegabytes;
+      return megabytes << 20;
+    }
+
+    @Override
+    public Duration getResponseFreshTime() {
+      return Duration.ofSeconds((input.cache == null || input.cache.responseFreshSeconds == null) ? 30
+          : input.cache.responseFreshSeconds);
+    }
+
+    @Override
+    public Duration getResponseStaleTime() {
+      return Duration.ofSeconds((input.cache == null || input.cache.responseStaleSeconds == null) ? 300
+          : input.cache.responseStaleSeconds);
+    }
+
+    @Override
+    public Duration getCoalescingTimeout() {
+      return Duration.ofMillis((input.cache == null || input.cache.coalescingTimeoutMillis == null) ? 10000
+          : input.cache.coalescingTimeoutMillis);
+    }
+
+    @Override
+    public boolean isEntityCacheEnabled() {
+      return input.cache != null && input.cache.entityCacheEnabled != null && input.cache.entityCacheEnabled;
+    }
+  };
+
+  @Override
+  public CacheConfiguration getCacheConfiguration() {
+    return cacheConfiguration;
+  }
+
+
   private final TaxonomyConfiguration taxonomyConfiguration = new TaxonomyConfiguration() {
     private ImmutableSet<String> categoryBlacklist;
 
@@ -284,6 +405,9 @@ public class YamlConfiguration implements RuntimeConfiguration {
     private boolean prettyPrintJson = true; // the default value should be true
     private ContentRepoInput contentRepo;
     private HttpConnectionPoolConfigurationInput httpConnectionPool;
+    private RepackConfigurationInput repack;
+    private IngestionConfigurationInput ingestion;
+    private CacheConfigurationInput cache;
     private TaxonomyConfigurationInput taxonomy;
     private UserApiConfigurationInput userApi;
     private String competingInterestPolicyStart;
@@ -315,6 +439,30 @@ public class YamlConfiguration implements RuntimeConfiguration {
       this.httpConnectionPool = httpConnectionPool;
     }
 
+    /**
+     * @deprecated For reflective access by SnakeYAML only
+     */
+    @Deprecated
+    public void setRepack(RepackConfigurationInput repack) {
+      this.repack = repack;
+    }
+
+    /**
+     * @deprecated For reflective access by SnakeYAML only
+     */
+    @Deprecated
+    public void setIngestion(IngestionConfigurationInput ingestion) {
+      this.ingestion = ingestion;
+    }
+
+    /**
+     * @deprecated For reflective access by SnakeYAML only
+     */
+    @Deprecated
+    public void setCache(CacheConfigurationInput cache) {
+      this.cache = cache;
+    }
+
     /**
      * @deprecated For reflective access by SnakeYAML only
      */
@@ -433,6 +581,105 @@ public class YamlConfiguration implements RuntimeConfiguration {
     }
   }
 
+  public static class RepackConfigurationInput {
+    private Integer prefetchThreads;
+    private Integer prefetchDepth;
+    private String cacheDirectory;
+    private Integer cacheMaxMegabytes;
+    private Integer cacheMaxAgeHours;
+
+    @Deprecated
+    public void setPrefetchThreads(Integer prefetchThreads) {
+      this.prefetchThreads = prefetchThreads;
+    }
+
+    @Deprecated
+    public void setPrefetchDepth(Integer prefetchDepth) {
+      this.prefetchDepth = prefetchDepth;
+    }
+
+    @Deprecated
+    public void setCacheDirectory(String cacheDirectory) {
+      this.cacheDirectory = cacheDirectory;
+    }
+
+    @Deprecated
+    public void setCacheMaxMegabytes(Integer cacheMaxMegabytes) {
+      this.cacheMaxMegabytes = cacheMaxMegabytes;
+    }
+
+    @Deprecated
+    public void setCacheMaxAgeHours(Integer cacheMaxAgeHours) {
+      this.cacheMaxAgeHours = cacheMaxAgeHours;
+    }
+  }
+
+  public static class IngestionConfigurationInput {
+    private Integer archiveBufferMaxMegabytes;
+
+    @Deprecated
+    public void setArchiveBufferMaxMegabytes(Integer archiveBufferMaxMegabytes) {
+      this.archiveBufferMaxMegabytes = archiveBufferMaxMegabytes;
+    }
+  }
+
+  public static class CacheConfigurationInput {
+    private Integer gzipVariantMaxMegabytes;
+    private Integer gzipVariantMaxEntryMegabytes;
+    private Integer editorialMaxMegabytes;
+    private Integer editorialTtlSeconds;
+    private Integer responseMaxMegabytes;
+    private Integer responseFreshSeconds;
+    private Integer responseStaleSeconds;
+    private Integer coalescingTimeoutMillis;
+    private Boolean entityCacheEnabled;
+
+    @Deprecated
+    public void setGzipVariantMaxMegabytes(Integer gzipVariantMaxMegabytes) {
+      this.gzipVariantMaxMegabytes = gzipVariantMaxMegabytes;
+    }
+
+    @Deprecated
+    public void setGzipVariantMaxEntryMegabytes(Integer gzipVariantMaxEntryMegabytes) {
+      this.gzipVariantMaxEntryMegabytes = gzipVariantMaxEntryMegabytes;
+    }
+
+    @Deprecated
+    public void setEditorialMaxMegabytes(Integer editorialMaxMegabytes) {
+      this.editorialMaxMegabytes = editorialMaxMegabytes;
+    }
+
+    @Deprecated
+    public void setEditorialTtlSeconds(Integer editorialTtlSeconds) {
+      this.editorialTtlSeconds = editorialTtlSeconds;
+    }
+
+    @Deprecated
+    public void setResponseMaxMegabytes(Integer responseMaxMegabytes) {
+      this.responseMaxMegabytes = responseMaxMegabytes;
+    }
+
+    @Deprecated
+    public void setResponseFreshSeconds(Integer responseFreshSeconds) {
+      this.responseFreshSeconds = responseFreshSeconds;
+    }
+
+    @Deprecated
+    public void setResponseStaleSeconds(Integer responseStaleSeconds) {
+      this.responseStaleSeconds = responseStaleSeconds;
+    }
+
+    @Deprecated
+    public void setCoalescingTimeoutMillis(Integer coalescingTimeoutMillis) {
+      this.coalescingTimeoutMillis = coalescingTimeoutMillis;
+    }
+
+    @Deprecated
+    public void setEntityCacheEnabled(Boolean entityCacheEnabled) {
+      this.entityCacheEnabled = entityCacheEnabled;
+    }
+  }
+
   public static class TaxonomyConfigurationInput {
     private URL server;
     private String thesaurus;
@@ -43,7 +43,8 @@ public class AdapterRegistry {
 
   /**
    * A list of all classes that implement that {@link JsonOutputView} interface and should be serialized with its {@code
-   * serialize} method.
+   * serialize} method (or, if it implements {@link org.ambraproject.rhino.view.StreamingOutputView}, its {@code write}
+   * method).
    * <p/>
    * It would be nice to configure Gson to apply the adapter to any object implementing the interface by default. It is
    * a little unfortunate that listing them here seems to be necessary, since it violates the principle that an
@@ -27,8 +27,11 @@ import org.hibernate.annotations.GenerationTime;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import java.io.Serializable;
@@ -51,6 +54,21 @@ public class Article implements Timestamped, Serializable {
   @Column(name = "created", insertable = false, updatable = false, columnDefinition = "timestamp default current_timestamp")
   private Date created;
 
+  /**
+   * The revision with the highest revision number, or {@code null} if the article has no revisions. Denormalized from
+   * {@link ArticleRevision} and kept up to date by every write that adds, replaces or deletes a revision.
+   */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "latestRevisionId")
+  private ArticleRevision latestRevision;
+
+  /**
+   * The publication date of the latest revision's ingestion, or {@code null} if the article has no revisions.
+   */
+  @Temporal(javax.persistence.TemporalType.DATE)
+  @Column
+  private Date latestPublicationDate;
+
   public Long getArticleId() {
     return articleId;
   }
@@ -71,6 +89,22 @@ public class Article implements Timestamped, Serializable {
     return created;
   }
 
+  public ArticleRevision getLatestRevision() {
+    return latestRevision;
+  }
+
+  public void setLatestRevision(ArticleRevision latestRevision) {
+    this.latestRevision = latestRevision;
+  }
+
+  public Date getLatestPublicationDate() {
+    return latestPublicationDate;
+  }
+
+  public void setLatestPublicationDate(Date latestPublicationDate) {
+    this.latestPublicationDate = latestPublicationDate;
+  }
+
   @Override
   public Date getLastModified() {
     return created;
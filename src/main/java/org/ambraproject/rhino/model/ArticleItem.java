@@ -27,6 +27,8 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.GenerationTime;
 
@@ -64,8 +66,14 @@ public class ArticleItem implements Timestamped {
   @Column(name = "articleItemType")
   private String itemType;
 
+  /**
+   * Loaded lazily, because most reads of items (such as resolving a DOI) don't look at their files. When the files of
+   * one item are needed, the files of every item loaded by the same query are read with it in a single subselect.
+   * Queries that always need the files should fetch them with {@code LEFT JOIN FETCH}.
+   */
   @Cascade(CascadeType.SAVE_UPDATE)
-  @OneToMany(targetEntity = ArticleFile.class, mappedBy = "item", fetch = FetchType.EAGER)
+  @OneToMany(targetEntity = ArticleFile.class, mappedBy = "item", fetch = FetchType.LAZY)
+  @Fetch(FetchMode.SUBSELECT)
   private Collection<ArticleFile> files;
 
   @Generated(value = GenerationTime.INSERT)
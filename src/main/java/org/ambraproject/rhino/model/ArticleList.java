@@ -22,6 +22,7 @@
 
 package org.ambraproject.rhino.model;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
 import org.hibernate.annotations.Generated;
@@ -71,6 +72,7 @@ public class ArticleList implements Timestamped {
 
   @Cascade(CascadeType.SAVE_UPDATE)
   @ManyToMany(fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   @JoinTable(
       name = "articleListJoinTable",
       joinColumns = @JoinColumn(name = "articleListId", nullable = false),
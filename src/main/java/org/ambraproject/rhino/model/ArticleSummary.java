@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.sql.Date;
+
+/**
+ * The fields of an article's latest revision that are shown wherever the article is listed, such as in article lists,
+ * issues and relationships. Denormalized from {@link Article}, {@link ArticleRevision} and {@link ArticleIngestion} so
+ * that a list of articles can be read from one table, and kept up to date by every write that changes which revision is
+ * latest (see {@link Article#getLatestRevision}). An article that has no revisions has no summary.
+ * <p>
+ * There is no visibility column, because this model stores no visibility state of its own: an article is published,
+ * and so visible, exactly when it has a revision, which is exactly when it has a summary, and it is visible in the
+ * summary's journal. {@link org.ambraproject.rhino.view.article.ArticleVisibility} is built from the DOI alone.
+ */
+@Entity
+@Table(name = "articleSummary")
+public class ArticleSummary {
+
+  @Id
+  @Column
+  private Long articleId;
+
+  @Column
+  private String doi;
+
+  @Column
+  private int revisionNumber;
+
+  @Column
+  private int ingestionNumber;
+
+  @Column
+  private String title;
+
+  @Column
+  private Date publicationDate;
+
+  @Column
+  private Date revisionDate;
+
+  @Column
+  private String publicationStage;
+
+  @Column
+  private String articleType;
+
+  @JoinColumn(name = "journalId", nullable = false)
+  @ManyToOne
+  private Journal journal;
+
+  /**
+   * Create a summary of an article as of a revision. The result is not persistent.
+   *
+   * @param revision the article's latest revision
+   * @return the summary
+   */
+  public static ArticleSummary create(ArticleRevision revision) {
+    ArticleSummary summary = new ArticleSummary();
+    Article article = revision.getIngestion().getArticle();
+    summary.setArticleId(article.getArticleId());
+    summary.setDoi(article.getDoi());
+    summary.update(revision);
+    return summary;
+  }
+
+  /**
+   * Copy the summarized fields from a revision, which must belong to the same article.
+   *
+   * @param revision the article's new latest revision
+   */
+  public void update(ArticleRevision revision) {
+    ArticleIngestion ingestion = revision.getIngestion();
+    setRevisionNumber(revision.getRevisionNumber());
+    setIngestionNumber(ingestion.getIngestionNumber());
+    setTitle(ingestion.getTitle());
+    setPublicationDate(ingestion.getPublicationDate());
+    setRevisionDate(ingestion.getRevisionDate());
+    setPublicationStage(ingestion.getPublicationStage());
+    setArticleType(ingestion.getArticleType());
+    setJournal(ingestion.getJournal());
+  }
+
+  public Long getArticleId() {
+    return articleId;
+  }
+
+  public void setArticleId(Long articleId) {
+    this.articleId = articleId;
+  }
+
+  public String getDoi() {
+    return doi;
+  }
+
+  public void setDoi(String doi) {
+    this.doi = doi;
+  }
+
+  public int getRevisionNumber() {
+    return revisionNumber;
+  }
+
+  public void setRevisionNumber(int revisionNumber) {
+    this.revisionNumber = revisionNumber;
+  }
+
+  public int getIngestionNumber() {
+    return ingestionNumber;
+  }
+
+  public void setIngestionNumber(int ingestionNumber) {
+    this.ingestionNumber = ingestionNumber;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public Date getPublicationDate() {
+    return publicationDate;
+  }
+
+  public void setPublicationDate(Date publicationDate) {
+    this.publicationDate = publicationDate;
+  }
+
+  public Date getRevisionDate() {
+    return revisionDate;
+  }
+
+  public void setRevisionDate(Date revisionDate) {
+    this.revisionDate = revisionDate;
+  }
+
+  public String getPublicationStage() {
+    return publicationStage;
+  }
+
+  public void setPublicationStage(String publicationStage) {
+    this.publicationStage = publicationStage;
+  }
+
+  public String getArticleType() {
+    return articleType;
+  }
+
+  public void setArticleType(String articleType) {
+    this.articleType = articleType;
+  }
+
+  public Journal getJournal() {
+    return journal;
+  }
+
+  public void setJournal(Journal journal) {
+    this.journal = journal;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ArticleSummary that = (ArticleSummary) o;
+    return doi != null ? doi.equals(that.doi) : that.doi == null;
+  }
+
+  @Override
+  public int hashCode() {
+    return doi != null ? doi.hashCode() : 0;
+  }
+}
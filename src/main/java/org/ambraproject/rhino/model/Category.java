@@ -21,6 +21,8 @@
  */
 package org.ambraproject.rhino.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.GenerationTime;
 
@@ -38,6 +40,7 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category implements Timestamped, Serializable {
 
   @Id
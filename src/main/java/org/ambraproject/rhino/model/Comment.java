@@ -33,6 +33,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
+import javax.persistence.Version;
 import java.util.Date;
 
 /**
@@ -92,6 +93,10 @@ public class Comment {
   @Column
   private String authorName;
 
+  @Version
+  @Column
+  private int version;
+
   public Comment() {
     super();
   }
@@ -212,6 +217,14 @@ public class Comment {
     this.authorName = authorName;
   }
 
+  public int getVersion() {
+    return version;
+  }
+
+  public void setVersion(int version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -22,6 +22,9 @@
 
 package org.ambraproject.rhino.model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
 import org.hibernate.annotations.Generated;
@@ -49,6 +52,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "issue")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Issue implements Timestamped {
 
   @Id
@@ -78,6 +82,7 @@ public class Issue implements Timestamped {
 
   @Cascade(CascadeType.SAVE_UPDATE)
   @ManyToMany(fetch = FetchType.LAZY)
+  @BatchSize(size = 50)
   @JoinTable(
       name = "issueArticleList",
       joinColumns = @JoinColumn(name = "issueId", nullable = false),
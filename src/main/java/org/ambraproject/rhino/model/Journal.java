@@ -23,6 +23,8 @@
 package org.ambraproject.rhino.model;
 
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
 import org.hibernate.annotations.Generated;
@@ -50,6 +52,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "journal")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Journal implements Timestamped {
 
   @Id
@@ -70,6 +73,7 @@ public class Journal implements Timestamped {
   @ManyToOne
   private Issue currentIssue;
 
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   @Cascade(CascadeType.SAVE_UPDATE)
   @OneToMany(fetch = FetchType.LAZY)
   @JoinColumn(name = "journalId", nullable = false)
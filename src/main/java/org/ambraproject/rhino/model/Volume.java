@@ -22,8 +22,12 @@
 
 package org.ambraproject.rhino.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CascadeType;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.GenerationTime;
 
@@ -47,6 +51,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "volume")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Volume implements Timestamped {
 
   @Id
@@ -70,8 +75,10 @@ public class Volume implements Timestamped {
   @Column(insertable=false, updatable=false, columnDefinition="timestamp default current_timestamp")
   private Date lastModified;
 
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   @Cascade(CascadeType.SAVE_UPDATE)
-  @OneToMany(fetch = FetchType.EAGER)
+  @OneToMany(fetch = FetchType.LAZY)
+  @Fetch(FetchMode.SUBSELECT)
   @JoinColumn(name = "volumeId", nullable = false)
   @OrderBy("doi")
   private List<Issue> issues;
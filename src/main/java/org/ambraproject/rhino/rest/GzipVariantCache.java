@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.net.HttpHeaders;
+import org.ambraproject.rhino.util.MetricsSource;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves gzip-compressed variants of text-like content to clients that accept them.
+ * <p/>
+ * The compressed bytes of each object are cached in memory up to a total size budget, so that a hot object is
+ * compressed only once. Objects too large to cache are compressed on the fly. Cache keys must identify immutable
+ * content, such as a content repo version.
+ */
+public class GzipVariantCache implements MetricsSource {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Cache<Object, byte[]> cache;
+  private final long maxEntrySize;
+
+  private final AtomicLong uncompressedBytesServed = new AtomicLong();
+  private final AtomicLong compressedBytesServed = new AtomicLong();
+  private final AtomicLong uncachedResponseCount = new AtomicLong();
+
+  /**
+   * @param maxSize      the maximum total size, in bytes, of cached compressed content
+   * @param maxEntrySize the maximum uncompressed size, in bytes, of an object whose compressed form is cached
+   */
+  public GzipVariantCache(long maxSize, long maxEntrySize) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSize)
+        .weigher((Object key, byte[] compressed) -> compressed.length)
+        .recordStats()
+        .build();
+    this.maxEntrySize = maxEntrySize;
+  }
+
+  /**
+   * Check whether content of a given type is worth compressing. True for text, XML and JSON, but not for media types
+   * that are compressed already.
+   *
+   * @param contentType a {@code Content-Type} header value
+   * @return {@code true} if the content should be compressed
+   */
+  public static boolean isCompressible(String contentType) {
+    if (contentType == null) return false;
+    int parameterIndex = contentType.indexOf(';');
+    String mediaType = (parameterIndex < 0 ? contentType : contentType.substring(0, parameterIndex))
+        .trim().toLowerCase(Locale.ROOT);
+    return mediaType.startsWith("text/")
+        || mediaType.endsWith("/xml") || mediaType.endsWith("+xml")
+        || mediaType.endsWith("/json") || mediaType.endsWith("+json")
+        || mediaType.equals("application/javascript");
+  }
+
+  private static final Splitter CODING_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+  private static final Splitter PARAMETER_SPLITTER = Splitter.on(';').trimResults();
+
+  /**
+   * Check whether the client accepts gzip-encoded responses, according to its {@code Accept-Encoding} header.
+   *
+   * @param request the client's request
+   * @return {@code true} if the client accepts gzip
+   */
+  public static boolean acceptsGzip(HttpServletRequest request) {
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    if (acceptEncoding == null) return false;
+    boolean acceptsWildcard = false;
+    for (String coding : CODING_SPLITTER.split(acceptEncoding)) {
+      List<String> parts = PARAMETER_SPLITTER.splitToList(coding);
+      String name = parts.get(0).toLowerCase(Locale.ROOT);
+      if (name.equals("gzip") || name.equals("x-gzip")) {
+        return !hasZeroQuality(parts); // an explicit entry overrides the wildcard
+      } else if (name.equals("*")) {
+        acceptsWildcard = !hasZeroQuality(parts);
+      }
+    }
+    return acceptsWildcard;
+  }
+
+  private static boolean hasZeroQuality(List<String> codingParts) {
+    for (String parameter : codingParts.subList(1, codingParts.size())) {
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2)) <= 0.0;
+        } catch (NumberFormatException e) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Derive the entity tag of the gzip variant from the strong entity tag of the identity variant. The two variants are
+   * not byte-identical, so they must not share a strong entity tag.
+   *
+   * @param entityTag the entity tag of the uncompressed content, including quotes
+   * @return the entity tag of the gzip-encoded content
+   */
+  public static String getEntityTag(String entityTag) {
+    Preconditions.checkArgument(entityTag.endsWith("\""));
+    return entityTag.substring(0, entityTag.length() - 1) + "-gz\"";
+  }
+
+  /**
+   * Get the gzip-compressed form of some content, compressing and caching it if it is not already cached.
+   *
+   * @param key     a key that identifies the content and will not be reused for different content
+   * @param content the uncompressed content
+   * @return the compressed content
+   * @throws IOException if the content could not be read
+   */
+  public byte[] getCompressed(Object key, ByteSource content) throws IOException {
+    try {
+      return cache.get(key, () -> compress(content));
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private static byte[] compress(ByteSource content) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(BUFFER_SIZE);
+    try (InputStream input = content.openStream();
+         OutputStream gzipStream = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+      ByteStreams.copy(input, gzipStream);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * Write the gzip-compressed form of some content to a response, setting the {@code Content-Encoding} header. Content
+   * small enough to cache is also served with a {@code Content-Length} header.
+   *
+   * @param response the response to write to
+   * @param key      a key that identifies the content and will not be reused for different content
+   * @param content  the uncompressed content
+   * @param size     the size of the uncompressed content, in bytes
+   * @throws IOException
+   */
+  public void serveCompressed(HttpServletResponse response, Object key, ByteSource content, long size)
+      throws IOException {
+    response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    if (size <= maxEntrySize) {
+      byte[] compressed = getCompressed(key, content);
+      response.setContentLength(compressed.length);
+      try (OutputStream responseStream = response.getOutputStream()) {
+        responseStream.write(compressed);
+      }
+      recordServed(size, compressed.length);
+    } else {
+      uncachedResponseCount.incrementAndGet();
+      CountingOutputStream responseStream = new CountingOutputStream(response.getOutputStream());
+      long uncompressedSize;
+      try (InputStream input = content.openStream();
+           OutputStream gzipStream = new GZIPOutputStream(responseStream, BUFFER_SIZE)) {
+        uncompressedSize = ByteStreams.copy(input, gzipStream);
+      }
+      recordServed(uncompressedSize, responseStream.getCount());
+    }
+  }
+
+  /**
+   * Record that a compressed variant was served, for metrics.
+   *
+   * @param uncompressedSize the size of the original content
+   * @param compressedSize   the number of bytes actually sent
+   */
+  public void recordServed(long uncompressedSize, long compressedSize) {
+    uncompressedBytesServed.addAndGet(uncompressedSize);
+    compressedBytesServed.addAndGet(compressedSize);
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "gzipVariantCache";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = MetricsSource.describeCacheStats(cache.stats());
+    metrics.put("entryCount", cache.size());
+    metrics.put("cachedBytes", cache.asMap().values().stream().mapToLong(compressed -> compressed.length).sum());
+    metrics.put("uncachedResponseCount", uncachedResponseCount.get());
+    metrics.put("uncompressedBytesServed", uncompressedBytesServed.get());
+    metrics.put("compressedBytesServed", compressedBytesServed.get());
+    return metrics;
+  }
+
+}
@@ -23,6 +23,7 @@
 package org.ambraproject.rhino.rest.controller;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -37,6 +38,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.wordnik.swagger.annotations.ApiImplicitParam;
 import com.wordnik.swagger.annotations.ApiParam;
 
@@ -48,12 +50,17 @@ import org.ambraproject.rhino.model.ArticleRevision;
 import org.ambraproject.rhino.model.Category;
 import org.ambraproject.rhino.rest.DoiEscaping;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.service.ArticleDoiCursor;
+import org.ambraproject.rhino.service.ArticleExportService;
 import org.ambraproject.rhino.service.ArticleListCrudService;
 import org.ambraproject.rhino.service.ArticleRevisionWriteService;
 import org.ambraproject.rhino.service.CommentCrudService;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
+import org.ambraproject.rhino.view.FieldSelection;
+import org.ambraproject.rhino.view.article.ArticleDoiPage;
 import org.ambraproject.rhino.view.article.ArticleRevisionView;
 import org.ambraproject.rhino.view.article.RelationshipViewFactory;
 import org.apache.commons.lang3.StringUtils;
@@ -86,11 +93,15 @@ public class ArticleCrudController extends RestController {
 
   private static final String TO_DATE = "toDate";
 
+  private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson;charset=UTF-8";
+
   @Autowired
   private ArticleCrudService articleCrudService;
   @Autowired
   private ArticleRevisionWriteService articleRevisionWriteService;
   @Autowired
+  private ArticleExportService articleExportService;
+  @Autowired
   private CommentCrudService commentCrudService;
   @Autowired
   private AssetFileCrudController assetFileCrudController;
@@ -100,6 +111,12 @@ public class ArticleCrudController extends RestController {
   private TaxonomyService taxonomyService;
   @Autowired
   private RelationshipViewFactory relationshipViewFactory;
+  @Autowired
+  private JsonResponseCache jsonResponseCache;
+
+  private static Collection<String> getResponseTags(ArticleIdentifier articleId) {
+    return ImmutableSet.of(JsonResponseCache.articleTag(articleId));
+  }
 
   /**
    * Calculate the date range using the specified rule. For example:
@@ -169,14 +186,14 @@ public class ArticleCrudController extends RestController {
 
   @Transactional(readOnly = true)
   @RequestMapping(value = "/articles/page/{pageNumber}", method = RequestMethod.GET)
-  public ResponseEntity<?> listDois(
+  public void listDois(
+      HttpServletResponse response,
       @PathVariable(value="pageNumber") int pageNumber,
       @RequestParam(value="pageSize", required=false, defaultValue="100") int pageSize,
       @RequestParam(value="orderBy", required=false, defaultValue="newest") String orderBy,
       @RequestParam(value="since", required=false, defaultValue="") String sinceRule)
           throws IOException {
-    final ArticleCrudService.SortOrder sortOrder = ArticleCrudService.SortOrder.valueOf(
-        StringUtils.upperCase(StringUtils.defaultString(orderBy, "newest" /* defaultStr */)));
+    final ArticleCrudService.SortOrder sortOrder = parseSortOrder(orderBy);
 
     final Map<String, LocalDateTime>dateRange = calculateDateRange(sinceRule);
     final Optional<LocalDateTime> fromDate = Optional.ofNullable(dateRange.getOrDefault(
@@ -185,22 +202,84 @@ public class ArticleCrudController extends RestController {
         TO_DATE, null));
     final Collection<String> articleDois = articleCrudService.getArticleDoisForDateRange(
         pageNumber, pageSize, sortOrder, fromDate, toDate);
-    return ServiceResponse.serveView(articleDois).asJsonResponse(entityGson);
+    ServiceResponse.serveView(articleDois).writeTo(response, entityGson);
+  }
+
+  /**
+   * List article DOIs a page at a time by following cursors, rather than by page number. Each page but the last
+   * includes a {@code nextCursor} value to send as the {@code cursor} parameter for the next page. The total number of
+   * articles is included only if {@code count=true}, because counting them costs as much as a deep page.
+   */
+  @Transactional(readOnly = true)
+  @RequestMapping(value = "/articles/page", method = RequestMethod.GET)
+  public ResponseEntity<?> listDoisAfterCursor(
+      @RequestParam(value="cursor", required=false) String cursor,
+      @RequestParam(value="pageSize", required=false, defaultValue="100") int pageSize,
+      @RequestParam(value="orderBy", required=false, defaultValue="newest") String orderBy,
+      @RequestParam(value="since", required=false, defaultValue="") String sinceRule,
+      @RequestParam(value="count", required=false, defaultValue="false") boolean countTotal)
+          throws IOException {
+    final ArticleCrudService.SortOrder sortOrder = parseSortOrder(orderBy);
+    final Optional<ArticleDoiCursor> startAfter = StringUtils.isEmpty(cursor) ? Optional.empty()
+        : Optional.of(ArticleDoiCursor.decode(cursor));
+
+    final Map<String, LocalDateTime>dateRange = calculateDateRange(sinceRule);
+    final Optional<LocalDateTime> fromDate = Optional.ofNullable(dateRange.getOrDefault(
+        FROM_DATE, null));
+    final Optional<LocalDateTime> toDate = Optional.ofNullable(dateRange.getOrDefault(
+        TO_DATE, null));
+    final ArticleDoiPage page = articleCrudService.getArticleDoiPage(
+        startAfter, pageSize, sortOrder, fromDate, toDate, countTotal);
+    return ServiceResponse.serveView(page).asJsonResponse(entityGson);
+  }
+
+  /**
+   * Stream the metadata of every article and its revisions as newline-delimited JSON, one article per line, so that a
+   * whole corpus can be synchronized with one request.
+   */
+  @RequestMapping(value = "/articles/export", method = RequestMethod.GET)
+  public void exportArticles(HttpServletResponse response,
+                             @ApiParam(value = "Date Format: yyyy-MM-dd")
+                             @RequestParam(value = "fromDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
+                             @ApiParam(value = "Date Format: yyyy-MM-dd")
+                             @RequestParam(value = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate,
+                             @RequestParam(value = "journal", required = false) String journalKey)
+      throws IOException {
+    response.setContentType(NDJSON_CONTENT_TYPE);
+    try (OutputStream responseStream = response.getOutputStream()) {
+      articleExportService.exportArticles(Optional.ofNullable(fromDate), Optional.ofNullable(toDate),
+          Optional.ofNullable(journalKey), responseStream);
+    }
+  }
+
+  private static ArticleCrudService.SortOrder parseSortOrder(String orderBy) {
+    return ArticleCrudService.SortOrder.valueOf(
+        StringUtils.upperCase(StringUtils.defaultString(orderBy, "newest" /* defaultStr */)));
   }
 
   /**
    * Read article metadata.
+   * <p>
+   * The optional {@code fields} parameter is a comma-separated list of the top-level members to include, such as
+   * {@code fields=doi,title,publicationDate,journal}. Selecting only members that are stored in the database avoids
+   * reading the manuscript.
    *
    * @throws IOException
    */
   @Transactional(readOnly = true)
   @RequestMapping(value = "/articles/{doi}/ingestions/{number}", method = RequestMethod.GET)
   public ResponseEntity<?> read(@RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) Date ifModifiedSince,
+                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                 @PathVariable("doi") String doi,
-                                @PathVariable("number") int ingestionNumber)
+                                @PathVariable("number") int ingestionNumber,
+                                @RequestParam(value = "fields", required = false) String fieldsParameter)
       throws IOException {
     ArticleIngestionIdentifier ingestionId = ArticleIngestionIdentifier.create(DoiEscaping.unescape(doi), ingestionNumber);
-    return articleCrudService.serveMetadata(ingestionId).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    FieldSelection fields = FieldSelection.parse(fieldsParameter);
+    String cacheKey = "metadata:" + ingestionId + (fields.isAll() ? "" : "?fields=" + fields);
+    return jsonResponseCache.serve(cacheKey, getResponseTags(ingestionId.getArticleIdentifier()),
+        articleCrudService.serveMetadata(ingestionId, fields), ifNoneMatch, ifModifiedSince)
+        .asJsonResponse(entityGson);
   }
 
   @Transactional()
@@ -236,7 +315,28 @@ public class ArticleCrudController extends RestController {
   public ResponseEntity<?> getRevisions(@PathVariable("doi") String doi)
       throws IOException {
     ArticleIdentifier id = ArticleIdentifier.create(DoiEscaping.unescape(doi));
-    return articleCrudService.serveOverview(id).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("overview:" + id, getResponseTags(id),
+        () -> articleCrudService.serveOverview(id))
+        .asJsonResponse(entityGson);
+  }
+
+  /**
+   * Read a revision and the overview of each of many articles in one request, such as all the articles on a page of
+   * search results. Articles are read with a constant number of queries, and an article that cannot be read is
+   * reported under {@code "errors"} instead of failing the request.
+   * <p>
+   * The optional {@code revision} parameter, if present, must give a revision number for each {@code doi} parameter, in
+   * the same order. Otherwise, each article's latest revision is read.
+   */
+  @Transactional(readOnly = true)
+  @RequestMapping(value = "/articles", method = RequestMethod.GET, params = "doi")
+  public ResponseEntity<?> readBatch(@RequestParam("doi") List<String> dois,
+                                     @RequestParam(value = "revision", required = false) List<Integer> revisionNumbers)
+      throws IOException {
+    if (revisionNumbers != null && revisionNumbers.size() != dois.size()) {
+      throw new RestClientException("Must give one revision for each DOI, or none", HttpStatus.BAD_REQUEST);
+    }
+    return articleCrudService.serveBatch(dois, revisionNumbers).asJsonResponse(entityGson);
   }
 
   @Transactional(readOnly = true)
@@ -244,17 +344,22 @@ public class ArticleCrudController extends RestController {
   public ResponseEntity<?> readRevisions(@PathVariable("doi") String doi)
       throws IOException {
     ArticleIdentifier id = ArticleIdentifier.create(DoiEscaping.unescape(doi));
-    return articleCrudService.serveRevisions(id).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("revisions:" + id, getResponseTags(id),
+        () -> articleCrudService.serveRevisions(id))
+        .asJsonResponse(entityGson);
   }
 
   @Transactional(readOnly = true)
   @RequestMapping(value = "/articles/{doi}/revisions/{revision}", method = RequestMethod.GET)
   public ResponseEntity<?> readRevision(@RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) Date ifModifiedSince,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                         @PathVariable("doi") String doi,
                                         @PathVariable(value = "revision") Integer revisionNumber)
       throws IOException {
     ArticleRevisionIdentifier id = ArticleRevisionIdentifier.create(DoiEscaping.unescape(doi), revisionNumber);
-    return articleCrudService.serveRevision(id).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("revision:" + id, getResponseTags(id.getArticleIdentifier()),
+        articleCrudService.serveRevision(id), ifNoneMatch, ifModifiedSince)
+        .asJsonResponse(entityGson);
   }
 
   @Transactional(readOnly = false)
@@ -288,11 +393,14 @@ public class ArticleCrudController extends RestController {
 
   @RequestMapping(value = "/articles/{doi}/ingestions/{number}/items", method = RequestMethod.GET)
   public ResponseEntity<?> readItems(@RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) Date ifModifiedSince,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                      @PathVariable("doi") String doi,
                                      @PathVariable("number") int ingestionNumber)
       throws IOException {
     ArticleIngestionIdentifier ingestionId = ArticleIngestionIdentifier.create(DoiEscaping.unescape(doi), ingestionNumber);
-    return articleCrudService.serveItems(ingestionId).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("items:" + ingestionId, getResponseTags(ingestionId.getArticleIdentifier()),
+        articleCrudService.serveItems(ingestionId), ifNoneMatch, ifModifiedSince)
+        .asJsonResponse(entityGson);
   }
 
   /**
@@ -303,10 +411,13 @@ public class ArticleCrudController extends RestController {
    */
   @Transactional(readOnly = true)
   @RequestMapping(value = "/articles/{doi}/comments", method = RequestMethod.GET)
-  public ResponseEntity<?> readComments(@PathVariable("doi") String doi)
+  public ResponseEntity<?> readComments(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @PathVariable("doi") String doi)
       throws IOException {
     ArticleIdentifier id = ArticleIdentifier.create(DoiEscaping.unescape(doi));
-    return commentCrudService.serveComments(id).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("comments:" + id, getResponseTags(id),
+        commentCrudService.serveComments(id), ifNoneMatch, null)
+        .asJsonResponse(entityGson);
   }
 
   // TODO: Get rid of this?
@@ -340,12 +451,15 @@ public class ArticleCrudController extends RestController {
   @Transactional(readOnly = true)
   @RequestMapping(value = "/articles/{doi}/ingestions/{number}/authors", method = RequestMethod.GET)
   public ResponseEntity<?> readAuthors(@RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) Date ifModifiedSince,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
                                        @PathVariable("doi") String doi,
                                        @PathVariable("number") int ingestionNumber)
       throws IOException {
 
     ArticleIngestionIdentifier ingestionId = ArticleIngestionIdentifier.create(DoiEscaping.unescape(doi), ingestionNumber);
-    return articleCrudService.serveAuthors(ingestionId).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("authors:" + ingestionId, getResponseTags(ingestionId.getArticleIdentifier()),
+        articleCrudService.serveAuthors(ingestionId), ifNoneMatch, ifModifiedSince)
+        .asJsonResponse(entityGson);
   }
 
   /**
@@ -476,29 +590,31 @@ public class ArticleCrudController extends RestController {
   @RequestMapping(value = "/articles", method = RequestMethod.GET, params = "published")
   @ApiImplicitParam(name = "published", value = "published flag (any value)", required = true,
       defaultValue = "published", paramType = "query", dataType = "string")
-  public ResponseEntity<?> getDoisPublishedOn(@ApiParam(value = "Date Format: yyyy-MM-dd")
-                                              @RequestParam(value = "fromDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
-                                              @ApiParam(value = "Date Format: yyyy-MM-dd")
-                                              @RequestParam(value = "toDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate,
-                                              @RequestParam(value = "bucketName", required = false) String bucketName) throws IOException {
+  public void getDoisPublishedOn(HttpServletResponse response,
+                                 @ApiParam(value = "Date Format: yyyy-MM-dd")
+                                 @RequestParam(value = "fromDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
+                                 @ApiParam(value = "Date Format: yyyy-MM-dd")
+                                 @RequestParam(value = "toDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate,
+                                 @RequestParam(value = "bucketName", required = false) String bucketName) throws IOException {
     List<ArticleRevisionView> views = articleCrudService.getArticlesPublishedOn(fromDate, toDate, bucketName)
         .stream().map(ArticleRevisionView::getView)
         .collect(Collectors.toList());
-    return ServiceResponse.serveView(views).asJsonResponse(entityGson);
+    ServiceResponse.serveView(views).writeTo(response, entityGson);
   }
 
   @Transactional(readOnly = true)
   @RequestMapping(value = "/articles", method = RequestMethod.GET, params = "revised")
   @ApiImplicitParam(name = "revised", value = "revised flag (any value)", required = true,
       defaultValue = "revised", paramType = "query", dataType = "string")
-  public ResponseEntity<?> getDoisRevisedOn(@ApiParam(value = "Date Format: yyyy-MM-dd")
-                                            @RequestParam(value = "fromDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
-                                            @ApiParam(value = "Date Format: yyyy-MM-dd")
-                                            @RequestParam(value = "toDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate,
-                                            @RequestParam(value = "bucketName", required = false) String bucketName) throws IOException {
+  public void getDoisRevisedOn(HttpServletResponse response,
+                               @ApiParam(value = "Date Format: yyyy-MM-dd")
+                               @RequestParam(value = "fromDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
+                               @ApiParam(value = "Date Format: yyyy-MM-dd")
+                               @RequestParam(value = "toDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate,
+                               @RequestParam(value = "bucketName", required = false) String bucketName) throws IOException {
     List<ArticleRevisionView> views = articleCrudService.getArticlesRevisedOn(fromDate, toDate, bucketName)
         .stream().map(ArticleRevisionView::getView)
         .collect(Collectors.toList());
-    return ServiceResponse.serveView(views).asJsonResponse(entityGson);
+    ServiceResponse.serveView(views).writeTo(response, entityGson);
   }
 }
@@ -27,6 +27,7 @@ import com.wordnik.swagger.annotations.ApiImplicitParam;
 import org.ambraproject.rhino.identity.ArticleIdentifier;
 import org.ambraproject.rhino.identity.ArticleListIdentity;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.ArticleListCrudService;
 import org.ambraproject.rhino.view.article.ListInputView;
@@ -39,6 +40,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
@@ -49,6 +51,10 @@ public class ArticleListCrudController extends RestController {
 
   @Autowired
   private ArticleListCrudService articleListCrudService;
+  @Autowired
+  private JsonResponseCache jsonResponseCache;
+
+  private static final ImmutableSet<String> RESPONSE_TAGS = ImmutableSet.of(JsonResponseCache.ARTICLE_LISTS_TAG);
 
   private static RestClientException complainAboutRequiredListIdentity(Exception cause) {
     return new RestClientException("type, journal, and key are required", HttpStatus.BAD_REQUEST, cause);
@@ -113,35 +119,97 @@ public class ArticleListCrudController extends RestController {
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
+  /**
+   * Read the "articleDois" member from the body of a request that changes a list's membership. Other members are not
+   * allowed.
+   */
+  private ImmutableSet<ArticleIdentifier> readArticleIdsFromRequest(HttpServletRequest request) throws IOException {
+    final ListInputView inputView;
+    try {
+      inputView = readJsonFromRequest(request, ListInputView.class);
+    } catch (ListInputView.PartialIdentityException e) {
+      throw complainAboutListIdentityOnPatch(e);
+    }
+    if (inputView.getIdentity().isPresent()) {
+      throw complainAboutListIdentityOnPatch(null);
+    }
+    if (inputView.getTitle().isPresent()) {
+      throw new RestClientException("title cannot be changed when adding or removing articles", HttpStatus.BAD_REQUEST);
+    }
+    return inputView.getArticleIds()
+        .orElseThrow(() -> new RestClientException("articleDois required", HttpStatus.BAD_REQUEST));
+  }
+
   @Transactional(rollbackFor = {Throwable.class})
+  @RequestMapping(value = "/lists/{type}/journals/{journal}/keys/{key}/articles", method = RequestMethod.POST)
+  @ApiImplicitParam(name = "body", paramType = "body", dataType = "ListInputView",
+      value = "example: {\"articleDois\": [\"10.1371/journal.pone.0012345\"]}")
+  public ResponseEntity<?> addArticles(HttpServletRequest request,
+                                       @PathVariable("type") String type,
+                                       @PathVariable("journal") String journalKey,
+                                       @PathVariable("key") String key)
+      throws IOException {
+    ArticleListIdentity identity = new ArticleListIdentity(type, journalKey, key);
+    articleListCrudService.addArticles(identity, readArticleIdsFromRequest(request));
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
+  @Transactional(rollbackFor = {Throwable.class})
+  @RequestMapping(value = "/lists/{type}/journals/{journal}/keys/{key}/articles", method = RequestMethod.DELETE)
+  @ApiImplicitParam(name = "body", paramType = "body", dataType = "ListInputView",
+      value = "example: {\"articleDois\": [\"10.1371/journal.pone.0012345\"]}")
+  public ResponseEntity<?> removeArticles(HttpServletRequest request,
+                                          @PathVariable("type") String type,
+                                          @PathVariable("journal") String journalKey,
+                                          @PathVariable("key") String key)
+      throws IOException {
+    ArticleListIdentity identity = new ArticleListIdentity(type, journalKey, key);
+    articleListCrudService.removeArticles(identity, readArticleIdsFromRequest(request));
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
+  @Transactional(readOnly = true)
   @RequestMapping(value = "/lists", method = RequestMethod.GET)
   public ResponseEntity<?> listAll() throws IOException {
-    return articleListCrudService.readAll().asJsonResponse(entityGson);
+    return jsonResponseCache.serve("lists", RESPONSE_TAGS, () -> articleListCrudService.readAll())
+        .asJsonResponse(entityGson);
   }
 
-  @Transactional(rollbackFor = {Throwable.class})
+  @Transactional(readOnly = true)
   @RequestMapping(value = "/lists/{type}", method = RequestMethod.GET)
   public ResponseEntity<?> listAll(@PathVariable("type") String type)
       throws IOException {
-    return articleListCrudService.readAll(type, Optional.empty()).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("lists:" + type, RESPONSE_TAGS,
+        () -> articleListCrudService.readAll(type, Optional.empty()))
+        .asJsonResponse(entityGson);
   }
 
-  @Transactional(rollbackFor = {Throwable.class})
+  @Transactional(readOnly = true)
   @RequestMapping(value = "/lists/{type}/journals/{journal}", method = RequestMethod.GET)
   public ResponseEntity<?> listAll(@PathVariable("type") String type,
                                    @PathVariable("journal") String journalKey)
       throws IOException {
-    return articleListCrudService.readAll(type, Optional.of(journalKey)).asJsonResponse(entityGson);
+    return jsonResponseCache.serve("lists:" + type + "/" + journalKey, RESPONSE_TAGS,
+        () -> articleListCrudService.readAll(type, Optional.of(journalKey)))
+        .asJsonResponse(entityGson);
   }
 
-  @Transactional(rollbackFor = {Throwable.class})
+  @Transactional(readOnly = true)
   @RequestMapping(value = "/lists/{type}/journals/{journal}/keys/{key}", method = RequestMethod.GET)
   public ResponseEntity<?> read(@PathVariable("type") String type,
                                 @PathVariable("journal") String journalKey,
-                                @PathVariable("key") String key)
+                                @PathVariable("key") String key,
+                                @RequestParam(value = "page", required = false) Integer pageNumber,
+                                @RequestParam(value = "pageSize", required = false, defaultValue = "100") int pageSize)
       throws IOException {
     ArticleListIdentity identity = new ArticleListIdentity(type, journalKey, key);
-    return articleListCrudService.read(identity).asJsonResponse(entityGson);
+    if (pageNumber != null) {
+      return jsonResponseCache.serve("list:" + identity + "?page=" + pageNumber + "&pageSize=" + pageSize,
+          RESPONSE_TAGS, () -> articleListCrudService.readPage(identity, pageNumber, pageSize))
+          .asJsonResponse(entityGson);
+    }
+    return jsonResponseCache.serve("list:" + identity, RESPONSE_TAGS, () -> articleListCrudService.read(identity))
+        .asJsonResponse(entityGson);
   }
 
 }
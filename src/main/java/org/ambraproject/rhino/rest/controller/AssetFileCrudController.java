@@ -30,14 +30,17 @@ import java.sql.Timestamp;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
 import com.google.common.net.HttpHeaders;
 import com.wordnik.swagger.annotations.ApiImplicitParam;
 
 import org.ambraproject.rhino.identity.ArticleFileIdentifier;
 import org.ambraproject.rhino.rest.DoiEscaping;
+import org.ambraproject.rhino.rest.GzipVariantCache;
 import org.ambraproject.rhino.rest.RestClientException;
 import org.ambraproject.rhino.service.AssetCrudService;
+import org.plos.crepo.model.identity.RepoVersion;
 import org.plos.crepo.model.metadata.RepoObjectMetadata;
 import org.plos.crepo.service.ContentRepoService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,6 +58,8 @@ public class AssetFileCrudController extends RestController {
   private AssetCrudService assetCrudService;
   @Autowired
   private ContentRepoService contentRepoService;
+  @Autowired
+  private GzipVariantCache gzipVariantCache;
 
 
   private void serve(HttpServletRequest request, HttpServletResponse response, RepoObjectMetadata objMeta)
@@ -68,6 +73,12 @@ public class AssetFileCrudController extends RestController {
       response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
     });
 
+    // Vary must be sent with a 304 as well as a 200, so that caches keep the gzip and identity variants apart
+    boolean compressible = GzipVariantCache.isCompressible(objMeta.getContentType().orElse(null));
+    if (compressible) {
+      response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
     Timestamp timestamp = objMeta.getTimestamp();
     setLastModifiedHeader(response, timestamp);
     if (!checkIfModifiedSince(request, timestamp)) {
@@ -75,6 +86,18 @@ public class AssetFileCrudController extends RestController {
       return;
     }
 
+    if (compressible && GzipVariantCache.acceptsGzip(request)) {
+      RepoVersion version = objMeta.getVersion();
+      ByteSource content = new ByteSource() {
+        @Override
+        public InputStream openStream() throws IOException {
+          return contentRepoService.getRepoObject(version);
+        }
+      };
+      gzipVariantCache.serveCompressed(response, version, content, objMeta.getSize());
+      return;
+    }
+
     try (InputStream fileStream = contentRepoService.getRepoObject(objMeta.getVersion());
          OutputStream responseStream = response.getOutputStream()) {
       ByteStreams.copy(fileStream, responseStream);
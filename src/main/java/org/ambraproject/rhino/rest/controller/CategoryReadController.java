@@ -28,13 +28,13 @@ import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
@@ -51,11 +51,12 @@ public class CategoryReadController extends RestController {
    */
   @Transactional(readOnly = true)
   @RequestMapping(value = "/categoryFlags", method = RequestMethod.GET, params = "created")
-  public ResponseEntity<?> getFlagsCreatedOn(@ApiParam(value = "Date Format: yyyy-MM-dd")
-                                             @RequestParam(value = "fromDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
-                                             @ApiParam(value = "Date Format: yyyy-MM-dd")
-                                             @RequestParam(value = "toDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate) throws IOException {
+  public void getFlagsCreatedOn(HttpServletResponse response,
+                                @ApiParam(value = "Date Format: yyyy-MM-dd")
+                                @RequestParam(value = "fromDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
+                                @ApiParam(value = "Date Format: yyyy-MM-dd")
+                                @RequestParam(value = "toDate") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate) throws IOException {
     List<ArticleCategoryAssignmentFlag> flags = taxonomyService.getFlagsCreatedOn(fromDate, toDate);
-    return ServiceResponse.serveView(flags).asJsonResponse(entityGson);
+    ServiceResponse.serveView(flags).writeTo(response, entityGson);
   }
 }
@@ -84,8 +84,8 @@ public class CommentCrudController extends RestController {
   @RequestMapping(value = "/comments", method = RequestMethod.GET, params = {"flagged"})
   @ApiImplicitParam(name = "flagged", value = "flagged flag (any value)", required = true,
       defaultValue = "flagged", paramType = "query", dataType = "string")
-  public ResponseEntity<?> readAllFlaggedComments() throws IOException {
-    return commentCrudService.serveFlaggedComments().asJsonResponse(entityGson);
+  public void readAllFlaggedComments(HttpServletResponse response) throws IOException {
+    commentCrudService.serveFlaggedComments().writeTo(response, entityGson);
   }
 
   /**
@@ -94,31 +94,33 @@ public class CommentCrudController extends RestController {
    */
   @Transactional(readOnly = true)
   @RequestMapping(value = "/comments", method = RequestMethod.GET, params = "created")
-  public ResponseEntity<?> getCommentsCreatedOn(@ApiParam(value = "Date Format: yyyy-MM-dd")
-                                                @RequestParam(value = "date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date)
+  public void getCommentsCreatedOn(HttpServletResponse response,
+                                   @ApiParam(value = "Date Format: yyyy-MM-dd")
+                                   @RequestParam(value = "date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date)
       throws IOException {
-    return commentCrudService.getCommentsCreatedOn(date).asJsonResponse(entityGson);
+    commentCrudService.getCommentsCreatedOn(date).writeTo(response, entityGson);
   }
 
   @Transactional(readOnly = true)
   @RequestMapping(value = "/comments", method = RequestMethod.GET, params = "journal")
-  public ResponseEntity<?> getRecentComments(@RequestParam(value = "journal") String journalKey,
+  public void getRecentComments(HttpServletResponse response,
+                                @RequestParam(value = "journal") String journalKey,
                                 @RequestParam(value = "limit", required = false) Integer limit)
       throws IOException {
     OptionalInt limitObj = (limit == null) ? OptionalInt.empty() : OptionalInt.of(limit);
-    return commentCrudService.readRecentComments(journalKey, limitObj).asJsonResponse(entityGson);
+    commentCrudService.readRecentComments(journalKey, limitObj).writeTo(response, entityGson);
   }
 
   @RequestMapping(value = "/commentFlags", method = RequestMethod.GET)
-  public ResponseEntity<?> readAllFlags()
+  public void readAllFlags(HttpServletResponse response)
       throws IOException {
-    return commentCrudService.readAllCommentFlags().asJsonResponse(entityGson);
+    commentCrudService.readAllCommentFlags().writeTo(response, entityGson);
   }
 
   @RequestMapping(value = "/commentFlags", method = RequestMethod.GET, params = {"journal"})
-  public ResponseEntity<?> readAllFlagsByJournal(@RequestParam("journal") String journalKey)
+  public void readAllFlagsByJournal(HttpServletResponse response, @RequestParam("journal") String journalKey)
       throws IOException {
-    return commentCrudService.readCommentFlagsForJournal(journalKey).asJsonResponse(entityGson);
+    commentCrudService.readCommentFlagsForJournal(journalKey).writeTo(response, entityGson);
   }
 
   @RequestMapping(value = "/articles/{articleDoi}/comments", method = RequestMethod.POST)
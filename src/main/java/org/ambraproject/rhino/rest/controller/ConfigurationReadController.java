@@ -69,6 +69,9 @@ public class ConfigurationReadController extends RestController {
       case "run":
         response = configurationReadService.readRunInfo();
         break;
+      case "metrics":
+        response = configurationReadService.readMetrics();
+        break;
       default:
         throw new RestClientException("Invalid configuration type parameter. Options are: " +
             ConfigurationReadService.CONFIG_TYPES.toString(), HttpStatus.BAD_REQUEST);
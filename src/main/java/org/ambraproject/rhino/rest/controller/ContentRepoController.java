@@ -22,71 +22,172 @@
 
 package org.ambraproject.rhino.rest.controller;
 
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import com.google.common.net.HttpHeaders;
 import org.ambraproject.rhino.config.RuntimeConfiguration;
-import org.apache.commons.io.IOUtils;
+import org.ambraproject.rhino.rest.GzipVariantCache;
+import org.ambraproject.rhino.rest.response.EntityTags;
+import org.ambraproject.rhino.service.EditorialContentService;
+import org.ambraproject.rhino.service.EditorialObject;
+import org.ambraproject.rhino.util.ContentTypeInference;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.Reader;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Date;
 
 @Controller
 public class ContentRepoController extends RestController {
 
+  /**
+   * Request attribute with which Tomcat advertises that it can send a file from disk without copying it through the
+   * JVM. See {@code org.apache.catalina.servlets.DefaultServlet}.
+   */
+  private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
   @Autowired
   private RuntimeConfiguration runtimeConfiguration;
+  @Autowired
+  private EditorialContentService editorialContentService;
+  @Autowired
+  private GzipVariantCache gzipVariantCache;
 
   @RequestMapping(value = "repo/{key}/{version}", method = RequestMethod.GET)
-  public ResponseEntity<?> serve(@PathVariable("key") String key,
-                                 @PathVariable("version") String version)
+  public void serve(HttpServletRequest request, HttpServletResponse response,
+                    @PathVariable("key") String key,
+                    @PathVariable("version") String version)
       throws IOException {
     RuntimeConfiguration.ContentRepoEndpoint editorialBucket = runtimeConfiguration.getEditorialStorage();
     URI address;
-    String bucketName;
     if (editorialBucket == null
         || (address = editorialBucket.getAddress()) == null
-        || (bucketName = editorialBucket.getDefaultBucket()) == null) {
+        || editorialBucket.getDefaultBucket() == null) {
       throw new RuntimeException("contentRepo.editorial is not configured");
     }
     if ("file".equals(address.getScheme())) {
-      return serveInDevMode(address, key, version);
+      serveInDevMode(request, response, address, key);
+    } else {
+      serveFromRemoteRepo(request, response, key, version);
     }
-
-    return serveFromRemoteRepo(address, bucketName, key, version);
-
-
   }
 
-  private static ResponseEntity<?> serveFromRemoteRepo(URI contentRepoAddress,
-                                                       String bucket, String key, String version) {
-    URI location = URI.create(String.format("%s/objects/%s?key=%s", // TODO Use version
-        contentRepoAddress, bucket, key));
-    HttpHeaders headers = new HttpHeaders();
-    headers.setLocation(location);
-    return new ResponseEntity<Object>(headers, HttpStatus.FOUND);
+  private void serveFromRemoteRepo(HttpServletRequest request, HttpServletResponse response,
+                                   String key, String version)
+      throws IOException {
+    EditorialObject object = editorialContentService.read(key, version);
+    Date lastModified = new Date(object.getLastModified().getEpochSecond() * 1000L);
+    boolean compressed = setContentHeaders(request, response, object.getContentType().orElse(null));
+    if (!setValidators(request, response, object.getEntityTag(), compressed, lastModified)) return;
+
+    byte[] content = object.getContent();
+    if (compressed) {
+      gzipVariantCache.serveCompressed(response, object.getEntityTag(), ByteSource.wrap(content), content.length);
+      return;
+    }
+    response.setContentLength(content.length);
+    try (OutputStream responseStream = response.getOutputStream()) {
+      responseStream.write(content);
+    }
   }
 
-  private static ResponseEntity<String> serveInDevMode(URI devModeRepo, String key, String version)
+  private void serveInDevMode(HttpServletRequest request, HttpServletResponse response, URI devModeRepo, String key)
       throws IOException {
     File path = new File(devModeRepo.getPath(), key);
-    if (!path.exists()) {
-      return respondWithStatus(HttpStatus.NOT_FOUND);
+    if (!path.isFile()) {
+      response.setStatus(HttpStatus.NOT_FOUND.value());
+      return;
+    }
+
+    // The file may be edited in place, so its timestamp and length identify its content.
+    long length = path.length();
+    long lastModifiedSeconds = path.lastModified() / 1000L; // the precision of the Last-Modified header
+    String entityTag = String.format("\"%x-%x\"", lastModifiedSeconds, length);
+    String contentType = Files.getFileExtension(key).isEmpty() ? null : ContentTypeInference.inferContentType(key);
+    boolean compressed = setContentHeaders(request, response, contentType);
+    if (!setValidators(request, response, entityTag, compressed, new Date(lastModifiedSeconds * 1000L))) return;
+
+    if (compressed) {
+      gzipVariantCache.serveCompressed(response, path.getPath() + ':' + entityTag, Files.asByteSource(path), length);
+      return;
+    }
+
+    response.setContentLengthLong(length);
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+      // Let the container send the file from its own I/O threads after this method returns.
+      request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.getCanonicalPath());
+      request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+      request.setAttribute(SENDFILE_END_ATTRIBUTE, length);
+      return;
+    }
+    try (FileChannel fileChannel = new FileInputStream(path).getChannel();
+         WritableByteChannel outputChannel = Channels.newChannel(response.getOutputStream())) {
+      long position = 0;
+      while (position < length) {
+        position += fileChannel.transferTo(position, length - position, outputChannel);
+      }
     }
+  }
+
+  /**
+   * Set the {@code ETag} and {@code Last-Modified} headers and check them against the request's conditional headers.
+   * As in RFC 7232, {@code If-Modified-Since} is ignored if the request has {@code If-None-Match}.
+   * <p>
+   * The gzip variant has its own entity tag, derived from the content's, so that {@code If-None-Match} is checked
+   * against the tag of the variant that would be sent.
+   *
+   * @param entityTag  the entity tag of the uncompressed content
+   * @param compressed whether the gzip variant is to be sent
+   * @return {@code true} if the content should be sent; {@code false} if a 304 response has been set
+   */
+  private boolean setValidators(HttpServletRequest request, HttpServletResponse response,
+                                String entityTag, boolean compressed, Date lastModified) {
+    if (compressed) {
+      entityTag = GzipVariantCache.getEntityTag(entityTag);
+    }
+    response.setHeader(HttpHeaders.ETAG, entityTag);
+    setLastModifiedHeader(response, lastModified);
+
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    boolean modified = (ifNoneMatch != null)
+        ? !EntityTags.matches(ifNoneMatch, entityTag)
+        : checkIfModifiedSince(request, lastModified);
+    if (!modified) {
+      response.setStatus(HttpStatus.NOT_MODIFIED.value());
+    }
+    return modified;
+  }
 
-    String responseBody;
-    try (Reader reader = new FileReader(path)) {
-      responseBody = IOUtils.toString(reader);
+  /**
+   * Set the {@code Content-Type} header and, if the content is compressible, {@code Vary: Accept-Encoding}. This is
+   * done before the validators are checked, so that a 304 response varies in the same way as a 200.
+   *
+   * @return {@code true} if the content is compressible and the client accepts gzip, so the gzip variant is to be sent
+   */
+  private static boolean setContentHeaders(HttpServletRequest request, HttpServletResponse response,
+                                           String contentType) {
+    if (contentType != null) {
+      response.setContentType(contentType);
     }
-    return new ResponseEntity<>(responseBody, HttpStatus.OK);
+    if (!GzipVariantCache.isCompressible(contentType)) return false;
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    return GzipVariantCache.acceptsGzip(request);
   }
 
 }
@@ -23,21 +23,32 @@
 package org.ambraproject.rhino.rest.controller;
 
 import com.google.common.net.HttpHeaders;
+import org.ambraproject.rhino.config.RuntimeConfiguration;
 import org.ambraproject.rhino.identity.ArticleIngestionIdentifier;
 import org.ambraproject.rhino.rest.DoiEscaping;
+import org.ambraproject.rhino.rest.response.EntityTags;
 import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.service.RepackedArchive;
 import org.ambraproject.rhino.util.Archive;
+import org.ambraproject.rhino.util.FileCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Controller providing services related to ingestible packages.
@@ -47,21 +58,109 @@ public class IngestibleController extends RestController {
 
   @Autowired
   private ArticleCrudService articleCrudService;
+  @Autowired
+  private RuntimeConfiguration runtimeConfiguration;
+  @Autowired
+  private ExecutorService repackPrefetchExecutor;
+  @Autowired
+  private FileCache repackCache;
 
   @Transactional(rollbackFor = {Throwable.class})
   @RequestMapping(value = "/articles/{doi}/ingestions/{number}/ingestible", method = RequestMethod.GET)
   public void repack(HttpServletResponse response,
                      @PathVariable("doi") String doi,
-                     @PathVariable("number") int ingestionNumber)
+                     @PathVariable("number") int ingestionNumber,
+                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                     @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                     @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange)
       throws IOException {
     ArticleIngestionIdentifier ingestionId = ArticleIngestionIdentifier.create(DoiEscaping.unescape(doi), ingestionNumber);
 
-    Archive archive = articleCrudService.repack(ingestionId);
+    if (repackCache.isEnabled()) {
+      try (RepackedArchive archive = articleCrudService.repackToFile(ingestionId)) {
+        // A Range request is honored only if the client's copy is still current
+        boolean rangeApplies = (ifRange == null) || ifRange.equals(archive.getEntityTag());
+        serveRepacked(response, archive, ifNoneMatch, rangeApplies ? range : null);
+      }
+    } else {
+      streamRepacked(response, articleCrudService.repack(ingestionId));
+    }
+  }
+
+  private void streamRepacked(HttpServletResponse response, Archive archive) throws IOException {
     response.setStatus(HttpStatus.OK.value());
     response.setContentType("application/zip");
     response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "filename=" + archive.getArchiveName());
+    response.flushBuffer(); // commit the headers before the first entry has been fetched
+
+    int prefetchDepth = runtimeConfiguration.getRepackConfiguration().getPrefetchDepth();
     try (OutputStream outputStream = response.getOutputStream()) {
-      archive.write(outputStream);
+      if (prefetchDepth > 0) {
+        archive.write(outputStream, repackPrefetchExecutor, prefetchDepth);
+      } else {
+        archive.write(outputStream);
+      }
+    }
+  }
+
+  private static final Pattern BYTE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+
+  /**
+   * Serve a repacked archive from disk, honoring a conditional request or a request for a single byte range. Requests
+   * for multiple ranges are answered with the whole archive.
+   *
+   * @param range the value of the {@code Range} header, or {@code null} to serve the whole archive
+   */
+  private static void serveRepacked(HttpServletResponse response, RepackedArchive archive,
+                                    String ifNoneMatch, String range)
+      throws IOException {
+    FileChannel content = archive.getContent();
+    long length = content.size();
+    response.setHeader(HttpHeaders.ETAG, archive.getEntityTag());
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "filename=" + archive.getArchiveName());
+
+    if (ifNoneMatch != null && EntityTags.matches(ifNoneMatch, archive.getEntityTag())) {
+      response.setStatus(HttpStatus.NOT_MODIFIED.value());
+      return;
+    }
+
+    long start = 0;
+    long end = length - 1;
+    Matcher rangeMatcher = (range == null) ? null : BYTE_RANGE.matcher(range.trim());
+    if (rangeMatcher != null && rangeMatcher.matches()
+        && !(rangeMatcher.group(1).isEmpty() && rangeMatcher.group(2).isEmpty())) {
+      try {
+        if (rangeMatcher.group(1).isEmpty()) {
+          start = Math.max(0, length - Long.parseLong(rangeMatcher.group(2))); // suffix range: the last N bytes
+          if (start == length) start = length + 1; // a zero-length suffix is unsatisfiable
+        } else {
+          start = Long.parseLong(rangeMatcher.group(1));
+          if (!rangeMatcher.group(2).isEmpty()) {
+            end = Math.min(end, Long.parseLong(rangeMatcher.group(2)));
+          }
+        }
+      } catch (NumberFormatException e) {
+        start = length + 1;
+      }
+      if (start > end) {
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        return;
+      }
+      response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+      response.setHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, length));
+    } else {
+      response.setStatus(HttpStatus.OK.value());
+    }
+
+    response.setContentType("application/zip");
+    response.setContentLengthLong(end - start + 1);
+    try (WritableByteChannel outputChannel = Channels.newChannel(response.getOutputStream())) {
+      long position = start;
+      while (position <= end) {
+        position += content.transferTo(position, end - position + 1, outputChannel);
+      }
     }
   }
 
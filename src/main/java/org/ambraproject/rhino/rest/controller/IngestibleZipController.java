@@ -28,6 +28,7 @@ import org.ambraproject.rhino.rest.RestClientException;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.impl.IngestionService;
 import org.ambraproject.rhino.util.Archive;
+import org.ambraproject.rhino.util.ArchiveBufferPool;
 import org.ambraproject.rhino.view.article.ArticleIngestionView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -50,6 +51,8 @@ public class IngestibleZipController extends RestController {
   private IngestionService ingestionService;
   @Autowired
   private ArticleIngestionView.Factory articleIngestionViewFactory;
+  @Autowired
+  private ArchiveBufferPool archiveBufferPool;
 
   /**
    * Create an article based on a POST containing an article .zip archive file.
@@ -66,7 +69,7 @@ public class IngestibleZipController extends RestController {
     String ingestedFileName = requestFile.getOriginalFilename();
     ArticleIngestion ingestion;
     try (InputStream requestInputStream = requestFile.getInputStream();
-         Archive archive = Archive.readZipFile(ingestedFileName, requestInputStream)) {
+         Archive archive = Archive.readZipFileIntoMemory(ingestedFileName, requestInputStream, archiveBufferPool)) {
       ingestion = ingestionService.ingest(archive, Optional.ofNullable(bucket));
     } catch (ManifestXml.ManifestDataException e) {
       throw new RestClientException("Invalid manifest: " + e.getMessage(), HttpStatus.BAD_REQUEST, e);
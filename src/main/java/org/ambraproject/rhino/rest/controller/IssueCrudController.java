@@ -22,6 +22,7 @@
 
 package org.ambraproject.rhino.rest.controller;
 
+import com.google.common.collect.ImmutableSet;
 import com.wordnik.swagger.annotations.ApiImplicitParam;
 import org.ambraproject.rhino.identity.IssueIdentifier;
 import org.ambraproject.rhino.identity.VolumeIdentifier;
@@ -29,8 +30,11 @@ import org.ambraproject.rhino.model.Issue;
 import org.ambraproject.rhino.model.Volume;
 import org.ambraproject.rhino.rest.DoiEscaping;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.CachedJsonResponse;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.IssueCrudService;
+import org.ambraproject.rhino.service.JournalTreeService;
 import org.ambraproject.rhino.service.VolumeCrudService;
 import org.ambraproject.rhino.view.article.ArticleRevisionView;
 import org.ambraproject.rhino.view.journal.IssueInputView;
@@ -51,6 +55,7 @@ import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Controller
@@ -62,6 +67,10 @@ public class IssueCrudController extends RestController {
   private VolumeCrudService volumeCrudService;
   @Autowired
   private IssueOutputView.Factory issueOutputViewFactory;
+  @Autowired
+  private JsonResponseCache jsonResponseCache;
+  @Autowired
+  private JournalTreeService journalTreeService;
 
   private IssueIdentifier getIssueId(String issueDoi) {
     return IssueIdentifier.create(DoiEscaping.unescape(issueDoi));
@@ -73,7 +82,13 @@ public class IssueCrudController extends RestController {
                                 @PathVariable("issueDoi") String issueDoi)
       throws IOException {
     IssueIdentifier issueId = getIssueId(issueDoi);
-    return issueCrudService.serveIssue(issueId).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    Optional<CachedJsonResponse> fromTree = journalTreeService.getJournalTree().getIssue(issueId);
+    if (fromTree.isPresent()) {
+      return fromTree.get().getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    }
+    return jsonResponseCache.serve("issue:" + issueId, ImmutableSet.of(JsonResponseCache.JOURNAL_HIERARCHY_TAG),
+        issueCrudService.serveIssue(issueId), null, ifModifiedSince)
+        .asJsonResponse(entityGson);
 
     // TODO: Equivalent alias methods for other HTTP methods?
   }
@@ -95,6 +110,10 @@ public class IssueCrudController extends RestController {
       throws IOException {
     // TODO: Validate journalKey
     VolumeIdentifier volumeId = VolumeIdentifier.create(DoiEscaping.unescape(volumeDoi));
+    Optional<CachedJsonResponse> fromTree = journalTreeService.getJournalTree().getIssues(volumeId);
+    if (fromTree.isPresent()) {
+      return fromTree.get().getIfModified(null).asJsonResponse(entityGson);
+    }
     Volume volume = volumeCrudService.readVolume(volumeId);
     List<IssueOutputView> views = volume.getIssues().stream()
         .map(issueOutputViewFactory::getView)
@@ -22,11 +22,15 @@
 
 package org.ambraproject.rhino.rest.controller;
 
+import com.google.common.collect.ImmutableSet;
 import com.wordnik.swagger.annotations.ApiImplicitParam;
 import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.CachedJsonResponse;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.JournalCrudService;
+import org.ambraproject.rhino.service.JournalTreeService;
 import org.ambraproject.rhino.view.journal.IssueOutputView;
 import org.ambraproject.rhino.view.journal.JournalInputView;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +47,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.Date;
+import java.util.Optional;
 
 @Controller
 public class JournalCrudController extends RestController {
@@ -51,12 +56,16 @@ public class JournalCrudController extends RestController {
   private JournalCrudService journalCrudService;
   @Autowired
   private IssueOutputView.Factory issueOutputViewFactory;
+  @Autowired
+  private JsonResponseCache jsonResponseCache;
+  @Autowired
+  private JournalTreeService journalTreeService;
 
   @Transactional(readOnly = true)
   @RequestMapping(value = "/journals", method = RequestMethod.GET)
   public ResponseEntity<?> listJournals()
       throws IOException {
-    return journalCrudService.listJournals().asJsonResponse(entityGson);
+    return journalTreeService.getJournalTree().getJournalList().getIfModified(null).asJsonResponse(entityGson);
   }
 
   @Transactional(readOnly = true)
@@ -64,7 +73,13 @@ public class JournalCrudController extends RestController {
   public ResponseEntity<?> read(@RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) Date ifModifiedSince,
                                 @PathVariable String journalKey)
       throws IOException {
-    return journalCrudService.serve(journalKey).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    Optional<CachedJsonResponse> fromTree = journalTreeService.getJournalTree().getJournal(journalKey);
+    if (fromTree.isPresent()) {
+      return fromTree.get().getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    }
+    return jsonResponseCache.serve("journal:" + journalKey, ImmutableSet.of(JsonResponseCache.JOURNAL_HIERARCHY_TAG),
+        journalCrudService.serve(journalKey), null, ifModifiedSince)
+        .asJsonResponse(entityGson);
   }
 
   @Transactional(rollbackFor = {Throwable.class})
@@ -84,6 +99,10 @@ public class JournalCrudController extends RestController {
   @RequestMapping(value = "/journals/{journalKey}/currentIssue", method = RequestMethod.GET)
   public ResponseEntity<?> readCurrentIssue(@PathVariable String journalKey)
       throws IOException {
+    Optional<CachedJsonResponse> fromTree = journalTreeService.getJournalTree().getCurrentIssue(journalKey);
+    if (fromTree.isPresent()) {
+      return fromTree.get().getIfModified(null).asJsonResponse(entityGson);
+    }
     Journal journal = journalCrudService.readJournal(journalKey);
     IssueOutputView view = issueOutputViewFactory.getCurrentIssueViewFor(journal)
         .orElseThrow(() -> new RestClientException("Current issue is not set for " + journalKey, HttpStatus.NOT_FOUND));
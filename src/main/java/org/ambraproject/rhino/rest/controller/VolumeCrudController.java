@@ -22,14 +22,18 @@
 
 package org.ambraproject.rhino.rest.controller;
 
+import com.google.common.collect.ImmutableSet;
 import com.wordnik.swagger.annotations.ApiImplicitParam;
 import org.ambraproject.rhino.identity.VolumeIdentifier;
 import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.model.Volume;
 import org.ambraproject.rhino.rest.DoiEscaping;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.CachedJsonResponse;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.JournalCrudService;
+import org.ambraproject.rhino.service.JournalTreeService;
 import org.ambraproject.rhino.service.VolumeCrudService;
 import org.ambraproject.rhino.view.journal.VolumeInputView;
 import org.ambraproject.rhino.view.journal.VolumeOutputView;
@@ -50,6 +54,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Controller
@@ -61,6 +66,10 @@ public class VolumeCrudController extends RestController {
   private JournalCrudService journalCrudService;
   @Autowired
   private VolumeOutputView.Factory volumeOutputViewFactory;
+  @Autowired
+  private JsonResponseCache jsonResponseCache;
+  @Autowired
+  private JournalTreeService journalTreeService;
 
   private static VolumeIdentifier getVolumeId(String volumeDoi) {
     return VolumeIdentifier.create(DoiEscaping.unescape(volumeDoi));
@@ -73,13 +82,23 @@ public class VolumeCrudController extends RestController {
                    @PathVariable("volumeDoi") String volumeDoi)
       throws IOException {
     VolumeIdentifier volumeId = getVolumeId(volumeDoi);
-    return volumeCrudService.serveVolume(volumeId).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    Optional<CachedJsonResponse> fromTree = journalTreeService.getJournalTree().getVolume(volumeId);
+    if (fromTree.isPresent()) {
+      return fromTree.get().getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    }
+    return jsonResponseCache.serve("volume:" + volumeId, ImmutableSet.of(JsonResponseCache.JOURNAL_HIERARCHY_TAG),
+        volumeCrudService.serveVolume(volumeId), null, ifModifiedSince)
+        .asJsonResponse(entityGson);
   }
 
   @Transactional(readOnly = true)
   @RequestMapping(value = "/journals/{journalKey}/volumes", method = RequestMethod.GET)
   public ResponseEntity<?> readVolumesForJournal(@PathVariable("journalKey") String journalKey)
       throws IOException {
+    Optional<CachedJsonResponse> fromTree = journalTreeService.getJournalTree().getVolumes(journalKey);
+    if (fromTree.isPresent()) {
+      return fromTree.get().getIfModified(null).asJsonResponse(entityGson);
+    }
     Journal journal = journalCrudService.readJournal(journalKey);
     List<VolumeOutputView> views = journal.getVolumes().stream()
         .map(volumeOutputViewFactory::getView)
@@ -95,7 +114,13 @@ public class VolumeCrudController extends RestController {
       throws IOException {
     // TODO: Validate journalKey
     VolumeIdentifier volumeId = getVolumeId(volumeDoi);
-    return volumeCrudService.serveVolume(volumeId).getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    Optional<CachedJsonResponse> fromTree = journalTreeService.getJournalTree().getVolume(volumeId);
+    if (fromTree.isPresent()) {
+      return fromTree.get().getIfModified(ifModifiedSince).asJsonResponse(entityGson);
+    }
+    return jsonResponseCache.serve("volume:" + volumeId, ImmutableSet.of(JsonResponseCache.JOURNAL_HIERARCHY_TAG),
+        volumeCrudService.serveVolume(volumeId), null, ifModifiedSince)
+        .asJsonResponse(entityGson);
   }
 
   @Transactional(rollbackFor = {Throwable.class})
@@ -32,17 +32,23 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
- * A response that has a timestamp showing the last-modified time of the represented data, which can be sent to the
- * client for caching and compared against an "If-Modified-Since" header.
+ * A response that has a timestamp showing the last-modified time of the represented data, a strong entity tag derived
+ * from the represented data's version, or both. These can be sent to the client for caching and compared against
+ * "If-Modified-Since" and "If-None-Match" headers before the view is built.
  */
 public final class CacheableResponse<T> {
 
   private final Supplier<? extends T> supplier;
   private final Instant lastModified;
+  private final String entityTag;
 
-  private CacheableResponse(Instant lastModified, Supplier<? extends T> supplier) {
+  private CacheableResponse(Instant lastModified, String entityTag, Supplier<? extends T> supplier) {
     this.supplier = Objects.requireNonNull(supplier);
-    this.lastModified = Objects.requireNonNull(lastModified);
+    if (lastModified == null && entityTag == null) {
+      throw new IllegalArgumentException("Requires a timestamp or an entity tag");
+    }
+    this.lastModified = lastModified;
+    this.entityTag = entityTag;
   }
 
   /**
@@ -53,7 +59,18 @@ public final class CacheableResponse<T> {
    * @return the response
    */
   public static <T> CacheableResponse<T> serveView(Instant lastModified, Supplier<? extends T> supplier) {
-    return new CacheableResponse<>(lastModified, supplier);
+    return new CacheableResponse<>(Objects.requireNonNull(lastModified), null, supplier);
+  }
+
+  /**
+   * Serve a view representing a piece of data that has no timestamp, but whose version is cheap to identify.
+   *
+   * @param entityTag a strong entity tag identifying the data's version (see {@link EntityTags#strong})
+   * @param supplier  a function that will supply the data when invoked
+   * @return the response
+   */
+  public static <T> CacheableResponse<T> serveVersionedView(String entityTag, Supplier<? extends T> supplier) {
+    return new CacheableResponse<>(null, Objects.requireNonNull(entityTag), supplier);
   }
 
   /**
@@ -70,7 +87,25 @@ public final class CacheableResponse<T> {
     Objects.requireNonNull(viewFunction);
     Supplier<T> supplier = () -> viewFunction.apply(entity);
     Instant lastModified = entity.getLastModified().toInstant();
-    return new CacheableResponse<>(lastModified, supplier);
+    return new CacheableResponse<>(lastModified, null, supplier);
+  }
+
+  /**
+   * Serve a view representing a timestamped entity, with an entity tag identifying its version.
+   *
+   * @param entity       the entity to represent in the response
+   * @param entityTag    a strong entity tag identifying the entity's version (see {@link EntityTags#strong})
+   * @param viewFunction a function that converts the entity into a serializable view
+   * @param <E>          the entity's type
+   * @param <T>          the view's type
+   * @return a response of the view
+   */
+  public static <T, E extends Timestamped> CacheableResponse<T>
+  serveEntity(E entity, String entityTag, Function<? super E, ? extends T> viewFunction) {
+    Objects.requireNonNull(viewFunction);
+    Supplier<T> supplier = () -> viewFunction.apply(entity);
+    Instant lastModified = entity.getLastModified().toInstant();
+    return new CacheableResponse<>(lastModified, Objects.requireNonNull(entityTag), supplier);
   }
 
 
@@ -89,11 +124,57 @@ public final class CacheableResponse<T> {
    * @throws IOException
    */
   public ServiceResponse<T> getIfModified(Instant ifModifiedSince) throws IOException {
-    if (ifModifiedSince != null && !ifModifiedSince.isBefore(lastModified)) {
-      return ServiceResponse.reportNotModified(lastModified);
+    if (ifModifiedSince != null && lastModified != null && !ifModifiedSince.isBefore(lastModified)) {
+      return ServiceResponse.reportNotModified(lastModified, entityTag);
     }
+    return serve();
+  }
+
+  /**
+   * Compare against the "If-None-Match" and "If-Modified-Since" headers provided by the client and unpack into a {@link
+   * ServiceResponse} that will return a "Not-Modified" status if applicable. As in RFC 7232, "If-Modified-Since" is
+   * ignored if the request has "If-None-Match".
+   *
+   * @param ifNoneMatch     the value of the request's "If-None-Match" header, or {@code null} if it had none
+   * @param ifModifiedSince the timestamp provided by the requests's "If-Modified-Since" header, or {@code null} if the
+   *                        request had no "If-Modified-Since" header
+   * @return the unpacked response
+   * @throws IOException
+   */
+  public ServiceResponse<T> getIfChanged(String ifNoneMatch, Date ifModifiedSince) throws IOException {
+    ServiceResponse<T> notModified = checkNotModified(ifNoneMatch, ifModifiedSince);
+    return (notModified != null) ? notModified : serve();
+  }
+
+  /**
+   * Compare against the request's validators without building the view.
+   *
+   * @return a "Not-Modified" response if the validators match, or {@code null} if the view must be served
+   * @see #getIfChanged(String, Date)
+   */
+  ServiceResponse<T> checkNotModified(String ifNoneMatch, Date ifModifiedSince) {
+    if (ifNoneMatch == null) {
+      if (ifModifiedSince != null && lastModified != null && !ifModifiedSince.toInstant().isBefore(lastModified)) {
+        return ServiceResponse.reportNotModified(lastModified, entityTag);
+      }
+    } else if (entityTag != null
+        && EntityTags.matches(ifNoneMatch, ServiceResponse.getCurrentRequestFormat().getEntityTag(entityTag))) {
+      // The client holds the tag of the format it was served, which asJsonResponse derives from this one
+      return ServiceResponse.reportNotModified(lastModified, entityTag);
+    }
+    return null;
+  }
+
+  /**
+   * @return a string that identifies the version of the represented data
+   */
+  String getVersionKey() {
+    return (entityTag != null) ? entityTag : Long.toString(lastModified.toEpochMilli());
+  }
+
+  ServiceResponse<T> serve() {
     T body = Objects.requireNonNull(supplier.get());
-    return ServiceResponse.serveCacheableView(body, lastModified);
+    return ServiceResponse.serveCacheableView(body, lastModified, entityTag);
   }
 
 }
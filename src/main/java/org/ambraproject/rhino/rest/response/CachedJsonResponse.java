@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * The serialized JSON body of a successful response, with the validators that were sent with it.
+ */
+public final class CachedJsonResponse {
+
+  private final byte[] body;
+  private final Instant lastModified;
+  private final String entityTag;
+  private final long createdAt;
+
+  /**
+   * @param body         the serialized JSON body
+   * @param lastModified the "Last-Modified" timestamp, or {@code null} if the response had none
+   * @param entityTag    the entity tag, strong or weak
+   * @param createdAt    the time, in epoch milliseconds, at which the body was built
+   */
+  public CachedJsonResponse(byte[] body, Instant lastModified, String entityTag, long createdAt) {
+    this.body = Objects.requireNonNull(body);
+    this.lastModified = lastModified;
+    this.entityTag = Objects.requireNonNull(entityTag);
+    this.createdAt = createdAt;
+  }
+
+  /**
+   * @return the serialized body, which callers must not modify
+   */
+  public byte[] getBody() {
+    return body;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  public String getEntityTag() {
+    return entityTag;
+  }
+
+  public long getCreatedAt() {
+    return createdAt;
+  }
+
+  /**
+   * Serve this body, unless the client's "If-Modified-Since" header shows that it already has it. The "If-None-Match"
+   * header is compared against the entity tag by {@link ServiceResponse#asJsonResponse}.
+   *
+   * @param ifModifiedSince the value of the request's "If-Modified-Since" header, or {@code null} if it had none
+   * @return the response to serve
+   */
+  public ServiceResponse<?> getIfModified(Date ifModifiedSince) {
+    if (ifModifiedSince != null && lastModified != null && !ifModifiedSince.toInstant().isBefore(lastModified)) {
+      return ServiceResponse.reportNotModified(lastModified, entityTag);
+    }
+    return toServiceResponse();
+  }
+
+  ServiceResponse<?> toServiceResponse() {
+    return ServiceResponse.serveSerialized(body, lastModified, entityTag);
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hashing;
+
+import java.util.Date;
+
+/**
+ * Utilities for HTTP entity tags. Entity tags are handled as header values, including the surrounding quotes and the
+ * {@code W/} prefix if they are weak.
+ */
+public final class EntityTags {
+  private EntityTags() {
+    throw new AssertionError("Not instantiable");
+  }
+
+  private static final Joiner VERSION_JOINER = Joiner.on('-');
+
+  /**
+   * Build a strong entity tag from data that changes whenever the represented entity changes, such as a database ID
+   * and a modification timestamp. Dates are represented by their epoch milliseconds.
+   *
+   * @param versionData identifying values, which must not contain quotation marks
+   * @return the entity tag
+   */
+  public static String strong(Object... versionData) {
+    Preconditions.checkArgument(versionData.length > 0);
+    Object[] parts = new Object[versionData.length];
+    for (int i = 0; i < versionData.length; i++) {
+      Object part = versionData[i];
+      parts[i] = (part instanceof Date) ? ((Date) part).getTime() : part;
+    }
+    String tag = VERSION_JOINER.useForNull("null").join(parts);
+    Preconditions.checkArgument(tag.indexOf('"') < 0);
+    return '"' + tag + '"';
+  }
+
+  /**
+   * Build a weak entity tag from a hash of a response body. Two responses with the same tag are almost certainly
+   * byte-identical, but the tag is only as cheap as producing the body.
+   *
+   * @param body the response body
+   * @return the entity tag
+   */
+  public static String weak(byte[] body) {
+    return "W/\"" + Hashing.murmur3_128().hashBytes(body) + '"';
+  }
+
+  private static final Splitter ENTITY_TAG_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  /**
+   * @param ifNoneMatch the value of an {@code If-None-Match} header
+   * @param entityTag   the current entity tag, including quotes
+   * @return {@code true} if the header lists the entity tag (compared weakly) or is a wildcard
+   */
+  public static boolean matches(String ifNoneMatch, String entityTag) {
+    for (String candidate : ENTITY_TAG_SPLITTER.split(ifNoneMatch)) {
+      if (candidate.equals("*") || stripWeakness(candidate).equals(stripWeakness(entityTag))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeakness(String entityTag) {
+    return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+  }
+
+}
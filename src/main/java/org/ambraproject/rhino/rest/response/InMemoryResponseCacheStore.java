@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.ambraproject.rhino.util.MetricsSource;
+
+import java.util.Map;
+
+/**
+ * Keeps cached response bodies on the heap, evicting the least recently used ones when they exceed a size budget.
+ */
+public class InMemoryResponseCacheStore implements ResponseCacheStore {
+
+  private final Cache<String, CachedJsonResponse> cache;
+
+  /**
+   * @param maxSize the maximum total size, in bytes, of cached bodies
+   */
+  public InMemoryResponseCacheStore(long maxSize) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSize)
+        .weigher((String key, CachedJsonResponse response) -> response.getBody().length + key.length())
+        .recordStats()
+        .build();
+  }
+
+  @Override
+  public CachedJsonResponse get(String key) {
+    return cache.getIfPresent(key);
+  }
+
+  @Override
+  public void put(String key, CachedJsonResponse response) {
+    cache.put(key, response);
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = MetricsSource.describeCacheStats(cache.stats());
+    metrics.put("entryCount", cache.size());
+    return metrics;
+  }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * Adapts a Jackson {@link JsonGenerator} to Gson's {@link JsonWriter}, so that Gson can write views in any format that
+ * Jackson can generate, such as CBOR or Smile. The views and their adapters are unaware of the output format.
+ * <p>
+ * Like the writer used by {@link com.google.gson.Gson#toJson(Object)}, this leaves out object members with null values
+ * unless {@link #getSerializeNulls()} is true.
+ */
+class JacksonJsonWriter extends JsonWriter {
+
+  private static final Writer UNWRITABLE_WRITER = new Writer() {
+    @Override
+    public void write(char[] buffer, int offset, int counter) {
+      throw new AssertionError();
+    }
+
+    @Override
+    public void flush() {
+      throw new AssertionError();
+    }
+
+    @Override
+    public void close() {
+      throw new AssertionError();
+    }
+  };
+
+  private final JsonGenerator generator;
+
+  /**
+   * A member name that has not been written yet, because the member is to be left out if its value is null.
+   */
+  private String deferredName;
+
+  JacksonJsonWriter(JsonGenerator generator) {
+    super(UNWRITABLE_WRITER);
+    this.generator = Objects.requireNonNull(generator);
+  }
+
+  private void writeDeferredName() throws IOException {
+    if (deferredName != null) {
+      generator.writeFieldName(deferredName);
+      deferredName = null;
+    }
+  }
+
+  @Override
+  public JsonWriter beginArray() throws IOException {
+    writeDeferredName();
+    generator.writeStartArray();
+    return this;
+  }
+
+  @Override
+  public JsonWriter endArray() throws IOException {
+    generator.writeEndArray();
+    return this;
+  }
+
+  @Override
+  public JsonWriter beginObject() throws IOException {
+    writeDeferredName();
+    generator.writeStartObject();
+    return this;
+  }
+
+  @Override
+  public JsonWriter endObject() throws IOException {
+    if (deferredName != null) throw new IllegalStateException();
+    generator.writeEndObject();
+    return this;
+  }
+
+  @Override
+  public JsonWriter name(String name) throws IOException {
+    Objects.requireNonNull(name);
+    if (deferredName != null) throw new IllegalStateException();
+    deferredName = name;
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(String value) throws IOException {
+    if (value == null) return nullValue();
+    writeDeferredName();
+    generator.writeString(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter jsonValue(String value) throws IOException {
+    throw new UnsupportedOperationException("Raw JSON cannot be written in another format");
+  }
+
+  @Override
+  public JsonWriter nullValue() throws IOException {
+    if (deferredName != null) {
+      if (!getSerializeNulls()) {
+        deferredName = null;
+        return this;
+      }
+      writeDeferredName();
+    }
+    generator.writeNull();
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(boolean value) throws IOException {
+    writeDeferredName();
+    generator.writeBoolean(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(Boolean value) throws IOException {
+    return (value == null) ? nullValue() : value(value.booleanValue());
+  }
+
+  @Override
+  public JsonWriter value(double value) throws IOException {
+    if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+      throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+    }
+    writeDeferredName();
+    generator.writeNumber(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(long value) throws IOException {
+    writeDeferredName();
+    generator.writeNumber(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(Number value) throws IOException {
+    if (value == null) return nullValue();
+    writeDeferredName();
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      generator.writeNumber(value.longValue());
+    } else if (value instanceof Double || value instanceof Float) {
+      double doubleValue = value.doubleValue();
+      if (!isLenient() && (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue))) {
+        throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+      }
+      generator.writeNumber(doubleValue);
+    } else if (value instanceof BigInteger) {
+      generator.writeNumber((BigInteger) value);
+    } else if (value instanceof BigDecimal) {
+      generator.writeNumber((BigDecimal) value);
+    } else {
+      // Such as Gson's LazilyParsedNumber, which holds the number's text
+      generator.writeNumber(new BigDecimal(value.toString()));
+    }
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    generator.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+  }
+
+}
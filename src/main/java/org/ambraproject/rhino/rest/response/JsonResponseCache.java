@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.gson.Gson;
+import org.ambraproject.rhino.identity.ArticleIdentifier;
+import org.ambraproject.rhino.util.MetricsSource;
+import org.ambraproject.rhino.util.RequestCoalescer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the serialized JSON bodies of read responses, so that a hot entity is not rebuilt and reserialized on every
+ * request.
+ * <p>
+ * Responses are cached in one of two ways. A {@link CacheableResponse} identifies the version of its data, so its body
+ * is cached under that version and never goes stale. Other responses are cached under the endpoint and identity only,
+ * and are served with stale-while-revalidate semantics: after they have been cached for the "fresh" period, they are
+ * still served for the "stale" period while a replacement is built in the background.
+ * <p>
+ * Every entry is also associated with tags naming the entities it represents, such as {@link #articleTag}. The write
+ * paths of the CRUD services {@link #invalidate} the tags of the entities they change, which makes every entry
+ * associated with those tags unreachable once the write transaction commits. Tag generations are held in memory only,
+ * so a persistent {@link ResponseCacheStore} must not outlive the process that filled it.
+ */
+public class JsonResponseCache implements MetricsSource {
+
+  private static final Logger log = LoggerFactory.getLogger(JsonResponseCache.class);
+
+  /**
+   * Builds a response when it is not cached. Called in a read-only transaction when refreshing in the background.
+   */
+  @FunctionalInterface
+  public static interface ResponseLoader {
+    ServiceResponse<?> load() throws IOException;
+  }
+
+  private final ResponseCacheStore store;
+  private final Gson entityGson;
+  private final long freshMillis;
+  private final long staleMillis;
+  private final Executor refreshExecutor;
+  private final TransactionTemplate refreshTransaction;
+  private final RequestCoalescer requestCoalescer;
+  private final Clock clock;
+
+  private final long initialGeneration;
+  private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong staleHitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong refreshCount = new AtomicLong();
+  private final AtomicLong refreshFailureCount = new AtomicLong();
+  private final AtomicLong invalidationCount = new AtomicLong();
+
+  /**
+   * @param store              where cached bodies are kept
+   * @param entityGson         the Gson instance that serializes response views
+   * @param freshFor           how long an unversioned response is served without being rebuilt
+   * @param staleFor           how much longer an unversioned response is served while it is rebuilt in the background
+   * @param refreshExecutor    runs background rebuilds
+   * @param transactionManager provides the transactions in which background rebuilds run
+   * @param requestCoalescer   shares the work of concurrent identical misses, or {@code null} to build each one
+   */
+  public JsonResponseCache(ResponseCacheStore store, Gson entityGson, Duration freshFor, Duration staleFor,
+                           Executor refreshExecutor, PlatformTransactionManager transactionManager,
+                           RequestCoalescer requestCoalescer) {
+    this(store, entityGson, freshFor, staleFor, refreshExecutor, transactionManager, requestCoalescer,
+        Clock.systemUTC());
+  }
+
+  JsonResponseCache(ResponseCacheStore store, Gson entityGson, Duration freshFor, Duration staleFor,
+                    Executor refreshExecutor, PlatformTransactionManager transactionManager,
+                    RequestCoalescer requestCoalescer, Clock clock) {
+    this.store = Objects.requireNonNull(store);
+    this.entityGson = Objects.requireNonNull(entityGson);
+    this.freshMillis = freshFor.toMillis();
+    this.staleMillis = staleFor.toMillis();
+    this.refreshExecutor = Objects.requireNonNull(refreshExecutor);
+    if (transactionManager == null) {
+      this.refreshTransaction = null;
+    } else {
+      this.refreshTransaction = new TransactionTemplate(transactionManager);
+      this.refreshTransaction.setReadOnly(true);
+    }
+    this.requestCoalescer = requestCoalescer;
+    this.clock = Objects.requireNonNull(clock);
+    this.initialGeneration = clock.millis();
+  }
+
+  /**
+   * Tag for responses that represent journals, volumes or issues. These nest in each other's views and change rarely,
+   * so they are invalidated together.
+   */
+  public static final String JOURNAL_HIERARCHY_TAG = "journalHierarchy";
+
+  /**
+   * Tag for responses that represent article lists, which include metadata of the listed articles.
+   */
+  public static final String ARTICLE_LISTS_TAG = "articleLists";
+
+  /**
+   * @param articleId an article
+   * @return the tag for responses that represent the article or any of its ingestions, revisions or comments
+   */
+  public static String articleTag(ArticleIdentifier articleId) {
+    return "article:" + articleId.getDoiName();
+  }
+
+  private String getStorageKey(String key, Collection<String> tags) {
+    StringBuilder storageKey = new StringBuilder(key);
+    for (String tag : tags) {
+      AtomicLong generation = generations.get(tag);
+      storageKey.append('#').append(tag).append('=')
+          .append(generation == null ? initialGeneration : generation.get());
+    }
+    return storageKey.toString();
+  }
+
+  /**
+   * Get a key under which a caller may cache its own object derived from the tagged entities, so that the object is
+   * invalidated along with the responses that have the same tags: once any of the tags is invalidated, the key changes
+   * and the old entry is never read again.
+   *
+   * @param key  identifies the cached object, but not its version
+   * @param tags the tags of the entities that the object represents
+   * @return the key, or {@code null} if the current transaction writes data, in which case an object built now may
+   * show changes that are never committed, and must not be cached
+   */
+  public String getTaggedKey(String key, String... tags) {
+    return isWriteTransactionActive() ? null : getStorageKey(key, Arrays.asList(tags));
+  }
+
+  /**
+   * Serve a response whose version is known before its view is built. If the client's validators match, a
+   * "Not-Modified" response is returned. Otherwise, the body is served from the cache if it has been built for the same
+   * version.
+   *
+   * @param key             identifies the endpoint and the entity, but not its version
+   * @param tags            the tags of the entities that the response represents
+   * @param response        the response
+   * @param ifNoneMatch     the value of the request's "If-None-Match" header, or {@code null} if it had none
+   * @param ifModifiedSince the value of the request's "If-Modified-Since" header, or {@code null} if it had none
+   * @return the response to serve
+   * @throws IOException
+   */
+  public ServiceResponse<?> serve(String key, Collection<String> tags, CacheableResponse<?> response,
+                                  String ifNoneMatch, Date ifModifiedSince) throws IOException {
+    ServiceResponse<?> notModified = response.checkNotModified(ifNoneMatch, ifModifiedSince);
+    if (notModified != null) return notModified;
+
+    String storageKey = getStorageKey(key + '@' + response.getVersionKey(), tags);
+    CachedJsonResponse cached = store.get(storageKey);
+    if (cached != null) {
+      hitCount.incrementAndGet();
+      return cached.toServiceResponse();
+    }
+    missCount.incrementAndGet();
+    return load(storageKey, response::serve);
+  }
+
+  /**
+   * Serve a response whose version is not known until its view is built. A fresh cached body is served as is. A stale
+   * one is served while it is rebuilt in the background. Otherwise, the response is built and cached.
+   *
+   * @param key    identifies the endpoint and the entity
+   * @param tags   the tags of the entities that the response represents
+   * @param loader builds the response
+   * @return the response to serve
+   * @throws IOException if the loader throws it
+   */
+  public ServiceResponse<?> serve(String key, Collection<String> tags, ResponseLoader loader) throws IOException {
+    String storageKey = getStorageKey(key, tags);
+    CachedJsonResponse cached = store.get(storageKey);
+    if (cached != null) {
+      long age = clock.millis() - cached.getCreatedAt();
+      if (age < freshMillis) {
+        hitCount.incrementAndGet();
+        return cached.toServiceResponse();
+      }
+      if (age < freshMillis + staleMillis) {
+        staleHitCount.incrementAndGet();
+        scheduleRefresh(storageKey, loader);
+        return cached.toServiceResponse();
+      }
+    }
+    missCount.incrementAndGet();
+    return load(storageKey, loader);
+  }
+
+  private static boolean isWriteTransactionActive() {
+    return TransactionSynchronizationManager.isSynchronizationActive()
+        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+  }
+
+  /**
+   * Build and store a response. Concurrent misses for the same entry share one build, whose result is serialized
+   * before it is shared.
+   */
+  private ServiceResponse<?> load(String storageKey, ResponseLoader loader) throws IOException {
+    if (requestCoalescer == null || isWriteTransactionActive()) {
+      return store(storageKey, loader.load());
+    }
+    return requestCoalescer.execute("jsonResponse", storageKey,
+        () -> store(storageKey, loader.load()).serialize(entityGson));
+  }
+
+  /**
+   * Cache the body of a successful response, unless it was built in a transaction that writes data. Such a body may
+   * show changes that have not been committed, and may never be.
+   */
+  private ServiceResponse<?> store(String storageKey, ServiceResponse<?> response) {
+    if (response.getStatus() != HttpStatus.OK || !response.hasBody() || isWriteTransactionActive()) return response;
+    byte[] body = response.serializeBody(entityGson);
+    String entityTag = response.getEntityTag();
+    if (entityTag == null) {
+      entityTag = EntityTags.weak(body);
+    }
+    CachedJsonResponse cached = new CachedJsonResponse(body, response.getLastModified(), entityTag, clock.millis());
+    store.put(storageKey, cached);
+    return cached.toServiceResponse();
+  }
+
+  private void scheduleRefresh(String storageKey, ResponseLoader loader) {
+    if (!refreshingKeys.add(storageKey)) return; // already being refreshed
+    try {
+      refreshExecutor.execute(() -> {
+        try {
+          ServiceResponse<?> response = (refreshTransaction == null) ? loader.load()
+              : refreshTransaction.execute(status -> {
+            try {
+              return loader.load();
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+          store(storageKey, response);
+          refreshCount.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+          refreshFailureCount.incrementAndGet();
+          log.warn("Could not refresh cached response: " + storageKey, e);
+        } finally {
+          refreshingKeys.remove(storageKey);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      refreshingKeys.remove(storageKey);
+    }
+  }
+
+  /**
+   * Make every cached response associated with any of the given tags unreachable. If a transaction is active, this
+   * happens when it commits, so that the responses are not rebuilt from data that is about to change.
+   *
+   * @param tags the tags of the changed entities
+   */
+  public void invalidate(String... tags) {
+    Collection<String> tagList = Arrays.asList(tags);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          advanceGenerations(tagList);
+        }
+      });
+    } else {
+      advanceGenerations(tagList);
+    }
+  }
+
+  private void advanceGenerations(Collection<String> tags) {
+    for (String tag : tags) {
+      generations.computeIfAbsent(tag, t -> new AtomicLong(initialGeneration)).incrementAndGet();
+      invalidationCount.incrementAndGet();
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "jsonResponseCache";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("hitCount", hitCount.get());
+    metrics.put("staleHitCount", staleHitCount.get());
+    metrics.put("missCount", missCount.get());
+    metrics.put("refreshCount", refreshCount.get());
+    metrics.put("refreshFailureCount", refreshFailureCount.get());
+    metrics.put("invalidationCount", invalidationCount.get());
+    metrics.put("invalidatedTagCount", generations.size());
+    metrics.put("store", store.getMetrics());
+    return metrics;
+  }
+
+}
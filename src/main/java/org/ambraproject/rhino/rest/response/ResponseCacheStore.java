@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Storage for the bodies held by a {@link JsonResponseCache}.
+ * <p>
+ * Implementations decide where entries live and when they are evicted; the cache itself decides whether an entry is
+ * still fresh. The default implementation is {@link InMemoryResponseCacheStore}, but an implementation that spills to
+ * local files may be plugged in for bodies that are too large or too numerous to keep on the heap. Keys are opaque
+ * strings of arbitrary length, so such an implementation should hash them into file names.
+ */
+public interface ResponseCacheStore {
+
+  /**
+   * @param key a key previously passed to {@link #put}
+   * @return the stored entry, or {@code null} if there is none
+   */
+  CachedJsonResponse get(String key);
+
+  /**
+   * Store an entry, replacing any entry for the same key.
+   *
+   * @param key      the key
+   * @param response the entry
+   */
+  void put(String key, CachedJsonResponse response);
+
+  /**
+   * @return statistics about this store, as a map that can be serialized to JSON
+   */
+  default Map<String, Object> getMetrics() {
+    return Collections.emptyMap();
+  }
+
+}
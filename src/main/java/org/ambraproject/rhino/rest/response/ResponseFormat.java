@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.gson.Gson;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The encodings in which a response body may be served. Every format represents the same data model as JSON, and is
+ * produced by Gson from the same views.
+ * <p>
+ * The binary formats are chosen only if the client asks for them in its "Accept" header. They are smaller and cheaper
+ * to parse than JSON text, especially for large listings.
+ */
+public enum ResponseFormat {
+
+  JSON(new MediaType("application", "json", Charsets.UTF_8), null),
+  CBOR(new MediaType("application", "cbor"), new CBORFactory()),
+  SMILE(new MediaType("application", "x-jackson-smile"), new SmileFactory());
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final MediaType mediaType;
+  private final JsonFactory binaryFactory;
+
+  private ResponseFormat(MediaType mediaType, JsonFactory binaryFactory) {
+    this.mediaType = mediaType;
+    this.binaryFactory = binaryFactory;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Choose the format to serve for a request. Each format gets the quality of the most specific accepted range that
+   * includes it, so that {@code application/cbor;q=0} excludes CBOR even if a wildcard range is also accepted. The
+   * format with the highest quality is chosen, and among equals, the one that the client named most specifically.
+   *
+   * @param accept the value of the request's "Accept" header, or {@code null} if it had none
+   * @return the format that the client prefers, or {@link #JSON} if it has no preference among them or accepts none of
+   * them
+   */
+  public static ResponseFormat negotiate(String accept) {
+    if (accept == null) return JSON;
+    List<MediaType> acceptedTypes;
+    try {
+      acceptedTypes = MediaType.parseMediaTypes(accept);
+    } catch (IllegalArgumentException e) {
+      return JSON;
+    }
+
+    ResponseFormat best = JSON;
+    double bestQuality = 0.0;
+    int bestSpecificity = -1;
+    for (ResponseFormat format : values()) {
+      MediaType range = null;
+      for (MediaType acceptedType : acceptedTypes) {
+        if (acceptedType.includes(format.mediaType)
+            && (range == null || getSpecificity(acceptedType) > getSpecificity(range))) {
+          range = acceptedType;
+        }
+      }
+      if (range == null) continue;
+      double quality = range.getQualityValue();
+      int specificity = getSpecificity(range);
+      if (quality > bestQuality || (quality == bestQuality && quality > 0.0 && specificity > bestSpecificity)) {
+        best = format;
+        bestQuality = quality;
+        bestSpecificity = specificity;
+      }
+    }
+    return best;
+  }
+
+  private static int getSpecificity(MediaType range) {
+    return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+  }
+
+  /**
+   * Derive the entity tag of a response in this format from the entity tag of the same response as JSON. Different
+   * formats of the same entity must not share an entity tag, or a cache could serve one in place of the other.
+   *
+   * @param jsonEntityTag the entity tag of the response as JSON
+   * @return the entity tag of the response in this format
+   */
+  String getEntityTag(String jsonEntityTag) {
+    if (this == JSON) return jsonEntityTag;
+    Preconditions.checkArgument(jsonEntityTag.endsWith("\""));
+    return jsonEntityTag.substring(0, jsonEntityTag.length() - 1) + '+' + name().toLowerCase(Locale.ROOT) + '"';
+  }
+
+  /**
+   * Serialize a view directly into this format.
+   *
+   * @param entityGson the service bean that produces JSON from view objects
+   * @param view       the view to serialize
+   * @param stream     the stream to write to, which is flushed but not closed
+   * @throws IOException if the stream cannot be written
+   */
+  void write(Gson entityGson, Object view, OutputStream stream) throws IOException {
+    Preconditions.checkState(this != JSON, "JSON is written by StreamingJsonBody");
+    JsonGenerator generator = binaryFactory.createGenerator(stream)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    try (JacksonJsonWriter writer = new JacksonJsonWriter(generator)) {
+      entityGson.toJson(view, view.getClass(), writer);
+    }
+  }
+
+  /**
+   * Serialize a view into this format.
+   *
+   * @param entityGson the service bean that produces JSON from view objects
+   * @param view       the view to serialize
+   * @return the serialized view
+   */
+  byte[] encode(Gson entityGson, Object view) {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream(StreamingJsonBody.BUFFER_SIZE);
+    try {
+      write(entityGson, view, stream);
+    } catch (IOException e) {
+      throw new RuntimeException(e); // impossible for ByteArrayOutputStream
+    }
+    return stream.toByteArray();
+  }
+
+  /**
+   * Convert a body that was already serialized as JSON, such as one held by a {@link JsonResponseCache}, into this
+   * format.
+   *
+   * @param json the body as JSON
+   * @return the body in this format
+   */
+  byte[] transcode(byte[] json) {
+    if (this == JSON) return json;
+    ByteArrayOutputStream stream = new ByteArrayOutputStream(json.length);
+    try (JsonParser parser = JSON_FACTORY.createParser(json);
+         JsonGenerator generator = binaryFactory.createGenerator(stream)) {
+      while (parser.nextToken() != null) {
+        generator.copyCurrentStructure(parser);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e); // the cached body was produced by Gson, so it should always be valid
+    }
+    return stream.toByteArray();
+  }
+
+}
@@ -22,14 +22,18 @@
 
 package org.ambraproject.rhino.rest.response;
 
-import com.google.common.base.Charsets;
 import com.google.gson.Gson;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.time.Instant;
 import java.util.Objects;
 
@@ -46,19 +50,26 @@ public class ServiceResponse<T> {
   private final HttpStatus status;
   private final T body;
   private final Instant lastModified;
+  private final String entityTag;
+  private final byte[] serializedBody;
 
   /**
    * Note that only this constructor allows null arguments as a private implementation detail. Each of the public and
    * package-private factory methods require non-null arguments.
    *
-   * @param status       the status (non-nullable)
-   * @param body         the response body, or {@code null} if this response is indicating a cache hit
-   * @param lastModified the "Last-Modified" timestamp, or {@code null} if the service is not cacheable
+   * @param status         the status (non-nullable)
+   * @param body           the response body, or {@code null} if this response is indicating a cache hit or its body
+   *                       is already serialized
+   * @param lastModified   the "Last-Modified" timestamp, or {@code null} if the service is not cacheable
+   * @param entityTag      an entity tag, or {@code null} if the service does not provide one
+   * @param serializedBody the response body as JSON, or {@code null} if it is to be serialized from {@code body}
    */
-  private ServiceResponse(HttpStatus status, T body, Instant lastModified) {
+  private ServiceResponse(HttpStatus status, T body, Instant lastModified, String entityTag, byte[] serializedBody) {
     this.status = Objects.requireNonNull(status);
     this.body = body;
     this.lastModified = lastModified;
+    this.entityTag = entityTag;
+    this.serializedBody = serializedBody;
   }
 
   /**
@@ -69,7 +80,7 @@ public class ServiceResponse<T> {
    */
   public static <T> ServiceResponse<T> reportCreated(T responseBody) {
     Objects.requireNonNull(responseBody);
-    return new ServiceResponse<T>(HttpStatus.CREATED, responseBody, null);
+    return new ServiceResponse<T>(HttpStatus.CREATED, responseBody, null, null, null);
   }
 
   /**
@@ -80,40 +91,61 @@ public class ServiceResponse<T> {
    */
   public static <T> ServiceResponse<T> serveView(T responseBody) {
     Objects.requireNonNull(responseBody);
-    return new ServiceResponse<T>(HttpStatus.OK, responseBody, null);
+    return new ServiceResponse<T>(HttpStatus.OK, responseBody, null, null, null);
   }
 
   /**
    * Serve a view as a response from a cacheable service. Indicates a cache miss.
    *
    * @param responseBody the view to serialize as the response
-   * @param lastModified the timestamp at which the represented entity was last modified
+   * @param lastModified the timestamp at which the represented entity was last modified, or {@code null} if unknown
+   * @param entityTag    a strong entity tag for the represented entity, or {@code null} if unknown
    * @return the response
    */
-  static <T> ServiceResponse<T> serveCacheableView(T responseBody, Instant lastModified) {
+  static <T> ServiceResponse<T> serveCacheableView(T responseBody, Instant lastModified, String entityTag) {
     Objects.requireNonNull(responseBody);
-    Objects.requireNonNull(lastModified);
-    return new ServiceResponse<T>(HttpStatus.OK, responseBody, lastModified);
+    if (lastModified == null && entityTag == null) throw new NullPointerException();
+    return new ServiceResponse<T>(HttpStatus.OK, responseBody, lastModified, entityTag, null);
   }
 
   /**
    * Service a response from a cacheable service indicating that the cached value has not changed.
    *
-   * @param lastModified the timestamp at which the represented entity was last modified
+   * @param lastModified the timestamp at which the represented entity was last modified, or {@code null} if unknown
+   * @param entityTag    a strong entity tag for the represented entity, or {@code null} if unknown
    * @return the response
    */
-  static <T> ServiceResponse<T> reportNotModified(Instant lastModified) {
-    Objects.requireNonNull(lastModified);
-    return new ServiceResponse<T>(HttpStatus.NOT_MODIFIED, null, lastModified);
+  static <T> ServiceResponse<T> reportNotModified(Instant lastModified, String entityTag) {
+    if (lastModified == null && entityTag == null) throw new NullPointerException();
+    return new ServiceResponse<T>(HttpStatus.NOT_MODIFIED, null, lastModified, entityTag, null);
   }
 
+  /**
+   * Serve a body that was serialized earlier, such as one held by a {@link JsonResponseCache}. The {@link #getBody}
+   * method of the returned response returns {@code null}.
+   *
+   * @param serializedBody the response body as JSON
+   * @param lastModified   the timestamp at which the represented entity was last modified, or {@code null} if unknown
+   * @param entityTag      the entity tag that was computed for the body
+   * @return the response
+   */
+  static ServiceResponse<Object> serveSerialized(byte[] serializedBody, Instant lastModified, String entityTag) {
+    Objects.requireNonNull(serializedBody);
+    Objects.requireNonNull(entityTag);
+    return new ServiceResponse<>(HttpStatus.OK, null, lastModified, entityTag, serializedBody);
+  }
 
-  private static final Charset JSON_CHARSET = Charsets.UTF_8;
-  private static final MediaType JSON_TYPE = new MediaType("application", "json", JSON_CHARSET);
 
   /**
    * Produce a response entity that represents this response to Spring.
    * <p>
+   * The body is JSON unless the current request's "Accept" header prefers one of the binary {@link ResponseFormat}s,
+   * which are produced from the same view. Each format has its own entity tag.
+   * <p>
+   * A successful response without an entity tag is given a weak one, computed from the serialized body. If the current
+   * request's "If-None-Match" header matches the entity tag of a successful response, a "Not-Modified" response is
+   * returned instead of the body. This saves bandwidth but not the work of building the body.
+   * <p>
    * Implementation note: The return type is {@code ResponseEntity&lt;?>}, not {@code ResponseEntity&lt;T>}, because the
    * returned value might be a {@code ResponseEntity&lt;Void>} if this object was constructed from a {@link
    * CacheableResponse} where the request indicated a cache hit.
@@ -123,16 +155,143 @@ public class ServiceResponse<T> {
    * @throws IOException
    */
   public ResponseEntity<?> asJsonResponse(Gson entityGson) throws IOException {
+    ResponseFormat format = getCurrentRequestFormat();
     ResponseEntity.BodyBuilder response = ResponseEntity.status(this.status)
-        .contentType(JSON_TYPE);
+        .contentType(format.getMediaType())
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
     if (lastModified != null) {
       response = response.lastModified(lastModified.toEpochMilli());
     }
-    if (body != null) {
-      String json = entityGson.toJson(body);
-      return response.body(json.getBytes(JSON_CHARSET));
+    if (!hasBody()) {
+      if (entityTag != null) {
+        response = response.eTag(format.getEntityTag(entityTag));
+      }
+      return response.build();
+    }
+    byte[] bytes = serializeBody(entityGson, format);
+    String responseEntityTag = (entityTag == null && status == HttpStatus.OK) ? EntityTags.weak(bytes)
+        : (entityTag == null) ? null : format.getEntityTag(entityTag);
+    if (responseEntityTag != null) {
+      if (status == HttpStatus.OK && isCurrentRequestSafe()) {
+        String ifNoneMatch = getCurrentRequestHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && EntityTags.matches(ifNoneMatch, responseEntityTag)) {
+          return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(responseEntityTag).build();
+        }
+      }
+      response = response.eTag(responseEntityTag);
+    }
+    return response.body(bytes);
+  }
+
+  /**
+   * Write this response directly to the servlet response stream, with chunked transfer, rather than building the body
+   * in memory first. This is meant for views of unbounded size, such as listings of all articles or comments.
+   * <p>
+   * The caller should write the response before its transaction ends, so that the view may refer to lazily loaded
+   * persistent entities. Because the body is never held in memory, the response is not given a weak entity tag and
+   * does not honor the "If-None-Match" header.
+   *
+   * @param response   the servlet response to write to
+   * @param entityGson the service bean that produces JSON from view objects
+   * @throws IOException if the response cannot be written
+   */
+  public void writeTo(HttpServletResponse response, Gson entityGson) throws IOException {
+    ResponseFormat format = getCurrentRequestFormat();
+    response.setStatus(status.value());
+    response.setContentType(format.getMediaType().toString());
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    if (lastModified != null) {
+      response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified.toEpochMilli());
+    }
+    if (serializedBody != null) {
+      response.getOutputStream().write(serializeBody(entityGson, format));
+    } else if (body != null) {
+      new StreamingJsonBody(entityGson, body, format).writeTo(response.getOutputStream());
+    }
+  }
+
+  private static HttpServletRequest getCurrentRequest() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (!(attributes instanceof ServletRequestAttributes)) return null;
+    return ((ServletRequestAttributes) attributes).getRequest();
+  }
+
+  /**
+   * @return {@code true} if the request being handled on this thread is a GET or HEAD request
+   */
+  private static boolean isCurrentRequestSafe() {
+    HttpServletRequest request = getCurrentRequest();
+    if (request == null) return false;
+    String method = request.getMethod();
+    return "GET".equals(method) || "HEAD".equals(method);
+  }
+
+  /**
+   * @return the format to serve to the request being handled on this thread
+   */
+  static ResponseFormat getCurrentRequestFormat() {
+    return ResponseFormat.negotiate(getCurrentRequestHeader(HttpHeaders.ACCEPT));
+  }
+
+  /**
+   * @return a header of the request being handled on this thread, or {@code null} if there is none
+   */
+  private static String getCurrentRequestHeader(String name) {
+    HttpServletRequest request = getCurrentRequest();
+    return (request == null) ? null : request.getHeader(name);
+  }
+
+  HttpStatus getStatus() {
+    return status;
+  }
+
+  Instant getLastModified() {
+    return lastModified;
+  }
+
+  String getEntityTag() {
+    return entityTag;
+  }
+
+  boolean hasBody() {
+    return body != null || serializedBody != null;
+  }
+
+  /**
+   * Serialize the body, so that the response no longer refers to the view object and may be shared between threads.
+   *
+   * @param entityGson the service bean that produces JSON from view objects
+   * @return an equivalent response whose body is serialized
+   */
+  ServiceResponse<?> serialize(Gson entityGson) {
+    if (body == null) return this;
+    return new ServiceResponse<>(status, null, lastModified, entityTag, serializeBody(entityGson));
+  }
+
+  /**
+   * @param entityGson the service bean that produces JSON from view objects
+   * @param format     the format to serialize the body in
+   * @return the body in the given format
+   */
+  byte[] serializeBody(Gson entityGson, ResponseFormat format) {
+    if (format == ResponseFormat.JSON) return serializeBody(entityGson);
+    if (serializedBody != null) return format.transcode(serializedBody);
+    return format.encode(entityGson, body);
+  }
+
+  /**
+   * @param entityGson the service bean that produces JSON from view objects
+   * @return the body as JSON
+   */
+  byte[] serializeBody(Gson entityGson) {
+    if (serializedBody != null) return serializedBody;
+    ByteArrayOutputStream stream = new ByteArrayOutputStream(StreamingJsonBody.BUFFER_SIZE);
+    try {
+      new StreamingJsonBody(entityGson, body).writeTo(stream);
+    } catch (IOException e) {
+      throw new RuntimeException(e); // impossible for ByteArrayOutputStream
     }
-    return response.build();
+    return stream.toByteArray();
   }
 
   /**
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.common.base.Charsets;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * A response body that is serialized to JSON (or another {@link ResponseFormat}) as it is written, rather than being
+ * built as a string first. Only a fixed-size buffer of the serialized form is held in memory at a time.
+ * <p>
+ * Instances are written by {@link ServiceResponse#writeTo}.
+ */
+final class StreamingJsonBody {
+
+  static final int BUFFER_SIZE = 8192;
+
+  private final Gson entityGson;
+  private final Object view;
+  private final ResponseFormat format;
+
+  StreamingJsonBody(Gson entityGson, Object view) {
+    this(entityGson, view, ResponseFormat.JSON);
+  }
+
+  StreamingJsonBody(Gson entityGson, Object view, ResponseFormat format) {
+    this.entityGson = Objects.requireNonNull(entityGson);
+    this.view = Objects.requireNonNull(view);
+    this.format = Objects.requireNonNull(format);
+  }
+
+  /**
+   * Serialize the view to a stream, with the same output as {@link Gson#toJson(Object)} if the format is JSON. The
+   * stream is flushed but not closed.
+   *
+   * @param stream the stream to write to
+   * @throws IOException if the stream cannot be written
+   */
+  void writeTo(OutputStream stream) throws IOException {
+    if (format != ResponseFormat.JSON) {
+      format.write(entityGson, view, stream); // Jackson's generators have their own buffers
+      return;
+    }
+    Writer writer = new BufferedWriter(new OutputStreamWriter(stream, Charsets.UTF_8), BUFFER_SIZE);
+    JsonWriter jsonWriter = entityGson.newJsonWriter(writer);
+    entityGson.toJson(view, view.getClass(), jsonWriter);
+    jsonWriter.flush();
+  }
+
+}
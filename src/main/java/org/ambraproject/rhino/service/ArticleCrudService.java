@@ -32,12 +32,16 @@ import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleItem;
 import org.ambraproject.rhino.model.ArticleRelationship;
 import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
 import org.ambraproject.rhino.model.article.RelatedArticleLink;
 import org.ambraproject.rhino.rest.RestClientException;
 import org.ambraproject.rhino.rest.response.CacheableResponse;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.util.Archive;
+import org.ambraproject.rhino.view.FieldSelection;
 import org.ambraproject.rhino.view.ResolvedDoiView;
+import org.ambraproject.rhino.view.article.ArticleBatchView;
+import org.ambraproject.rhino.view.article.ArticleDoiPage;
 import org.ambraproject.rhino.view.article.ArticleIngestionView;
 import org.ambraproject.rhino.view.article.ArticleOverview;
 import org.ambraproject.rhino.view.article.ArticleRevisionView;
@@ -52,6 +56,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ArticleCrudService {
@@ -121,8 +126,32 @@ public interface ArticleCrudService {
    */
   public abstract Archive repack(ArticleIngestionIdentifier ingestionId);
 
+  /**
+   * Repack the archive that was ingested to create an article ingestion into a zip file on local disk.
+   * <p>
+   * Unlike {@link #repack}, the archive is built deterministically: entries are in name order and have fixed
+   * timestamps, so it is byte-for-byte identical every time. Archives are cached, and an ingestion that was repacked
+   * recently is served without fetching its files again.
+   *
+   * @param ingestionId the ingestion created by ingesting the original archive
+   * @return the repacked archive, which the caller must close
+   * @throws IOException if the archive could not be written to disk
+   */
+  public abstract RepackedArchive repackToFile(ArticleIngestionIdentifier ingestionId) throws IOException;
+
   public abstract CacheableResponse<ArticleIngestionView> serveMetadata(ArticleIngestionIdentifier ingestionId);
 
+  /**
+   * Serve the selected members of an ingestion's metadata. The manuscript is not read if the selected members are all
+   * available from the database.
+   *
+   * @param ingestionId the ingestion to represent
+   * @param fields      the members to serve
+   * @return the response
+   */
+  public abstract CacheableResponse<ArticleIngestionView> serveMetadata(ArticleIngestionIdentifier ingestionId,
+                                                                        FieldSelection fields);
+
   public abstract CacheableResponse<ItemSetView> serveItems(ArticleIngestionIdentifier ingestionId);
 
   public abstract ArticleOverview buildOverview(Article article);
@@ -133,6 +162,20 @@ public interface ArticleCrudService {
 
   public abstract CacheableResponse<ArticleRevisionView> serveRevision(ArticleRevisionIdentifier revisionId);
 
+  /**
+   * Serve a revision and the overview of each of many articles, with a number of queries that does not depend on how
+   * many articles are requested. Each DOI is answered under the spelling it was requested with. A DOI that is not
+   * valid, not found, lacks the requested revision, or is requested more than once with different revisions is
+   * reported in the response instead of failing the whole request.
+   *
+   * @param dois            the DOIs of the articles to serve, in order
+   * @param revisionNumbers the revision to serve for each DOI, in the same order, or {@code null} to serve each
+   *                        article's latest revision
+   * @return the response
+   * @throws RestClientException if too many articles are requested
+   */
+  public abstract ServiceResponse<ArticleBatchView> serveBatch(List<String> dois, List<Integer> revisionNumbers);
+
   public abstract ArticleItem getArticleItem(ArticleItemIdentifier id);
 
   public abstract Collection<ArticleItem> getAllArticleItems(Doi doi);
@@ -162,10 +205,22 @@ public interface ArticleCrudService {
   public abstract ArticleRevision readRevision(ArticleRevisionIdentifier revisionId);
 
   /**
-   * Get an article's latest revision, if it has any revisions.
+   * Get an article's latest revision, if it has any revisions. This follows the article's {@link
+   * Article#getLatestRevision latest-revision pointer}, so it reflects changes made earlier in the same transaction.
    */
   public abstract Optional<ArticleRevision> getLatestRevision(Article article);
 
+  /**
+   * Get the summaries of many articles at once, from the table that holds the fields of each article's latest revision
+   * (see {@link ArticleSummary}). The articles are read in chunks, so the number of queries does not grow with the
+   * number of articles unless there are hundreds of them. Views of article collections should use this rather than
+   * calling {@link #getLatestRevision} for each article.
+   *
+   * @param articles the articles
+   * @return a map from each article that has any revisions to its summary
+   */
+  public abstract Map<Article, ArticleSummary> getArticleSummaries(Collection<Article> articles);
+
   /**
    * Get the latest revision of an article requested by the client, throwing {@link RestClientException} if the article
    * has no revisions.
@@ -182,6 +237,15 @@ public interface ArticleCrudService {
    */
   public abstract Article readArticle(ArticleIdentifier articleIdentifier);
 
+  /**
+   * Read several articles requested by the client with a constant number of queries, throwing {@link
+   * RestClientException} that names every DOI that is not found.
+   *
+   * @param articleIdentifiers the articles to read
+   * @return the articles, in the same order as their identifiers
+   */
+  public abstract List<Article> readArticles(Collection<ArticleIdentifier> articleIdentifiers);
+
   public abstract Document getManuscriptXml(ArticleIngestion articleIngestion);
 
   public abstract Document getManuscriptXml(RepoObjectMetadata objectMetadata);
@@ -247,6 +311,25 @@ public interface ArticleCrudService {
       int pageNumber, int pageSize, SortOrder sortOrder, Optional<LocalDateTime> fromDate,
       Optional<LocalDateTime> toDate);
 
+  /**
+   * Get a page of article DOIs, for an optional date range, starting after a cursor.
+   * <p>
+   * Unlike {@link #getArticleDoisForDateRange}, the page is found by seeking to the cursor's position in the index on
+   * creation time, so deep pages are as cheap as the first one, and articles created in the meantime don't shift the
+   * pages. The listing is counted only if asked for.
+   *
+   * @param cursor     the position after which to start, or empty to start at the beginning
+   * @param pageSize   the number of results to retrieve
+   * @param sortOrder  the order by method (i.e. order by oldest or newest)
+   * @param fromDate   the starting date range
+   * @param toDate     the ending date range
+   * @param countTotal whether to count all articles in the date range
+   * @return the page of DOIs, with a cursor for the next page if there is one
+   */
+  public abstract ArticleDoiPage getArticleDoiPage(
+      Optional<ArticleDoiCursor> cursor, int pageSize, SortOrder sortOrder, Optional<LocalDateTime> fromDate,
+      Optional<LocalDateTime> toDate, boolean countTotal);
+
   /**
    * Build an ArticleRelationship.
    *
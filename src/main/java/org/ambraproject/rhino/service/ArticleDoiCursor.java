@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service;
+
+import com.google.common.base.Splitter;
+import org.ambraproject.rhino.rest.RestClientException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A position in a listing of article DOIs, ordered by creation time and then by article ID, both oldest first or both
+ * newest first. A page of the listing starts right after the article that the cursor identifies, so that pages are not
+ * shifted by articles created while a client is reading them.
+ * <p>
+ * Clients see cursors only in their {@link #encode encoded} form, which they should treat as opaque.
+ */
+public final class ArticleDoiCursor {
+
+  private static final Splitter FIELD_SPLITTER = Splitter.on(':');
+
+  private final Instant created;
+  private final long articleId;
+
+  public ArticleDoiCursor(Instant created, long articleId) {
+    this.created = Objects.requireNonNull(created);
+    this.articleId = articleId;
+  }
+
+  /**
+   * @return the creation time of the last article before the cursor
+   */
+  public Instant getCreated() {
+    return created;
+  }
+
+  /**
+   * @return the ID of the last article before the cursor
+   */
+  public long getArticleId() {
+    return articleId;
+  }
+
+  /**
+   * @return the cursor as a URL-safe token
+   */
+  public String encode() {
+    String fields = created.getEpochSecond() + ":" + created.getNano() + ":" + articleId;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(fields.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Read a cursor that was given to a client by {@link #encode}.
+   *
+   * @param token the encoded cursor
+   * @return the cursor
+   * @throws RestClientException if the token is not a valid cursor
+   */
+  public static ArticleDoiCursor decode(String token) {
+    try {
+      String fields = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      List<String> values = FIELD_SPLITTER.splitToList(fields);
+      if (values.size() == 3) {
+        Instant created = Instant.ofEpochSecond(Long.parseLong(values.get(0)), Long.parseLong(values.get(1)));
+        return new ArticleDoiCursor(created, Long.parseLong(values.get(2)));
+      }
+    } catch (IllegalArgumentException | DateTimeException e) {
+      // Fall through to report it as a client error. (NumberFormatException is an IllegalArgumentException.)
+    }
+    throw new RestClientException("Invalid cursor: " + token, HttpStatus.BAD_REQUEST);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ArticleDoiCursor that = (ArticleDoiCursor) o;
+    return articleId == that.articleId && created.equals(that.created);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * created.hashCode() + Long.hashCode(articleId);
+  }
+
+  @Override
+  public String toString() {
+    return "ArticleDoiCursor{created=" + created + ", articleId=" + articleId + '}';
+  }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Exports the metadata of the whole article corpus in one pass, for clients such as mirrors and search indexers that
+ * would otherwise read it one article at a time.
+ */
+public interface ArticleExportService {
+
+  /**
+   * Write newline-delimited JSON, with one line for each article that has any revisions, in order of article ID.
+   * Each line holds the article's DOI and, for each of its revisions in order of revision number, the metadata of the
+   * revision's ingestion. Rows are streamed from the database as they are written, so memory use does not grow with
+   * the size of the corpus.
+   *
+   * @param fromDate   if present, export only articles whose latest publication date is on or after it
+   * @param toDate     if present, export only articles whose latest publication date is on or before it
+   * @param journalKey if present, export only articles whose latest revision is in that journal
+   * @param stream     the stream to write to, which is flushed but not closed
+   * @throws IOException if the stream cannot be written
+   */
+  public abstract void exportArticles(Optional<LocalDate> fromDate, Optional<LocalDate> toDate,
+                                      Optional<String> journalKey, OutputStream stream)
+      throws IOException;
+
+}
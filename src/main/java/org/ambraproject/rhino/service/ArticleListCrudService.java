@@ -46,8 +46,39 @@ public interface ArticleListCrudService {
   ArticleListView update(ArticleListIdentity identity, Optional<String> displayName,
                          Optional<? extends Set<ArticleIdentifier>> articleIds);
 
+  /**
+   * Add articles to the end of a list, in iteration order. Articles that are already in the list are left where they
+   * are. Only the added articles' rows are written.
+   *
+   * @param identity   the identity of the list
+   * @param articleIds the articles to add
+   * @return the modified list
+   */
+  ArticleListView addArticles(ArticleListIdentity identity, Set<ArticleIdentifier> articleIds);
+
+  /**
+   * Remove articles from a list, keeping the order of those that remain. Articles that are not in the list are
+   * ignored.
+   *
+   * @param identity   the identity of the list
+   * @param articleIds the articles to remove
+   * @return the modified list
+   */
+  ArticleListView removeArticles(ArticleListIdentity identity, Set<ArticleIdentifier> articleIds);
+
   ServiceResponse<ArticleListView> read(ArticleListIdentity identity);
 
+  /**
+   * Read one page of a list's articles, without loading the rest of the list. The view reports the total number of
+   * articles in the list.
+   *
+   * @param identity   the identity of the list
+   * @param pageNumber the page to read, starting from 1
+   * @param pageSize   the number of articles on each page
+   * @return the list with a page of its articles
+   */
+  ServiceResponse<ArticleListView> readPage(ArticleListIdentity identity, int pageNumber, int pageSize);
+
   /**
    * @return the identities of all lists, excluding article metadata
    */
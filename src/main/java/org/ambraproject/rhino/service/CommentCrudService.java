@@ -52,11 +52,13 @@ public interface CommentCrudService {
   /**
    * Forwards all comments, and any replies associated with them, for a given article to the receiver.  The comments are
    * returned as a list.  Each comment has a "replies" list that contains any replies (recursively).
+   * <p>
+   * The response carries an entity tag for the article's comment tree, so that an unchanged tree is not rebuilt.
    *
    * @param articleId identifies the article
    * @throws IOException
    */
-  public ServiceResponse<List<CommentOutputView>> serveComments(ArticleIdentifier articleId)
+  public CacheableResponse<List<CommentOutputView>> serveComments(ArticleIdentifier articleId)
       throws IOException;
 
   /**
@@ -31,7 +31,7 @@ import java.util.Properties;
 
 public interface ConfigurationReadService {
 
-  public static final ImmutableSet<String> CONFIG_TYPES = ImmutableSet.of("build", "repo", "run");
+  public static final ImmutableSet<String> CONFIG_TYPES = ImmutableSet.of("build", "repo", "run", "metrics");
 
   public abstract Map<String, Object> getRepoConfig();
 
@@ -60,4 +60,10 @@ public interface ConfigurationReadService {
    * Respond with a JSON object containing run time information.
    */
   public abstract ServiceResponse<Map<String, String>> readRunInfo() throws IOException;
+
+  /**
+   * Respond with a JSON object containing the current values from every {@link org.ambraproject.rhino.util.MetricsSource}
+   * in the application, keyed by source name.
+   */
+  public abstract ServiceResponse<Map<String, Map<String, Object>>> readMetrics();
 }
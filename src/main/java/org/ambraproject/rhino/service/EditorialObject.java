@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An editorial (non-article) object read from the content repo, held in memory.
+ */
+public class EditorialObject {
+
+  private final byte[] content;
+  private final String contentType;
+  private final Instant lastModified;
+  private final String entityTag;
+
+  public EditorialObject(byte[] content, String contentType, Instant lastModified, String entityTag) {
+    this.content = Objects.requireNonNull(content);
+    this.contentType = contentType;
+    this.lastModified = Objects.requireNonNull(lastModified);
+    this.entityTag = Objects.requireNonNull(entityTag);
+  }
+
+  /**
+   * @return the object's bytes, which must not be modified
+   */
+  public byte[] getContent() {
+    return content;
+  }
+
+  public Optional<String> getContentType() {
+    return Optional.ofNullable(contentType);
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Return a strong entity tag, including the surrounding quotes, derived from the content repo's version UUID.
+   *
+   * @return the entity tag
+   */
+  public String getEntityTag() {
+    return entityTag;
+  }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service;
+
+import org.ambraproject.rhino.view.journal.JournalTree;
+
+/**
+ * Holds a {@link JournalTree} of the current journals, volumes and issues, so that reads of them are served from
+ * memory. The tree is rebuilt whenever one of them is changed, and after a bounded time in case they were changed by
+ * another server.
+ */
+public interface JournalTreeService {
+
+  /**
+   * Get the current tree, building it first if the data has changed since it was last built or the tree has expired.
+   *
+   * @return the current tree
+   */
+  public abstract JournalTree getJournalTree();
+
+  /**
+   * Mark the tree as out of date because a journal, volume or issue has changed. If a transaction is active, this
+   * happens when it commits, and the tree is then rebuilt from the committed data.
+   */
+  public abstract void invalidate();
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+/**
+ * An ingestion's files, repacked as a zip archive on local disk.
+ */
+public class RepackedArchive implements Closeable {
+
+  private final String archiveName;
+  private final String entityTag;
+  private final FileChannel content;
+
+  public RepackedArchive(String archiveName, String entityTag, FileChannel content) {
+    this.archiveName = Objects.requireNonNull(archiveName);
+    this.entityTag = Objects.requireNonNull(entityTag);
+    this.content = Objects.requireNonNull(content);
+  }
+
+  /**
+   * @return the file name to suggest to clients
+   */
+  public String getArchiveName() {
+    return archiveName;
+  }
+
+  /**
+   * Return a strong entity tag, including the surrounding quotes. The archive's bytes are fully determined by the
+   * ingestion, so the tag identifies its content for as long as the ingestion exists.
+   *
+   * @return the entity tag
+   */
+  public String getEntityTag() {
+    return entityTag;
+  }
+
+  /**
+   * @return a channel from which to read the archive
+   */
+  public FileChannel getContent() {
+    return content;
+  }
+
+  @Override
+  public void close() throws IOException {
+    content.close();
+  }
+
+}
@@ -28,6 +28,9 @@ import com.google.common.base.Strings;
 import com.google.gson.Gson;
 import org.ambraproject.rhino.config.RuntimeConfiguration;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
+import org.ambraproject.rhino.service.JournalTreeService;
+import org.ambraproject.rhino.util.RequestCoalescer;
 import org.plos.crepo.service.ContentRepoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -55,6 +58,65 @@ public abstract class AmbraService {
   @Autowired
   protected RuntimeConfiguration runtimeConfiguration;
 
+  @Autowired(required = false)
+  private JsonResponseCache jsonResponseCache;
+
+  @Autowired(required = false)
+  private RequestCoalescer requestCoalescer;
+
+  @Autowired(required = false)
+  private JournalTreeService journalTreeService;
+
+  /**
+   * Invalidate cached responses that represent entities changed by the current transaction.
+   *
+   * @param tags the tags of the changed entities (see {@link JsonResponseCache})
+   */
+  protected void invalidateResponses(String... tags) {
+    if (jsonResponseCache != null) {
+      jsonResponseCache.invalidate(tags);
+    }
+  }
+
+  /**
+   * Get a key under which to cache an object that is invalidated along with cached responses (see {@link
+   * JsonResponseCache#getTaggedKey}).
+   *
+   * @param key  identifies the cached object, but not its version
+   * @param tags the tags of the entities that the object represents
+   * @return the key, or {@code null} if the object must not be cached
+   */
+  protected String getTaggedCacheKey(String key, String... tags) {
+    return (jsonResponseCache == null) ? null : jsonResponseCache.getTaggedKey(key, tags);
+  }
+
+  /**
+   * Invalidate cached responses for journals, volumes and issues, and rebuild the {@link JournalTreeService journal
+   * tree} once the current transaction commits. Called by every write to a journal, volume or issue.
+   */
+  protected void invalidateJournalHierarchy() {
+    invalidateResponses(JsonResponseCache.JOURNAL_HIERARCHY_TAG);
+    if (journalTreeService != null) {
+      journalTreeService.invalidate();
+    }
+  }
+
+  /**
+   * Share the work of concurrent identical reads (see {@link RequestCoalescer}). The result must be safe to share
+   * between threads, so it must not be a persistent entity.
+   *
+   * @param endpoint    the name of the calling method
+   * @param key         identifies the request among others to the same method
+   * @param computation computes the result
+   * @return the result
+   */
+  protected <V, E extends Exception> V coalesce(String endpoint, Object key,
+                                                RequestCoalescer.Computation<? extends V, E> computation)
+      throws E {
+    return (requestCoalescer == null) ? computation.compute()
+        : requestCoalescer.execute(endpoint, key, computation);
+  }
+
   /**
    * Parse client-provided XML. Errors are handled according to whether they most likely were caused by the client or
    * the server.
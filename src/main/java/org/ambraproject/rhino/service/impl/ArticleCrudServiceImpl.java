@@ -25,11 +25,23 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 
 import com.google.common.base.Joiner;
-import com.google.common.collect.Collections2;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
 import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
 import org.ambraproject.rhino.content.xml.ArticleXml;
 import org.ambraproject.rhino.content.xml.XpathReader;
 import org.ambraproject.rhino.identity.ArticleFileIdentifier;
@@ -45,15 +57,24 @@ import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleItem;
 import org.ambraproject.rhino.model.ArticleRelationship;
 import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
 import org.ambraproject.rhino.model.article.RelatedArticleLink;
 import org.ambraproject.rhino.rest.RestClientException;
 import org.ambraproject.rhino.rest.response.CacheableResponse;
+import org.ambraproject.rhino.rest.response.EntityTags;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.service.ArticleDoiCursor;
 import org.ambraproject.rhino.service.AssetCrudService;
+import org.ambraproject.rhino.service.RepackedArchive;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
 import org.ambraproject.rhino.util.Archive;
+import org.ambraproject.rhino.util.FileCache;
+import org.ambraproject.rhino.view.FieldSelection;
 import org.ambraproject.rhino.view.ResolvedDoiView;
+import org.ambraproject.rhino.view.article.ArticleBatchView;
+import org.ambraproject.rhino.view.article.ArticleDoiPage;
 import org.ambraproject.rhino.view.article.ArticleIngestionView;
 import org.ambraproject.rhino.view.article.ArticleOverview;
 import org.ambraproject.rhino.view.article.ArticleRevisionView;
@@ -63,11 +84,13 @@ import org.ambraproject.rhino.view.article.author.ArticleAllAuthorsView;
 import org.ambraproject.rhino.view.article.author.AuthorView;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.hibernate.Query;
+import org.hibernate.Session;
 import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.ProjectionList;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.plos.crepo.model.identity.RepoVersion;
 import org.plos.crepo.model.metadata.RepoObjectMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,17 +99,28 @@ import org.springframework.http.HttpStatus;
 import org.w3c.dom.Document;
 
 import javax.xml.xpath.XPathException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -103,6 +137,25 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
 
   public static final int MAX_PAGE_SIZE = 1000;
 
+  /**
+   * The most article overviews to hold in {@link #overviewCache}. Each is a few small maps of integers.
+   */
+  private static final int OVERVIEW_CACHE_SIZE = 10000;
+
+  /**
+   * Article overviews, keyed by {@link #getTaggedCacheKey}, so that an entry is never read again once its article's
+   * responses are invalidated (which happens after any ingestion or revision of the article is written). That
+   * invalidation reaches only this server, so entries also expire after the response fresh time, as cached responses
+   * do, to pick up writes made through other servers. Built on first use, because it depends on the runtime
+   * configuration.
+   */
+  private final Supplier<Cache<String, ArticleOverview>> overviewCache = Suppliers.memoize(() ->
+      CacheBuilder.newBuilder()
+          .maximumSize(OVERVIEW_CACHE_SIZE)
+          .expireAfterWrite(runtimeConfiguration.getCacheConfiguration().getResponseFreshTime().toMillis(),
+              TimeUnit.MILLISECONDS)
+          .build());
+
   @Autowired
   AssetCrudService assetCrudService;
   @Autowired
@@ -113,6 +166,10 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
   private ArticleIngestionView.Factory articleIngestionViewFactory;
   @Autowired
   private ItemSetView.Factory itemSetViewFactory;
+  @Autowired
+  private FileCache repackCache;
+  @Autowired
+  private ExecutorService repackPrefetchExecutor;
 
   @Override
   public void populateCategories(ArticleIdentifier articleId) throws IOException {
@@ -128,8 +185,15 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
 
   @Override
   public Document getManuscriptXml(RepoObjectMetadata objectMetadata) {
-    try (InputStream manuscriptInputStream = contentRepoService.getRepoObject(objectMetadata.getVersion())) {
-      return parseXml(manuscriptInputStream);
+    // Share the fetch but not the parsed document, which is not safe to read from more than one thread
+    RepoVersion version = objectMetadata.getVersion();
+    try {
+      byte[] manuscript = coalesce("manuscriptXml", version, () -> {
+        try (InputStream manuscriptInputStream = contentRepoService.getRepoObject(version)) {
+          return ByteStreams.toByteArray(manuscriptInputStream);
+        }
+      });
+      return parseXml(new ByteArrayInputStream(manuscript));
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -147,52 +211,86 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
 
   @Override
   public CacheableResponse<ArticleIngestionView> serveMetadata(final ArticleIngestionIdentifier ingestionId) {
+    return serveMetadata(ingestionId, FieldSelection.ALL);
+  }
+
+  @Override
+  public CacheableResponse<ArticleIngestionView> serveMetadata(ArticleIngestionIdentifier ingestionId,
+                                                               FieldSelection fields) {
     ArticleIngestion ingestion = readIngestion(ingestionId);
-    return CacheableResponse.serveEntity(ingestion, articleIngestionViewFactory::getView);
+    String viewName = fields.isAll() ? "metadata" : "metadata?fields=" + fields;
+    return CacheableResponse.serveEntity(ingestion, getEntityTag(viewName, ingestion),
+        ing -> articleIngestionViewFactory.getView(ing, fields));
   }
 
   @Override
   public CacheableResponse<ItemSetView> serveItems(ArticleIngestionIdentifier ingestionId) {
     ArticleIngestion ingestion = readIngestion(ingestionId);
-    return CacheableResponse.serveEntity(ingestion, itemSetViewFactory::getView);
+    return CacheableResponse.serveEntity(ingestion, getEntityTag("items", ingestion), itemSetViewFactory::getView);
+  }
+
+  /**
+   * Build a strong entity tag for a view of an ingestion. The ingestion's files are fixed when it is ingested, and any
+   * later change to its row (such as setting a preprint DOI) updates its modification time, so its database ID and
+   * modification time identify the version of a view built from it.
+   */
+  private static String getEntityTag(String viewName, ArticleIngestion ingestion) {
+    return EntityTags.strong(viewName, ingestion.getVersionId(), ingestion.getLastModified());
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public ArticleOverview buildOverview(Article article) {
-    return hibernateTemplate.execute(session -> {
-      Query ingestionQuery = session.createQuery("FROM ArticleIngestion WHERE article = :article");
-      ingestionQuery.setParameter("article", article);
-      List<ArticleIngestion> ingestions = ingestionQuery.list();
-
-      Query revisionQuery = session.createQuery("" +
-          "FROM ArticleRevision WHERE ingestion IN " +
-          "  (FROM ArticleIngestion WHERE article = :article)");
-      revisionQuery.setParameter("article", article);
-      List<ArticleRevision> revisions = revisionQuery.list();
-
-      ArticleIdentifier id = ArticleIdentifier.create(article.getDoi());
-      return ArticleOverview.build(id, ingestions, revisions);
-    });
+    return getOverview(ArticleIdentifier.create(article.getDoi()));
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public ServiceResponse<ArticleOverview> serveOverview(ArticleIdentifier id) {
-    ArticleOverview view = hibernateTemplate.execute(session -> {
-      Query ingestionQuery = session.createQuery("FROM ArticleIngestion WHERE article.doi = :doi");
-      ingestionQuery.setParameter("doi", id.getDoiName());
-      List<ArticleIngestion> ingestions = ingestionQuery.list();
-
-      Query revisionQuery = session.createQuery("" +
-          "FROM ArticleRevision WHERE ingestion IN " +
-          "  (FROM ArticleIngestion WHERE article.doi = :doi)");
-      revisionQuery.setParameter("doi", id.getDoiName());
-      List<ArticleRevision> revisions = revisionQuery.list();
-
-      return ArticleOverview.build(id, ingestions, revisions);
-    });
-    return ServiceResponse.serveView(view);
+    return ServiceResponse.serveView(getOverview(id));
+  }
+
+  /**
+   * Get an article's overview from the cache, or read it if it is not cached or if it must not be cached because the
+   * current transaction writes data.
+   */
+  private ArticleOverview getOverview(ArticleIdentifier id) {
+    String cacheKey = getTaggedCacheKey("overview:" + id.getDoiName(), JsonResponseCache.articleTag(id));
+    if (cacheKey == null) {
+      return readOverview(id);
+    }
+    try {
+      return overviewCache.get().get(cacheKey, () -> readOverview(id));
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private ArticleOverview readOverview(ArticleIdentifier id) {
+    return hibernateTemplate.execute(session -> readOverview(session, id));
+  }
+
+  /**
+   * Read the ingestion and revision numbers of an article in one round trip. The outer join gives one row for each
+   * revision, plus one row with a null revision number for each ingestion that has no revision.
+   */
+  @SuppressWarnings("unchecked")
+  private static ArticleOverview readOverview(Session session, ArticleIdentifier id) {
+    Query query = session.createQuery("" +
+        "SELECT ingestion.ingestionNumber, rev.revisionNumber " +
+        "FROM ArticleRevision rev RIGHT JOIN rev.ingestion ingestion JOIN ingestion.article article " +
+        "WHERE article.doi = :doi");
+    query.setParameter("doi", id.getDoiName());
+    List<Object[]> rows = query.list();
+
+    List<Integer> ingestionNumbers = new ArrayList<>(rows.size());
+    Map<Integer, Integer> revisionTable = new LinkedHashMap<>();
+    for (Object[] row : rows) {
+      Integer ingestionNumber = (Integer) row[0];
+      ingestionNumbers.add(ingestionNumber);
+      if (row[1] != null) {
+        revisionTable.put((Integer) row[1], ingestionNumber);
+      }
+    }
+    return ArticleOverview.buildFromNumbers(id, ingestionNumbers, revisionTable);
   }
 
   @Override
@@ -208,13 +306,173 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
   @Override
   public CacheableResponse<ArticleRevisionView> serveRevision(ArticleRevisionIdentifier revisionId) {
     ArticleRevision revision = readRevision(revisionId);
-    return CacheableResponse.serveEntity(revision, ArticleRevisionView::getView);
+    String entityTag = EntityTags.strong("revision", revision.getRevisionId(), revision.getRevisionNumber(),
+        revision.getIngestion().getVersionId());
+    return CacheableResponse.serveEntity(revision, entityTag, ArticleRevisionView::getView);
+  }
+
+  /**
+   * The largest number of articles that may be requested from {@link #serveBatch}, to keep the IN-lists in its queries
+   * a reasonable size.
+   */
+  public static final int MAX_BATCH_SIZE = 200;
+
+  /**
+   * Matches the name of a DOI, such as {@code 10.1371/journal.pone.0000001}, after any URI prefix has been removed.
+   */
+  private static final Pattern DOI_NAME_PATTERN = Pattern.compile("\\d+\\.\\d+/\\S+");
+
+  @Override
+  public ServiceResponse<ArticleBatchView> serveBatch(List<String> dois, List<Integer> revisionNumbers) {
+    Preconditions.checkArgument(revisionNumbers == null || revisionNumbers.size() == dois.size());
+
+    // Each DOI is answered under the spelling it was requested with. A DOI requested twice with different revisions
+    // can have only one answer under that key, so it is reported as an error instead of serving either one.
+    Map<String, Integer> requests = new LinkedHashMap<>(); // values are null to request the latest revision
+    Set<String> conflicts = new HashSet<>();
+    for (int i = 0; i < dois.size(); i++) {
+      String doi = dois.get(i);
+      Integer revisionNumber = (revisionNumbers == null) ? null : revisionNumbers.get(i);
+      if (requests.containsKey(doi) && !Objects.equals(requests.get(doi), revisionNumber)) {
+        conflicts.add(doi);
+      }
+      requests.putIfAbsent(doi, revisionNumber);
+    }
+    if (requests.size() > MAX_BATCH_SIZE) {
+      throw new RestClientException("Cannot request more than " + MAX_BATCH_SIZE + " articles at once",
+          HttpStatus.BAD_REQUEST);
+    }
+
+    // DOIs are case-insensitive, so index everything by ArticleIdentifier rather than by DOI string
+    Set<ArticleIdentifier> distinctIds = new LinkedHashSet<>();
+    for (String doi : requests.keySet()) {
+      ArticleIdentifier articleId = ArticleIdentifier.create(doi);
+      if (!conflicts.contains(doi) && DOI_NAME_PATTERN.matcher(articleId.getDoiName()).matches()) {
+        distinctIds.add(articleId);
+      }
+    }
+    List<String> queryDois = distinctIds.stream().map(ArticleIdentifier::getDoiName).collect(Collectors.toList());
+    List<Article> articles;
+    List<Object[]> ingestionNumbers;
+    List<ArticleRevision> revisions;
+    if (queryDois.isEmpty()) {
+      articles = ImmutableList.of();
+      ingestionNumbers = ImmutableList.of();
+      revisions = ImmutableList.of();
+    } else {
+      articles = readBatchArticles(queryDois);
+      ingestionNumbers = readBatchIngestionNumbers(queryDois);
+      revisions = readBatchRevisions(queryDois);
+    }
+
+    // Rows whose DOIs differ only in case have the same identifier; serve the first instead of failing the batch
+    Map<ArticleIdentifier, Article> articlesById = new HashMap<>();
+    for (Article article : articles) {
+      articlesById.putIfAbsent(ArticleIdentifier.create(article.getDoi()), article);
+    }
+    ListMultimap<ArticleIdentifier, Integer> ingestionNumbersById = ArrayListMultimap.create();
+    for (Object[] row : ingestionNumbers) {
+      ingestionNumbersById.put(ArticleIdentifier.create((String) row[0]), (Integer) row[1]);
+    }
+    ListMultimap<ArticleIdentifier, ArticleRevision> revisionsById = Multimaps.index(revisions,
+        revision -> ArticleIdentifier.create(revision.getIngestion().getArticle().getDoi()));
+
+    ArticleBatchView view = new ArticleBatchView();
+    for (Map.Entry<String, Integer> request : requests.entrySet()) {
+      String doi = request.getKey();
+      if (conflicts.contains(doi)) {
+        view.addError(doi, new RestClientException("More than one revision requested for " + doi,
+            HttpStatus.BAD_REQUEST));
+        continue;
+      }
+      ArticleIdentifier articleId = ArticleIdentifier.create(doi);
+      if (!DOI_NAME_PATTERN.matcher(articleId.getDoiName()).matches()) {
+        view.addError(doi, new RestClientException("Not a valid DOI: " + doi, HttpStatus.BAD_REQUEST));
+        continue;
+      }
+      if (!articlesById.containsKey(articleId)) {
+        view.addError(doi, new RestClientException("Article not found: " + articleId, HttpStatus.NOT_FOUND));
+        continue;
+      }
+      List<ArticleRevision> articleRevisions = revisionsById.get(articleId);
+
+      Optional<ArticleRevision> revision;
+      Integer revisionNumber = request.getValue();
+      if (revisionNumber == null) {
+        revision = articleRevisions.stream().max(Comparator.comparingInt(ArticleRevision::getRevisionNumber));
+        if (!revision.isPresent()) {
+          view.addError(doi,
+              new RestClientException("No revisions found for " + articleId.getDoiName(), HttpStatus.NOT_FOUND));
+          continue;
+        }
+      } else {
+        revision = articleRevisions.stream()
+            .filter(articleRevision -> articleRevision.getRevisionNumber() == revisionNumber)
+            .findAny();
+        if (!revision.isPresent()) {
+          ArticleRevisionIdentifier revisionId = ArticleRevisionIdentifier.create(articleId, revisionNumber);
+          view.addError(doi, new RestClientException("Revision not found: " + revisionId, HttpStatus.NOT_FOUND));
+          continue;
+        }
+      }
+
+      ArticleOverview overview = ArticleOverview.buildFromIngestionNumbers(articleId,
+          ingestionNumbersById.get(articleId), articleRevisions);
+      view.addArticle(doi, ArticleRevisionView.getView(revision.get()), overview);
+    }
+    return ServiceResponse.serveView(view);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Article> readBatchArticles(List<String> dois) {
+    return hibernateTemplate.execute(session -> {
+      Query query = session.createQuery("FROM Article WHERE doi IN (:dois)");
+      query.setParameterList("dois", dois);
+      return (List<Article>) query.list();
+    });
+  }
+
+  /**
+   * Only the numbers are needed for the overviews, so don't load ingestions that have no revision.
+   */
+  @SuppressWarnings("unchecked")
+  private List<Object[]> readBatchIngestionNumbers(List<String> dois) {
+    return hibernateTemplate.execute(session -> {
+      Query query = session.createQuery("" +
+          "SELECT article.doi, ingestionNumber " +
+          "FROM ArticleIngestion " +
+          "WHERE article.doi IN (:dois)");
+      query.setParameterList("dois", dois);
+      return (List<Object[]>) query.list();
+    });
+  }
+
+  /**
+   * Fetch everything that ArticleRevisionView reads, including the eager associations that Hibernate would otherwise
+   * load with a separate query for each row.
+   */
+  @SuppressWarnings("unchecked")
+  private List<ArticleRevision> readBatchRevisions(List<String> dois) {
+    return hibernateTemplate.execute(session -> {
+      Query query = session.createQuery("" +
+          "SELECT DISTINCT rev " +
+          "FROM ArticleRevision rev " +
+          "  JOIN FETCH rev.ingestion ing " +
+          "  JOIN FETCH ing.article " +
+          "  JOIN FETCH ing.journal " +
+          "  LEFT JOIN FETCH ing.strikingImage image " +
+          "  LEFT JOIN FETCH image.files " +
+          "WHERE rev.ingestion.article.doi IN (:dois)");
+      query.setParameterList("dois", dois);
+      return (List<ArticleRevision>) query.list();
+    });
   }
 
   @Override
   public CacheableResponse<ArticleAllAuthorsView> serveAuthors(ArticleIngestionIdentifier ingestionId) {
     ArticleIngestion articleIngestion = readIngestion(ingestionId);
-    return CacheableResponse.serveEntity(articleIngestion, ing -> parseAuthors(getManuscriptXml(ing)));
+    return CacheableResponse.serveEntity(articleIngestion, getEntityTag("authors", articleIngestion),
+        ing -> parseAuthors(getManuscriptXml(ing)));
   }
 
   private ArticleAllAuthorsView parseAuthors(Document doc) {
@@ -350,10 +608,19 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
 
   @Override
   public Archive repack(ArticleIngestionIdentifier ingestionId) {
-    ArticleIngestion ingestion = readIngestion(ingestionId);
+    return repack(readIngestion(ingestionId), getRepackedArchiveName(ingestionId));
+  }
+
+  private static String getRepackedArchiveName(ArticleIngestionIdentifier ingestionId) {
+    return extractFilenameStub(ingestionId.getDoiName()) + ".zip";
+  }
+
+  private Archive repack(ArticleIngestion ingestion, String archiveName) {
     @SuppressWarnings("unchecked")
     List<ArticleFile> files = hibernateTemplate.execute(session -> {
-      Query query = session.createQuery("FROM ArticleFile WHERE ingestion = :ingestion");
+      Query query = session.createQuery("" +
+          "FROM ArticleFile file LEFT JOIN FETCH file.item " +
+          "WHERE file.ingestion = :ingestion");
       query.setParameter("ingestion", ingestion);
       return (List<ArticleFile>) query.list();
     });
@@ -367,7 +634,25 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
           }
         }));
 
-    return Archive.pack(extractFilenameStub(ingestionId.getDoiName()) + ".zip", archiveMap);
+    // Sort entries by name so that the archive is the same every time it is packed
+    return Archive.pack(archiveName, ImmutableSortedMap.copyOf(archiveMap));
+  }
+
+  @Override
+  public RepackedArchive repackToFile(ArticleIngestionIdentifier ingestionId) throws IOException {
+    ArticleIngestion ingestion = readIngestion(ingestionId);
+    String archiveName = getRepackedArchiveName(ingestionId);
+    FileChannel content = repackCache.open("ingestion-" + ingestion.getVersionId(), (OutputStream stream) -> {
+      int prefetchDepth = runtimeConfiguration.getRepackConfiguration().getPrefetchDepth();
+      Archive archive = repack(ingestion, archiveName);
+      if (prefetchDepth > 0) {
+        archive.write(stream, repackPrefetchExecutor, prefetchDepth);
+      } else {
+        archive.write(stream);
+      }
+    });
+    String entityTag = String.format("\"%d-%x\"", ingestion.getVersionId(), content.size());
+    return new RepackedArchive(archiveName, entityTag, content);
   }
 
   private static final Pattern FILENAME_STUB_PATTERN = Pattern.compile("(?:[^/]*/)*?([^/]*)/?");
@@ -380,10 +665,11 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
   @Override
   public ArticleItem getArticleItem(ArticleItemIdentifier id) {
     return hibernateTemplate.execute(session -> {
+      // Every caller reads the item's files, which are not loaded by default
       Query query = session.createQuery("" +
-          "FROM ArticleItem " +
-          "WHERE doi = :doi " +
-          "  AND ingestion.ingestionNumber = :ingestionNumber");
+          "SELECT DISTINCT item FROM ArticleItem item LEFT JOIN FETCH item.files " +
+          "WHERE item.doi = :doi " +
+          "  AND item.ingestion.ingestionNumber = :ingestionNumber");
       query.setParameter("doi", id.getDoiName());
       query.setParameter("ingestionNumber", id.getIngestionNumber());
       return (ArticleItem) query.uniqueResult();
@@ -418,25 +704,35 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
   @Override
   public Optional<ResolvedDoiView> getItemOverview(Doi doi) {
     return (Optional<ResolvedDoiView>) hibernateTemplate.execute(session -> {
-      Query ingestionQuery = session.createQuery("FROM ArticleItem WHERE doi = :doi");
-      ingestionQuery.setParameter("doi", doi.getName());
-      List<ArticleItem> items = ingestionQuery.list();
-      if (items.isEmpty()) return Optional.empty();
+      // Read the items with the revision numbers of their ingestions, with a null revision number for each ingestion
+      // that has no revision, so that the overview needs no second query.
+      Query query = session.createQuery("" +
+          "SELECT item, rev.revisionNumber " +
+          "FROM ArticleRevision rev RIGHT JOIN rev.ingestion ingestion, ArticleItem item " +
+          "WHERE item.ingestion = ingestion AND item.doi = :doi");
+      query.setParameter("doi", doi.getName());
+      List<Object[]> rows = query.list();
+      if (rows.isEmpty()) return Optional.empty();
+
+      Set<ArticleItem> items = new LinkedHashSet<>();
+      Map<Integer, Integer> revisionTable = new LinkedHashMap<>();
+      for (Object[] row : rows) {
+        ArticleItem item = (ArticleItem) row[0];
+        items.add(item);
+        if (row[1] != null) {
+          revisionTable.put((Integer) row[1], item.getIngestion().getIngestionNumber());
+        }
+      }
 
       ResolvedDoiView.DoiWorkType type = items.stream().allMatch(ArticleCrudServiceImpl::isMainArticleItem)
           ? ResolvedDoiView.DoiWorkType.ARTICLE : ResolvedDoiView.DoiWorkType.ASSET;
       ArticleIdentifier articleId = Iterables.getOnlyElement(items.stream()
           .map(item -> ArticleIdentifier.create(item.getIngestion().getArticle().getDoi()))
           .collect(Collectors.toSet()));
-
-      Query revisionQuery = session.createQuery("" +
-          "FROM ArticleRevision WHERE ingestion IN " +
-          "  (SELECT ingestion FROM ArticleItem WHERE doi = :doi)");
-      revisionQuery.setParameter("doi", doi.getName());
-      List<ArticleRevision> revisions = revisionQuery.list();
-
-      Collection<ArticleIngestion> ingestions = Collections2.transform(items, ArticleItem::getIngestion);
-      ArticleOverview articleOverview = ArticleOverview.build(articleId, ingestions, revisions);
+      List<Integer> ingestionNumbers = items.stream()
+          .map(item -> item.getIngestion().getIngestionNumber())
+          .collect(Collectors.toList());
+      ArticleOverview articleOverview = ArticleOverview.buildFromNumbers(articleId, ingestionNumbers, revisionTable);
       return Optional.of(ResolvedDoiView.createForArticle(doi, type, articleOverview));
     });
   }
@@ -481,28 +777,44 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
 
   @Override
   public Optional<ArticleRevision> getLatestRevision(Article article) {
-    Integer maxRevisionNumber = hibernateTemplate.execute(session -> {
-      Query query = session.createQuery("" +
-          "SELECT MAX(rev.revisionNumber) " +
-          "FROM ArticleRevision rev, ArticleItem item " +
-          "WHERE item.doi = :doi " +
-          "  AND rev.ingestion = item.ingestion");
-      query.setParameter("doi", Doi.create(article.getDoi()).getName());
-      return (Integer) query.uniqueResult();
-    });
-    if (maxRevisionNumber == null) return Optional.empty();
     return Optional.ofNullable(hibernateTemplate.execute(session -> {
       Query query = session.createQuery("" +
-          "FROM ArticleRevision as av " +
-          "WHERE av.ingestion.article = :article " +
-          "AND av.revisionNumber = :latestRevision"
-      );
+          "SELECT rev FROM Article article " +
+          "JOIN article.latestRevision rev " +
+          "JOIN FETCH rev.ingestion " +
+          "WHERE article = :article");
       query.setParameter("article", article);
-      query.setParameter("latestRevision", maxRevisionNumber);
       return (ArticleRevision) query.uniqueResult();
     }));
   }
 
+  /**
+   * The number of articles whose summaries are read by one query, to keep each query's IN-list a manageable size.
+   */
+  static final int SUMMARY_CHUNK_SIZE = 500;
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Map<Article, ArticleSummary> getArticleSummaries(Collection<Article> articles) {
+    Map<Long, Article> articlesById = articles.stream()
+        .filter(article -> article.getArticleId() != null)
+        .collect(Collectors.toMap(Article::getArticleId, article -> article, (a, b) -> a));
+    if (articlesById.isEmpty()) return ImmutableMap.of();
+    return hibernateTemplate.execute(session -> {
+      Map<Article, ArticleSummary> summaries = Maps.newHashMapWithExpectedSize(articlesById.size());
+      for (List<Long> chunk : Lists.partition(ImmutableList.copyOf(articlesById.keySet()), SUMMARY_CHUNK_SIZE)) {
+        Query query = session.createQuery("" +
+            "FROM ArticleSummary summary JOIN FETCH summary.journal " +
+            "WHERE summary.articleId IN (:articleIds)");
+        query.setParameterList("articleIds", chunk);
+        for (ArticleSummary summary : (List<ArticleSummary>) query.list()) {
+          summaries.put(articlesById.get(summary.getArticleId()), summary);
+        }
+      }
+      return summaries;
+    });
+  }
+
   @Override
   public ArticleRevision readLatestRevision(Article article) {
     return getLatestRevision(article).orElseThrow(() ->
@@ -524,6 +836,51 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
         new RestClientException("Article not found: " + articleIdentifier, HttpStatus.NOT_FOUND));
   }
 
+  /**
+   * The number of DOIs bound into each query of {@link #readArticles}, so that resolving a long list is a few queries
+   * rather than one with an IN-list that some databases would reject or plan poorly.
+   */
+  static final int READ_ARTICLES_CHUNK_SIZE = 500;
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<Article> readArticles(Collection<ArticleIdentifier> articleIdentifiers) {
+    if (articleIdentifiers.isEmpty()) return ImmutableList.of();
+    List<String> dois = articleIdentifiers.stream()
+        .map(ArticleIdentifier::getDoiName)
+        .distinct()
+        .collect(Collectors.toList());
+
+    // DOIs are case-insensitive, so index the results by ArticleIdentifier rather than by DOI string
+    Map<ArticleIdentifier, Article> articlesById = hibernateTemplate.execute(session -> {
+      Map<ArticleIdentifier, Article> found = Maps.newHashMapWithExpectedSize(dois.size());
+      for (List<String> chunk : Lists.partition(dois, READ_ARTICLES_CHUNK_SIZE)) {
+        Query query = session.createQuery("FROM Article WHERE doi IN (:dois)");
+        query.setParameterList("dois", chunk);
+        for (Article article : (List<Article>) query.list()) {
+          found.put(ArticleIdentifier.create(article.getDoi()), article);
+        }
+      }
+      return found;
+    });
+
+    List<Article> articles = new ArrayList<>(articleIdentifiers.size());
+    Set<String> missingDois = new LinkedHashSet<>();
+    for (ArticleIdentifier articleIdentifier : articleIdentifiers) {
+      Article article = articlesById.get(articleIdentifier);
+      if (article == null) {
+        missingDois.add(articleIdentifier.getDoiName());
+      } else {
+        articles.add(article);
+      }
+    }
+    if (!missingDois.isEmpty()) {
+      throw new RestClientException("Articles not found with DOIs: " + new Gson().toJson(missingDois),
+          HttpStatus.NOT_FOUND);
+    }
+    return articles;
+  }
+
   @Override
   public Collection<ArticleRevision> getArticlesPublishedOn(LocalDate fromDate, LocalDate toDate) {
     return getArticlesPublishedOn(fromDate, toDate, null);
@@ -603,6 +960,7 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
     final ArticleIngestion articleIngestion = readIngestion(articleId);
     articleIngestion.setPreprintDoi(preprintOfDoi);
     hibernateTemplate.save(articleIngestion);
+    invalidateResponses(JsonResponseCache.articleTag(articleId.getArticleIdentifier()));
   }
 
   @Override
@@ -665,4 +1023,62 @@ public class ArticleCrudServiceImpl extends AmbraService implements ArticleCrudS
     }
     return ImmutableList.of();
   }
+
+  @Override
+  public ArticleDoiPage getArticleDoiPage(
+      Optional<ArticleDoiCursor> cursor, int pageSize, SortOrder sortOrder, Optional<LocalDateTime> fromDate,
+      Optional<LocalDateTime> toDate, boolean countTotal) {
+    final int maxResults = max(min(pageSize, MAX_PAGE_SIZE), 1);
+    return hibernateTemplate.execute(session -> {
+      List<String> restrictions = new ArrayList<>(3);
+      fromDate.ifPresent(date -> restrictions.add("article.created >= :fromDate"));
+      toDate.ifPresent(date -> restrictions.add("article.created <= :toDate"));
+
+      Long totalCount = null;
+      if (countTotal) {
+        Query countQuery = session.createQuery("SELECT COUNT(*) FROM Article article" + buildWhereClause(restrictions));
+        setDateRange(countQuery, fromDate, toDate);
+        totalCount = (Long) countQuery.uniqueResult();
+      }
+
+      // The articleId tiebreaker runs in the same direction as created, so that the order matches the article_created
+      // index (to which InnoDB appends the primary key) read forwards or backwards, without a filesort. The seek is
+      // "(created, articleId) > (:created, :articleId)", or < when descending, spelled out as HQL has no row values.
+      String direction = (sortOrder == SortOrder.OLDEST) ? "ASC" : "DESC";
+      String seekOperator = (sortOrder == SortOrder.OLDEST) ? ">" : "<";
+      if (cursor.isPresent()) {
+        restrictions.add("(article.created " + seekOperator + " :cursorCreated" +
+            " OR (article.created = :cursorCreated AND article.articleId " + seekOperator + " :cursorArticleId))");
+      }
+      Query query = session.createQuery("" +
+          "SELECT article.doi, article.created, article.articleId FROM Article article" +
+          buildWhereClause(restrictions) +
+          " ORDER BY article.created " + direction + ", article.articleId " + direction);
+      setDateRange(query, fromDate, toDate);
+      if (cursor.isPresent()) {
+        query.setTimestamp("cursorCreated", java.sql.Timestamp.from(cursor.get().getCreated()));
+        query.setLong("cursorArticleId", cursor.get().getArticleId());
+      }
+      query.setMaxResults(maxResults + 1); // One extra row to tell whether there is a next page
+
+      List<Object[]> rows = (List<Object[]>) query.list();
+      List<Object[]> page = rows.subList(0, min(rows.size(), maxResults));
+      List<String> dois = page.stream().map(row -> (String) row[0]).collect(Collectors.toList());
+      String nextCursor = null;
+      if (rows.size() > maxResults) {
+        Object[] last = page.get(page.size() - 1);
+        nextCursor = new ArticleDoiCursor(((java.util.Date) last[1]).toInstant(), (Long) last[2]).encode();
+      }
+      return new ArticleDoiPage(dois, nextCursor, totalCount);
+    });
+  }
+
+  private static String buildWhereClause(List<String> restrictions) {
+    return restrictions.isEmpty() ? "" : " WHERE " + Joiner.on(" AND ").join(restrictions);
+  }
+
+  private static void setDateRange(Query query, Optional<LocalDateTime> fromDate, Optional<LocalDateTime> toDate) {
+    fromDate.ifPresent(date -> query.setTimestamp("fromDate", java.sql.Timestamp.valueOf(date)));
+    toDate.ifPresent(date -> query.setTimestamp("toDate", java.sql.Timestamp.valueOf(date)));
+  }
 }
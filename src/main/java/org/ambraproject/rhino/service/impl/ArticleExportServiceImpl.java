@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import org.ambraproject.rhino.service.ArticleExportService;
+import org.ambraproject.rhino.view.article.ArticleExportView;
+import org.ambraproject.rhino.view.article.ArticleExportView.RevisionExport;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class ArticleExportServiceImpl extends AmbraService implements ArticleExportService {
+
+  /**
+   * The fetch size that makes MySQL Connector/J stream rows one at a time. The driver ignores any other fetch size
+   * (unless the connection is configured with {@code useCursorFetch}) and reads the whole result set into memory.
+   */
+  static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  @Override
+  public void exportArticles(Optional<LocalDate> fromDate, Optional<LocalDate> toDate,
+                             Optional<String> journalKey, OutputStream stream)
+      throws IOException {
+    List<String> restrictions = new ArrayList<>(3);
+    fromDate.ifPresent(date -> restrictions.add("article.latestPublicationDate >= :fromDate"));
+    toDate.ifPresent(date -> restrictions.add("article.latestPublicationDate <= :toDate"));
+    // Filter whole articles by the journal of their latest revision, so that an article whose revisions were ingested
+    // into different journals is exported with all of its revisions
+    journalKey.ifPresent(key -> restrictions.add("article.latestRevision.ingestion.journal.journalKey = :journalKey"));
+    String hql = "" +
+        "SELECT article.articleId, article.doi, rev.revisionNumber, ingestion.ingestionNumber, journal.journalKey, " +
+        "  ingestion.title, ingestion.articleType, ingestion.publicationStage, " +
+        "  ingestion.publicationDate, ingestion.revisionDate " +
+        "FROM ArticleRevision rev " +
+        "JOIN rev.ingestion ingestion " +
+        "JOIN ingestion.article article " +
+        "JOIN ingestion.journal journal " +
+        (restrictions.isEmpty() ? "" : "WHERE " + Joiner.on(" AND ").join(restrictions) + " ") +
+        "ORDER BY article.articleId, rev.revisionNumber";
+
+    Writer writer = new BufferedWriter(new OutputStreamWriter(stream, Charsets.UTF_8), BUFFER_SIZE);
+    // A stateless session keeps no persistence context, and the query selects only scalars, so nothing accumulates
+    // in memory as the rows are scrolled.
+    StatelessSession session = hibernateTemplate.getSessionFactory().openStatelessSession();
+    try {
+      Query query = session.createQuery(hql);
+      fromDate.ifPresent(date -> query.setDate("fromDate", Date.valueOf(date)));
+      toDate.ifPresent(date -> query.setDate("toDate", Date.valueOf(date)));
+      journalKey.ifPresent(key -> query.setString("journalKey", key));
+      query.setReadOnly(true);
+      query.setFetchSize(STREAMING_FETCH_SIZE);
+
+      ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+      try {
+        Long currentArticleId = null;
+        String currentDoi = null;
+        List<RevisionExport> revisions = new ArrayList<>();
+        while (results.next()) {
+          Object[] row = results.get();
+          Long articleId = (Long) row[0];
+          if (!articleId.equals(currentArticleId)) {
+            if (currentArticleId != null) {
+              writeLine(writer, new ArticleExportView(currentDoi, revisions));
+              revisions.clear();
+            }
+            currentArticleId = articleId;
+            currentDoi = (String) row[1];
+          }
+          revisions.add(new RevisionExport((Integer) row[2], (Integer) row[3], (String) row[4],
+              (String) row[5], (String) row[6], (String) row[7], toLocalDate(row[8]), toLocalDate(row[9])));
+        }
+        if (currentArticleId != null) {
+          writeLine(writer, new ArticleExportView(currentDoi, revisions));
+        }
+      } finally {
+        results.close();
+      }
+    } finally {
+      session.close();
+    }
+    writer.flush();
+  }
+
+  private void writeLine(Writer writer, ArticleExportView view) throws IOException {
+    entityGson.toJson(view, ArticleExportView.class, writer);
+    writer.write('\n');
+  }
+
+  private static LocalDate toLocalDate(Object date) {
+    return (date == null) ? null : ((Date) date).toLocalDate();
+  }
+
+}
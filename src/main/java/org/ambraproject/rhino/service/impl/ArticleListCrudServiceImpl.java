@@ -23,16 +23,15 @@
 package org.ambraproject.rhino.service.impl;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
-import com.google.gson.Gson;
 import org.ambraproject.rhino.identity.ArticleIdentifier;
 import org.ambraproject.rhino.identity.ArticleListIdentity;
 import org.ambraproject.rhino.model.Article;
 import org.ambraproject.rhino.model.ArticleList;
 import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
+import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.service.ArticleListCrudService;
 import org.ambraproject.rhino.view.journal.ArticleListView;
 import org.hibernate.Query;
@@ -46,15 +45,19 @@ import org.springframework.orm.hibernate3.HibernateCallback;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
 public class ArticleListCrudServiceImpl extends AmbraService implements ArticleListCrudService {
 
+  public static final int MAX_PAGE_SIZE = 1000;
+
+  @Autowired
+  private ArticleCrudService articleCrudService;
   @Autowired
   private ArticleListView.Factory articleListViewFactory;
 
@@ -101,6 +104,7 @@ public class ArticleListCrudServiceImpl extends AmbraService implements ArticleL
     }
     journalLists.add(list);
     hibernateTemplate.update(journal);
+    invalidateResponses(JsonResponseCache.ARTICLE_LISTS_TAG);
 
     return articleListViewFactory.getView(list, journal.getJournalKey());
   }
@@ -136,56 +140,99 @@ public class ArticleListCrudServiceImpl extends AmbraService implements ArticleL
 
     if (articleIds.isPresent()) {
       List<Article> newArticles = fetchArticles(articleIds.get());
-      List<Article> oldArticles = list.getArticles();
-      oldArticles.clear();
-      oldArticles.addAll(newArticles);
+      replaceInPlace(list.getArticles(), newArticles);
     }
 
     hibernateTemplate.update(list);
+    invalidateResponses(JsonResponseCache.ARTICLE_LISTS_TAG);
     return listView;
   }
 
-  /**
-   * Fetch all articles with the given IDs, in the same iteration error.
-   *
-   * @param articleIds a set of article IDs
-   * @return the articles in the same order, if all exist
-   * @throws RestClientException if not every article ID belongs to an existing article
-   */
-  private List<Article> fetchArticles(Set<ArticleIdentifier> articleIds) {
-    if (articleIds.isEmpty()) return ImmutableList.of();
-    final Map<String, Integer> articleKeys = new HashMap<>();
-    int i = 0;
+  @Override
+  public ArticleListView addArticles(ArticleListIdentity identity, Set<ArticleIdentifier> articleIds) {
+    ArticleListView listView = getArticleList(identity);
+    ArticleList list = listView.getArticleList();
+    List<Article> articles = list.getArticles();
+
+    Set<String> memberKeys = new HashSet<>();
+    for (Article article : articles) {
+      memberKeys.add(article.getDoi());
+    }
+    Set<ArticleIdentifier> newArticleIds = new LinkedHashSet<>();
     for (ArticleIdentifier articleId : articleIds) {
-      articleKeys.put(articleId.getDoiName(), i++);
+      if (!memberKeys.contains(articleId.getDoiName())) {
+        newArticleIds.add(articleId);
+      }
     }
+    if (newArticleIds.isEmpty()) return listView;
 
-    List<Article> articles = (List<Article>) hibernateTemplate.findByNamedParam(
-        "from Article where doi in :articleKeys", "articleKeys", articleKeys.keySet());
-    if (articles.size() < articleKeys.size()) {
-      throw new RestClientException(buildMissingArticleMessage(articles, articleKeys.keySet()), HttpStatus.NOT_FOUND);
-    }
+    articles.addAll(fetchArticles(newArticleIds));
+    hibernateTemplate.update(list);
+    invalidateResponses(JsonResponseCache.ARTICLE_LISTS_TAG);
+    return listView;
+  }
 
-    Collections.sort(articles, (a1, a2) -> {
-      // We expect the error check above to guarantee that both values will be found in the map
-      int i1 = articleKeys.get(a1.getDoi());
-      int i2 = articleKeys.get(a2.getDoi());
-      return i1 - i2;
-    });
+  @Override
+  public ArticleListView removeArticles(ArticleListIdentity identity, Set<ArticleIdentifier> articleIds) {
+    ArticleListView listView = getArticleList(identity);
+    ArticleList list = listView.getArticleList();
+    List<Article> articles = list.getArticles();
+
+    Set<String> removedKeys = new HashSet<>();
+    for (ArticleIdentifier articleId : articleIds) {
+      removedKeys.add(articleId.getDoiName());
+    }
+    List<Article> remaining = new ArrayList<>(articles.size());
+    for (Article article : articles) {
+      if (!removedKeys.contains(article.getDoi())) {
+        remaining.add(article);
+      }
+    }
+    if (remaining.size() == articles.size()) return listView;
 
-    return articles;
+    replaceInPlace(articles, remaining);
+    hibernateTemplate.update(list);
+    invalidateResponses(JsonResponseCache.ARTICLE_LISTS_TAG);
+    return listView;
   }
 
-  private static String buildMissingArticleMessage(Collection<Article> foundArticles, Collection<String> requestedArticleKeys) {
-    ImmutableSet.Builder<String> foundArticleKeys = ImmutableSet.builder();
-    for (Article foundArticle : foundArticles) {
-      foundArticleKeys.add(foundArticle.getDoi());
+  /**
+   * Change a list to be equal to another by modifying only the positions that differ.
+   * <p>
+   * Article lists are persisted with an order column, and Hibernate writes one join row for each position that differs
+   * from the loaded snapshot. Clearing the list and adding everything back would rewrite every row; this instead
+   * replaces the elements that changed and then adds or removes only at the tail. Reordering two articles therefore
+   * updates two rows, and appending an article inserts one. Removing from the middle still shifts every later
+   * position, which is inherent to storing the order as a column.
+   *
+   * @param list        the list to modify
+   * @param newElements the elements that the list should have, in order
+   */
+  static <T> void replaceInPlace(List<T> list, List<? extends T> newElements) {
+    int sharedSize = Math.min(list.size(), newElements.size());
+    for (int i = 0; i < sharedSize; i++) {
+      T newElement = newElements.get(i);
+      if (!Objects.equals(list.get(i), newElement)) {
+        list.set(i, newElement);
+      }
     }
+    for (int i = list.size() - 1; i >= newElements.size(); i--) {
+      list.remove(i);
+    }
+    if (newElements.size() > sharedSize) {
+      list.addAll(newElements.subList(sharedSize, newElements.size()));
+    }
+  }
 
-    Collection<String> missingKeys = Sets.difference(
-        ImmutableSet.copyOf(requestedArticleKeys), foundArticleKeys.build());
-    missingKeys = new ArrayList<>(missingKeys); // coerce to a type that Gson can handle
-    return "Articles not found with DOIs: " + new Gson().toJson(missingKeys);
+  /**
+   * Fetch all articles with the given IDs, in the same iteration order.
+   *
+   * @param articleIds a set of article IDs
+   * @return the articles in the same order, if all exist
+   * @throws RestClientException if not every article ID belongs to an existing article
+   */
+  private List<Article> fetchArticles(Set<ArticleIdentifier> articleIds) {
+    return articleCrudService.readArticles(articleIds);
   }
 
   @Override
@@ -193,6 +240,34 @@ public class ArticleListCrudServiceImpl extends AmbraService implements ArticleL
     return ServiceResponse.serveView(getArticleList(identity));
   }
 
+  @Override
+  public ServiceResponse<ArticleListView> readPage(ArticleListIdentity identity, int pageNumber, int pageSize) {
+    ArticleListView listView = getArticleList(identity);
+    ArticleList list = listView.getArticleList();
+
+    final int maxResults = Math.max(Math.min(pageSize, MAX_PAGE_SIZE), 1);
+    final int firstResult = (Math.max(pageNumber, 1) - 1) * maxResults;
+    long totalCount = hibernateTemplate.execute(session -> {
+      Query query = session.createQuery("select count(a) from ArticleList l join l.articles a where l = :list");
+      query.setEntity("list", list);
+      return (Long) query.uniqueResult();
+    });
+    List<Article> page = ImmutableList.of();
+    if (firstResult < totalCount) {
+      page = hibernateTemplate.execute((HibernateCallback<List<Article>>) session -> {
+        Query query = session.createQuery("" +
+            "select a from ArticleList l join l.articles a where l = :list order by index(a)");
+        query.setEntity("list", list);
+        query.setFirstResult(firstResult);
+        query.setMaxResults(maxResults);
+        return query.list();
+      });
+    }
+
+    String journalKey = listView.getIdentity().getJournalKey();
+    return ServiceResponse.serveView(articleListViewFactory.getPageView(list, journalKey, page, totalCount));
+  }
+
   private Collection<ArticleListView> asArticleListViews(List<Object[]> results) {
     return asArticleListViews(results, false /*excludeArticleMetadata*/);
   }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import org.ambraproject.rhino.identity.ArticleIdentifier;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
+import org.ambraproject.rhino.service.JournalTreeService;
+import org.hibernate.Query;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+
+/**
+ * Invalidates the cached responses that show an article's data, for services that write its ingestions or revisions.
+ */
+final class ArticleResponseInvalidation {
+
+  private ArticleResponseInvalidation() {
+    throw new AssertionError("Not instantiable");
+  }
+
+  /**
+   * Invalidate the article's own responses and the article lists. If the article is the image article of any issue,
+   * also invalidate the journal hierarchy, because issue responses show their image article's latest revision.
+   *
+   * @param hibernateTemplate  the writing service's template, used to find issues that show the article
+   * @param jsonResponseCache  the response cache, or {@code null} if responses are not cached
+   * @param journalTreeService the journal tree, or {@code null} if it is not kept
+   * @param article            the changed article
+   */
+  static void invalidate(HibernateTemplate hibernateTemplate, JsonResponseCache jsonResponseCache,
+                         JournalTreeService journalTreeService, Article article) {
+    if (jsonResponseCache == null && journalTreeService == null) return;
+    if (jsonResponseCache != null) {
+      jsonResponseCache.invalidate(JsonResponseCache.articleTag(ArticleIdentifier.create(article.getDoi())),
+          JsonResponseCache.ARTICLE_LISTS_TAG);
+    }
+    if (!isImageArticle(hibernateTemplate, article)) return;
+    if (jsonResponseCache != null) {
+      jsonResponseCache.invalidate(JsonResponseCache.JOURNAL_HIERARCHY_TAG);
+    }
+    if (journalTreeService != null) {
+      journalTreeService.invalidate();
+    }
+  }
+
+  private static boolean isImageArticle(HibernateTemplate hibernateTemplate, Article article) {
+    Long count = hibernateTemplate.execute(session -> {
+      Query query = session.createQuery("SELECT COUNT(*) FROM Issue WHERE imageArticle = :article");
+      query.setParameter("article", article);
+      return (Long) query.uniqueResult();
+    });
+    return count != null && count > 0L;
+  }
+
+}
@@ -28,8 +28,12 @@ import org.ambraproject.rhino.identity.ArticleRevisionIdentifier;
 import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleRevision;
 import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.ArticleSummary;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.service.ArticleRevisionWriteService;
+import org.ambraproject.rhino.service.JournalTreeService;
+import org.hibernate.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.orm.hibernate3.HibernateTemplate;
 
@@ -41,6 +45,10 @@ public class ArticleRevisionWriteServiceImpl implements ArticleRevisionWriteServ
   private ArticleCrudService articleCrudService;
   @Autowired
   private HibernateTemplate hibernateTemplate;
+  @Autowired(required = false)
+  private JsonResponseCache jsonResponseCache;
+  @Autowired(required = false)
+  private JournalTreeService journalTreeService;
 
   @Override
   public ArticleRevision createRevision(ArticleIngestionIdentifier ingestionId) {
@@ -52,6 +60,8 @@ public class ArticleRevisionWriteServiceImpl implements ArticleRevisionWriteServ
     revision.setIngestion(ingestion);
     revision.setRevisionNumber(newRevisionNumber);
     hibernateTemplate.save(revision);
+    setLatestRevision(ingestion.getArticle(), revision);
+    invalidateResponses(ingestion.getArticle());
 
     refreshForLatestRevision(revision);
 
@@ -74,8 +84,10 @@ public class ArticleRevisionWriteServiceImpl implements ArticleRevisionWriteServ
         });
     newRevision.setIngestion(ingestion);
     hibernateTemplate.saveOrUpdate(newRevision);
+    invalidateResponses(article);
 
     if (!previousLatest.isPresent() || previousLatest.get().getRevisionNumber() <= newRevision.getRevisionNumber()) {
+      setLatestRevision(article, newRevision);
       refreshForLatestRevision(newRevision);
     }
 
@@ -91,15 +103,65 @@ public class ArticleRevisionWriteServiceImpl implements ArticleRevisionWriteServ
         .orElseThrow(RuntimeException::new); // should be guaranteed to exist because at least one revision exists
     boolean deletingLatest = latestRevision.equals(revision);
 
+    Optional<ArticleRevision> newLatest = Optional.empty();
+    if (deletingLatest) {
+      // Repoint the article before the delete, which Hibernate flushes after the update
+      newLatest = findLatestRevisionExcept(article, revision);
+      setLatestRevision(article, newLatest.orElse(null));
+    }
     hibernateTemplate.delete(revision);
+    invalidateResponses(article);
 
-    if (deletingLatest) {
-      articleCrudService.getLatestRevision(article)
-          .ifPresent(this::refreshForLatestRevision);
-      // else, we deleted the only revision
+    newLatest.ifPresent(this::refreshForLatestRevision); // else, we deleted the only revision or not the latest
+  }
+
+  private Optional<ArticleRevision> findLatestRevisionExcept(Article article, ArticleRevision excluded) {
+    return Optional.ofNullable(hibernateTemplate.execute(session -> {
+      Query query = session.createQuery("" +
+          "FROM ArticleRevision rev " +
+          "WHERE rev.ingestion.article = :article AND rev <> :excluded " +
+          "ORDER BY rev.revisionNumber DESC");
+      query.setParameter("article", article);
+      query.setParameter("excluded", excluded);
+      query.setMaxResults(1);
+      return (ArticleRevision) query.uniqueResult();
+    }));
+  }
+
+  /**
+   * Point an article at its latest revision (see {@link Article#getLatestRevision}), and rewrite its {@link
+   * ArticleSummary summary} to match. Must be called in the same transaction as any write that changes which revision
+   * is latest.
+   *
+   * @param article        the article
+   * @param latestRevision its latest revision, or {@code null} if it has none
+   */
+  private void setLatestRevision(Article article, ArticleRevision latestRevision) {
+    article.setLatestRevision(latestRevision);
+    article.setLatestPublicationDate(
+        (latestRevision == null) ? null : latestRevision.getIngestion().getPublicationDate());
+    hibernateTemplate.update(article);
+    writeSummary(article, latestRevision);
+  }
+
+  private void writeSummary(Article article, ArticleRevision latestRevision) {
+    ArticleSummary summary = hibernateTemplate.get(ArticleSummary.class, article.getArticleId());
+    if (latestRevision == null) {
+      if (summary != null) {
+        hibernateTemplate.delete(summary);
+      }
+    } else if (summary == null) {
+      hibernateTemplate.save(ArticleSummary.create(latestRevision));
+    } else {
+      summary.update(latestRevision);
+      hibernateTemplate.update(summary);
     }
   }
 
+  private void invalidateResponses(Article article) {
+    ArticleResponseInvalidation.invalidate(hibernateTemplate, jsonResponseCache, journalTreeService, article);
+  }
+
   private void refreshForLatestRevision(ArticleRevision newlyLatestRevision) {
     articleCrudService.refreshArticleRelationships(newlyLatestRevision);
   }
@@ -35,6 +35,7 @@ import org.ambraproject.rhino.model.FlagReasonCode;
 import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.rest.RestClientException;
 import org.ambraproject.rhino.rest.response.CacheableResponse;
+import org.ambraproject.rhino.rest.response.EntityTags;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.service.CommentCrudService;
@@ -83,19 +84,40 @@ public class CommentCrudServiceImpl extends AmbraService implements CommentCrudS
     return (Collection<Comment>) hibernateTemplate.find("FROM Comment WHERE articleId = ?", article.getArticleId());
   }
 
+  /**
+   * Build a strong entity tag for the tree of an article's comments. Adding a comment raises the greatest comment ID,
+   * deleting one lowers the number of comments, and every update to a comment increments its version. The modification
+   * time is not enough on its own, because it has only one-second precision. The competing interest policy's start
+   * date is included because it affects how each comment is rendered.
+   *
+   * @param article the article
+   * @return the entity tag
+   */
+  private String getCommentTreeEntityTag(Article article) {
+    Object[] version = hibernateTemplate.execute(session -> {
+      Query query = session.createQuery("SELECT COUNT(*), MAX(commentId), SUM(version), MAX(lastModified) " +
+          "FROM Comment WHERE articleId = :articleId");
+      query.setParameter("articleId", article.getArticleId());
+      return (Object[]) query.uniqueResult();
+    });
+    return EntityTags.strong("comments", article.getArticleId(), version[0], version[1], version[2], version[3],
+        runtimeConfiguration.getCompetingInterestPolicyStart());
+  }
+
   @Override
-  public ServiceResponse<List<CommentOutputView>> serveComments(ArticleIdentifier articleId) throws IOException {
+  public CacheableResponse<List<CommentOutputView>> serveComments(ArticleIdentifier articleId) throws IOException {
     Article article = articleCrudService.readArticle(articleId);
-    Collection<Comment> comments = fetchAllComments(article);
-    CommentOutputView.Factory factory
-        = new CommentOutputView.Factory(new CompetingInterestPolicy(runtimeConfiguration),
-        comments, article);
-    List<CommentOutputView> views = comments.stream()
-        .filter(comment -> comment.getParent() == null)
-        .sorted(CommentOutputView.BY_DATE)
-        .map(factory::buildView)
-        .collect(Collectors.toList());
-    return ServiceResponse.serveView(views);
+    return CacheableResponse.serveVersionedView(getCommentTreeEntityTag(article), () -> {
+      Collection<Comment> comments = fetchAllComments(article);
+      CommentOutputView.Factory factory
+          = new CommentOutputView.Factory(new CompetingInterestPolicy(runtimeConfiguration),
+          comments, article);
+      return comments.stream()
+          .filter(comment -> comment.getParent() == null)
+          .sorted(CommentOutputView.BY_DATE)
+          .map(factory::buildView)
+          .collect(Collectors.toList());
+    });
   }
 
   private CommentOutputView createView(Comment comment) {
@@ -22,11 +22,13 @@
 
 package org.ambraproject.rhino.service.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.ambraproject.rhino.config.RuntimeConfiguration;
 import org.ambraproject.rhino.rest.response.ServiceResponse;
 import org.ambraproject.rhino.service.ConfigurationReadService;
 import org.ambraproject.rhino.util.GitInfo;
+import org.ambraproject.rhino.util.MetricsSource;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
@@ -35,8 +37,10 @@ import java.net.UnknownHostException;
 import java.net.InetAddress;
 import java.util.LinkedHashMap;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import javax.annotation.PostConstruct;
 
 public class ConfigurationReadServiceImpl extends AmbraService implements ConfigurationReadService {
@@ -47,6 +51,9 @@ public class ConfigurationReadServiceImpl extends AmbraService implements Config
   @Autowired
   private GitInfo gitInfo;
 
+  @Autowired(required = false)
+  private List<MetricsSource> metricsSources = ImmutableList.of();
+
   private String hostname = "unknown";
 
   private final Date startTime = new Date();
@@ -94,6 +101,15 @@ public class ConfigurationReadServiceImpl extends AmbraService implements Config
     return ServiceResponse.serveView(cfgMap);
   }
 
+  @Override
+  public ServiceResponse<Map<String, Map<String, Object>>> readMetrics() {
+    Map<String, Map<String, Object>> metrics = new TreeMap<>();
+    for (MetricsSource metricsSource : metricsSources) {
+      metrics.put(metricsSource.getMetricsName(), metricsSource.getMetrics());
+    }
+    return ServiceResponse.serveView(metrics);
+  }
+
   /**
    * {@inheritDoc}
    */
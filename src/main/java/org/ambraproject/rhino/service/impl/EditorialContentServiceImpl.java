@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import com.google.common.base.Ticker;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.service.EditorialContentService;
+import org.ambraproject.rhino.service.EditorialObject;
+import org.ambraproject.rhino.util.MetricsSource;
+import org.plos.crepo.exceptions.NotFoundException;
+import org.plos.crepo.model.identity.RepoId;
+import org.plos.crepo.model.identity.RepoVersion;
+import org.plos.crepo.model.metadata.RepoObjectMetadata;
+import org.plos.crepo.service.ContentRepoService;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads editorial objects from the content repo, keeping them in memory up to a total size budget.
+ * <p/>
+ * A cached object is served without contacting the content repo until its time to live has passed. After that, a read
+ * of the latest version fetches only the latest version's metadata and keeps the cached content if the version is
+ * unchanged. A read of a specific version never needs revalidation, because a version's content is immutable.
+ */
+public class EditorialContentServiceImpl implements EditorialContentService, MetricsSource {
+
+  private final ContentRepoService editorialRepo;
+  private final String bucketName;
+  private final LoadingCache<ObjectKey, EditorialObject> cache;
+
+  private final AtomicLong revalidationCount = new AtomicLong();
+  private final AtomicLong unchangedCount = new AtomicLong();
+
+  /**
+   * @param editorialRepo the content repo that holds editorial content, or {@code null} if none is configured
+   * @param bucketName    the editorial bucket, or {@code null} if none is configured
+   * @param maxSize       the maximum total size, in bytes, of cached content
+   * @param timeToLive    the time for which a cached object is served before it is revalidated
+   */
+  public EditorialContentServiceImpl(ContentRepoService editorialRepo, String bucketName,
+                                     long maxSize, Duration timeToLive) {
+    this(editorialRepo, bucketName, maxSize, timeToLive, Ticker.systemTicker());
+  }
+
+  EditorialContentServiceImpl(ContentRepoService editorialRepo, String bucketName,
+                              long maxSize, Duration timeToLive, Ticker ticker) {
+    this.editorialRepo = editorialRepo;
+    this.bucketName = bucketName;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSize)
+        .weigher((ObjectKey key, EditorialObject object) -> object.getContent().length)
+        .refreshAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .recordStats()
+        .build(new CacheLoader<ObjectKey, EditorialObject>() {
+          @Override
+          public EditorialObject load(ObjectKey key) throws IOException {
+            return fetch(readMetadata(key));
+          }
+
+          @Override
+          public ListenableFuture<EditorialObject> reload(ObjectKey key, EditorialObject oldValue) throws IOException {
+            return Futures.immediateFuture(revalidate(key, oldValue));
+          }
+        });
+  }
+
+  /**
+   * Identifies a cached object. The UUID is absent if the key refers to the latest version.
+   */
+  private static class ObjectKey {
+    private final String key;
+    private final Optional<UUID> uuid;
+
+    private ObjectKey(String key, Optional<UUID> uuid) {
+      this.key = Objects.requireNonNull(key);
+      this.uuid = Objects.requireNonNull(uuid);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || o != null && getClass() == o.getClass()
+          && key.equals(((ObjectKey) o).key) && uuid.equals(((ObjectKey) o).uuid);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * key.hashCode() + uuid.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return key + '/' + uuid.map(UUID::toString).orElse("latest");
+    }
+  }
+
+  private static Optional<UUID> parseVersion(String version) {
+    try {
+      return Optional.of(UUID.fromString(version));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public EditorialObject read(String key, String version) throws IOException {
+    if (editorialRepo == null || bucketName == null) {
+      throw new RuntimeException("contentRepo.editorial is not configured");
+    }
+    ObjectKey objectKey = new ObjectKey(key, parseVersion(version));
+    try {
+      return cache.get(objectKey);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof NotFoundException) {
+        throw new RestClientException("Editorial object not found: " + objectKey, HttpStatus.NOT_FOUND, cause);
+      }
+      Throwables.propagateIfPossible(cause, IOException.class);
+      throw new RuntimeException(cause);
+    }
+  }
+
+  private RepoObjectMetadata readMetadata(ObjectKey key) {
+    return key.uuid.isPresent()
+        ? editorialRepo.getRepoObjectMetadata(RepoVersion.create(bucketName, key.key, key.uuid.get().toString()))
+        : editorialRepo.getLatestRepoObjectMetadata(RepoId.create(bucketName, key.key));
+  }
+
+  private EditorialObject revalidate(ObjectKey key, EditorialObject cached) throws IOException {
+    if (key.uuid.isPresent()) {
+      return cached;
+    }
+    revalidationCount.incrementAndGet();
+    RepoObjectMetadata metadata = readMetadata(key);
+    if (getEntityTag(metadata).equals(cached.getEntityTag())) {
+      unchangedCount.incrementAndGet();
+      return cached;
+    }
+    return fetch(metadata);
+  }
+
+  private EditorialObject fetch(RepoObjectMetadata metadata) throws IOException {
+    byte[] content;
+    try (InputStream stream = editorialRepo.getRepoObject(metadata.getVersion())) {
+      content = ByteStreams.toByteArray(stream);
+    }
+    return new EditorialObject(content, metadata.getContentType().orElse(null),
+        metadata.getTimestamp().toInstant(), getEntityTag(metadata));
+  }
+
+  private static String getEntityTag(RepoObjectMetadata metadata) {
+    return '"' + metadata.getVersion().getUuid().toString() + '"';
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "editorialContentCache";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = MetricsSource.describeCacheStats(cache.stats());
+    metrics.put("entryCount", cache.size());
+    metrics.put("cachedBytes", cache.asMap().values().stream().mapToLong(object -> object.getContent().length).sum());
+    metrics.put("revalidationCount", revalidationCount.get());
+    metrics.put("unchangedCount", unchangedCount.get());
+    return metrics;
+  }
+
+}
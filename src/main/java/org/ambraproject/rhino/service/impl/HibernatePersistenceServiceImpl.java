@@ -35,10 +35,12 @@ import org.ambraproject.rhino.model.ingest.ArticleItemInput;
 import org.ambraproject.rhino.model.ingest.ArticlePackage;
 import org.ambraproject.rhino.model.ingest.IngestPackage;
 import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
 import org.ambraproject.rhino.service.ConfigurationReadService;
 import org.ambraproject.rhino.service.ContentRepoPersistenceService;
 import org.ambraproject.rhino.service.HibernatePersistenceService;
 import org.ambraproject.rhino.service.JournalCrudService;
+import org.ambraproject.rhino.service.JournalTreeService;
 import org.hibernate.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -61,6 +63,10 @@ public class HibernatePersistenceServiceImpl implements HibernatePersistenceServ
   private ContentRepoPersistenceService contentRepoPersistenceService;
   @Autowired
   private ConfigurationReadService configurationReadService;
+  @Autowired(required = false)
+  private JsonResponseCache jsonResponseCache;
+  @Autowired(required = false)
+  private JournalTreeService journalTreeService;
 
   private static final int FIRST_INGESTION_NUMBER = 1;
 
@@ -109,6 +115,7 @@ public class HibernatePersistenceServiceImpl implements HibernatePersistenceServ
     ingestion.setPublicationStage(customMetadata.getPublicationStage());
 
     hibernateTemplate.save(ingestion);
+    invalidateResponses(article);
     return ingestion;
   }
 
@@ -150,6 +157,7 @@ public class HibernatePersistenceServiceImpl implements HibernatePersistenceServ
 
     ingestion.setStrikingImage(strikingImageItem.get());
     hibernateTemplate.update(ingestion);
+    invalidateResponses(ingestion.getArticle());
     return strikingImageItem;
   }
 
@@ -196,4 +204,9 @@ public class HibernatePersistenceServiceImpl implements HibernatePersistenceServ
     final Set<String> secondaryBuckets = (Set<String>) corpusConfigMap.get("secondaryBuckets");
     return secondaryBuckets.contains(bucketName);
   }
+
+  private void invalidateResponses(Article article) {
+    ArticleResponseInvalidation.invalidate(hibernateTemplate, jsonResponseCache, journalTreeService, article);
+  }
+
 }
@@ -43,9 +43,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @SuppressWarnings("JpaQlInspection")
 public class IssueCrudServiceImpl extends AmbraService implements IssueCrudService {
@@ -68,6 +68,7 @@ public class IssueCrudServiceImpl extends AmbraService implements IssueCrudServi
     return Optional.ofNullable(hibernateTemplate.execute(session -> {
       Query query = session.createQuery("FROM Issue WHERE doi = :doi");
       query.setParameter("doi", issueId.getDoi().getName());
+      query.setCacheable(true);
       return (Issue) query.uniqueResult();
     }));
   }
@@ -91,21 +92,27 @@ public class IssueCrudServiceImpl extends AmbraService implements IssueCrudServi
       issue.setDisplayName("");
     }
 
+    // Resolve the image article and the issue's articles together, so that any number of articles is read with a
+    // constant number of queries and every missing DOI is reported at once.
     String imageDoi = input.getImageArticleDoi();
+    List<String> inputArticleDois = input.getArticleOrder();
+    List<ArticleIdentifier> articleIds = new ArrayList<>();
+    if (inputArticleDois != null) {
+      inputArticleDois.stream().map(ArticleIdentifier::create).forEach(articleIds::add);
+    }
     if (imageDoi != null) {
-      ArticleIdentifier imageArticleId = ArticleIdentifier.create(imageDoi);
-      Article imageArticle = articleCrudService.readArticle(imageArticleId);
-      issue.setImageArticle(imageArticle);
+      articleIds.add(ArticleIdentifier.create(imageDoi));
+    }
+    List<Article> articles = articleCrudService.readArticles(articleIds);
+
+    if (imageDoi != null) {
+      issue.setImageArticle(articles.get(articles.size() - 1));
     } else {
       issue.setImageArticle(null);
     }
 
-    List<String> inputArticleDois = input.getArticleOrder();
     if (inputArticleDois != null) {
-      List<Article> inputArticles = inputArticleDois.stream()
-          .map(doi -> articleCrudService.readArticle(ArticleIdentifier.create(doi)))
-          .collect(Collectors.toList());
-      issue.setArticles(inputArticles);
+      issue.setArticles(new ArrayList<>(articles.subList(0, inputArticleDois.size())));
     }
     return issue;
   }
@@ -123,6 +130,7 @@ public class IssueCrudServiceImpl extends AmbraService implements IssueCrudServi
     Volume volume = volumeCrudService.readVolume(volumeId);
     volume.getIssues().add(issue);
     hibernateTemplate.save(volume);
+    invalidateJournalHierarchy();
     return issue;
   }
 
@@ -132,6 +140,7 @@ public class IssueCrudServiceImpl extends AmbraService implements IssueCrudServi
     Issue issue = readIssue(issueId);
     issue = applyInput(issue, input);
     hibernateTemplate.update(issue);
+    invalidateJournalHierarchy();
   }
 
   @Override
@@ -162,6 +171,7 @@ public class IssueCrudServiceImpl extends AmbraService implements IssueCrudServi
       throw new RestClientException(message, HttpStatus.BAD_REQUEST);
     }
     hibernateTemplate.delete(issue);
+    invalidateJournalHierarchy();
   }
 
   @Override
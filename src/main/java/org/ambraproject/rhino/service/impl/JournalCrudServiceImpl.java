@@ -64,7 +64,7 @@ public class JournalCrudServiceImpl extends AmbraService implements JournalCrudS
   @Override
   public Collection<Journal> getAllJournals() {
     return (List<Journal>) hibernateTemplate
-        .execute(session -> session.createCriteria(Journal.class).list());
+        .execute(session -> session.createCriteria(Journal.class).setCacheable(true).list());
   }
 
   @Override
@@ -77,6 +77,7 @@ public class JournalCrudServiceImpl extends AmbraService implements JournalCrudS
     Preconditions.checkNotNull(input);
     Journal journal = readJournal(journalKey);
     hibernateTemplate.update(applyInput(journal, input));
+    invalidateJournalHierarchy();
   }
 
   private Journal applyInput(Journal journal, JournalInputView input) {
@@ -115,6 +116,7 @@ public class JournalCrudServiceImpl extends AmbraService implements JournalCrudS
     return Optional.ofNullable(hibernateTemplate.execute(session -> {
       Query query = session.createQuery("FROM Journal j WHERE j.journalKey = :journalKey ");
       query.setParameter("journalKey", journalKey);
+      query.setCacheable(true);
       return (Journal) query.uniqueResult();
     }));
   }
@@ -129,6 +131,7 @@ public class JournalCrudServiceImpl extends AmbraService implements JournalCrudS
     return Optional.ofNullable(hibernateTemplate.execute(session -> {
       Query query = session.createQuery("FROM Journal j WHERE j.eIssn = :eIssn");
       query.setParameter("eIssn", eIssn);
+      query.setCacheable(true);
       return (Journal) query.uniqueResult();
     }));
   }
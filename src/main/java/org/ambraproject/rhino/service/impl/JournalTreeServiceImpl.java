@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import com.google.gson.Gson;
+import org.ambraproject.rhino.model.Journal;
+import org.ambraproject.rhino.service.JournalTreeService;
+import org.ambraproject.rhino.util.MetricsSource;
+import org.ambraproject.rhino.view.journal.IssueOutputView;
+import org.ambraproject.rhino.view.journal.JournalTree;
+import org.ambraproject.rhino.view.journal.VolumeOutputView;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one {@link JournalTree} in memory. Every write to a journal, volume or issue advances a version number when
+ * it commits, and the tree is rebuilt right away on the writing thread. Readers that find the tree out of date wait for
+ * the rebuild, so that they never see data older than a committed write, and then swap in the new tree as a whole.
+ * <p>
+ * The version number only counts writes made through this instance. Writes made by other servers are picked up when
+ * the tree expires, which bounds how long it can serve data older than the database.
+ */
+@SuppressWarnings("JpaQlInspection")
+public class JournalTreeServiceImpl implements JournalTreeService, MetricsSource {
+
+  private static final Logger log = LoggerFactory.getLogger(JournalTreeServiceImpl.class);
+
+  @Autowired
+  private HibernateTemplate hibernateTemplate;
+  @Autowired
+  private Gson entityGson;
+  @Autowired
+  private VolumeOutputView.Factory volumeOutputViewFactory;
+  @Autowired
+  private IssueOutputView.Factory issueOutputViewFactory;
+
+  private final TransactionTemplate buildTransaction;
+  private final Duration maxAge;
+  private final Clock clock;
+
+  private final AtomicLong version = new AtomicLong();
+  private final Object buildLock = new Object();
+  private volatile Snapshot snapshot;
+
+  private static class Snapshot {
+    private final JournalTree tree;
+    private final Instant expires;
+
+    private Snapshot(JournalTree tree, Instant expires) {
+      this.tree = Objects.requireNonNull(tree);
+      this.expires = Objects.requireNonNull(expires);
+    }
+  }
+
+  private final AtomicLong buildCount = new AtomicLong();
+  private final AtomicLong buildFailureCount = new AtomicLong();
+  private final AtomicLong invalidationCount = new AtomicLong();
+  private volatile long lastBuildMillis;
+
+  /**
+   * @param transactionManager provides the transactions in which the tree is built, or {@code null} to build it in the
+   *                           caller's transaction
+   * @param maxAge             the time after which the tree is rebuilt even if no write through this instance has
+   *                           changed it
+   */
+  public JournalTreeServiceImpl(PlatformTransactionManager transactionManager, Duration maxAge) {
+    this(transactionManager, maxAge, Clock.systemUTC());
+  }
+
+  JournalTreeServiceImpl(PlatformTransactionManager transactionManager, Duration maxAge, Clock clock) {
+    this.maxAge = Objects.requireNonNull(maxAge);
+    this.clock = Objects.requireNonNull(clock);
+    if (transactionManager == null) {
+      this.buildTransaction = null;
+    } else {
+      // Always build in a new transaction, so that a tree never shows a write that has not been committed
+      this.buildTransaction = new TransactionTemplate(transactionManager);
+      this.buildTransaction.setReadOnly(true);
+      this.buildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+  }
+
+  @Override
+  public JournalTree getJournalTree() {
+    Snapshot current = snapshot;
+    if (isCurrent(current)) return current.tree;
+    synchronized (buildLock) {
+      current = snapshot;
+      if (isCurrent(current)) return current.tree;
+      Instant start = clock.instant(); // the tree shows the data as of when it started building
+      current = new Snapshot(build(version.get()), start.plus(maxAge));
+      snapshot = current;
+      return current.tree;
+    }
+  }
+
+  private boolean isCurrent(Snapshot current) {
+    return current != null && current.tree.getVersion() == version.get() && clock.instant().isBefore(current.expires);
+  }
+
+  private JournalTree build(long buildVersion) {
+    long start = System.currentTimeMillis();
+    JournalTree built;
+    try {
+      built = (buildTransaction == null) ? loadTree(buildVersion)
+          : buildTransaction.execute(status -> loadTree(buildVersion));
+    } catch (RuntimeException e) {
+      buildFailureCount.incrementAndGet();
+      throw e;
+    }
+    lastBuildMillis = System.currentTimeMillis() - start;
+    buildCount.incrementAndGet();
+    return built;
+  }
+
+  private JournalTree loadTree(long buildVersion) {
+    List<Journal> journals = hibernateTemplate.execute((Session session) -> {
+      // Load every volume with its issues first, so that the journals' volume lists need no query per volume
+      session.createQuery("" +
+          "SELECT DISTINCT v FROM Volume v " +
+          "LEFT JOIN FETCH v.issues i " +
+          "LEFT JOIN FETCH i.imageArticle").list();
+      return (List<Journal>) session.createQuery("SELECT DISTINCT j FROM Journal j LEFT JOIN FETCH j.volumes").list();
+    });
+    return JournalTree.build(buildVersion, journals, entityGson, volumeOutputViewFactory, issueOutputViewFactory);
+  }
+
+  @Override
+  public void invalidate() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      advanceVersion();
+      return;
+    }
+    for (Object synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      if (synchronization instanceof RebuildAfterCommit) return; // already registered by an earlier write
+    }
+    TransactionSynchronizationManager.registerSynchronization(new RebuildAfterCommit());
+  }
+
+  private class RebuildAfterCommit extends TransactionSynchronizationAdapter {
+    @Override
+    public void afterCommit() {
+      advanceVersion();
+    }
+  }
+
+  private void advanceVersion() {
+    version.incrementAndGet();
+    invalidationCount.incrementAndGet();
+    try {
+      getJournalTree();
+    } catch (RuntimeException e) {
+      // The next read tries again
+      log.warn("Could not rebuild journal tree", e);
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "journalTree";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    Snapshot currentSnapshot = snapshot;
+    JournalTree current = (currentSnapshot == null) ? null : currentSnapshot.tree;
+    metrics.put("version", version.get());
+    metrics.put("treeVersion", (current == null) ? null : current.getVersion());
+    metrics.put("buildCount", buildCount.get());
+    metrics.put("buildFailureCount", buildFailureCount.get());
+    metrics.put("lastBuildMillis", lastBuildMillis);
+    metrics.put("invalidationCount", invalidationCount.get());
+    if (current != null) {
+      metrics.put("volumeCount", current.getVolumeCount());
+      metrics.put("issueCount", current.getIssueCount());
+      metrics.put("serializedSize", current.getSerializedSize());
+    }
+    return metrics;
+  }
+
+}
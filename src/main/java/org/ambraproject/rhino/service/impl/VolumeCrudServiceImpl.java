@@ -60,6 +60,7 @@ public class VolumeCrudServiceImpl extends AmbraService implements VolumeCrudSer
     return Optional.ofNullable(hibernateTemplate.execute(session -> {
       Query query = session.createQuery("FROM Volume WHERE doi = :doi");
       query.setParameter("doi", volumeId.getDoi().getName());
+      query.setCacheable(true);
       return (Volume) query.uniqueResult();
     }));
   }
@@ -89,6 +90,7 @@ public class VolumeCrudServiceImpl extends AmbraService implements VolumeCrudSer
     Journal journal = journalCrudService.readJournal(journalKey);
     journal.getVolumes().add(volume);
     hibernateTemplate.save(journal);
+    invalidateJournalHierarchy();
 
     return volume;
   }
@@ -99,6 +101,7 @@ public class VolumeCrudServiceImpl extends AmbraService implements VolumeCrudSer
     Volume volume = readVolume(volumeId);
     volume = applyInput(volume, input);
     hibernateTemplate.update(volume);
+    invalidateJournalHierarchy();
     return volume;
   }
 
@@ -115,6 +118,7 @@ public class VolumeCrudServiceImpl extends AmbraService implements VolumeCrudSer
           "been deleted.", HttpStatus.BAD_REQUEST);
     }
     hibernateTemplate.delete(volume);
+    invalidateJournalHierarchy();
   }
 
   private Volume applyInput(Volume volume, VolumeInputView input) {
@@ -23,24 +23,46 @@
 package org.ambraproject.rhino.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteSource;
 import com.google.common.io.ByteStreams;
+import com.google.common.io.FileBackedOutputStream;
+import com.google.common.io.Files;
 import org.plos.crepo.model.input.RepoObjectInput;
 
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -95,20 +117,27 @@ public abstract class Archive implements Closeable {
    * @param entryName the name of a file entry
    * @return a stream containing the file
    * @throws IllegalArgumentException if no entry with that name is in the archive
+   * @throws IOException              if the file's content cannot be read
    */
-  public final InputStream openFile(String entryName) {
+  public final InputStream openFile(String entryName) throws IOException {
     Object fileObj = files.get(Objects.requireNonNull(entryName));
     if (fileObj == null) throw new IllegalArgumentException();
     return openFileFrom(fileObj);
   }
 
-  protected abstract InputStream openFileFrom(Object fileObj);
+  protected abstract InputStream openFileFrom(Object fileObj) throws IOException;
 
   public final RepoObjectInput.ContentAccessor getContentAccessorFor(final String entryName) {
     if (!files.containsKey(Preconditions.checkNotNull(entryName))) {
       throw new IllegalArgumentException("Archive does not contain an entry named: " + entryName);
     }
-    return () -> openFile(entryName);
+    return () -> {
+      try {
+        return openFile(entryName);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
   }
 
   /**
@@ -118,10 +147,23 @@ public abstract class Archive implements Closeable {
   public void close() {
   }
 
+  /**
+   * The modification time given to every written zip entry, so that writing the same files always produces the same
+   * bytes. This is midnight on 1 Jan 1980 (the earliest time that a zip entry can represent) in the local time zone.
+   */
+  private static final long ENTRY_TIME = LocalDateTime.of(1980, Month.JANUARY, 1, 0, 0)
+      .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+  private static ZipEntry createEntry(String name) {
+    ZipEntry zipEntry = new ZipEntry(name);
+    zipEntry.setTime(ENTRY_TIME);
+    return zipEntry;
+  }
+
   public final void write(OutputStream stream) throws IOException {
     try (ZipOutputStream zipOutputStream = new ZipOutputStream(stream)) {
       for (Map.Entry<String, ?> entry : files.entrySet()) {
-        zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+        zipOutputStream.putNextEntry(createEntry(entry.getKey()));
         try (InputStream entryFile = openFileFrom(entry.getValue())) {
           ByteStreams.copy(entryFile, zipOutputStream);
         }
@@ -131,6 +173,139 @@ public abstract class Archive implements Closeable {
     }
   }
 
+  /**
+   * File extensions of media types whose content is already compressed. Deflating them again costs CPU time and saves
+   * next to nothing, so they are written as uncompressed (STORED) entries.
+   */
+  private static final ImmutableSet<String> PRECOMPRESSED_EXTENSIONS = ImmutableSet.of(
+      "tif", "tiff", "png", "jpg", "jpeg", "gif", "pdf",
+      "mp4", "m4v", "mov", "avi", "mpg", "mpeg", "mp3", "ogg",
+      "zip", "gz", "tgz", "docx", "xlsx", "pptx");
+
+  static boolean isPrecompressed(String entryName) {
+    return PRECOMPRESSED_EXTENSIONS.contains(Files.getFileExtension(entryName).toLowerCase());
+  }
+
+  /**
+   * Entries up to this size are buffered in memory while being prefetched. Larger ones spill to a temp file.
+   */
+  private static final int PREFETCH_MEMORY_THRESHOLD = 1 << 20;
+
+  /**
+   * Write the archive as a zip file, fetching the content of upcoming entries in parallel while the current entry is
+   * written.
+   * <p/>
+   * No more than {@code prefetchDepth} entries are buffered ahead of the one being written. Each entry is flushed as
+   * soon as it is complete, so the client starts receiving bytes when the first entry arrives rather than after all of
+   * them have been fetched. Entries with already-compressed media types are written without compression.
+   *
+   * @param stream           the stream to write to (closed when this method returns)
+   * @param prefetchExecutor the executor on which to fetch entry content
+   * @param prefetchDepth    the maximum number of entries to fetch ahead of the one being written
+   * @throws IOException
+   */
+  public final void write(OutputStream stream, ExecutorService prefetchExecutor, int prefetchDepth)
+      throws IOException {
+    Preconditions.checkArgument(prefetchDepth > 0);
+    Objects.requireNonNull(prefetchExecutor);
+    Iterator<? extends Map.Entry<String, ?>> entries = files.entrySet().iterator();
+    Deque<Future<PrefetchedEntry>> pending = new ArrayDeque<>(prefetchDepth);
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(stream)) {
+      while (pending.size() < prefetchDepth && entries.hasNext()) {
+        pending.add(prefetch(prefetchExecutor, entries.next()));
+      }
+      while (!pending.isEmpty()) {
+        try (PrefetchedEntry entry = awaitPrefetched(pending.remove())) {
+          if (entries.hasNext()) {
+            pending.add(prefetch(prefetchExecutor, entries.next()));
+          }
+          entry.writeTo(zipOutputStream);
+        }
+        zipOutputStream.flush();
+      }
+    } finally {
+      for (Future<PrefetchedEntry> abandoned : pending) {
+        discard(abandoned);
+      }
+      stream.close();
+    }
+  }
+
+  private Future<PrefetchedEntry> prefetch(ExecutorService executor, Map.Entry<String, ?> entry) {
+    String entryName = entry.getKey();
+    Object fileObj = entry.getValue();
+    return executor.submit(() -> {
+      FileBackedOutputStream buffer = new FileBackedOutputStream(PREFETCH_MEMORY_THRESHOLD, true);
+      CRC32 crc = new CRC32();
+      long size;
+      try (OutputStream bufferStream = buffer;
+           InputStream entryFile = new CheckedInputStream(openFileFrom(fileObj), crc)) {
+        size = ByteStreams.copy(entryFile, bufferStream);
+      } catch (IOException | RuntimeException e) {
+        buffer.reset();
+        throw e;
+      }
+      return new PrefetchedEntry(entryName, buffer, size, crc.getValue());
+    });
+  }
+
+  private static PrefetchedEntry awaitPrefetched(Future<PrefetchedEntry> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while prefetching archive entry");
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private static void discard(Future<PrefetchedEntry> future) {
+    if (future.cancel(true)) return;
+    try {
+      future.get().close();
+    } catch (Exception e) {
+      // Nothing to clean up if the fetch failed. Temp files left by a cancelled fetch are deleted on finalization.
+    }
+  }
+
+  /**
+   * The content of an archive entry that has been fetched and checksummed ahead of being written.
+   */
+  private static final class PrefetchedEntry implements Closeable {
+    private final String name;
+    private final FileBackedOutputStream content;
+    private final long size;
+    private final long crc;
+
+    private PrefetchedEntry(String name, FileBackedOutputStream content, long size, long crc) {
+      this.name = name;
+      this.content = content;
+      this.size = size;
+      this.crc = crc;
+    }
+
+    void writeTo(ZipOutputStream zipOutputStream) throws IOException {
+      ZipEntry zipEntry = createEntry(name);
+      if (isPrecompressed(name)) {
+        // A STORED entry needs its size and checksum up front, which is why the content was buffered first
+        zipEntry.setMethod(ZipEntry.STORED);
+        zipEntry.setSize(size);
+        zipEntry.setCompressedSize(size);
+        zipEntry.setCrc(crc);
+      }
+      zipOutputStream.putNextEntry(zipEntry);
+      content.asByteSource().copyTo(zipOutputStream);
+      zipOutputStream.closeEntry();
+    }
+
+    @Override
+    public void close() throws IOException {
+      content.reset();
+    }
+  }
+
 
   public static Archive readZipFile(File file) throws IOException {
     try (InputStream stream = new FileInputStream(file)) {
@@ -173,12 +348,8 @@ public abstract class Archive implements Closeable {
 
     return new Archive(archiveName, tempFiles.build()) {
       @Override
-      protected InputStream openFileFrom(Object file) {
-        try {
-          return new FileInputStream((File) file);
-        } catch (FileNotFoundException e) {
-          throw new RuntimeException(e);
-        }
+      protected InputStream openFileFrom(Object file) throws IOException {
+        return new FileInputStream((File) file);
       }
 
       @Override
@@ -196,6 +367,15 @@ public abstract class Archive implements Closeable {
     }
   }
 
+  /**
+   * Read a zip file from a stream into on-heap byte arrays. There is no limit on the memory used, so this is suitable
+   * only for archives known to be small, such as test fixtures. Prefer {@link #readZipFileIntoMemory(String,
+   * InputStream, ArchiveBufferPool)}.
+   *
+   * @param zipFile a stream containing the zip archive
+   * @return the archive representing the read files
+   * @throws IOException
+   */
   public static Archive readZipFileIntoMemory(String archiveName, InputStream zipFile) throws IOException {
     ImmutableMap.Builder<String, byte[]> files = ImmutableMap.builder();
     try (ZipInputStream zipStream = new ZipInputStream(zipFile)) {
@@ -216,16 +396,202 @@ public abstract class Archive implements Closeable {
     };
   }
 
+  /**
+   * Read a zip file from a stream into off-heap buffers taken from a shared pool. Creating the {@code Archive} object
+   * exhausts the stream. An entry that does not fit within the pool's remaining budget is spilled to a temp file
+   * instead. Closing the archive returns its buffers to the pool and deletes its temp files, so it must always be
+   * closed.
+   * <p/>
+   * As in {@link #readZipFile(String, InputStream)}, directory entries are skipped.
+   *
+   * @param zipFile    a stream containing the zip archive
+   * @param bufferPool the pool from which to take buffers
+   * @return the archive representing the read files
+   * @throws IOException
+   */
+  public static Archive readZipFileIntoMemory(String archiveName, InputStream zipFile, ArchiveBufferPool bufferPool)
+      throws IOException {
+    Map<String, BufferedEntry> entries = new LinkedHashMap<>();
+    boolean threw = true;
+    try (ZipInputStream zipStream = new ZipInputStream(zipFile)) {
+      ZipEntry entry;
+      while ((entry = zipStream.getNextEntry()) != null) {
+        if (entry.isDirectory()) {
+          continue;
+        }
+        BufferedEntry previous = entries.put(entry.getName(), BufferedEntry.read(zipStream, bufferPool));
+        if (previous != null) {
+          previous.release(); // a duplicate name; the last entry wins
+        }
+      }
+      threw = false;
+    } finally {
+      zipFile.close();
+      if (threw) {
+        entries.values().forEach(BufferedEntry::release);
+      }
+    }
+
+    return new Archive(archiveName, entries) {
+      private boolean closed = false;
+
+      @Override
+      protected InputStream openFileFrom(Object entry) throws IOException {
+        return ((BufferedEntry) entry).open();
+      }
+
+      @Override
+      public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        for (Object entry : getFiles().values()) {
+          ((BufferedEntry) entry).release();
+        }
+      }
+    };
+  }
+
+  /**
+   * An archive entry held in off-heap buffers or, if it did not fit, in a temp file.
+   */
+  private static final class BufferedEntry {
+    private final ArchiveBufferPool bufferPool;
+    private final List<ByteBuffer> chunks; // flipped for reading; empty if spilled
+    private final File spillFile; // null if not spilled
+
+    private BufferedEntry(ArchiveBufferPool bufferPool, List<ByteBuffer> chunks, File spillFile) {
+      this.bufferPool = bufferPool;
+      this.chunks = chunks;
+      this.spillFile = spillFile;
+    }
+
+    private static BufferedEntry read(InputStream entryStream, ArchiveBufferPool bufferPool) throws IOException {
+      PushbackInputStream input = new PushbackInputStream(entryStream, 1);
+      List<ByteBuffer> chunks = new ArrayList<>();
+      byte[] transfer = new byte[8192];
+      boolean threw = true;
+      try {
+        while (true) {
+          // Look ahead before taking another chunk, so that an entry that ends exactly on a chunk boundary (or is
+          // empty) is not spilled for want of a chunk that it would leave empty.
+          int next = input.read();
+          if (next < 0) {
+            chunks.forEach(ByteBuffer::flip);
+            threw = false;
+            return new BufferedEntry(bufferPool, chunks, null);
+          }
+          input.unread(next);
+
+          ByteBuffer chunk = bufferPool.acquire();
+          if (chunk == null) {
+            BufferedEntry spilled = spill(bufferPool, chunks, input);
+            threw = false;
+            return spilled;
+          }
+          chunks.add(chunk);
+          while (chunk.hasRemaining()) {
+            int count = input.read(transfer, 0, Math.min(transfer.length, chunk.remaining()));
+            if (count < 0) break;
+            chunk.put(transfer, 0, count);
+          }
+        }
+      } finally {
+        if (threw) {
+          chunks.forEach(bufferPool::release);
+        }
+      }
+    }
+
+    /**
+     * Write the chunks read so far, followed by the rest of the input, to a temp file, and return the chunks to the
+     * pool.
+     */
+    private static BufferedEntry spill(ArchiveBufferPool bufferPool, List<ByteBuffer> chunks, InputStream input)
+        throws IOException {
+      File spillFile = File.createTempFile("archive_spill_", null);
+      long size = 0L;
+      boolean threw = true;
+      try (FileOutputStream spillStream = new FileOutputStream(spillFile)) {
+        FileChannel spillChannel = spillStream.getChannel();
+        for (ByteBuffer chunk : chunks) {
+          chunk.flip();
+          while (chunk.hasRemaining()) {
+            size += spillChannel.write(chunk);
+          }
+        }
+        size += ByteStreams.copy(input, spillStream);
+        threw = false;
+      } finally {
+        if (threw) {
+          spillFile.delete();
+        }
+      }
+      chunks.forEach(bufferPool::release);
+      chunks.clear();
+      bufferPool.recordSpill(size);
+      return new BufferedEntry(bufferPool, ImmutableList.of(), spillFile);
+    }
+
+    private InputStream open() throws IOException {
+      if (spillFile != null) {
+        return new FileInputStream(spillFile);
+      }
+      return new ChunkInputStream(chunks);
+    }
+
+    private void release() {
+      if (spillFile != null) {
+        spillFile.delete();
+      }
+      chunks.forEach(bufferPool::release);
+    }
+  }
+
+  /**
+   * Reads a sequence of buffers through independent views, so that the buffers may be read by many streams at once.
+   */
+  private static final class ChunkInputStream extends InputStream {
+    private final Iterator<ByteBuffer> chunks;
+    private ByteBuffer current;
+
+    private ChunkInputStream(List<ByteBuffer> chunks) {
+      this.chunks = chunks.stream().map(ByteBuffer::duplicate).iterator();
+      this.current = this.chunks.hasNext() ? this.chunks.next() : null;
+    }
+
+    private boolean advance() {
+      while (current != null && !current.hasRemaining()) {
+        current = chunks.hasNext() ? chunks.next() : null;
+      }
+      return current != null;
+    }
+
+    @Override
+    public int read() {
+      return advance() ? (current.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) return 0;
+      if (!advance()) return -1;
+      int count = Math.min(len, current.remaining());
+      current.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return (current == null) ? 0 : current.remaining();
+    }
+  }
+
   public static Archive pack(String archiveName, Map<String, ? extends ByteSource> files) {
     final ImmutableMap<String, ByteSource> defensiveFiles = ImmutableMap.copyOf(files);
     return new Archive(archiveName, defensiveFiles) {
       @Override
-      protected InputStream openFileFrom(Object source) {
-        try {
-          return ((ByteSource) source).openStream();
-        } catch (IOException e) {
-          throw new RuntimeException(e);
-        }
+      protected InputStream openFileFrom(Object source) throws IOException {
+        return ((ByteSource) source).openStream();
       }
     };
   }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A pool of fixed-size, off-heap buffers for holding archive entries, with a total memory budget shared by all
+ * archives that use it. See {@link Archive#readZipFileIntoMemory(String, java.io.InputStream, ArchiveBufferPool)}.
+ * <p/>
+ * Buffers are allocated lazily and, once allocated, are kept for reuse rather than left for the garbage collector to
+ * free. The pool never holds more than its budget, whether the buffers are in use or free.
+ */
+public class ArchiveBufferPool implements MetricsSource {
+
+  public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  private final int chunkSize;
+  private final int maxChunks;
+
+  // All guarded by "this"
+  private final Deque<ByteBuffer> freeChunks = new ArrayDeque<>();
+  private int allocatedChunks = 0;
+  private int chunksInUse = 0;
+  private int peakChunksInUse = 0;
+  private long spilledEntryCount = 0L;
+  private long spilledBytes = 0L;
+
+  /**
+   * @param maxSize the maximum total size, in bytes, of allocated buffers; zero to spill every entry to disk
+   */
+  public ArchiveBufferPool(long maxSize) {
+    this(maxSize, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param maxSize   the maximum total size, in bytes, of allocated buffers; zero to spill every entry to disk
+   * @param chunkSize the size, in bytes, of each buffer
+   */
+  public ArchiveBufferPool(long maxSize, int chunkSize) {
+    Preconditions.checkArgument(maxSize >= 0L);
+    Preconditions.checkArgument(chunkSize > 0);
+    this.chunkSize = chunkSize;
+    this.maxChunks = (int) Math.min(Integer.MAX_VALUE, maxSize / chunkSize);
+  }
+
+  /**
+   * Take a buffer from the pool. The caller must eventually return it with {@link #release}.
+   *
+   * @return an empty buffer, or {@code null} if the memory budget is used up
+   */
+  synchronized ByteBuffer acquire() {
+    if (chunksInUse >= maxChunks) return null;
+    ByteBuffer chunk = freeChunks.pollFirst();
+    if (chunk == null) {
+      chunk = ByteBuffer.allocateDirect(chunkSize);
+      allocatedChunks++;
+    }
+    chunksInUse++;
+    peakChunksInUse = Math.max(peakChunksInUse, chunksInUse);
+    chunk.clear();
+    return chunk;
+  }
+
+  /**
+   * Return a buffer to the pool. The caller must not use it afterward.
+   *
+   * @param chunk a buffer from {@link #acquire}
+   */
+  synchronized void release(ByteBuffer chunk) {
+    Preconditions.checkState(chunksInUse > 0);
+    chunksInUse--;
+    freeChunks.addFirst(chunk); // reuse the most recently touched buffers first
+  }
+
+  /**
+   * Record that an entry did not fit within the budget and was written to disk, for metrics.
+   *
+   * @param size the entry's size in bytes
+   */
+  synchronized void recordSpill(long size) {
+    spilledEntryCount++;
+    spilledBytes += size;
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "archiveBufferPool";
+  }
+
+  @Override
+  public synchronized Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("budgetBytes", (long) maxChunks * chunkSize);
+    metrics.put("allocatedBytes", (long) allocatedChunks * chunkSize);
+    metrics.put("inUseBytes", (long) chunksInUse * chunkSize);
+    metrics.put("peakInUseBytes", (long) peakChunksInUse * chunkSize);
+    metrics.put("spilledEntryCount", spilledEntryCount);
+    metrics.put("spilledBytes", spilledBytes);
+    return metrics;
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Striped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * A cache of files on local disk, keyed by strings. Files are evicted when the cache exceeds its total size or when
+ * they have gone unread for longer than its maximum age, whichever comes first. The least recently read files are
+ * evicted first.
+ * <p/>
+ * A missing file is written under a temporary name and moved into place when complete, so readers never see a partial
+ * file. Concurrent requests for the same missing key wait for a single writer.
+ * <p/>
+ * Eviction runs after each write. So that files still expire while nothing is written, it should also be scheduled
+ * with {@link #scheduleEviction}.
+ */
+public class FileCache {
+
+  private static final Logger log = LoggerFactory.getLogger(FileCache.class);
+
+  private static final String CACHED_SUFFIX = ".cached";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final Pattern VALID_KEY = Pattern.compile("[\\w.\\-]+");
+
+  /**
+   * Writes the content of a file that is missing from the cache.
+   */
+  @FunctionalInterface
+  public static interface ContentWriter {
+    void write(OutputStream stream) throws IOException;
+  }
+
+  private final Path directory;
+  private final long maxBytes;
+  private final Duration maxAge;
+  private final Striped<Lock> keyLocks = Striped.lazyWeakLock(64);
+
+  /**
+   * @param directory the directory in which to store files (created if it does not exist)
+   * @param maxBytes  the maximum total size of cached files; zero to disable caching
+   * @param maxAge    the time after which a file that has not been read is evicted
+   */
+  public FileCache(Path directory, long maxBytes, Duration maxAge) {
+    Preconditions.checkArgument(maxBytes >= 0);
+    this.directory = Objects.requireNonNull(directory);
+    this.maxBytes = maxBytes;
+    this.maxAge = Objects.requireNonNull(maxAge);
+  }
+
+  public boolean isEnabled() {
+    return maxBytes > 0;
+  }
+
+  /**
+   * Open a cached file for reading, writing it first if it is not already in the cache.
+   * <p/>
+   * The returned channel stays readable even if the file is evicted while it is open. The caller must close it.
+   *
+   * @param key    the cache key (letters, digits, '_', '.' and '-' only)
+   * @param writer writes the file's content if it is missing
+   * @return a channel from which to read the file
+   * @throws IOException
+   */
+  public FileChannel open(String key, ContentWriter writer) throws IOException {
+    Preconditions.checkArgument(VALID_KEY.matcher(key).matches(), "Invalid cache key: %s", key);
+    Path cachedFile = directory.resolve(key + CACHED_SUFFIX);
+
+    boolean written = false;
+    FileChannel channel;
+    Lock lock = keyLocks.get(key);
+    lock.lock();
+    try {
+      if (Files.exists(cachedFile)) {
+        Files.setLastModifiedTime(cachedFile, FileTime.fromMillis(System.currentTimeMillis()));
+      } else {
+        write(cachedFile, writer);
+        written = true;
+      }
+      channel = FileChannel.open(cachedFile, StandardOpenOption.READ);
+    } finally {
+      lock.unlock();
+    }
+
+    if (written) {
+      evict();
+    }
+    return channel;
+  }
+
+  private void write(Path cachedFile, ContentWriter writer) throws IOException {
+    Files.createDirectories(directory);
+    Path tempFile = Files.createTempFile(directory, cachedFile.getFileName().toString(), TEMP_SUFFIX);
+    try {
+      try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+        writer.write(stream);
+      }
+      Files.move(tempFile, cachedFile, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * The time between scheduled evictions: a tenth of the maximum age, but at least a minute and at most an hour.
+   */
+  Duration getEvictionInterval() {
+    Duration interval = maxAge.dividedBy(10);
+    if (interval.compareTo(Duration.ofMinutes(1)) < 0) return Duration.ofMinutes(1);
+    if (interval.compareTo(Duration.ofHours(1)) > 0) return Duration.ofHours(1);
+    return interval;
+  }
+
+  /**
+   * Run {@link #evict} periodically, so that files that have gone unread past the maximum age are deleted even if
+   * nothing new is written to the cache. Does nothing if caching is disabled.
+   *
+   * @param executor the executor on which to run eviction
+   */
+  public void scheduleEviction(ScheduledExecutorService executor) {
+    if (!isEnabled()) return;
+    long interval = getEvictionInterval().toMillis();
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        evict();
+      } catch (IOException | RuntimeException e) {
+        log.warn("Scheduled eviction of file cache failed: " + directory, e);
+      }
+    }, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private static class CachedFile {
+    private final String key;
+    private final Path path;
+    private final long size;
+    private final long lastRead;
+
+    private CachedFile(String key, Path path, BasicFileAttributes attributes) {
+      this.key = key;
+      this.path = path;
+      this.size = attributes.size();
+      this.lastRead = attributes.lastModifiedTime().toMillis();
+    }
+  }
+
+  /**
+   * Delete files that have gone unread for longer than the maximum age, then delete the least recently read files
+   * until the cache fits within its maximum size. Temp files left behind by failed writes are deleted once they reach
+   * the maximum age.
+   * <p/>
+   * Each file is deleted under its key's lock, so that it cannot disappear between {@link #open} finding it and opening
+   * a channel to it.
+   */
+  public synchronized void evict() throws IOException {
+    if (!Files.isDirectory(directory)) return;
+    long expiry = System.currentTimeMillis() - maxAge.toMillis();
+
+    List<CachedFile> cachedFiles = new ArrayList<>();
+    try (Stream<Path> paths = Files.list(directory)) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        String fileName = path.getFileName().toString();
+        BasicFileAttributes attributes;
+        try {
+          attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+          continue; // deleted or moved concurrently
+        }
+        if (fileName.endsWith(CACHED_SUFFIX)) {
+          String key = fileName.substring(0, fileName.length() - CACHED_SUFFIX.length());
+          cachedFiles.add(new CachedFile(key, path, attributes));
+        } else if (fileName.endsWith(TEMP_SUFFIX) && attributes.lastModifiedTime().toMillis() < expiry) {
+          Files.deleteIfExists(path);
+        }
+      }
+    }
+
+    cachedFiles.sort(Comparator.comparingLong(cachedFile -> cachedFile.lastRead));
+    long totalSize = cachedFiles.stream().mapToLong(cachedFile -> cachedFile.size).sum();
+    for (CachedFile cachedFile : cachedFiles) {
+      if (cachedFile.lastRead >= expiry && totalSize <= maxBytes) break;
+      Lock lock = keyLocks.get(cachedFile.key);
+      lock.lock();
+      try {
+        Files.deleteIfExists(cachedFile.path);
+      } finally {
+        lock.unlock();
+      }
+      totalSize -= cachedFile.size;
+      log.debug("Evicted {} from file cache", cachedFile.path);
+    }
+  }
+
+}
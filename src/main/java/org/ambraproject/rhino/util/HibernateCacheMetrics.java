@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reports the hits and misses of Hibernate's second-level entity and query caches, overall and for each cache region.
+ * Hibernate collects the statistics only if the caches are enabled; see {@link
+ * org.ambraproject.rhino.config.RhinoConfiguration#setEntityCacheProperties}.
+ */
+public class HibernateCacheMetrics implements MetricsSource {
+
+  private final SessionFactory sessionFactory;
+
+  public HibernateCacheMetrics(SessionFactory sessionFactory) {
+    this.sessionFactory = Objects.requireNonNull(sessionFactory);
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "hibernateCache";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Statistics statistics = sessionFactory.getStatistics();
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", statistics.isStatisticsEnabled());
+    if (!statistics.isStatisticsEnabled()) return metrics;
+
+    metrics.put("entityHitCount", statistics.getSecondLevelCacheHitCount());
+    metrics.put("entityMissCount", statistics.getSecondLevelCacheMissCount());
+    metrics.put("entityPutCount", statistics.getSecondLevelCachePutCount());
+    metrics.put("queryHitCount", statistics.getQueryCacheHitCount());
+    metrics.put("queryMissCount", statistics.getQueryCacheMissCount());
+    metrics.put("queryPutCount", statistics.getQueryCachePutCount());
+
+    Map<String, Object> regions = new TreeMap<>();
+    for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+      SecondLevelCacheStatistics regionStatistics = statistics.getSecondLevelCacheStatistics(regionName);
+      if (regionStatistics == null) continue;
+      Map<String, Object> regionMetrics = new LinkedHashMap<>();
+      regionMetrics.put("hitCount", regionStatistics.getHitCount());
+      regionMetrics.put("missCount", regionStatistics.getMissCount());
+      regionMetrics.put("putCount", regionStatistics.getPutCount());
+      regionMetrics.put("elementCount", regionStatistics.getElementCountInMemory());
+      regionMetrics.put("sizeBytes", regionStatistics.getSizeInMemory());
+      regions.put(regionName, regionMetrics);
+    }
+    metrics.put("regions", regions);
+    return metrics;
+  }
+
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.typeadapters.UtcDateTypeAdapter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Formats and parses the ISO-8601 representations of dates and times that appear in JSON views.
+ * <p>
+ * The general-purpose implementations build a calendar or a formatter, a string builder and several temporary strings
+ * for every value. These methods compute the fields arithmetically and write them into a small character array, so
+ * the only object left over is the string that {@link JsonWriter} requires.
+ * <p>
+ * The output is identical to {@link UtcDateTypeAdapter} for {@link Date}s and to {@code toString()} for {@link
+ * Instant}s and {@link LocalDate}s. Values that the fast paths don't cover, which are years after 9999 and {@code
+ * Date}s before the Gregorian cutover (which {@code UtcDateTypeAdapter} represents in the Julian calendar), are
+ * delegated to those implementations. So is any input that isn't in the exact form that is written, which keeps their
+ * leniency and their error messages.
+ */
+public final class Iso8601 {
+  private Iso8601() {
+    throw new AssertionError("Not instantiable");
+  }
+
+  private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+  private static final long MILLIS_PER_DAY = SECONDS_PER_DAY * 1000;
+
+  private static final long MIN_EPOCH_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+  private static final long MAX_EPOCH_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+
+  /**
+   * The first day of the Gregorian calendar, before which {@link java.util.GregorianCalendar} uses the Julian calendar.
+   */
+  private static final long GREGORIAN_CUTOVER_EPOCH_DAY = LocalDate.of(1582, 10, 15).toEpochDay();
+
+  /*
+   * Conversions between epoch days and the proleptic Gregorian calendar, after Howard Hinnant's "chrono-Compatible
+   * Low-Level Date Algorithms". The calendar repeats in eras of 400 years (146097 days), counted from 0000-03-01 so that
+   * the leap day falls at the end of each year.
+   */
+
+  private static final int DAYS_PER_ERA = 146097;
+  private static final int DAYS_FROM_0000_03_01_TO_1970_01_01 = 719468;
+
+  /**
+   * Write a date as {@code yyyy-MM-dd}.
+   *
+   * @return the position after the written characters
+   */
+  private static int writeDate(char[] buffer, int position, long epochDay) {
+    long days = epochDay + DAYS_FROM_0000_03_01_TO_1970_01_01;
+    long era = Math.floorDiv(days, DAYS_PER_ERA);
+    int dayOfEra = (int) (days - era * DAYS_PER_ERA);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / (DAYS_PER_ERA - 1)) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int shiftedMonth = (5 * dayOfYear + 2) / 153; // 0 is March
+    int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+    int month = (shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9;
+    int year = (int) (era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+
+    position = writeDigits(buffer, position, year, 4);
+    buffer[position++] = '-';
+    position = writeDigits(buffer, position, month, 2);
+    buffer[position++] = '-';
+    return writeDigits(buffer, position, day, 2);
+  }
+
+  private static long toEpochDay(int year, int month, int day) {
+    int marchBasedYear = (month <= 2) ? year - 1 : year;
+    int era = Math.floorDiv(marchBasedYear, 400);
+    int yearOfEra = marchBasedYear - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return (long) era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_0000_03_01_TO_1970_01_01;
+  }
+
+  private static boolean isValidDate(int year, int month, int day) {
+    if (month < 1 || month > 12 || day < 1) return false;
+    switch (month) {
+      case 2:
+        boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+        return day <= (leap ? 29 : 28);
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return day <= 30;
+      default:
+        return day <= 31;
+    }
+  }
+
+  /**
+   * Write the time of day as {@code HH:mm:ss}.
+   *
+   * @return the position after the written characters
+   */
+  private static int writeTime(char[] buffer, int position, int secondOfDay) {
+    position = writeDigits(buffer, position, secondOfDay / 3600, 2);
+    buffer[position++] = ':';
+    position = writeDigits(buffer, position, secondOfDay / 60 % 60, 2);
+    buffer[position++] = ':';
+    return writeDigits(buffer, position, secondOfDay % 60, 2);
+  }
+
+  /**
+   * Write a non-negative value, zero-padded to the given number of digits.
+   *
+   * @return the position after the written characters
+   */
+  private static int writeDigits(char[] buffer, int position, int value, int digits) {
+    int end = position + digits;
+    for (int i = end - 1; i >= position; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return end;
+  }
+
+  /**
+   * @return the value of the digits in the given range, or -1 if any of the characters is not a digit
+   */
+  private static int parseDigits(String text, int start, int end) {
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') return -1;
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  /**
+   * Parse {@code yyyy-MM-ddTHH:mm:ss} at the start of the text.
+   *
+   * @return the seconds since the epoch, or {@link Long#MIN_VALUE} if the text doesn't start with a valid date and time
+   * in this form
+   */
+  private static long parseDateTime(String text) {
+    if (text.length() < 19 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+        || text.charAt(13) != ':' || text.charAt(16) != ':') {
+      return Long.MIN_VALUE;
+    }
+    int year = parseDigits(text, 0, 4);
+    int month = parseDigits(text, 5, 7);
+    int day = parseDigits(text, 8, 10);
+    int hour = parseDigits(text, 11, 13);
+    int minute = parseDigits(text, 14, 16);
+    int second = parseDigits(text, 17, 19);
+    if (year < 0 || !isValidDate(year, month, day)
+        || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return Long.MIN_VALUE;
+    }
+    return toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+  }
+
+
+  /**
+   * Format a date in the form written by {@link UtcDateTypeAdapter}, {@code yyyy-MM-ddTHH:mm:ss.SSSZ}.
+   */
+  public static String format(Date date) {
+    long millis = date.getTime();
+    long epochDay = Math.floorDiv(millis, MILLIS_PER_DAY);
+    if (epochDay < GREGORIAN_CUTOVER_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+      return LEGACY_DATE_ADAPTER.toJsonTree(date).getAsString();
+    }
+    int millisOfDay = (int) (millis - epochDay * MILLIS_PER_DAY);
+
+    char[] buffer = new char[24];
+    int position = writeDate(buffer, 0, epochDay);
+    buffer[position++] = 'T';
+    position = writeTime(buffer, position, millisOfDay / 1000);
+    buffer[position++] = '.';
+    position = writeDigits(buffer, position, millisOfDay % 1000, 3);
+    buffer[position++] = 'Z';
+    return new String(buffer, 0, position);
+  }
+
+  /**
+   * Format an instant as {@link Instant#toString} does.
+   */
+  public static String format(Instant instant) {
+    long epochSecond = instant.getEpochSecond();
+    long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+      return instant.toString();
+    }
+    int secondOfDay = (int) (epochSecond - epochDay * SECONDS_PER_DAY);
+    int nano = instant.getNano();
+
+    char[] buffer = new char[30];
+    int position = writeDate(buffer, 0, epochDay);
+    buffer[position++] = 'T';
+    position = writeTime(buffer, position, secondOfDay);
+    if (nano > 0) {
+      // Like Instant.toString, use the fewest groups of three digits that represent the fraction exactly
+      buffer[position++] = '.';
+      if (nano % 1_000_000 == 0) {
+        position = writeDigits(buffer, position, nano / 1_000_000, 3);
+      } else if (nano % 1000 == 0) {
+        position = writeDigits(buffer, position, nano / 1000, 6);
+      } else {
+        position = writeDigits(buffer, position, nano, 9);
+      }
+    }
+    buffer[position++] = 'Z';
+    return new String(buffer, 0, position);
+  }
+
+  /**
+   * Format a date as {@link LocalDate#toString} does.
+   */
+  public static String format(LocalDate date) {
+    long epochDay = date.toEpochDay();
+    if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+      return date.toString();
+    }
+    char[] buffer = new char[10];
+    int position = writeDate(buffer, 0, epochDay);
+    return new String(buffer, 0, position);
+  }
+
+
+  /**
+   * Parse a date as {@link UtcDateTypeAdapter} does.
+   *
+   * @throws com.google.gson.JsonParseException if the text is not a valid date
+   */
+  public static Date parseDate(String text) {
+    if (text.length() == 24 && text.charAt(19) == '.' && text.charAt(23) == 'Z') {
+      long epochSecond = parseDateTime(text);
+      int millis = parseDigits(text, 20, 23);
+      if (epochSecond != Long.MIN_VALUE && millis >= 0
+          && Math.floorDiv(epochSecond, SECONDS_PER_DAY) >= GREGORIAN_CUTOVER_EPOCH_DAY) {
+        return new Date(epochSecond * 1000 + millis);
+      }
+    }
+    return LEGACY_DATE_ADAPTER.fromJsonTree(new JsonPrimitive(text));
+  }
+
+  /**
+   * Parse an instant as {@link Instant#parse} does.
+   *
+   * @throws java.time.format.DateTimeParseException if the text is not a valid instant
+   */
+  public static Instant parseInstant(String text) {
+    long epochSecond = parseDateTime(text);
+    int length = text.length();
+    if (epochSecond != Long.MIN_VALUE && text.charAt(length - 1) == 'Z') {
+      if (length == 20) {
+        return Instant.ofEpochSecond(epochSecond);
+      }
+      int fractionDigits = length - 21;
+      if (text.charAt(19) == '.' && fractionDigits >= 1 && fractionDigits <= 9) {
+        int fraction = parseDigits(text, 20, length - 1);
+        if (fraction >= 0) {
+          for (int i = fractionDigits; i < 9; i++) {
+            fraction *= 10;
+          }
+          return Instant.ofEpochSecond(epochSecond, fraction);
+        }
+      }
+    }
+    return Instant.parse(text);
+  }
+
+  /**
+   * Parse a date as {@link LocalDate#parse(CharSequence)} does.
+   *
+   * @throws java.time.format.DateTimeParseException if the text is not a valid date
+   */
+  public static LocalDate parseLocalDate(String text) {
+    if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+      int year = parseDigits(text, 0, 4);
+      int month = parseDigits(text, 5, 7);
+      int day = parseDigits(text, 8, 10);
+      if (year >= 0 && isValidDate(year, month, day)) {
+        return LocalDate.of(year, month, day);
+      }
+    }
+    return LocalDate.parse(text);
+  }
+
+
+  private static final TypeAdapter<Date> LEGACY_DATE_ADAPTER = new UtcDateTypeAdapter();
+
+  /**
+   * Reads and writes {@link Date}s in the same form as {@link UtcDateTypeAdapter}.
+   */
+  public static final TypeAdapter<Date> DATE_ADAPTER = new TypeAdapter<Date>() {
+    @Override
+    public void write(JsonWriter out, Date value) throws IOException {
+      out.value(format(value));
+    }
+
+    @Override
+    public Date read(JsonReader in) throws IOException {
+      return parseDate(in.nextString());
+    }
+  }.nullSafe();
+
+  public static final TypeAdapter<Instant> INSTANT_ADAPTER = new TypeAdapter<Instant>() {
+    @Override
+    public void write(JsonWriter out, Instant value) throws IOException {
+      out.value(format(value));
+    }
+
+    @Override
+    public Instant read(JsonReader in) throws IOException {
+      return parseInstant(in.nextString());
+    }
+  }.nullSafe();
+
+  public static final TypeAdapter<LocalDate> LOCAL_DATE_ADAPTER = new TypeAdapter<LocalDate>() {
+    @Override
+    public void write(JsonWriter out, LocalDate value) throws IOException {
+      out.value(format(value));
+    }
+
+    @Override
+    public LocalDate read(JsonReader in) throws IOException {
+      return parseLocalDate(in.nextString());
+    }
+  }.nullSafe();
+
+}
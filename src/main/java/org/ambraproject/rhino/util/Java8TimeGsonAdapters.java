@@ -23,8 +23,6 @@
 package org.ambraproject.rhino.util;
 
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonSerializer;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -35,14 +33,8 @@ public class Java8TimeGsonAdapters {
   }
 
   public static void register(GsonBuilder gsonBuilder) {
-    gsonBuilder.registerTypeAdapter(LocalDate.class, (JsonSerializer<LocalDate>)
-        (src, type, context) -> context.serialize(src.toString()));
-    gsonBuilder.registerTypeAdapter(LocalDate.class, (JsonDeserializer<LocalDate>)
-        (json, type, context) -> LocalDate.parse(json.getAsString()));
-    gsonBuilder.registerTypeAdapter(Instant.class, (JsonSerializer<Instant>)
-        (src, type, context) -> context.serialize(src.toString()));
-    gsonBuilder.registerTypeAdapter(Instant.class, (JsonDeserializer<Instant>)
-        (json, type, context) -> Instant.parse(json.getAsString()));
+    gsonBuilder.registerTypeAdapter(LocalDate.class, Iso8601.LOCAL_DATE_ADAPTER);
+    gsonBuilder.registerTypeAdapter(Instant.class, Iso8601.INSTANT_ADAPTER);
   }
 
 }
@@ -22,14 +22,19 @@
 
 package org.ambraproject.rhino.util;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.Date;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.base.Preconditions;
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.typeadapters.UtcDateTypeAdapter;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 
 import org.hibernate.proxy.HibernateProxy;
 
@@ -56,6 +61,69 @@ public final class JsonAdapterUtil {
     return destination;
   }
 
+  /**
+   * Write all members that haven't already been written. This is the streaming counterpart of {@link
+   * #copyWithoutOverwriting}.
+   *
+   * @param source      the object to copy from
+   * @param writer      a writer that is in the middle of writing an object
+   * @param gson        the Gson instance that is writing the object
+   * @param writtenKeys the keys that the writer has already written, to which the copied keys are added
+   * @throws IOException if the writer throws it
+   */
+  public static void writeWithoutOverwriting(JsonObject source, JsonWriter writer, Gson gson,
+                                             Set<String> writtenKeys)
+      throws IOException {
+    for (Map.Entry<String, JsonElement> fromEntry : source.entrySet()) {
+      String key = fromEntry.getKey();
+      if (writtenKeys.add(key)) {
+        writer.name(key);
+        gson.toJson(fromEntry.getValue(), writer);
+      }
+    }
+  }
+
+  /**
+   * Write an object member with the same output as adding {@code context.serialize(value)} to a {@code JsonObject}.
+   * In particular, a null value is omitted unless the writer is configured to serialize nulls.
+   *
+   * @param writer a writer that is in the middle of writing an object
+   * @param gson   the Gson instance that is writing the object
+   * @param key    the member's key
+   * @param value  the member's value, or {@code null}
+   * @throws IOException if the writer throws it
+   */
+  public static void writeMember(JsonWriter writer, Gson gson, String key, Object value) throws IOException {
+    writer.name(key);
+    if (value == null) {
+      writer.nullValue();
+    } else {
+      gson.toJson(value, value.getClass(), writer);
+    }
+  }
+
+  /**
+   * Create a serialization context that delegates to a Gson instance, as the context that Gson passes to a {@link
+   * com.google.gson.JsonSerializer} does. This allows a streaming adapter to reuse tree-building code.
+   *
+   * @param gson the Gson instance
+   * @return the serialization context
+   */
+  public static JsonSerializationContext createSerializationContext(Gson gson) {
+    Preconditions.checkNotNull(gson);
+    return new JsonSerializationContext() {
+      @Override
+      public JsonElement serialize(Object src) {
+        return gson.toJsonTree(src);
+      }
+
+      @Override
+      public JsonElement serialize(Object src, Type typeOfSrc) {
+        return gson.toJsonTree(src, typeOfSrc);
+      }
+    };
+  }
+
   /**
    * Create a {@code GsonBuilder} preconfigured with utility adapters.
    *
@@ -63,7 +131,7 @@ public final class JsonAdapterUtil {
    */
   public static GsonBuilder makeGsonBuilder() {
     GsonBuilder builder = new GsonBuilder();
-    builder.registerTypeAdapter(Date.class, new UtcDateTypeAdapter());
+    builder.registerTypeAdapter(Date.class, Iso8601.DATE_ADAPTER);
     return builder;
   }
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.common.cache.CacheStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A component that reports operational statistics. Every {@code MetricsSource} bean is included in the response to
+ * {@code GET /config?type=metrics}.
+ */
+public interface MetricsSource {
+
+  /**
+   * @return a name for this group of metrics, unique within the application
+   */
+  String getMetricsName();
+
+  /**
+   * @return the current metric values, as a map that can be serialized to JSON
+   */
+  Map<String, Object> getMetrics();
+
+  /**
+   * Describe the statistics of a Guava cache.
+   *
+   * @param stats the cache statistics
+   * @return a mutable map to which callers may add their own metrics
+   */
+  static Map<String, Object> describeCacheStats(CacheStats stats) {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("requestCount", stats.requestCount());
+    metrics.put("hitCount", stats.hitCount());
+    metrics.put("missCount", stats.missCount());
+    metrics.put("hitRate", stats.hitRate());
+    metrics.put("loadExceptionCount", stats.loadExceptionCount());
+    metrics.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+    metrics.put("evictionCount", stats.evictionCount());
+    return metrics;
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets concurrent identical reads share one computation. The first request for a key computes the result on its own
+ * thread; requests for the same key that arrive while it is in flight wait for it and receive the same result, or the
+ * same exception.
+ * <p>
+ * Each call site names its endpoint and chooses the key that identifies its request, so that requests are coalesced
+ * only with others that would compute the same thing. A waiting request that is not answered within the timeout
+ * computes its own result.
+ * <p>
+ * Results are handed to other threads, so they must be safe to share: immutable values or serialized bytes, never
+ * Hibernate entities or other objects bound to the computing thread's session. Nothing is cached after the
+ * computation finishes.
+ */
+public class RequestCoalescer implements MetricsSource {
+
+  /**
+   * A computation whose result may be shared.
+   *
+   * @param <V> the type of the result
+   * @param <E> the type of checked exception that the computation throws
+   */
+  @FunctionalInterface
+  public static interface Computation<V, E extends Exception> {
+    V compute() throws E;
+  }
+
+  private static class EndpointStats {
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+  }
+
+  private final long timeoutNanos;
+  private final ConcurrentMap<List<?>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, EndpointStats> endpointStats = new ConcurrentHashMap<>();
+
+  /**
+   * @param timeout how long a request waits for an identical request in flight before computing its own result
+   */
+  public RequestCoalescer(Duration timeout) {
+    this.timeoutNanos = timeout.toNanos();
+  }
+
+  /**
+   * Compute a result, or wait for an identical computation that is already in flight.
+   *
+   * @param endpoint    the name of the calling endpoint
+   * @param key         identifies the request among others to the same endpoint; must have value semantics
+   * @param computation computes the result if no identical computation is in flight
+   * @param <V>         the type of the result, which must be the same for every call with the same endpoint and key
+   * @param <E>         the type of checked exception that the computation throws
+   * @return the result
+   * @throws E if this or the shared computation throws it
+   */
+  public <V, E extends Exception> V execute(String endpoint, Object key, Computation<? extends V, E> computation)
+      throws E {
+    EndpointStats stats = endpointStats.computeIfAbsent(endpoint, name -> new EndpointStats());
+    stats.requestCount.incrementAndGet();
+
+    List<?> flightKey = Arrays.asList(endpoint, key);
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, future);
+    if (existing == null) {
+      try {
+        V result = computation.compute();
+        future.complete(result);
+        return result;
+      } catch (Exception | Error e) {
+        future.completeExceptionally(e);
+        throw e;
+      } finally {
+        inFlight.remove(flightKey, future);
+      }
+    }
+
+    stats.coalescedCount.incrementAndGet();
+    try {
+      @SuppressWarnings("unchecked")
+      V result = (V) existing.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      return result;
+    } catch (TimeoutException e) {
+      stats.timeoutCount.incrementAndGet();
+      return computation.compute();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for " + endpoint + ": " + key, e);
+    } catch (ExecutionException e) {
+      throw RequestCoalescer.<E>rethrow(e.getCause());
+    }
+  }
+
+  /**
+   * Rethrow the exception from a shared computation. It was thrown by a computation of the same type as the caller's,
+   * so it is either unchecked or of the caller's checked type.
+   */
+  @SuppressWarnings("unchecked")
+  private static <E extends Exception> RuntimeException rethrow(Throwable cause) throws E {
+    if (cause instanceof Error) throw (Error) cause;
+    throw (E) cause;
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "requestCoalescer";
+  }
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("inFlightCount", inFlight.size());
+    for (Map.Entry<String, EndpointStats> entry : endpointStats.entrySet()) {
+      EndpointStats stats = entry.getValue();
+      Map<String, Object> endpointMetrics = new LinkedHashMap<>();
+      endpointMetrics.put("requestCount", stats.requestCount.get());
+      endpointMetrics.put("coalescedCount", stats.coalescedCount.get());
+      endpointMetrics.put("timeoutCount", stats.timeoutCount.get());
+      metrics.put(entry.getKey(), endpointMetrics);
+    }
+    return metrics;
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.ambraproject.rhino.rest.RestClientException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The top-level members of a view that a client asked for with a {@code fields} query parameter, as a comma-separated
+ * list of names. Names that the view does not have are ignored.
+ * <p>
+ * Views that accept a selection should not only omit the other members but, where they can, avoid loading the data
+ * behind them.
+ */
+public final class FieldSelection {
+
+  /**
+   * The selection of every member, for a request that has no {@code fields} parameter.
+   */
+  public static final FieldSelection ALL = new FieldSelection(null);
+
+  private final ImmutableSortedSet<String> names; // null if all are selected
+
+  private FieldSelection(ImmutableSortedSet<String> names) {
+    this.names = names;
+  }
+
+  private static final Splitter SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  /**
+   * @param parameter the value of the request's {@code fields} parameter, or {@code null} if it had none
+   * @return the selection
+   * @throws RestClientException if the parameter names no fields
+   */
+  public static FieldSelection parse(String parameter) {
+    if (parameter == null) return ALL;
+    ImmutableSortedSet<String> names = ImmutableSortedSet.copyOf(SPLITTER.split(parameter));
+    if (names.isEmpty()) {
+      throw new RestClientException("fields must name at least one field", HttpStatus.BAD_REQUEST);
+    }
+    return new FieldSelection(names);
+  }
+
+  public boolean isAll() {
+    return names == null;
+  }
+
+  public boolean includes(String name) {
+    return names == null || names.contains(name);
+  }
+
+  /**
+   * @return {@code true} if every selected member is one of the given names
+   */
+  public boolean includesOnly(Collection<String> availableNames) {
+    return names != null && availableNames.containsAll(names);
+  }
+
+  /**
+   * Remove the members that are not selected.
+   *
+   * @param serialized a serialized view
+   * @return {@code serialized}, with only the selected members
+   */
+  public JsonObject project(JsonObject serialized) {
+    if (names != null) {
+      serialized.entrySet().removeIf((Map.Entry<String, JsonElement> entry) -> !names.contains(entry.getKey()));
+    }
+    return serialized;
+  }
+
+  /**
+   * @return the selected names in a canonical form, suitable for cache keys, or {@code "*"} if all are selected
+   */
+  @Override
+  public String toString() {
+    return (names == null) ? "*" : Joiner.on(',').join(names);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return (this == o) || ((o != null) && (getClass() == o.getClass())
+        && Objects.equals(names, ((FieldSelection) o).names));
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(names);
+  }
+
+}
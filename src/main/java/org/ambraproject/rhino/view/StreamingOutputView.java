@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A view that can write itself directly to a {@link JsonWriter}, without first building a tree of {@link
+ * com.google.gson.JsonElement}s with {@link #serialize}.
+ * <p>
+ * The {@link #serialize} method is still the reference form of the view. Implementations of {@link #write} must
+ * produce output that is identical to it.
+ */
+public interface StreamingOutputView extends JsonOutputView {
+
+  /**
+   * Write this view as a JSON value.
+   *
+   * @param writer the writer to write to
+   * @param gson   the Gson instance that is writing this view, to be used to write nested values
+   * @throws IOException if the writer throws it
+   */
+  public abstract void write(JsonWriter writer, Gson gson) throws IOException;
+
+  /**
+   * Create an adapter factory that applies {@link #write} to the given view class. This is registered in place of
+   * {@link JsonOutputView#SERIALIZER} for view classes that implement this interface.
+   *
+   * @param viewClass the view class
+   * @return the adapter factory
+   */
+  public static TypeAdapterFactory adapterFactoryFor(Class<? extends StreamingOutputView> viewClass) {
+    Objects.requireNonNull(viewClass);
+    return new TypeAdapterFactory() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != viewClass) return null;
+        return (TypeAdapter<T>) new TypeAdapter<StreamingOutputView>() {
+          @Override
+          public void write(JsonWriter out, StreamingOutputView value) throws IOException {
+            if (value == null) {
+              out.nullValue();
+            } else {
+              value.write(out, gson);
+            }
+          }
+
+          @Override
+          public StreamingOutputView read(JsonReader in) {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view.article;
+
+import org.ambraproject.rhino.rest.RestClientException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Views of many articles that were requested together. Each requested article should appear in exactly one of {@link
+ * #articles} or {@link #errors}, so that an article that can't be served doesn't fail the whole request.
+ */
+public class ArticleBatchView {
+
+  /**
+   * The articles that were found, keyed by DOI as requested, in the order they were requested.
+   */
+  private final Map<String, ArticleResult> articles = new LinkedHashMap<>();
+
+  /**
+   * The articles that could not be served, keyed by DOI as requested, in the order they were requested.
+   */
+  private final Map<String, ArticleError> errors = new LinkedHashMap<>();
+
+  private static class ArticleResult {
+    private final ArticleRevisionView revision;
+    private final ArticleOverview overview;
+
+    private ArticleResult(ArticleRevisionView revision, ArticleOverview overview) {
+      this.revision = Objects.requireNonNull(revision);
+      this.overview = Objects.requireNonNull(overview);
+    }
+  }
+
+  private static class ArticleError {
+    private final int status;
+    private final String message;
+
+    private ArticleError(RestClientException exception) {
+      this.status = exception.getResponseStatus().value();
+      this.message = exception.getMessage();
+    }
+  }
+
+  /**
+   * @param doi      the DOI as it was requested
+   * @param revision the served revision
+   * @param overview the article's overview
+   */
+  public void addArticle(String doi, ArticleRevisionView revision, ArticleOverview overview) {
+    articles.put(doi, new ArticleResult(revision, overview));
+  }
+
+  /**
+   * @param doi       the DOI, as it was requested, of the article that could not be served
+   * @param exception the exception that would have been reported if the article had been requested alone
+   */
+  public void addError(String doi, RestClientException exception) {
+    errors.put(doi, new ArticleError(exception));
+  }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view.article;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * One page of a listing of article DOIs that is read with cursors rather than page numbers.
+ */
+public class ArticleDoiPage {
+
+  private final ImmutableList<String> dois;
+
+  /**
+   * The encoded cursor from which to read the next page, or {@code null} if this is the last page.
+   */
+  private final String nextCursor;
+
+  /**
+   * The number of articles in the whole listing, or {@code null} if it was not requested.
+   */
+  private final Long totalCount;
+
+  public ArticleDoiPage(List<String> dois, String nextCursor, Long totalCount) {
+    this.dois = ImmutableList.copyOf(dois);
+    this.nextCursor = nextCursor;
+    this.totalCount = totalCount;
+  }
+
+  public ImmutableList<String> getDois() {
+    return dois;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public Long getTotalCount() {
+    return totalCount;
+  }
+
+}
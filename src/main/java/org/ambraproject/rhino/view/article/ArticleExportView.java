@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view.article;
+
+import com.google.common.collect.ImmutableList;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One line of an article export: an article and the ingestion metadata of each of its revisions.
+ */
+public class ArticleExportView {
+
+  private final String doi;
+  private final ImmutableList<RevisionExport> revisions;
+
+  public ArticleExportView(String doi, List<RevisionExport> revisions) {
+    this.doi = Objects.requireNonNull(doi);
+    this.revisions = ImmutableList.copyOf(revisions);
+  }
+
+  public String getDoi() {
+    return doi;
+  }
+
+  public ImmutableList<RevisionExport> getRevisions() {
+    return revisions;
+  }
+
+  public static class RevisionExport {
+    private final int revisionNumber;
+    private final int ingestionNumber;
+    private final String journal;
+    private final String title;
+    private final String articleType;
+    private final String publicationStage;
+    private final LocalDate publicationDate;
+    private final LocalDate revisionDate;
+
+    public RevisionExport(int revisionNumber, int ingestionNumber, String journal, String title, String articleType,
+                          String publicationStage, LocalDate publicationDate, LocalDate revisionDate) {
+      this.revisionNumber = revisionNumber;
+      this.ingestionNumber = ingestionNumber;
+      this.journal = journal;
+      this.title = title;
+      this.articleType = articleType;
+      this.publicationStage = publicationStage;
+      this.publicationDate = publicationDate;
+      this.revisionDate = revisionDate;
+    }
+
+    public int getRevisionNumber() {
+      return revisionNumber;
+    }
+
+    public int getIngestionNumber() {
+      return ingestionNumber;
+    }
+
+    public String getJournal() {
+      return journal;
+    }
+
+    public LocalDate getPublicationDate() {
+      return publicationDate;
+    }
+  }
+
+}
@@ -24,9 +24,12 @@ package org.ambraproject.rhino.view.article;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.content.xml.ArticleXml;
 import org.ambraproject.rhino.content.xml.CustomMetadataExtractor;
 import org.ambraproject.rhino.content.xml.XmlContentException;
@@ -37,23 +40,30 @@ import org.ambraproject.rhino.model.article.ArticleMetadata;
 import org.ambraproject.rhino.model.article.AssetMetadata;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.util.JsonAdapterUtil;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.view.FieldSelection;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.ambraproject.rhino.view.journal.JournalOutputView;
 import org.plos.crepo.model.metadata.RepoObjectMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.w3c.dom.Document;
 
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Deep view of an article ingestion, including data parsed dynamically from the manuscript.
  * <p>
+ * The view may be restricted to a {@link FieldSelection}. If the selected members are all available from the database,
+ * the manuscript is not parsed.
+ * <p>
  * In case of a future need for a shallow view that uses only data is that available from the database, see {@link
  * ArticleRevisionView#serializeIngestion}.
  */
-public class ArticleIngestionView implements JsonOutputView {
+public class ArticleIngestionView implements StreamingOutputView {
 
   public static class Factory {
 
@@ -63,8 +73,23 @@ public class ArticleIngestionView implements JsonOutputView {
     private CustomMetadataExtractor.Factory customMetadataExtractorFactory;
 
     public ArticleIngestionView getView(ArticleIngestion ingestion) {
+      return getView(ingestion, FieldSelection.ALL);
+    }
+
+    /**
+     * Build a view of only the selected members. If they are all available from the database, the manuscript is not
+     * read, and the striking image and manuscript file are loaded only if they are selected.
+     */
+    public ArticleIngestionView getView(ArticleIngestion ingestion, FieldSelection fields) {
       JournalOutputView journal = JournalOutputView.getView(ingestion.getJournal());
 
+      if (fields.includesOnly(DATABASE_FIELDS)) {
+        String bucketName = fields.includes("bucketName")
+            ? getBucketName(articleCrudService.getManuscriptMetadata(ingestion)) : null;
+        return new ArticleIngestionView(ingestion, getDatabaseMetadata(ingestion),
+            getDatabaseCustomMetadata(ingestion), journal, bucketName, fields);
+      }
+
       RepoObjectMetadata objectMetadata = articleCrudService.getManuscriptMetadata(ingestion);
       Document document = articleCrudService.getManuscriptXml(objectMetadata);
       ArticleMetadata metadata;
@@ -76,23 +101,59 @@ public class ArticleIngestionView implements JsonOutputView {
         throw new RuntimeException(e);
       }
 
-      String bucketName = objectMetadata.getVersion().getId().getBucketName();
-      return new ArticleIngestionView(ingestion, metadata, customMetadata, journal, bucketName);
+      return new ArticleIngestionView(ingestion, metadata, customMetadata, journal, getBucketName(objectMetadata),
+          fields);
+    }
+
+    private static String getBucketName(RepoObjectMetadata objectMetadata) {
+      return objectMetadata.getVersion().getId().getBucketName();
     }
 
   }
 
+  /**
+   * Members whose values are copied from the manuscript into the database when an ingestion is persisted (see {@link
+   * org.ambraproject.rhino.service.impl.HibernatePersistenceServiceImpl}), or which don't come from the manuscript.
+   */
+  static final ImmutableSet<String> DATABASE_FIELDS = ImmutableSet.of(
+      "doi", "ingestionNumber", "journal", "bucketName", "preprintDoi", "strikingImage",
+      "title", "publicationDate", "articleType", "revisionDate", "publicationStage");
+
+  /**
+   * @return the parts of the manuscript's metadata that were copied into the ingestion's row
+   */
+  static ArticleMetadata getDatabaseMetadata(ArticleIngestion ingestion) {
+    return ArticleMetadata.builder()
+        .setDoi(ingestion.getArticle().getDoi())
+        .setTitle(ingestion.getTitle())
+        .setPublicationDate(ingestion.getPublicationDate().toLocalDate())
+        .setArticleType(ingestion.getArticleType())
+        .build();
+  }
+
+  /**
+   * @return the parts of the manuscript's custom metadata that were copied into the ingestion's row
+   */
+  static ArticleCustomMetadata getDatabaseCustomMetadata(ArticleIngestion ingestion) {
+    return ArticleCustomMetadata.builder()
+        .setRevisionDate(ingestion.getRevisionDate() == null ? null : ingestion.getRevisionDate().toLocalDate())
+        .setPublicationStage(ingestion.getPublicationStage())
+        .build();
+  }
+
   private final ArticleIngestion ingestion;
   private final ArticleMetadata metadata;
   private final ArticleCustomMetadata customMetadata;
   private final JournalOutputView journal;
   private final String bucketName;
+  private final FieldSelection fields;
 
-  private ArticleIngestionView(ArticleIngestion ingestion,
-                               ArticleMetadata metadata,
-                               ArticleCustomMetadata customMetadata,
-                               JournalOutputView journal,
-                               String bucketName) {
+  ArticleIngestionView(ArticleIngestion ingestion,
+                       ArticleMetadata metadata,
+                       ArticleCustomMetadata customMetadata,
+                       JournalOutputView journal,
+                       String bucketName,
+                       FieldSelection fields) {
     Preconditions.checkArgument(ingestion.getArticle().getDoi().equals(metadata.getDoi()));
     this.ingestion = ingestion;
     this.metadata = metadata;
@@ -100,6 +161,7 @@ public class ArticleIngestionView implements JsonOutputView {
     this.customMetadata = Objects.requireNonNull(customMetadata);
     this.journal = Objects.requireNonNull(journal);
     this.bucketName = bucketName;
+    this.fields = Objects.requireNonNull(fields);
   }
 
   @Override
@@ -114,20 +176,75 @@ public class ArticleIngestionView implements JsonOutputView {
       serialized.addProperty("preprintDoi", ingestion.getPreprintDoi());
     }
 
-    ArticleItem strikingImage = ingestion.getStrikingImage();
-    if (strikingImage != null) {
-      serialized.add("strikingImage", context.serialize(ItemSetView.getItemView(strikingImage)));
+    if (fields.includes("strikingImage")) {
+      ArticleItem strikingImage = ingestion.getStrikingImage();
+      if (strikingImage != null) {
+        serialized.add("strikingImage", context.serialize(ItemSetView.getItemView(strikingImage)));
+      }
     }
 
     JsonAdapterUtil.copyWithoutOverwriting(context.serialize(metadata).getAsJsonObject(), serialized);
     JsonAdapterUtil.copyWithoutOverwriting(context.serialize(customMetadata).getAsJsonObject(), serialized);
 
     serialized.remove("assets");
-    List<AssetMetadataView> assetViews = metadata.getAssets().stream().map(AssetMetadataView::new)
-        .collect(Collectors.toList());
-    serialized.add("assetsLinkedFromManuscript", context.serialize(assetViews));
+    if (fields.includes("assetsLinkedFromManuscript")) {
+      List<AssetMetadataView> assetViews = metadata.getAssets().stream().map(AssetMetadataView::new)
+          .collect(Collectors.toList());
+      serialized.add("assetsLinkedFromManuscript", context.serialize(assetViews));
+    }
+
+    return fields.project(serialized);
+  }
 
-    return serialized;
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    // Keys are added to writtenKeys whether or not they are selected, so that they are never copied from metadata
+    Set<String> writtenKeys = new HashSet<>();
+    writer.beginObject();
+    if (fields.includes("doi")) {
+      writer.name("doi").value(ingestion.getArticle().getDoi());
+    }
+    if (fields.includes("ingestionNumber")) {
+      writer.name("ingestionNumber").value(ingestion.getIngestionNumber());
+    }
+    if (fields.includes("journal")) {
+      JsonAdapterUtil.writeMember(writer, gson, "journal", journal);
+    }
+    if (fields.includes("bucketName")) {
+      writer.name("bucketName").value(bucketName);
+    }
+    writtenKeys.add("doi");
+    writtenKeys.add("ingestionNumber");
+    writtenKeys.add("journal");
+    writtenKeys.add("bucketName");
+
+    if (!Strings.isNullOrEmpty(ingestion.getPreprintDoi())) {
+      if (fields.includes("preprintDoi")) {
+        writer.name("preprintDoi").value(ingestion.getPreprintDoi());
+      }
+      writtenKeys.add("preprintDoi");
+    }
+
+    if (fields.includes("strikingImage")) {
+      ArticleItem strikingImage = ingestion.getStrikingImage();
+      if (strikingImage != null) {
+        JsonAdapterUtil.writeMember(writer, gson, "strikingImage", ItemSetView.getItemView(strikingImage));
+        writtenKeys.add("strikingImage");
+      }
+    }
+
+    writtenKeys.add("assets"); // superseded by assetsLinkedFromManuscript, as in serialize
+    JsonAdapterUtil.writeWithoutOverwriting(fields.project(gson.toJsonTree(metadata).getAsJsonObject()),
+        writer, gson, writtenKeys);
+    JsonAdapterUtil.writeWithoutOverwriting(fields.project(gson.toJsonTree(customMetadata).getAsJsonObject()),
+        writer, gson, writtenKeys);
+
+    if (fields.includes("assetsLinkedFromManuscript")) {
+      List<AssetMetadataView> assetViews = metadata.getAssets().stream().map(AssetMetadataView::new)
+          .collect(Collectors.toList());
+      JsonAdapterUtil.writeMember(writer, gson, "assetsLinkedFromManuscript", assetViews);
+    }
+    writer.endObject();
   }
 
   private static class AssetMetadataView {
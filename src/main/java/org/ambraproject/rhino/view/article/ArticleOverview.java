@@ -31,6 +31,7 @@ import org.ambraproject.rhino.model.ArticleRevision;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -68,20 +69,71 @@ public class ArticleOverview {
   public static ArticleOverview build(ArticleIdentifier articleId,
                                       Collection<ArticleIngestion> ingestions,
                                       Collection<ArticleRevision> revisions) {
-    // Initialize every ingestion number with an empty list of revisions, then fill in revisions.
-    Map<Integer, Collection<Integer>> ingestionTable = ingestions.stream().collect(Collectors.toMap(
-        ArticleIngestion::getIngestionNumber,
-        ingestion -> new ArrayList<>(1)));
-    for (ArticleRevision revision : revisions) {
-      int ingestionKey = revision.getIngestion().getIngestionNumber();
-      ingestionTable.get(ingestionKey).add(revision.getRevisionNumber());
-    }
+    List<Integer> ingestionNumbers = ingestions.stream()
+        .map(ArticleIngestion::getIngestionNumber)
+        .collect(Collectors.toList());
+    return buildFromIngestionNumbers(articleId, ingestionNumbers, revisions);
+  }
 
+  /**
+   * Build an overview without needing the ingestion entities, which may be expensive to load in bulk.
+   *
+   * @param articleId        the article
+   * @param ingestionNumbers the numbers of all of the article's ingestions
+   * @param revisions        all of the article's revisions
+   * @return the overview
+   */
+  public static ArticleOverview buildFromIngestionNumbers(ArticleIdentifier articleId,
+                                                          Collection<Integer> ingestionNumbers,
+                                                          Collection<ArticleRevision> revisions) {
     Map<Integer, Integer> revisionTable = revisions.stream().collect(Collectors.toMap(
         ArticleRevision::getRevisionNumber,
         revision -> revision.getIngestion().getIngestionNumber()));
+    return buildFromNumbers(articleId, ingestionNumbers, revisionTable);
+  }
+
+  /**
+   * Build an overview from numbers alone, as read by a projection that loads no entities.
+   *
+   * @param articleId        the article
+   * @param ingestionNumbers the numbers of all of the article's ingestions
+   * @param revisionTable    the number of each of the article's revisions, mapped to the number of its ingestion
+   * @return the overview
+   */
+  public static ArticleOverview buildFromNumbers(ArticleIdentifier articleId,
+                                                 Collection<Integer> ingestionNumbers,
+                                                 Map<Integer, Integer> revisionTable) {
+    // Initialize every ingestion number with an empty list of revisions, then fill in revisions.
+    Map<Integer, Collection<Integer>> ingestionTable = ingestionNumbers.stream().distinct().collect(Collectors.toMap(
+        ingestionNumber -> ingestionNumber,
+        ingestionNumber -> new ArrayList<>(1)));
+    for (Map.Entry<Integer, Integer> revision : revisionTable.entrySet()) {
+      ingestionTable.get(revision.getValue()).add(revision.getKey());
+    }
 
     return new ArticleOverview(articleId, Maps.transformValues(ingestionTable, ImmutableSortedSet::copyOf), revisionTable);
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    ArticleOverview that = (ArticleOverview) o;
+
+    if (!doi.equals(that.doi)) return false;
+    if (!ingestions.equals(that.ingestions)) return false;
+    if (!revisions.equals(that.revisions)) return false;
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = doi.hashCode();
+    result = 31 * result + ingestions.hashCode();
+    result = 31 * result + revisions.hashCode();
+    return result;
+  }
+
 }
@@ -22,21 +22,28 @@
 
 package org.ambraproject.rhino.view.article;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
-import org.ambraproject.rhino.model.ArticleIngestion;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.model.ArticleRevision;
 import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.ArticleSummary;
 import org.ambraproject.rhino.service.ArticleCrudService;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.util.JsonAdapterUtil;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.ambraproject.rhino.view.journal.JournalOutputView;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
-public class ArticleRevisionView implements JsonOutputView {
+public class ArticleRevisionView implements StreamingOutputView {
 
   public static class Factory {
     @Autowired
@@ -47,50 +54,92 @@ public class ArticleRevisionView implements JsonOutputView {
      * @return a view representing the article and, if it has one, its latest revision
      */
     public ArticleRevisionView getLatestRevisionView(Article article) {
-      return new ArticleRevisionView(article, articleCrudService.getLatestRevision(article));
+      return new ArticleRevisionView(article.getDoi(),
+          articleCrudService.getLatestRevision(article).map(ArticleSummary::create));
+    }
+
+    /**
+     * Represent many articles by their latest revisions, which are read in bulk from the articles' summaries.
+     *
+     * @param articles the articles to represent
+     * @return a view of each article, in the same order
+     */
+    public List<ArticleRevisionView> getLatestRevisionViews(List<Article> articles) {
+      Map<Article, ArticleSummary> summaries = articleCrudService.getArticleSummaries(articles);
+      return articles.stream()
+          .map(article -> new ArticleRevisionView(article.getDoi(), Optional.ofNullable(summaries.get(article))))
+          .collect(Collectors.toList());
     }
   }
 
   public static ArticleRevisionView getView(ArticleRevision revision) {
-    return new ArticleRevisionView(revision.getIngestion().getArticle(), Optional.of(revision));
+    return new ArticleRevisionView(revision.getIngestion().getArticle().getDoi(),
+        Optional.of(ArticleSummary.create(revision)));
   }
 
 
-  private final Article article;
-  private final Optional<ArticleRevision> revision;
+  private final String doi;
+  private final Optional<ArticleSummary> summary;
 
-  private ArticleRevisionView(Article article, Optional<ArticleRevision> revision) {
-    this.article = Objects.requireNonNull(article);
-    this.revision = Objects.requireNonNull(revision);
+  private ArticleRevisionView(String doi, Optional<ArticleSummary> summary) {
+    this.doi = Objects.requireNonNull(doi);
+    this.summary = Objects.requireNonNull(summary);
   }
 
   @Override
   public JsonElement serialize(JsonSerializationContext context) {
     JsonObject serialized = new JsonObject();
-    serialized.addProperty("doi", article.getDoi());
+    serialized.addProperty("doi", doi);
 
-    this.revision.ifPresent((ArticleRevision revision) -> {
-      serialized.addProperty("revisionNumber", revision.getRevisionNumber());
-      serialized.add("ingestion", serializeIngestion(context, revision.getIngestion()));
+    this.summary.ifPresent((ArticleSummary summary) -> {
+      serialized.addProperty("revisionNumber", summary.getRevisionNumber());
+      serialized.add("ingestion", serializeIngestion(context, summary));
     });
 
     return serialized;
   }
 
   // Could be extracted for more public use, in case we ever need this shallow ArticleIngestion view elsewhere.
-  private JsonObject serializeIngestion(JsonSerializationContext context, ArticleIngestion ingestion) {
+  private JsonObject serializeIngestion(JsonSerializationContext context, ArticleSummary summary) {
     JsonObject serialized = new JsonObject();
-    JournalOutputView journalOutputView = JournalOutputView.getView(ingestion.getJournal());
+    JournalOutputView journalOutputView = JournalOutputView.getView(summary.getJournal());
     serialized.add("journal", context.serialize(journalOutputView));
-    serialized.addProperty("ingestionNumber", ingestion.getIngestionNumber());
-    serialized.addProperty("title", ingestion.getTitle());
-    serialized.addProperty("publicationDate", ingestion.getPublicationDate().toLocalDate().toString());
-    if (ingestion.getRevisionDate() != null) {
-      serialized.addProperty("revisionDate", ingestion.getRevisionDate().toLocalDate().toString());
+    serialized.addProperty("ingestionNumber", summary.getIngestionNumber());
+    serialized.addProperty("title", summary.getTitle());
+    serialized.addProperty("publicationDate", summary.getPublicationDate().toLocalDate().toString());
+    if (summary.getRevisionDate() != null) {
+      serialized.addProperty("revisionDate", summary.getRevisionDate().toLocalDate().toString());
     }
-    serialized.addProperty("publicationStage", ingestion.getPublicationStage());
-    serialized.addProperty("articleType", ingestion.getArticleType());
+    serialized.addProperty("publicationStage", summary.getPublicationStage());
+    serialized.addProperty("articleType", summary.getArticleType());
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    writer.name("doi").value(doi);
+    if (this.summary.isPresent()) {
+      ArticleSummary summary = this.summary.get();
+      writer.name("revisionNumber").value(summary.getRevisionNumber());
+      writer.name("ingestion");
+      writeIngestion(writer, gson, summary);
+    }
+    writer.endObject();
+  }
+
+  private void writeIngestion(JsonWriter writer, Gson gson, ArticleSummary summary) throws IOException {
+    writer.beginObject();
+    JsonAdapterUtil.writeMember(writer, gson, "journal", JournalOutputView.getView(summary.getJournal()));
+    writer.name("ingestionNumber").value(summary.getIngestionNumber());
+    writer.name("title").value(summary.getTitle());
+    writer.name("publicationDate").value(summary.getPublicationDate().toLocalDate().toString());
+    if (summary.getRevisionDate() != null) {
+      writer.name("revisionDate").value(summary.getRevisionDate().toLocalDate().toString());
+    }
+    writer.name("publicationStage").value(summary.getPublicationStage());
+    writer.name("articleType").value(summary.getArticleType());
+    writer.endObject();
+  }
+
 }
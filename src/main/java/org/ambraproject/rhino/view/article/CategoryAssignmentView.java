@@ -22,14 +22,17 @@
 
 package org.ambraproject.rhino.view.article;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.model.ArticleCategoryAssignment;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.view.StreamingOutputView;
 
+import java.io.IOException;
 import java.util.Objects;
 
-public class CategoryAssignmentView implements JsonOutputView {
+public class CategoryAssignmentView implements StreamingOutputView {
 
   private final ArticleCategoryAssignment categoryAssignment;
 
@@ -45,4 +48,12 @@ public class CategoryAssignmentView implements JsonOutputView {
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    writer.name("path").value(categoryAssignment.getCategory().getPath());
+    writer.name("weight").value(categoryAssignment.getWeight());
+    writer.endObject();
+  }
+
 }
@@ -33,9 +33,8 @@ import com.google.common.collect.ImmutableMap;
 
 import org.ambraproject.rhino.identity.ArticleIdentifier;
 import org.ambraproject.rhino.model.Article;
-import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleRelationship;
-import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.view.journal.JournalOutputView;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -73,12 +72,15 @@ public class RelationshipViewFactory {
   }
 
   private RelationshipView of(Article article, String type, String specificUse) {
-    Optional<ArticleRevision> revision = articleCrudService.getLatestRevision(article);
-    Optional<ArticleIngestion> ingestion = revision.map(ArticleRevision::getIngestion);
-    String title = ingestion.map(ArticleIngestion::getTitle).orElse(null);
-    Integer revisionNumber = revision.map(ArticleRevision::getRevisionNumber).orElse(null);
-    LocalDate publicationDate = ingestion.map(ing -> ing.getPublicationDate().toLocalDate()).orElse(null);
-    JournalOutputView journal = ingestion.map(ing -> JournalOutputView.getView(ing.getJournal())).orElse(null);
+    return of(article, articleCrudService.getLatestRevision(article).map(ArticleSummary::create), type, specificUse);
+  }
+
+  private static RelationshipView of(Article article, Optional<ArticleSummary> summary,
+                                     String type, String specificUse) {
+    String title = summary.map(ArticleSummary::getTitle).orElse(null);
+    Integer revisionNumber = summary.map(ArticleSummary::getRevisionNumber).orElse(null);
+    LocalDate publicationDate = summary.map(s -> s.getPublicationDate().toLocalDate()).orElse(null);
+    JournalOutputView journal = summary.map(s -> JournalOutputView.getView(s.getJournal())).orElse(null);
     return RelationshipView.builder().setDoi(article.getDoi())
       .setTitle(title)
       .setRevisionNumber(revisionNumber)
@@ -93,14 +95,36 @@ public class RelationshipViewFactory {
     return of(relation.getTargetArticle(), relation.getType(), relation.getSpecificUse());
   }
 
+  private static String invertType(String type) {
+    return invertedTypes.getOrDefault(type, type + "-inverted");
+  }
+
   public RelationshipView invert(ArticleRelationship relation) {
-    String invertedRelation = invertedTypes.getOrDefault(relation.getType(), relation.getType() +"-inverted");
-    return of(relation.getSourceArticle(), invertedRelation, relation.getSpecificUse());
+    return of(relation.getSourceArticle(), invertType(relation.getType()), relation.getSpecificUse());
   }
 
+  /**
+   * Represent all relationships to and from an article. The summaries of the related articles are read in bulk.
+   */
   public List<RelationshipView> getRelationshipViews(ArticleIdentifier articleId) {
-    Stream<RelationshipView> from = articleCrudService.getRelationshipsFrom(articleId).stream().map(this::of);
-    Stream<RelationshipView> to = articleCrudService.getRelationshipsTo(articleId).stream().map(this::invert);
+    List<ArticleRelationship> relationshipsFrom = articleCrudService.getRelationshipsFrom(articleId);
+    List<ArticleRelationship> relationshipsTo = articleCrudService.getRelationshipsTo(articleId);
+    List<Article> relatedArticles = Stream.concat(
+        relationshipsFrom.stream().map(ArticleRelationship::getTargetArticle),
+        relationshipsTo.stream().map(ArticleRelationship::getSourceArticle))
+        .collect(Collectors.toList());
+    Map<Article, ArticleSummary> summaries = articleCrudService.getArticleSummaries(relatedArticles);
+
+    Stream<RelationshipView> from = relationshipsFrom.stream().map(relation -> {
+      Article target = relation.getTargetArticle();
+      return of(target, Optional.ofNullable(summaries.get(target)),
+          relation.getType(), relation.getSpecificUse());
+    });
+    Stream<RelationshipView> to = relationshipsTo.stream().map(relation -> {
+      Article source = relation.getSourceArticle();
+      return of(source, Optional.ofNullable(summaries.get(source)),
+          invertType(relation.getType()), relation.getSpecificUse());
+    });
     return Stream.concat(from, to).distinct().collect(Collectors.toList());
   }
 }
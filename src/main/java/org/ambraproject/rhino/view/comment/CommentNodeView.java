@@ -22,22 +22,26 @@
 
 package org.ambraproject.rhino.view.comment;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.identity.Doi;
 import org.ambraproject.rhino.model.Comment;
 import org.ambraproject.rhino.config.RuntimeConfiguration;
 import org.ambraproject.rhino.model.Flag;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.util.JsonAdapterUtil;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.ambraproject.rhino.view.article.ArticleVisibility;
 
+import java.io.IOException;
 import java.util.Objects;
 
 /**
  * A view of an comment with no relationships to its parent or child comments.
  */
-public class CommentNodeView implements JsonOutputView {
+public class CommentNodeView implements StreamingOutputView {
 
   private final Comment comment;
   private final CompetingInterestStatement competingInterestStatement;
@@ -84,6 +88,14 @@ public class CommentNodeView implements JsonOutputView {
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    CommentOutputView.writeBase(writer, gson, comment, competingInterestStatement);
+    JsonAdapterUtil.writeMember(writer, gson, "parentArticle", parentArticle);
+    writer.endObject();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
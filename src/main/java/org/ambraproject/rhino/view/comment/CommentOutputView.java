@@ -24,17 +24,21 @@ package org.ambraproject.rhino.view.comment;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.identity.Doi;
 import org.ambraproject.rhino.model.Article;
 import org.ambraproject.rhino.model.Comment;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.util.JsonAdapterUtil;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.ambraproject.rhino.view.article.ArticleVisibility;
 import org.ambraproject.rhino.view.user.UserIdView;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
@@ -46,7 +50,7 @@ import java.util.stream.Collectors;
 /**
  * View of a comment, with nested views of all its children.
  */
-public class CommentOutputView implements JsonOutputView {
+public class CommentOutputView implements StreamingOutputView {
 
   private final ArticleVisibility parentArticle;
   private final Comment comment;
@@ -159,6 +163,21 @@ public class CommentOutputView implements JsonOutputView {
     return serialized;
   }
 
+  /**
+   * Write the members of {@link #serializeBase} into an object that is being written.
+   */
+  static void writeBase(JsonWriter writer, Gson gson,
+                        Comment comment,
+                        CompetingInterestStatement competingInterestStatement)
+      throws IOException {
+    JsonObject serialized = serializeBase(JsonAdapterUtil.createSerializationContext(gson),
+        comment, competingInterestStatement);
+    for (Map.Entry<String, JsonElement> entry : serialized.entrySet()) {
+      writer.name(entry.getKey());
+      gson.toJson(entry.getValue(), writer);
+    }
+  }
+
   @Override
   public JsonElement serialize(JsonSerializationContext context) {
     JsonObject serialized = serializeBase(context, comment, competingInterestStatement);
@@ -170,4 +189,15 @@ public class CommentOutputView implements JsonOutputView {
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    writeBase(writer, gson, comment, competingInterestStatement);
+    JsonAdapterUtil.writeMember(writer, gson, "parentArticle", parentArticle);
+    writer.name("replyTreeSize").value(replyTreeSize);
+    JsonAdapterUtil.writeMember(writer, gson, "mostRecentActivity", mostRecentActivity);
+    JsonAdapterUtil.writeMember(writer, gson, "replies", replies); // streams each reply in turn
+    writer.endObject();
+  }
+
 }
@@ -22,19 +22,24 @@
 
 package org.ambraproject.rhino.view.journal;
 
-import com.google.common.collect.Lists;
+import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.identity.ArticleListIdentity;
+import org.ambraproject.rhino.model.Article;
 import org.ambraproject.rhino.model.ArticleList;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.util.JsonAdapterUtil;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.ambraproject.rhino.view.article.ArticleRevisionView;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 
-public class ArticleListView implements JsonOutputView {
+public class ArticleListView implements StreamingOutputView {
 
   public static class Factory {
     @Autowired
@@ -47,27 +52,47 @@ public class ArticleListView implements JsonOutputView {
     public ArticleListView getView(ArticleList articleList, String journalKey, boolean excludeArticleMetadata) {
       return new ArticleListView(journalKey, articleList, articleRevisionViewFactory, excludeArticleMetadata);
     }
+
+    /**
+     * @param articleList the list
+     * @param journalKey  the key of the list's journal
+     * @param page        the articles to show, which are a contiguous part of the list
+     * @param totalCount  the number of articles in the whole list
+     * @return a view of the list that shows only one page of its articles
+     */
+    public ArticleListView getPageView(ArticleList articleList, String journalKey, List<Article> page,
+                                       long totalCount) {
+      return new ArticleListView(journalKey, articleList, articleRevisionViewFactory, false,
+          Objects.requireNonNull(page), totalCount);
+    }
   }
 
   private final String journalKey;
   private final ArticleList articleList;
   private final ArticleRevisionView.Factory articleFactory;
   private final boolean excludeArticleMetadata;
+  private final List<Article> page; // null if showing the whole list
+  private final Long totalCount; // null if showing the whole list
 
   private ArticleListView(String journalKey, ArticleList articleList,
                           ArticleRevisionView.Factory articleFactory) {
-    this.journalKey = Objects.requireNonNull(journalKey);
-    this.articleList = Objects.requireNonNull(articleList);
-    this.articleFactory = Objects.requireNonNull(articleFactory);
-    this.excludeArticleMetadata = false;
+    this(journalKey, articleList, articleFactory, false);
   }
 
   private ArticleListView(String journalKey, ArticleList articleList,
                           ArticleRevisionView.Factory articleFactory, boolean excludeArticleMetadata) {
+    this(journalKey, articleList, articleFactory, excludeArticleMetadata, null, null);
+  }
+
+  private ArticleListView(String journalKey, ArticleList articleList,
+                          ArticleRevisionView.Factory articleFactory, boolean excludeArticleMetadata,
+                          List<Article> page, Long totalCount) {
     this.journalKey = Objects.requireNonNull(journalKey);
     this.articleList = Objects.requireNonNull(articleList);
     this.articleFactory = Objects.requireNonNull(articleFactory);
     this.excludeArticleMetadata = excludeArticleMetadata;
+    this.page = page;
+    this.totalCount = totalCount;
   }
 
   public ArticleListIdentity getIdentity() {
@@ -80,6 +105,10 @@ public class ArticleListView implements JsonOutputView {
     return articleList;
   }
 
+  private List<Article> getShownArticles() {
+    return (page != null) ? page : articleList.getArticles();
+  }
+
 
   @Override
   public JsonObject serialize(JsonSerializationContext context) {
@@ -87,13 +116,32 @@ public class ArticleListView implements JsonOutputView {
     serialized.addProperty("title", articleList.getDisplayName());
 
     if (!excludeArticleMetadata) {
-      List<ArticleRevisionView> articleViews = Lists.transform(articleList.getArticles(),
-          articleFactory::getLatestRevisionView);
+      List<ArticleRevisionView> articleViews = articleFactory.getLatestRevisionViews(getShownArticles());
       serialized.add("articles", context.serialize(articleViews));
     }
+    if (totalCount != null) {
+      serialized.addProperty("totalCount", totalCount);
+    }
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    JsonAdapterUtil.writeWithoutOverwriting(gson.toJsonTree(getIdentity()).getAsJsonObject(), writer, gson,
+        new HashSet<>());
+    writer.name("title").value(articleList.getDisplayName());
+
+    if (!excludeArticleMetadata) {
+      List<ArticleRevisionView> articleViews = articleFactory.getLatestRevisionViews(getShownArticles());
+      JsonAdapterUtil.writeMember(writer, gson, "articles", articleViews);
+    }
+    if (totalCount != null) {
+      writer.name("totalCount").value(totalCount);
+    }
+    writer.endObject();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -102,13 +150,16 @@ public class ArticleListView implements JsonOutputView {
     ArticleListView that = (ArticleListView) o;
     if (!articleList.equals(that.articleList)) return false;
     if (!journalKey.equals(that.journalKey)) return false;
-    return true;
+    if (page != null ? !page.equals(that.page) : that.page != null) return false;
+    return totalCount != null ? totalCount.equals(that.totalCount) : that.totalCount == null;
   }
 
   @Override
   public int hashCode() {
     int result = journalKey.hashCode();
     result = 31 * result + articleList.hashCode();
+    result = 31 * result + (page != null ? page.hashCode() : 0);
+    result = 31 * result + (totalCount != null ? totalCount.hashCode() : 0);
     return result;
   }
 }
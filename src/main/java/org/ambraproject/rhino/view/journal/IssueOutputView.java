@@ -24,9 +24,11 @@ package org.ambraproject.rhino.view.journal;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.model.Article;
 import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleItem;
@@ -36,17 +38,19 @@ import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.model.Volume;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.service.IssueCrudService;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.util.JsonAdapterUtil;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.ambraproject.rhino.view.article.ArticleRevisionView;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-public class IssueOutputView implements JsonOutputView {
+public class IssueOutputView implements StreamingOutputView {
 
   public static class Factory {
     @Autowired
@@ -61,9 +65,7 @@ public class IssueOutputView implements JsonOutputView {
     public List<ArticleRevisionView> getIssueArticlesView(Issue issue) {
       List<Article> articles = issue.getArticles();
       if (articles == null) return ImmutableList.of();
-      return articles.stream()
-          .map(articleRevisionViewFactory::getLatestRevisionView)
-          .collect(Collectors.toList());
+      return articleRevisionViewFactory.getLatestRevisionViews(articles);
     }
 
     public IssueOutputView getView(Issue issue) {
@@ -71,7 +73,16 @@ public class IssueOutputView implements JsonOutputView {
     }
 
     public IssueOutputView getView(Issue issue, Volume parentVolume) {
-      return new IssueOutputView(issue, parentVolume, this);
+      return getView(issue, volumeOutputViewFactory.getView(parentVolume));
+    }
+
+    /**
+     * @param issue            an issue
+     * @param parentVolumeView a view of the volume that contains the issue, if the caller already has one
+     * @return a view of the issue
+     */
+    public IssueOutputView getView(Issue issue, VolumeOutputView parentVolumeView) {
+      return new IssueOutputView(issue, parentVolumeView, this);
     }
 
     public Optional<IssueOutputView> getCurrentIssueViewFor(Journal journal) {
@@ -80,12 +91,12 @@ public class IssueOutputView implements JsonOutputView {
   }
 
   private final Issue issue;
-  private final Volume parentVolume;
+  private final VolumeOutputView parentVolumeView;
   private final IssueOutputView.Factory factory;
 
-  private IssueOutputView(Issue issue, Volume parentVolume, Factory issueOutputViewFactory) {
+  private IssueOutputView(Issue issue, VolumeOutputView parentVolumeView, Factory issueOutputViewFactory) {
     this.issue = Objects.requireNonNull(issue);
-    this.parentVolume = Objects.requireNonNull(parentVolume);
+    this.parentVolumeView = Objects.requireNonNull(parentVolumeView);
     this.factory = Objects.requireNonNull(issueOutputViewFactory);
   }
 
@@ -94,7 +105,7 @@ public class IssueOutputView implements JsonOutputView {
     JsonObject serialized = new JsonObject();
     serialized.addProperty("doi", issue.getDoi());
     serialized.addProperty("displayName", issue.getDisplayName());
-    serialized.add("parentVolume", context.serialize(factory.volumeOutputViewFactory.getView(parentVolume)));
+    serialized.add("parentVolume", context.serialize(parentVolumeView));
 
     Article imageArticle = issue.getImageArticle();
     if (imageArticle != null) {
@@ -109,6 +120,25 @@ public class IssueOutputView implements JsonOutputView {
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    writer.name("doi").value(issue.getDoi());
+    writer.name("displayName").value(issue.getDisplayName());
+    JsonAdapterUtil.writeMember(writer, gson, "parentVolume", parentVolumeView);
+
+    Article imageArticle = issue.getImageArticle();
+    if (imageArticle != null) {
+      String figureImageDoi = getIssueImageFigureDoi(factory.articleCrudService, imageArticle);
+      writer.name("imageArticle").beginObject();
+      writer.name("doi").value(imageArticle.getDoi());
+      writer.name("figureImageDoi").value(figureImageDoi);
+      writer.endObject();
+    }
+
+    writer.endObject();
+  }
+
   private static final ImmutableSet<String> FIGURE_IMAGE_TYPES = ImmutableSet.of("figure", "table");
 
   private static String getIssueImageFigureDoi(ArticleCrudService articleCrudService, Article imageArticle) {
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view.journal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import org.ambraproject.rhino.identity.IssueIdentifier;
+import org.ambraproject.rhino.identity.VolumeIdentifier;
+import org.ambraproject.rhino.model.Issue;
+import org.ambraproject.rhino.model.Journal;
+import org.ambraproject.rhino.model.Volume;
+import org.ambraproject.rhino.rest.response.CachedJsonResponse;
+import org.ambraproject.rhino.rest.response.EntityTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of every journal, volume and issue, holding the body of each of their read responses already
+ * serialized as JSON. Serving from a snapshot needs no database access and no serialization.
+ * <p>
+ * An issue whose view cannot be built, such as one whose image article has no published revision, is left out of the
+ * snapshot, along with the list of its volume's issues. Lookups of anything that is not in the snapshot return an
+ * empty value, and callers should fall back to reading from the database, which reports the error or absence as
+ * usual.
+ */
+public final class JournalTree {
+
+  private static final Logger log = LoggerFactory.getLogger(JournalTree.class);
+
+  private final long version;
+  private final CachedJsonResponse journalList;
+  private final ImmutableMap<String, CachedJsonResponse> journals;
+  private final ImmutableMap<String, CachedJsonResponse> currentIssues;
+  private final ImmutableMap<String, CachedJsonResponse> volumeLists;
+  private final ImmutableMap<VolumeIdentifier, CachedJsonResponse> volumes;
+  private final ImmutableMap<VolumeIdentifier, CachedJsonResponse> issueLists;
+  private final ImmutableMap<IssueIdentifier, CachedJsonResponse> issues;
+
+  private JournalTree(Builder builder) {
+    this.version = builder.version;
+    this.journalList = Objects.requireNonNull(builder.journalList);
+    this.journals = ImmutableMap.copyOf(builder.journals);
+    this.currentIssues = ImmutableMap.copyOf(builder.currentIssues);
+    this.volumeLists = ImmutableMap.copyOf(builder.volumeLists);
+    this.volumes = ImmutableMap.copyOf(builder.volumes);
+    this.issueLists = ImmutableMap.copyOf(builder.issueLists);
+    this.issues = ImmutableMap.copyOf(builder.issues);
+  }
+
+  /**
+   * Build a snapshot. Must be called in a transaction, because the journals' volumes and the issues' image articles
+   * are read from the database as the views are built.
+   *
+   * @param version                 identifies the state of the data from which the snapshot is built
+   * @param journals                every journal
+   * @param entityGson              the Gson instance that serializes response views
+   * @param volumeOutputViewFactory the volume view factory
+   * @param issueOutputViewFactory  the issue view factory
+   * @return the snapshot
+   */
+  public static JournalTree build(long version, Collection<Journal> journals, Gson entityGson,
+                                  VolumeOutputView.Factory volumeOutputViewFactory,
+                                  IssueOutputView.Factory issueOutputViewFactory) {
+    Builder builder = new Builder(version, entityGson);
+    JsonArray journalArray = new JsonArray();
+    for (Journal journal : journals) {
+      JsonElement journalElement = entityGson.toJsonTree(JournalOutputView.getView(journal));
+      journalArray.add(journalElement);
+      builder.journals.put(journal.getJournalKey(), builder.serialize(journalElement, journal.getLastModified()));
+
+      JsonArray volumeArray = new JsonArray();
+      for (Volume volume : journal.getVolumes()) {
+        VolumeOutputView volumeView = volumeOutputViewFactory.getView(volume, journal);
+        JsonElement volumeElement = entityGson.toJsonTree(volumeView);
+        volumeArray.add(volumeElement);
+        VolumeIdentifier volumeId = VolumeIdentifier.create(volume.getDoi());
+        builder.volumes.put(volumeId, builder.serialize(volumeElement, volume.getLastModified()));
+        builder.addIssues(volumeId, volume.getIssues(), volumeView, issueOutputViewFactory);
+      }
+      builder.volumeLists.put(journal.getJournalKey(), builder.serialize(volumeArray, null));
+    }
+    builder.journalList = builder.serialize(journalArray, null);
+
+    for (Journal journal : journals) {
+      Issue currentIssue = journal.getCurrentIssue();
+      if (currentIssue == null) continue;
+      CachedJsonResponse currentIssueResponse = builder.issues.get(IssueIdentifier.create(currentIssue.getDoi()));
+      if (currentIssueResponse != null) {
+        builder.currentIssues.put(journal.getJournalKey(), currentIssueResponse);
+      }
+    }
+    return new JournalTree(builder);
+  }
+
+  private static class Builder {
+    private final long version;
+    private final Gson entityGson;
+    private final long createdAt = System.currentTimeMillis();
+
+    private CachedJsonResponse journalList;
+    private final Map<String, CachedJsonResponse> journals = new HashMap<>();
+    private final Map<String, CachedJsonResponse> currentIssues = new HashMap<>();
+    private final Map<String, CachedJsonResponse> volumeLists = new HashMap<>();
+    private final Map<VolumeIdentifier, CachedJsonResponse> volumes = new HashMap<>();
+    private final Map<VolumeIdentifier, CachedJsonResponse> issueLists = new HashMap<>();
+    private final Map<IssueIdentifier, CachedJsonResponse> issues = new HashMap<>();
+
+    private Builder(long version, Gson entityGson) {
+      this.version = version;
+      this.entityGson = Objects.requireNonNull(entityGson);
+    }
+
+    private void addIssues(VolumeIdentifier volumeId, List<Issue> volumeIssues, VolumeOutputView volumeView,
+                           IssueOutputView.Factory issueOutputViewFactory) {
+      JsonArray issueArray = new JsonArray();
+      boolean complete = true;
+      for (Issue issue : volumeIssues) {
+        JsonElement issueElement;
+        try {
+          issueElement = entityGson.toJsonTree(issueOutputViewFactory.getView(issue, volumeView));
+        } catch (RuntimeException e) {
+          log.warn("Leaving issue out of journal tree: " + issue.getDoi(), e);
+          complete = false;
+          continue;
+        }
+        issueArray.add(issueElement);
+        issues.put(IssueIdentifier.create(issue.getDoi()), serialize(issueElement, issue.getLastModified()));
+      }
+      if (complete) {
+        issueLists.put(volumeId, serialize(issueArray, null));
+      }
+    }
+
+    private CachedJsonResponse serialize(JsonElement element, Date lastModified) {
+      byte[] body = entityGson.toJson(element).getBytes(StandardCharsets.UTF_8);
+      return new CachedJsonResponse(body, (lastModified == null) ? null : lastModified.toInstant(),
+          EntityTags.weak(body), createdAt);
+    }
+  }
+
+  /**
+   * @return identifies the state of the data from which this snapshot was built
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * @return the list of all journals
+   */
+  public CachedJsonResponse getJournalList() {
+    return journalList;
+  }
+
+  public Optional<CachedJsonResponse> getJournal(String journalKey) {
+    return Optional.ofNullable(journals.get(journalKey));
+  }
+
+  public Optional<CachedJsonResponse> getCurrentIssue(String journalKey) {
+    return Optional.ofNullable(currentIssues.get(journalKey));
+  }
+
+  /**
+   * @param journalKey a journal key
+   * @return the list of the journal's volumes
+   */
+  public Optional<CachedJsonResponse> getVolumes(String journalKey) {
+    return Optional.ofNullable(volumeLists.get(journalKey));
+  }
+
+  public Optional<CachedJsonResponse> getVolume(VolumeIdentifier volumeId) {
+    return Optional.ofNullable(volumes.get(volumeId));
+  }
+
+  /**
+   * @param volumeId a volume
+   * @return the list of the volume's issues
+   */
+  public Optional<CachedJsonResponse> getIssues(VolumeIdentifier volumeId) {
+    return Optional.ofNullable(issueLists.get(volumeId));
+  }
+
+  public Optional<CachedJsonResponse> getIssue(IssueIdentifier issueId) {
+    return Optional.ofNullable(issues.get(issueId));
+  }
+
+  public int getVolumeCount() {
+    return volumes.size();
+  }
+
+  public int getIssueCount() {
+    return issues.size();
+  }
+
+  /**
+   * @return the total size of the serialized bodies, counting those that are shared only once
+   */
+  public long getSerializedSize() {
+    long size = journalList.getBody().length;
+    for (Collection<CachedJsonResponse> responses : ImmutableList.of(journals.values(), volumeLists.values(),
+        volumes.values(), issueLists.values(), issues.values())) {
+      for (CachedJsonResponse response : responses) {
+        size += response.getBody().length;
+      }
+    }
+    return size;
+  }
+
+}
@@ -22,18 +22,21 @@
 
 package org.ambraproject.rhino.view.journal;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
+import com.google.gson.stream.JsonWriter;
 import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.model.Volume;
 import org.ambraproject.rhino.service.JournalCrudService;
-import org.ambraproject.rhino.view.JsonOutputView;
+import org.ambraproject.rhino.view.StreamingOutputView;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.io.IOException;
 import java.util.Objects;
 
-public class VolumeOutputView implements JsonOutputView {
+public class VolumeOutputView implements StreamingOutputView {
 
   public static class Factory {
     @Autowired
@@ -42,6 +45,15 @@ public class VolumeOutputView implements JsonOutputView {
     public VolumeOutputView getView(Volume volume) {
       return new VolumeOutputView(volume, journalCrudService.readJournalByVolume(volume));
     }
+
+    /**
+     * @param volume  a volume
+     * @param journal the journal that contains the volume, if the caller already has it
+     * @return a view of the volume
+     */
+    public VolumeOutputView getView(Volume volume, Journal journal) {
+      return new VolumeOutputView(volume, Objects.requireNonNull(journal));
+    }
   }
 
   private final Volume volume;
@@ -61,4 +73,13 @@ public class VolumeOutputView implements JsonOutputView {
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    writer.name("doi").value(volume.getDoi());
+    writer.name("displayName").value(volume.getDisplayName());
+    writer.name("journalKey").value(journal.getJournalKey());
+    writer.endObject();
+  }
+
 }
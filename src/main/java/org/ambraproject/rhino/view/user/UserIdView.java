@@ -22,15 +22,19 @@
 
 package org.ambraproject.rhino.view.user;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
-import org.ambraproject.rhino.view.JsonOutputView;
+import com.google.gson.stream.JsonWriter;
+import org.ambraproject.rhino.view.StreamingOutputView;
+
+import java.io.IOException;
 
 /**
  * Wrapper for an ID pointing into the user database.
  */
-public class UserIdView implements JsonOutputView {
+public class UserIdView implements StreamingOutputView {
 
   private final long userProfileId;
 
@@ -54,6 +58,13 @@ public class UserIdView implements JsonOutputView {
     return serialized;
   }
 
+  @Override
+  public void write(JsonWriter writer, Gson gson) throws IOException {
+    writer.beginObject();
+    writer.name("userId").value(String.valueOf(userProfileId)); // as a string; see serialize
+    writer.endObject();
+  }
+
   @Override
   public boolean equals(Object o) {
     return (this == o) || ((o != null) && (getClass() == o.getClass())
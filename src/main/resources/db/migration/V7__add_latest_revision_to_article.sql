@@ -0,0 +1,15 @@
+ALTER TABLE `article`
+  ADD COLUMN `latestRevisionId` bigint(20) DEFAULT NULL,
+  ADD COLUMN `latestPublicationDate` date DEFAULT NULL,
+  ADD CONSTRAINT `fk_article_latestRevision` FOREIGN KEY (`latestRevisionId`) REFERENCES `articleRevision` (`revisionId`) ON DELETE NO ACTION ON UPDATE NO ACTION;
+CREATE INDEX article_latestPublicationDate ON article (latestPublicationDate);
+
+UPDATE `article` a
+  JOIN (SELECT ing.articleId, MAX(rev.revisionNumber) AS revisionNumber
+        FROM `articleRevision` rev
+        JOIN `articleIngestion` ing ON ing.ingestionId = rev.ingestionId
+        GROUP BY ing.articleId) latest ON latest.articleId = a.articleId
+  JOIN `articleIngestion` ing ON ing.articleId = a.articleId
+  JOIN `articleRevision` rev ON rev.ingestionId = ing.ingestionId AND rev.revisionNumber = latest.revisionNumber
+SET a.latestRevisionId = rev.revisionId,
+  a.latestPublicationDate = ing.publicationDate;
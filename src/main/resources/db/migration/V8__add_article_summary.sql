@@ -0,0 +1,26 @@
+CREATE TABLE `articleSummary` (
+  `articleId` bigint(20) NOT NULL,
+  `doi` varchar(150) COLLATE utf8_bin NOT NULL,
+  `revisionNumber` int(11) NOT NULL,
+  `ingestionNumber` int(11) NOT NULL,
+  `title` text COLLATE utf8_bin NOT NULL,
+  `publicationDate` date NOT NULL,
+  `revisionDate` date DEFAULT NULL,
+  `publicationStage` varchar(100) COLLATE utf8_bin DEFAULT NULL,
+  `articleType` varchar(100) COLLATE utf8_bin DEFAULT NULL,
+  `journalId` bigint(20) NOT NULL,
+  `lastModified` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`articleId`),
+  KEY `fk_articleSummary_2` (`journalId`),
+  CONSTRAINT `fk_articleSummary_1` FOREIGN KEY (`articleId`) REFERENCES `article` (`articleId`) ON DELETE CASCADE ON UPDATE NO ACTION,
+  CONSTRAINT `fk_articleSummary_2` FOREIGN KEY (`journalId`) REFERENCES `journal` (`journalId`) ON DELETE NO ACTION ON UPDATE NO ACTION
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE=utf8_bin;
+
+-- Build a summary of every article that has a revision, from the latest-revision pointer added in V7
+INSERT INTO `articleSummary` (`articleId`, `doi`, `revisionNumber`, `ingestionNumber`, `title`, `publicationDate`,
+                              `revisionDate`, `publicationStage`, `articleType`, `journalId`)
+  SELECT a.articleId, a.doi, rev.revisionNumber, ing.ingestionNumber, ing.title, ing.publicationDate,
+    ing.revisionDate, ing.publicationStage, ing.articleType, ing.journalId
+  FROM `article` a
+    JOIN `articleRevision` rev ON rev.revisionId = a.latestRevisionId
+    JOIN `articleIngestion` ing ON ing.ingestionId = rev.ingestionId;
@@ -0,0 +1,2 @@
+ALTER TABLE `comment`
+  ADD COLUMN `version` int(11) NOT NULL DEFAULT 0;
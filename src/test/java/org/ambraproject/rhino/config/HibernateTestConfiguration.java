@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.config;
+
+import java.util.Properties;
+import javax.sql.DataSource;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.HSQLDialect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+import org.springframework.orm.hibernate3.annotation.AnnotationSessionFactoryBean;
+
+/**
+ * Maps the entity model onto an in-memory HSQLDB database with Hibernate statistics switched on, for tests that count
+ * the statements a read path prepares. Unlike {@link TestConfiguration}, it declares no other beans, so tests import
+ * it and declare the services they exercise.
+ */
+@Configuration
+public class HibernateTestConfiguration {
+
+  @Bean
+  public DataSource dataSource() {
+    BasicDataSource dataSource = new BasicDataSource();
+    // One database per context, because each session factory creates and drops the schema
+    dataSource.setUrl("jdbc:hsqldb:mem:entities" + System.identityHashCode(this));
+    dataSource.setDriverClassName("org.hsqldb.jdbcDriver");
+    return dataSource;
+  }
+
+  @Bean
+  public AnnotationSessionFactoryBean sessionFactory(DataSource dataSource) {
+    AnnotationSessionFactoryBean bean = new AnnotationSessionFactoryBean();
+    bean.setDataSource(dataSource);
+    bean.setPackagesToScan("org.ambraproject.rhino.model");
+
+    Properties hibernateProperties = new Properties();
+    hibernateProperties.setProperty("hibernate.dialect", HSQLDialect.class.getName());
+    hibernateProperties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+    // Without the second-level cache, every entity that a read path touches costs a statement
+    RhinoConfiguration.setEntityCacheProperties(hibernateProperties, false);
+    hibernateProperties.setProperty("hibernate.generate_statistics", Boolean.toString(true));
+    bean.setHibernateProperties(hibernateProperties);
+
+    return bean;
+  }
+
+  @Bean
+  public HibernateTemplate hibernateTemplate(SessionFactory sessionFactory) {
+    return new HibernateTemplate(sessionFactory);
+  }
+
+}
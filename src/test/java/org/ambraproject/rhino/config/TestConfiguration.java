@@ -38,6 +38,7 @@ import org.ambraproject.rhino.service.taxonomy.DummyTaxonomyClassificationServic
 import org.ambraproject.rhino.service.taxonomy.TaxonomyClassificationService;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
 import org.ambraproject.rhino.service.taxonomy.impl.TaxonomyServiceImpl;
+import net.sf.ehcache.hibernate.EhCacheRegionFactory;
 import org.apache.commons.dbcp.BasicDataSource;
 import org.hibernate.SessionFactory;
 import org.plos.crepo.service.ContentRepoService;
@@ -86,6 +87,10 @@ public class TestConfiguration {
 
     Properties hibernateProperties = new Properties();
     hibernateProperties.setProperty("hibernate.dialect", "org.hibernate.dialect.HSQLDialect");
+    RhinoConfiguration.setEntityCacheProperties(hibernateProperties, true);
+    // Give each test context a cache manager of its own, which is shut down with the context, rather than the
+    // singleton one that production uses. Otherwise entities cached by one context are still seen by the next.
+    hibernateProperties.setProperty("hibernate.cache.region.factory_class", EhCacheRegionFactory.class.getName());
     bean.setHibernateProperties(hibernateProperties);
 
     return bean;
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.model;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.junit.Test;
+
+import javax.persistence.FetchType;
+import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Guards the fetch strategy of the entity graph. Collections are lazy by default, so that reading an entity never
+ * loads every row of its children, and the collections that are read for many owners at once are loaded in batches
+ * rather than with a query per owner.
+ */
+public class EntityFetchStrategyTest {
+
+  private static final ImmutableList<Class<?>> ENTITY_CLASSES = ImmutableList.of(
+      Article.class, ArticleCategoryAssignment.class, ArticleCategoryAssignmentFlag.class, ArticleFile.class,
+      ArticleIngestion.class, ArticleItem.class, ArticleList.class, ArticleRelationship.class, ArticleRevision.class,
+      ArticleSummary.class, Category.class, Comment.class, Flag.class, Issue.class, Journal.class, Volume.class);
+
+  /**
+   * Collections that are read for many owners in one request, each mapped to whether it is fetched by subselect
+   * (otherwise it must have a batch size).
+   */
+  private static final ImmutableMap<String, Boolean> BATCHED_COLLECTIONS = ImmutableMap.of(
+      "ArticleItem.files", true,
+      "Volume.issues", true,
+      "Issue.articles", false,
+      "ArticleList.articles", false);
+
+  @Test
+  public void testCollectionsAreLazy() {
+    for (Class<?> entityClass : ENTITY_CLASSES) {
+      for (Field field : entityClass.getDeclaredFields()) {
+        OneToMany oneToMany = field.getAnnotation(OneToMany.class);
+        ManyToMany manyToMany = field.getAnnotation(ManyToMany.class);
+        if (oneToMany == null && manyToMany == null) continue;
+        FetchType fetchType = (oneToMany != null) ? oneToMany.fetch() : manyToMany.fetch();
+        assertEquals(getName(field), FetchType.LAZY, fetchType);
+      }
+    }
+  }
+
+  @Test
+  public void testHotCollectionsAreBatched() throws NoSuchFieldException {
+    for (Map.Entry<String, Boolean> entry : BATCHED_COLLECTIONS.entrySet()) {
+      Field field = getField(entry.getKey());
+      if (entry.getValue()) {
+        Fetch fetch = field.getAnnotation(Fetch.class);
+        assertNotNull(entry.getKey(), fetch);
+        assertEquals(entry.getKey(), FetchMode.SUBSELECT, fetch.value());
+      } else {
+        BatchSize batchSize = field.getAnnotation(BatchSize.class);
+        assertNotNull(entry.getKey(), batchSize);
+        assertTrue(entry.getKey(), batchSize.size() > 1);
+      }
+    }
+  }
+
+  private static String getName(Field field) {
+    return field.getDeclaringClass().getSimpleName() + "." + field.getName();
+  }
+
+  private static Field getField(String name) throws NoSuchFieldException {
+    String[] parts = name.split("\\.");
+    for (Class<?> entityClass : ENTITY_CLASSES) {
+      if (entityClass.getSimpleName().equals(parts[0])) {
+        return entityClass.getDeclaredField(parts[1]);
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+
+}
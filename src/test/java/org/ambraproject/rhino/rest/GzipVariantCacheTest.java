@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+import org.ambraproject.rhino.rest.response.EntityTags;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(DataProviderRunner.class)
+public class GzipVariantCacheTest {
+
+  @DataProvider
+  public static Object[][] acceptEncodingCases() {
+    return new Object[][]{
+        {null, false},
+        {"identity", false},
+        {"gzip", true},
+        {"deflate, gzip;q=1.0, *;q=0.5", true},
+        {"GZIP", true},
+        {"x-gzip", true},
+        {"gzip;q=0", false},
+        {"*", true},
+        {"*;q=0", false},
+        {"gzip;q=0.8, *;q=0", true},
+        {"*;q=0.5, gzip;q=0", false},
+    };
+  }
+
+  @Test
+  @UseDataProvider("acceptEncodingCases")
+  public void testAcceptsGzip(String acceptEncoding, boolean expected) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    if (acceptEncoding != null) {
+      request.addHeader("Accept-Encoding", acceptEncoding);
+    }
+    assertEquals(expected, GzipVariantCache.acceptsGzip(request));
+  }
+
+  @Test
+  public void testGetEntityTag() {
+    String identityTag = "\"123e4567-e89b-12d3-a456-426655440000\"";
+    String gzipTag = GzipVariantCache.getEntityTag(identityTag);
+    assertEquals("\"123e4567-e89b-12d3-a456-426655440000-gz\"", gzipTag);
+    assertFalse(EntityTags.matches(identityTag, gzipTag));
+    assertFalse(EntityTags.matches(gzipTag, identityTag));
+  }
+
+  @DataProvider
+  public static Object[][] contentTypeCases() {
+    return new Object[][]{
+        {"text/xml", true},
+        {"application/xml", true},
+        {"text/plain; charset=UTF-8", true},
+        {"application/json", true},
+        {"application/vnd.plos+xml", true},
+        {"image/png", false},
+        {"application/pdf", false},
+        {"video/mp4", false},
+        {null, false},
+    };
+  }
+
+  @Test
+  @UseDataProvider("contentTypeCases")
+  public void testIsCompressible(String contentType, boolean expected) {
+    assertEquals(expected, GzipVariantCache.isCompressible(contentType));
+  }
+
+  private static ByteSource countingSource(byte[] content, AtomicInteger opened) {
+    return new ByteSource() {
+      @Override
+      public InputStream openStream() {
+        opened.incrementAndGet();
+        return new ByteArrayInputStream(content);
+      }
+    };
+  }
+
+  private static byte[] decompress(byte[] compressed) throws IOException {
+    try (InputStream stream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return ByteStreams.toByteArray(stream);
+    }
+  }
+
+  @Test
+  public void testServesCachedVariant() throws IOException {
+    GzipVariantCache cache = new GzipVariantCache(1 << 20, 1 << 20);
+    byte[] content = "<article><body>Lorem ipsum</body></article>".getBytes(StandardCharsets.UTF_8);
+    AtomicInteger opened = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      cache.serveCompressed(response, "key", countingSource(content, opened), content.length);
+      assertEquals("gzip", response.getHeader("Content-Encoding"));
+      assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+      assertArrayEquals(content, decompress(response.getContentAsByteArray()));
+    }
+
+    assertEquals(1, opened.get());
+    assertEquals(2L, cache.getMetrics().get("hitCount"));
+  }
+
+  @Test
+  public void testStreamsLargeContent() throws IOException {
+    GzipVariantCache cache = new GzipVariantCache(1 << 20, 10);
+    byte[] content = "<article><body>Lorem ipsum</body></article>".getBytes(StandardCharsets.UTF_8);
+    AtomicInteger opened = new AtomicInteger();
+
+    for (int i = 0; i < 2; i++) {
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      cache.serveCompressed(response, "key", countingSource(content, opened), content.length);
+      assertArrayEquals(content, decompress(response.getContentAsByteArray()));
+    }
+
+    assertEquals(2, opened.get());
+    assertEquals(2L, cache.getMetrics().get("uncachedResponseCount"));
+  }
+
+}
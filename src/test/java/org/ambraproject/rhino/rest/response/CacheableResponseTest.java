@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.gson.Gson;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheableResponseTest {
+
+  private static final Gson GSON = new Gson();
+  private static final String ENTITY_TAG = EntityTags.strong("test", 1L, 2);
+
+  private final AtomicInteger supplierCalls = new AtomicInteger();
+  private final Supplier<String> supplier = () -> {
+    supplierCalls.incrementAndGet();
+    return "view";
+  };
+
+  @After
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  public void testMatchingEntityTagSkipsSupplier() throws IOException {
+    CacheableResponse<String> cacheable = CacheableResponse.serveVersionedView(ENTITY_TAG, supplier);
+    ResponseEntity<?> response = cacheable.getIfChanged("\"other\", " + ENTITY_TAG, null).asJsonResponse(GSON);
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals(ENTITY_TAG, response.getHeaders().getETag());
+    assertNull(response.getBody());
+    assertEquals(0, supplierCalls.get());
+  }
+
+  @Test
+  public void testChangedEntityTagServesView() throws IOException {
+    CacheableResponse<String> cacheable = CacheableResponse.serveVersionedView(ENTITY_TAG, supplier);
+    ResponseEntity<?> response = cacheable.getIfChanged("\"other\"", null).asJsonResponse(GSON);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(ENTITY_TAG, response.getHeaders().getETag());
+    assertEquals(1, supplierCalls.get());
+  }
+
+  @Test
+  public void testEntityTagOfNegotiatedFormat() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+    request.addHeader("Accept", "application/cbor");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    String cborEntityTag = ResponseFormat.CBOR.getEntityTag(ENTITY_TAG);
+    CacheableResponse<String> cacheable = CacheableResponse.serveVersionedView(ENTITY_TAG, supplier);
+
+    ResponseEntity<?> revalidated = cacheable.getIfChanged(cborEntityTag, null).asJsonResponse(GSON);
+    assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+    assertEquals(cborEntityTag, revalidated.getHeaders().getETag());
+    assertEquals(0, supplierCalls.get());
+
+    // The JSON body's tag does not validate a CBOR body
+    ResponseEntity<?> served = cacheable.getIfChanged(ENTITY_TAG, null).asJsonResponse(GSON);
+    assertEquals(HttpStatus.OK, served.getStatusCode());
+    assertEquals(cborEntityTag, served.getHeaders().getETag());
+    assertEquals(1, supplierCalls.get());
+  }
+
+  @Test
+  public void testIfNoneMatchOverridesIfModifiedSince() throws IOException {
+    Instant lastModified = Instant.ofEpochSecond(1000000000L);
+    CacheableResponse<String> cacheable = CacheableResponse.serveView(lastModified, supplier);
+
+    Date ifModifiedSince = Date.from(lastModified.plusSeconds(60));
+    assertEquals(HttpStatus.NOT_MODIFIED,
+        cacheable.getIfChanged(null, ifModifiedSince).asJsonResponse(GSON).getStatusCode());
+    assertEquals(HttpStatus.OK,
+        cacheable.getIfChanged("\"stale\"", ifModifiedSince).asJsonResponse(GSON).getStatusCode());
+  }
+
+  @Test
+  public void testWeakEntityTagFallback() throws IOException {
+    ResponseEntity<?> first = ServiceResponse.serveView("view").asJsonResponse(GSON);
+    String weakEntityTag = first.getHeaders().getETag();
+    assertTrue(weakEntityTag.startsWith("W/\""));
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+    request.addHeader("If-None-Match", weakEntityTag);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+    ResponseEntity<?> revalidated = ServiceResponse.serveView("view").asJsonResponse(GSON);
+    assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+    assertNull(revalidated.getBody());
+
+    ResponseEntity<?> changed = ServiceResponse.serveView("changed").asJsonResponse(GSON);
+    assertEquals(HttpStatus.OK, changed.getStatusCode());
+  }
+
+}
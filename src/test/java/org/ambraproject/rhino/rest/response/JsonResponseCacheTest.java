@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import org.ambraproject.rhino.util.RequestCoalescer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JsonResponseCacheTest {
+
+  private static final Gson GSON = new Gson();
+  private static final Collection<String> TAGS = ImmutableSet.of("test:1");
+
+  private static class FakeClock extends Clock {
+    private long millis = 1000000000000L;
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneId.of("UTC");
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis);
+    }
+
+    void advance(Duration duration) {
+      millis += duration.toMillis();
+    }
+  }
+
+  private FakeClock clock;
+  private List<Runnable> pendingRefreshes;
+  private JsonResponseCache cache;
+  private AtomicInteger loadCount;
+
+  @Before
+  public void setUp() {
+    clock = new FakeClock();
+    pendingRefreshes = new ArrayList<>();
+    cache = new JsonResponseCache(new InMemoryResponseCacheStore(1 << 20), GSON,
+        Duration.ofSeconds(10), Duration.ofSeconds(60), pendingRefreshes::add, null,
+        new RequestCoalescer(Duration.ofSeconds(1)), clock);
+    loadCount = new AtomicInteger();
+  }
+
+  private ServiceResponse<?> load() {
+    return ServiceResponse.serveView("view" + loadCount.incrementAndGet());
+  }
+
+  private static String getBody(ServiceResponse<?> response) throws IOException {
+    ResponseEntity<?> entity = response.asJsonResponse(GSON);
+    assertEquals(HttpStatus.OK, entity.getStatusCode());
+    return new String((byte[]) entity.getBody(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testVersionedResponse() throws IOException {
+    String entityTag = EntityTags.strong("test", 1);
+    AtomicInteger supplierCalls = new AtomicInteger();
+    CacheableResponse<String> version1 = CacheableResponse.serveVersionedView(entityTag,
+        () -> "view" + supplierCalls.incrementAndGet());
+
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, version1, null, null)));
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, version1, null, null)));
+    assertEquals(1, supplierCalls.get());
+
+    ServiceResponse<?> notModified = cache.serve("key", TAGS, version1, entityTag, null);
+    assertEquals(HttpStatus.NOT_MODIFIED, notModified.asJsonResponse(GSON).getStatusCode());
+    assertEquals(1, supplierCalls.get());
+
+    CacheableResponse<String> version2 = CacheableResponse.serveVersionedView(EntityTags.strong("test", 2),
+        () -> "view" + supplierCalls.incrementAndGet());
+    assertEquals("\"view2\"", getBody(cache.serve("key", TAGS, version2, null, null)));
+  }
+
+  @Test
+  public void testVersionedResponseInBinaryFormat() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+    request.addHeader("Accept", "application/x-jackson-smile");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    try {
+      String entityTag = EntityTags.strong("test", 1);
+      CacheableResponse<String> response = CacheableResponse.serveVersionedView(entityTag, () -> "view");
+
+      assertEquals(HttpStatus.NOT_MODIFIED, cache.serve("key", TAGS, response,
+          ResponseFormat.SMILE.getEntityTag(entityTag), null).asJsonResponse(GSON).getStatusCode());
+      assertEquals(HttpStatus.OK, cache.serve("key", TAGS, response, entityTag, null)
+          .asJsonResponse(GSON).getStatusCode());
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+  }
+
+  @Test
+  public void testStaleWhileRevalidate() throws IOException {
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, this::load)));
+    clock.advance(Duration.ofSeconds(5));
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, this::load)));
+    assertEquals(1, loadCount.get());
+
+    clock.advance(Duration.ofSeconds(10));
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, this::load)));
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, this::load)));
+    assertEquals("Refreshes only once per key", 1, pendingRefreshes.size());
+    assertEquals(1, loadCount.get());
+
+    pendingRefreshes.remove(0).run();
+    assertEquals("\"view2\"", getBody(cache.serve("key", TAGS, this::load)));
+    assertEquals(2, loadCount.get());
+
+    clock.advance(Duration.ofSeconds(100));
+    assertEquals("Too stale to serve", "\"view3\"", getBody(cache.serve("key", TAGS, this::load)));
+    assertTrue(pendingRefreshes.isEmpty());
+  }
+
+  @Test
+  public void testInvalidate() throws IOException {
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, this::load)));
+    assertEquals("\"view2\"", getBody(cache.serve("other", ImmutableSet.of("test:2"), this::load)));
+
+    cache.invalidate("test:1");
+    assertEquals("\"view3\"", getBody(cache.serve("key", TAGS, this::load)));
+    assertEquals("\"view2\"", getBody(cache.serve("other", ImmutableSet.of("test:2"), this::load)));
+  }
+
+  @Test
+  public void testTaggedKey() {
+    String key = cache.getTaggedKey("key", "test:1");
+    String otherKey = cache.getTaggedKey("other", "test:2");
+    assertEquals(key, cache.getTaggedKey("key", "test:1"));
+
+    cache.invalidate("test:1");
+    assertNotEquals(key, cache.getTaggedKey("key", "test:1"));
+    assertEquals(otherKey, cache.getTaggedKey("other", "test:2"));
+  }
+
+  @Test
+  public void testUnsuccessfulResponseIsNotCached() throws IOException {
+    assertEquals(HttpStatus.CREATED,
+        cache.serve("key", TAGS, () -> ServiceResponse.reportCreated("created")).asJsonResponse(GSON).getStatusCode());
+    assertEquals("\"view1\"", getBody(cache.serve("key", TAGS, this::load)));
+  }
+
+}
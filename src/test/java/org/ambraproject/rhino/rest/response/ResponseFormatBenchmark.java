@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.gson.Gson;
+import org.ambraproject.rhino.view.ViewFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time to encode views in each {@link ResponseFormat}. The {@link #main} method also prints the size of
+ * each encoding.
+ * <p>
+ * This is not run by the unit tests. Run it from the test classpath with the {@link #main} method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+  @Param({"JSON", "CBOR", "SMILE"})
+  public ResponseFormat format;
+
+  private Gson gson;
+  private List<?> articleViews;
+  private List<?> commentViews;
+
+  @Setup
+  public void setUp() {
+    gson = ViewFixtures.createGson(true, false);
+    articleViews = ViewFixtures.createArticleRevisionViews(1000);
+    commentViews = ViewFixtures.createCommentViews(100);
+  }
+
+  private static byte[] encode(ResponseFormat format, Gson gson, Object views) {
+    return ServiceResponse.serveView(views).serializeBody(gson, format);
+  }
+
+  @Benchmark
+  public byte[] articleRevisionViews() {
+    return encode(format, gson, articleViews);
+  }
+
+  @Benchmark
+  public byte[] commentViews() {
+    return encode(format, gson, commentViews);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    ResponseFormatBenchmark sizes = new ResponseFormatBenchmark();
+    sizes.setUp();
+    for (ResponseFormat format : ResponseFormat.values()) {
+      System.out.printf("%s: article revision views %d bytes, comment views %d bytes%n", format,
+          encode(format, sizes.gson, sizes.articleViews).length,
+          encode(format, sizes.gson, sizes.commentViews).length);
+    }
+
+    new Runner(new OptionsBuilder()
+        .include(ResponseFormatBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+}
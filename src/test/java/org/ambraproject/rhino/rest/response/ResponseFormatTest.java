@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.ambraproject.rhino.view.ViewFixtures;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ResponseFormatTest {
+
+  private static Map<String, Object> createMap() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("present", "Caf\u00e9 <b>\u03b1</b> & \"quotes\"");
+    map.put("absent", null);
+    map.put("numbers", ImmutableList.of(0, -1, Long.MAX_VALUE, 0.5, 1e100));
+    map.put("flags", ImmutableList.of(true, false));
+    return map;
+  }
+
+  private static Object createView() {
+    List<Object> view = new ArrayList<>();
+    view.addAll(ViewFixtures.createArticleRevisionViews(20));
+    view.addAll(ViewFixtures.createCommentViews(20));
+    view.add(createMap());
+    return view;
+  }
+
+  /**
+   * Parse and rewrite JSON with Gson, so that outputs that differ only in escaping can be compared.
+   */
+  private static String normalize(String json) {
+    return new com.google.gson.JsonParser().parse(json).toString();
+  }
+
+  private static String decode(JsonFactory factory, byte[] encoded) throws IOException {
+    StringWriter json = new StringWriter();
+    try (JsonParser parser = factory.createParser(encoded);
+         JsonGenerator generator = new JsonFactory().createGenerator(json)) {
+      while (parser.nextToken() != null) {
+        generator.copyCurrentStructure(parser);
+      }
+    }
+    return normalize(json.toString());
+  }
+
+  @Test
+  public void testNegotiate() {
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/json"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("text/html"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("not a media type"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor"));
+    assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate("application/x-jackson-smile"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/json;q=0.5, application/cbor"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/json, application/cbor;q=0.5"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor, */*;q=0.1"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("*/*, application/cbor"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0, */*"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/json;q=0, application/*"));
+    assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0"));
+    assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor;q=0.9, application/json;q=0.8"));
+    assertEquals(ResponseFormat.JSON,
+        ResponseFormat.negotiate("application/x-jackson-smile;q=0.5, application/*;q=0.9"));
+  }
+
+  @Test
+  public void testEntityTag() {
+    assertEquals("\"abc\"", ResponseFormat.JSON.getEntityTag("\"abc\""));
+    assertEquals("\"abc+cbor\"", ResponseFormat.CBOR.getEntityTag("\"abc\""));
+    assertEquals("W/\"abc+smile\"", ResponseFormat.SMILE.getEntityTag("W/\"abc\""));
+  }
+
+  private static String writeWithJackson(Gson gson, Object view) throws IOException {
+    StringWriter json = new StringWriter();
+    try (JacksonJsonWriter writer = new JacksonJsonWriter(new JsonFactory().createGenerator(json))) {
+      gson.toJson(view, view.getClass(), writer);
+    }
+    return normalize(json.toString());
+  }
+
+  @Test
+  public void testJacksonJsonWriterMatchesGson() throws IOException {
+    Gson gson = ViewFixtures.createGson(true, false);
+    Object view = createView();
+    assertEquals(normalize(gson.toJson(view)), writeWithJackson(gson, view));
+
+    Gson nullSerializingGson = new GsonBuilder().serializeNulls().create();
+    Object map = createMap();
+    assertEquals(normalize(nullSerializingGson.toJson(map)), writeWithJackson(nullSerializingGson, map));
+  }
+
+  @Test
+  public void testBinaryFormats() throws IOException {
+    Gson gson = ViewFixtures.createGson(true, false);
+    Object view = createView();
+    String expected = normalize(gson.toJson(view));
+    Map<ResponseFormat, JsonFactory> factories = ImmutableMap.of(
+        ResponseFormat.CBOR, new CBORFactory(),
+        ResponseFormat.SMILE, new SmileFactory());
+    for (Map.Entry<ResponseFormat, JsonFactory> entry : factories.entrySet()) {
+      ResponseFormat format = entry.getKey();
+      assertEquals(expected, decode(entry.getValue(), format.encode(gson, view)));
+      byte[] json = ServiceResponse.serveView(view).serializeBody(gson);
+      assertEquals(expected, decode(entry.getValue(), format.transcode(json)));
+    }
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.rest.response;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class StreamingJsonBodyTest {
+
+  private static Object createView() {
+    List<Map<String, Object>> view = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      view.add(ImmutableMap.of("doi", "10.1371/journal.pone." + i,
+          "title", "Caf\u00e9 <b>\u03b1</b> & \"quotes\"",
+          "authors", ImmutableList.of("A", "B")));
+    }
+    return view;
+  }
+
+  private static byte[] stream(Gson gson, Object view) throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    new StreamingJsonBody(gson, view).writeTo(stream);
+    return stream.toByteArray();
+  }
+
+  @Test
+  public void testMatchesToJson() throws IOException {
+    Object view = createView();
+    for (Gson gson : ImmutableList.of(new Gson(), new GsonBuilder().setPrettyPrinting().create())) {
+      assertArrayEquals(gson.toJson(view).getBytes(StandardCharsets.UTF_8), stream(gson, view));
+    }
+  }
+
+  @Test
+  public void testWriteToServletResponse() throws IOException {
+    Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    Object view = createView();
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    ServiceResponse.serveView(view).writeTo(response, gson);
+    assertEquals(200, response.getStatus());
+    assertEquals("application/json;charset=UTF-8", response.getContentType());
+    assertNull(response.getHeader(HttpHeaders.ETAG));
+    assertArrayEquals(ServiceResponse.serveView(view).serializeBody(gson), response.getContentAsByteArray());
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service;
+
+import org.ambraproject.rhino.rest.RestClientException;
+import org.junit.Test;
+
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ArticleDoiCursorTest {
+
+  @Test
+  public void testRoundTrip() {
+    ArticleDoiCursor cursor = new ArticleDoiCursor(Instant.parse("2017-06-01T12:34:56.789Z"), 12345L);
+    String token = cursor.encode();
+    assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    assertEquals(cursor, ArticleDoiCursor.decode(token));
+  }
+
+  @Test(expected = RestClientException.class)
+  public void testNotBase64() {
+    ArticleDoiCursor.decode("not a cursor!");
+  }
+
+  @Test(expected = RestClientException.class)
+  public void testMissingField() {
+    ArticleDoiCursor.decode("MTQ5NjMyMDQ5Njow"); // "1496320496:0"
+  }
+
+}
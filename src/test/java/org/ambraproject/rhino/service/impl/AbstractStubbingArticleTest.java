@@ -14,11 +14,13 @@ import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.service.AssetCrudService;
 import org.ambraproject.rhino.service.JournalCrudService;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
+import org.ambraproject.rhino.util.FileCache;
 import org.ambraproject.rhino.view.article.ArticleIngestionView;
 import org.ambraproject.rhino.view.article.ItemSetView;
 import org.springframework.context.annotation.Bean;
 
 import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -205,4 +207,18 @@ public abstract class AbstractStubbingArticleTest extends AbstractRhinoTest {
     LOG.debug("journalCrudService() * --> {}", mockJournalCrudService);
     return mockJournalCrudService;
   }
+
+  @Bean
+  public FileCache repackCache() {
+    FileCache mockRepackCache = mock(FileCache.class);
+    LOG.debug("repackCache() * --> {}", mockRepackCache);
+    return mockRepackCache;
+  }
+
+  @Bean
+  public ExecutorService repackPrefetchExecutor() {
+    ExecutorService mockRepackPrefetchExecutor = mock(ExecutorService.class);
+    LOG.debug("repackPrefetchExecutor() * --> {}", mockRepackPrefetchExecutor);
+    return mockRepackPrefetchExecutor;
+  }
 }
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import com.google.gson.Gson;
+import org.ambraproject.rhino.config.HibernateTestConfiguration;
+import org.ambraproject.rhino.config.RuntimeConfiguration;
+import org.ambraproject.rhino.content.xml.XpathReader;
+import org.ambraproject.rhino.identity.ArticleItemIdentifier;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.ArticleFile;
+import org.ambraproject.rhino.model.ArticleIngestion;
+import org.ambraproject.rhino.model.ArticleItem;
+import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
+import org.ambraproject.rhino.model.Journal;
+import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.service.AssetCrudService;
+import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
+import org.ambraproject.rhino.util.FileCache;
+import org.ambraproject.rhino.view.article.ArticleIngestionView;
+import org.ambraproject.rhino.view.article.ArticleRevisionView;
+import org.ambraproject.rhino.view.article.ItemSetView;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.plos.crepo.service.ContentRepoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+
+/**
+ * Counts the statements that {@link ArticleCrudServiceImpl}'s read paths prepare against a real, if in-memory,
+ * database.
+ */
+@ContextConfiguration
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ArticleCrudServiceImplStatementCountTest extends AbstractJUnit4SpringContextTests {
+  @Configuration
+  @Import(HibernateTestConfiguration.class)
+  static class ContextConfiguration {
+    @Bean
+    public ArticleCrudService articleCrudService() {
+      return new ArticleCrudServiceImpl();
+    }
+
+    @Bean
+    public ArticleRevisionView.Factory articleRevisionViewFactory() {
+      return new ArticleRevisionView.Factory();
+    }
+
+    @Bean
+    public AssetCrudService assetCrudService() {
+      return mock(AssetCrudService.class);
+    }
+
+    @Bean
+    public XpathReader xpathReader() {
+      return mock(XpathReader.class);
+    }
+
+    @Bean
+    public TaxonomyService taxonomyService() {
+      return mock(TaxonomyService.class);
+    }
+
+    @Bean
+    public ArticleIngestionView.Factory articleIngestionViewFactory() {
+      return mock(ArticleIngestionView.Factory.class);
+    }
+
+    @Bean
+    public ItemSetView.Factory itemSetViewFactory() {
+      return mock(ItemSetView.Factory.class);
+    }
+
+    @Bean
+    public FileCache repackCache() {
+      return mock(FileCache.class);
+    }
+
+    @Bean
+    public ExecutorService repackPrefetchExecutor() {
+      return mock(ExecutorService.class);
+    }
+
+    @Bean
+    public ContentRepoService contentRepoService() {
+      return mock(ContentRepoService.class);
+    }
+
+    @Bean
+    public Gson entityGson() {
+      return new Gson();
+    }
+
+    @Bean
+    public RuntimeConfiguration runtimeConfiguration() {
+      return mock(RuntimeConfiguration.class);
+    }
+  }
+
+  private static final int ARTICLE_COUNT = 10;
+
+  @Autowired
+  private ArticleCrudService articleCrudService;
+
+  @Autowired
+  private ArticleRevisionView.Factory articleRevisionViewFactory;
+
+  @Autowired
+  private HibernateTemplate hibernateTemplate;
+
+  @Autowired
+  private SessionFactory sessionFactory;
+
+  private List<Article> articles;
+
+  @Before
+  public void setUp() {
+    Journal journal = new Journal("PLoSONE");
+    journal.setTitle("PLOS ONE");
+    hibernateTemplate.save(journal);
+
+    articles = new ArrayList<>(ARTICLE_COUNT + 1);
+    for (int i = 1; i <= ARTICLE_COUNT; i++) {
+      articles.add(persistArticle("10.1371/journal.pone." + i, journal));
+    }
+
+    // An article with no revisions, which therefore has no summary
+    Article unpublished = new Article();
+    unpublished.setDoi("10.1371/journal.pone.0");
+    hibernateTemplate.save(unpublished);
+    articles.add(unpublished);
+  }
+
+  /**
+   * Persist an article with one revision, as {@link ArticleRevisionWriteServiceImpl} leaves it.
+   */
+  private Article persistArticle(String doi, Journal journal) {
+    Article article = new Article();
+    article.setDoi(doi);
+    hibernateTemplate.save(article);
+
+    ArticleIngestion ingestion = new ArticleIngestion();
+    ingestion.setArticle(article);
+    ingestion.setIngestionNumber(1);
+    ingestion.setTitle("Title of " + doi);
+    ingestion.setPublicationDate(java.sql.Date.valueOf("2017-01-01"));
+    ingestion.setArticleType("research-article");
+    ingestion.setJournal(journal);
+    hibernateTemplate.save(ingestion);
+
+    ArticleRevision revision = new ArticleRevision();
+    revision.setIngestion(ingestion);
+    revision.setRevisionNumber(1);
+    hibernateTemplate.save(revision);
+
+    article.setLatestRevision(revision);
+    article.setLatestPublicationDate(ingestion.getPublicationDate());
+    hibernateTemplate.update(article);
+    hibernateTemplate.save(ArticleSummary.create(revision));
+    return article;
+  }
+
+  /**
+   * Persist an item of an article's only ingestion, with some files.
+   */
+  private ArticleItem persistItem(Article article, String doi, int fileCount) {
+    ArticleIngestion ingestion = article.getLatestRevision().getIngestion();
+    ArticleItem item = new ArticleItem();
+    item.setIngestion(ingestion);
+    item.setDoi(doi);
+    item.setItemType("figure");
+    hibernateTemplate.save(item);
+
+    for (int i = 1; i <= fileCount; i++) {
+      ArticleFile file = new ArticleFile();
+      file.setIngestion(ingestion);
+      file.setItem(item);
+      file.setFileType("file" + i);
+      file.setBucketName("corpus");
+      file.setCrepoKey(doi + ".file" + i);
+      file.setCrepoUuid("00000000-0000-0000-0000-00000000000" + i);
+      file.setFileSize(100L * i);
+      file.setIngestedFileName(doi + ".file" + i);
+      hibernateTemplate.save(file);
+    }
+    return item;
+  }
+
+  private Statistics clearStatistics() {
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+
+  @Test
+  public void testGetArticleSummariesPreparesOneStatement() {
+    Statistics statistics = clearStatistics();
+
+    Map<Article, ArticleSummary> summaries = articleCrudService.getArticleSummaries(articles);
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(ARTICLE_COUNT, summaries.size());
+    for (Article article : articles.subList(0, ARTICLE_COUNT)) {
+      ArticleSummary summary = summaries.get(article);
+      assertEquals(article.getDoi(), summary.getDoi());
+      assertTrue(Hibernate.isInitialized(summary.getJournal()));
+    }
+    assertNull(summaries.get(articles.get(ARTICLE_COUNT)));
+  }
+
+  @Test
+  public void testGetLatestRevisionViewsPreparesOneStatement() {
+    Statistics statistics = clearStatistics();
+
+    List<ArticleRevisionView> views = articleRevisionViewFactory.getLatestRevisionViews(articles);
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(articles.size(), views.size());
+  }
+
+  @Test
+  public void testGetArticleItemFetchesFiles() {
+    Article article = articles.get(0);
+    String itemDoi = article.getDoi() + ".g001";
+    persistItem(article, itemDoi, 3);
+    Statistics statistics = clearStatistics();
+
+    ArticleItem item = articleCrudService.getArticleItem(ArticleItemIdentifier.create(itemDoi, 1));
+
+    // The files came with the item, rather than from a query of their own
+    assertTrue(Hibernate.isInitialized(item.getFiles()));
+    assertEquals(3, item.getFiles().size());
+    assertEquals(0, statistics.getCollectionFetchCount());
+  }
+
+  @Test
+  public void testItemFilesAreFetchedBySubselect() {
+    Article article = articles.get(0);
+    for (int i = 1; i <= 5; i++) {
+      persistItem(article, article.getDoi() + ".g00" + i, 2);
+    }
+
+    int statementCount = hibernateTemplate.execute(session -> {
+      @SuppressWarnings("unchecked")
+      Collection<ArticleItem> items = (Collection<ArticleItem>) session.createQuery("FROM ArticleItem").list();
+      assertThat(items).hasSize(5);
+      Statistics statistics = clearStatistics();
+      for (ArticleItem item : items) {
+        assertEquals(2, item.getFiles().size());
+      }
+      return (int) statistics.getPrepareStatementCount();
+    });
+
+    // Touching the first item's files loaded the files of every item from the same query
+    assertEquals(1, statementCount);
+  }
+
+}
@@ -2,12 +2,16 @@ package org.ambraproject.rhino.service.impl;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.io.ByteArrayInputStream;
@@ -20,7 +24,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Result;
@@ -30,6 +36,9 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonObject;
 import org.ambraproject.rhino.identity.ArticleIdentifier;
 import org.ambraproject.rhino.identity.ArticleIngestionIdentifier;
 import org.ambraproject.rhino.identity.ArticleItemIdentifier;
@@ -41,14 +50,22 @@ import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleItem;
 import org.ambraproject.rhino.model.ArticleRelationship;
 import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
 import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.model.article.RelatedArticleLink;
+import org.ambraproject.rhino.rest.RestClientException;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.service.ArticleCrudService.SortOrder;
+import org.ambraproject.rhino.service.ArticleDoiCursor;
 import org.ambraproject.rhino.service.AssetCrudService;
 import org.ambraproject.rhino.service.taxonomy.TaxonomyService;
 import org.ambraproject.rhino.view.ResolvedDoiView;
+import org.ambraproject.rhino.view.ViewFixtures;
+import org.ambraproject.rhino.view.article.ArticleBatchView;
+import org.ambraproject.rhino.view.article.ArticleDoiPage;
 import org.ambraproject.rhino.view.article.ArticleOverview;
+import org.hibernate.Query;
+import org.hibernate.Session;
 import org.hibernate.criterion.DetachedCriteria;
 import org.junit.Before;
 import org.junit.Test;
@@ -57,6 +74,8 @@ import org.plos.crepo.model.metadata.RepoObjectMetadata;
 import org.plos.crepo.service.ContentRepoService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.hibernate3.HibernateCallback;
 import org.springframework.orm.hibernate3.HibernateTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
@@ -121,8 +140,7 @@ public class ArticleCrudServiceImplTest extends AbstractStubbingArticleTest {
 
   private ArticleRevision setCommonArticleMocks() {
     ArticleRevision articleRevision = createStubArticleRevision();
-    when(mockHibernateTemplate.execute(any())).thenReturn(stubArticle).thenReturn(1)
-        .thenReturn(articleRevision);
+    when(mockHibernateTemplate.execute(any())).thenReturn(stubArticle).thenReturn(articleRevision);
     return articleRevision;
   }
 
@@ -173,6 +191,259 @@ public class ArticleCrudServiceImplTest extends AbstractStubbingArticleTest {
     assertThat(returnedArticleOverview).isEqualTo(articleOverview);
   }
 
+  @Test
+  public void testServeOverviewReadsOneQuery() throws Exception {
+    Session session = mock(Session.class);
+    Query query = mock(Query.class);
+    when(session.createQuery(any(String.class))).thenReturn(query);
+    when(query.list()).thenReturn(ImmutableList.of(
+        new Object[]{1, null}, new Object[]{2, 1}, new Object[]{3, 2}, new Object[]{3, 3}));
+    when(mockHibernateTemplate.execute(any())).thenAnswer(invocation ->
+        ((HibernateCallback<?>) invocation.getArgument(0)).doInHibernate(session));
+
+    ArticleOverview overview = mockArticleCrudService.serveOverview(stubArticleId).getBody();
+
+    verify(session, times(1)).createQuery(any(String.class));
+    assertThat(overview).isEqualTo(ArticleOverview.buildFromNumbers(stubArticleId, ImmutableList.of(1, 2, 3),
+        ImmutableMap.of(1, 2, 2, 3, 3, 3)));
+  }
+
+  @Test
+  public void testGetArticleSummaries() throws Exception {
+    Article withRevision = createStubArticle(1L, "10.1371/journal.pone.1");
+    Article withoutRevision = createStubArticle(2L, "10.1371/journal.pone.2");
+    ArticleSummary summary = new ArticleSummary();
+    summary.setArticleId(1L);
+    summary.setDoi(withRevision.getDoi());
+
+    Session session = mock(Session.class);
+    Query query = mock(Query.class);
+    when(session.createQuery(any(String.class))).thenReturn(query);
+    when(query.list()).thenReturn(ImmutableList.of(summary));
+    when(mockHibernateTemplate.execute(any())).thenAnswer(invocation ->
+        ((HibernateCallback<?>) invocation.getArgument(0)).doInHibernate(session));
+
+    Map<Article, ArticleSummary> summaries =
+        mockArticleCrudService.getArticleSummaries(ImmutableList.of(withRevision, withoutRevision));
+
+    verify(session, times(1)).createQuery(any(String.class));
+    assertThat(summaries).containsExactly(withRevision, summary);
+  }
+
+  @Test
+  public void testGetArticleSummariesInChunks() throws Exception {
+    int articleCount = ArticleCrudServiceImpl.SUMMARY_CHUNK_SIZE * 2 + 1;
+    List<Article> articles = new ArrayList<>(articleCount);
+    for (int i = 1; i <= articleCount; i++) {
+      articles.add(createStubArticle((long) i, "10.1371/journal.pone." + i));
+    }
+
+    Session session = mock(Session.class);
+    Query query = mock(Query.class);
+    List<Collection<Long>> chunks = new ArrayList<>();
+    when(session.createQuery(any(String.class))).thenReturn(query);
+    when(query.setParameterList(eq("articleIds"), any(Collection.class))).thenAnswer(invocation -> {
+      chunks.add(invocation.getArgument(1));
+      return query;
+    });
+    when(query.list()).thenAnswer(invocation -> chunks.get(chunks.size() - 1).stream()
+        .filter(articleId -> articleId % 2 == 0) // odd-numbered articles have no revisions
+        .map(articleId -> {
+          ArticleSummary summary = new ArticleSummary();
+          summary.setArticleId(articleId);
+          summary.setDoi("10.1371/journal.pone." + articleId);
+          return summary;
+        })
+        .collect(Collectors.toList()));
+    when(mockHibernateTemplate.execute(any())).thenAnswer(invocation ->
+        ((HibernateCallback<?>) invocation.getArgument(0)).doInHibernate(session));
+
+    Map<Article, ArticleSummary> summaries = mockArticleCrudService.getArticleSummaries(articles);
+
+    verify(mockHibernateTemplate, times(1)).execute(any());
+    verify(session, times(3)).createQuery(any(String.class));
+    assertEquals(articleCount / 2, summaries.size());
+    for (Article article : articles) {
+      ArticleSummary summary = summaries.get(article);
+      if (article.getArticleId() % 2 == 0) {
+        assertEquals(article.getDoi(), summary.getDoi());
+      } else {
+        assertNull(summary);
+      }
+    }
+  }
+
+  @Test
+  public void testGetArticleSummariesOfNoArticles() throws Exception {
+    assertThat(mockArticleCrudService.getArticleSummaries(ImmutableList.of())).isEmpty();
+    verify(mockHibernateTemplate, times(0)).execute(any());
+  }
+
+  @Test
+  public void testServeBatch() throws Exception {
+    Journal journal = new Journal("PLoSONE");
+    Article published = createStubArticle(1L, "10.1371/journal.pone.0000001");
+    Article unpublished = createStubArticle(2L, "10.1371/journal.pone.0000002");
+    ArticleRevision revision1 = createStubArticleRevision(11L, 1);
+    revision1.setIngestion(createStubArticleIngestion(published, 1, "First", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 1, 1), "vor"));
+    ArticleRevision revision2 = createStubArticleRevision(12L, 2);
+    revision2.setIngestion(createStubArticleIngestion(published, 3, "Second", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 2, 1), "vor"));
+
+    when(mockHibernateTemplate.execute(any()))
+        .thenReturn(ImmutableList.of(published, unpublished))
+        .thenReturn(ImmutableList.of(
+            new Object[]{published.getDoi(), 1}, new Object[]{published.getDoi(), 2},
+            new Object[]{published.getDoi(), 3}, new Object[]{unpublished.getDoi(), 1}))
+        .thenReturn(ImmutableList.of(revision1, revision2));
+
+    ArticleIdentifier missingId = ArticleIdentifier.create("10.1371/journal.pone.0000003");
+    ArticleBatchView view = mockArticleCrudService.serveBatch(
+        ImmutableList.of(published.getDoi(), unpublished.getDoi(), missingId.getDoiName()), null).getBody();
+    verify(mockHibernateTemplate, times(3)).execute(any());
+
+    JsonObject serialized = ViewFixtures.createGson(true, false).toJsonTree(view).getAsJsonObject();
+    JsonObject articles = serialized.getAsJsonObject("articles");
+    assertThat(articles.keySet()).containsExactly(published.getDoi());
+    JsonObject result = articles.getAsJsonObject(published.getDoi());
+    assertEquals(2, result.getAsJsonObject("revision").get("revisionNumber").getAsInt());
+    assertEquals("Second", result.getAsJsonObject("revision").getAsJsonObject("ingestion").get("title").getAsString());
+    assertEquals(3, result.getAsJsonObject("overview").getAsJsonObject("ingestions").size());
+    assertEquals(2, result.getAsJsonObject("overview").getAsJsonObject("revisions").size());
+
+    JsonObject errors = serialized.getAsJsonObject("errors");
+    assertThat(errors.keySet()).containsExactly(unpublished.getDoi(), missingId.getDoiName()).inOrder();
+    assertEquals(404, errors.getAsJsonObject(missingId.getDoiName()).get("status").getAsInt());
+  }
+
+  @Test
+  public void testServeBatchWithRevisionNumbers() throws Exception {
+    Journal journal = new Journal("PLoSONE");
+    Article published = createStubArticle(1L, "10.1371/journal.pone.0000001");
+    ArticleRevision revision1 = createStubArticleRevision(11L, 1);
+    revision1.setIngestion(createStubArticleIngestion(published, 1, "First", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 1, 1), "vor"));
+    ArticleRevision revision2 = createStubArticleRevision(12L, 2);
+    revision2.setIngestion(createStubArticleIngestion(published, 2, "Second", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 2, 1), "vor"));
+
+    when(mockHibernateTemplate.execute(any()))
+        .thenReturn(ImmutableList.of(published))
+        .thenReturn(ImmutableList.of(new Object[]{published.getDoi(), 1}, new Object[]{published.getDoi(), 2}))
+        .thenReturn(ImmutableList.of(revision1, revision2));
+
+    JsonObject serialized = ViewFixtures.createGson(true, false).toJsonTree(
+        mockArticleCrudService.serveBatch(ImmutableList.of(published.getDoi()), ImmutableList.of(1)).getBody())
+        .getAsJsonObject();
+    assertEquals(1, serialized.getAsJsonObject("articles").getAsJsonObject(published.getDoi())
+        .getAsJsonObject("revision").get("revisionNumber").getAsInt());
+
+    reset(mockHibernateTemplate);
+    when(mockHibernateTemplate.execute(any()))
+        .thenReturn(ImmutableList.of(published))
+        .thenReturn(ImmutableList.of(new Object[]{published.getDoi(), 1}))
+        .thenReturn(ImmutableList.of(revision1));
+    serialized = ViewFixtures.createGson(true, false).toJsonTree(
+        mockArticleCrudService.serveBatch(ImmutableList.of(published.getDoi()), ImmutableList.of(5)).getBody())
+        .getAsJsonObject();
+    assertEquals(0, serialized.getAsJsonObject("articles").size());
+    assertEquals(404, serialized.getAsJsonObject("errors").getAsJsonObject(published.getDoi())
+        .get("status").getAsInt());
+  }
+
+  @Test
+  public void testServeBatchWithInvalidDoi() throws Exception {
+    Journal journal = new Journal("PLoSONE");
+    Article published = createStubArticle(1L, "10.1371/journal.pone.0000001");
+    ArticleRevision revision = createStubArticleRevision(11L, 1);
+    revision.setIngestion(createStubArticleIngestion(published, 1, "First", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 1, 1), "vor"));
+    when(mockHibernateTemplate.execute(any()))
+        .thenReturn(ImmutableList.of(published))
+        .thenReturn(ImmutableList.<Object[]>of(new Object[]{published.getDoi(), 1}))
+        .thenReturn(ImmutableList.of(revision));
+
+    JsonObject serialized = ViewFixtures.createGson(true, false).toJsonTree(mockArticleCrudService.serveBatch(
+        ImmutableList.of("not a doi", published.getDoi(), ""), null).getBody()).getAsJsonObject();
+
+    assertThat(serialized.getAsJsonObject("articles").keySet()).containsExactly(published.getDoi());
+    JsonObject errors = serialized.getAsJsonObject("errors");
+    assertThat(errors.keySet()).containsExactly("not a doi", "").inOrder();
+    assertEquals(400, errors.getAsJsonObject("not a doi").get("status").getAsInt());
+  }
+
+  @Test
+  public void testServeBatchWithOnlyInvalidDois() throws Exception {
+    JsonObject serialized = ViewFixtures.createGson(true, false).toJsonTree(mockArticleCrudService.serveBatch(
+        ImmutableList.of("not a doi"), null).getBody()).getAsJsonObject();
+
+    assertThat(serialized.getAsJsonObject("errors").keySet()).containsExactly("not a doi");
+    verify(mockHibernateTemplate, times(0)).execute(any());
+  }
+
+  @Test
+  public void testServeBatchWithConflictingRevisions() throws Exception {
+    Journal journal = new Journal("PLoSONE");
+    Article published = createStubArticle(1L, "10.1371/journal.pone.0000001");
+    ArticleRevision revision1 = createStubArticleRevision(11L, 1);
+    revision1.setIngestion(createStubArticleIngestion(published, 1, "First", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 1, 1), "vor"));
+    ArticleRevision revision2 = createStubArticleRevision(12L, 2);
+    revision2.setIngestion(createStubArticleIngestion(published, 2, "Second", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 2, 1), "vor"));
+    when(mockHibernateTemplate.execute(any()))
+        .thenReturn(ImmutableList.of(published))
+        .thenReturn(ImmutableList.of(new Object[]{published.getDoi(), 1}, new Object[]{published.getDoi(), 2}))
+        .thenReturn(ImmutableList.of(revision1, revision2));
+
+    // The same DOI twice with different revisions has no single answer, but another spelling of it can be answered
+    String otherSpelling = published.getDoi().toUpperCase();
+    JsonObject serialized = ViewFixtures.createGson(true, false).toJsonTree(mockArticleCrudService.serveBatch(
+        ImmutableList.of(published.getDoi(), published.getDoi(), otherSpelling, otherSpelling),
+        ImmutableList.of(1, 2, 2, 2)).getBody()).getAsJsonObject();
+
+    JsonObject articles = serialized.getAsJsonObject("articles");
+    assertThat(articles.keySet()).containsExactly(otherSpelling);
+    assertEquals(2, articles.getAsJsonObject(otherSpelling).getAsJsonObject("revision")
+        .get("revisionNumber").getAsInt());
+    JsonObject errors = serialized.getAsJsonObject("errors");
+    assertThat(errors.keySet()).containsExactly(published.getDoi());
+    assertEquals(400, errors.getAsJsonObject(published.getDoi()).get("status").getAsInt());
+  }
+
+  @Test
+  public void testServeBatchWithDoisDifferingInCase() throws Exception {
+    Journal journal = new Journal("PLoSONE");
+    Article published = createStubArticle(1L, "10.1371/journal.pone.0000001");
+    Article sameDoi = createStubArticle(2L, published.getDoi().toUpperCase());
+    ArticleRevision revision = createStubArticleRevision(11L, 1);
+    revision.setIngestion(createStubArticleIngestion(published, 1, "First", LocalDate.of(2017, 1, 1),
+        "research-article", journal, LocalDate.of(2017, 1, 1), "vor"));
+    when(mockHibernateTemplate.execute(any()))
+        .thenReturn(ImmutableList.of(published, sameDoi))
+        .thenReturn(ImmutableList.<Object[]>of(new Object[]{published.getDoi(), 1}))
+        .thenReturn(ImmutableList.of(revision));
+
+    String lowerCase = published.getDoi();
+    String upperCase = sameDoi.getDoi();
+    JsonObject serialized = ViewFixtures.createGson(true, false).toJsonTree(mockArticleCrudService.serveBatch(
+        ImmutableList.of(lowerCase, upperCase), null).getBody()).getAsJsonObject();
+
+    verify(mockHibernateTemplate, times(3)).execute(any());
+    assertThat(serialized.getAsJsonObject("articles").keySet()).containsExactly(lowerCase, upperCase).inOrder();
+    assertEquals(0, serialized.getAsJsonObject("errors").size());
+  }
+
+  @Test(expected = RestClientException.class)
+  public void testServeBatchTooLarge() throws Exception {
+    List<String> dois = new ArrayList<>();
+    for (int i = 0; i <= ArticleCrudServiceImpl.MAX_BATCH_SIZE; i++) {
+      dois.add("10.1371/journal.pone." + i);
+    }
+    mockArticleCrudService.serveBatch(dois, null);
+  }
+
   @Test
   public void testGetRawCategoriesAndText() throws Exception {
     setCommonArticleMocks();
@@ -315,11 +586,11 @@ public class ArticleCrudServiceImplTest extends AbstractStubbingArticleTest {
   @Test
   public void testReadLatestRevision() throws Exception {
     final ArticleRevision stubArticleRevision = createStubArticleRevision();
-    when(mockHibernateTemplate.execute(any())).thenReturn(1)
-        .thenReturn(stubArticleRevision);
+    when(mockHibernateTemplate.execute(any())).thenReturn(stubArticleRevision);
     final ArticleRevision mockRevision = mockArticleCrudService
         .readLatestRevision(stubArticle);
     assertThat(mockRevision).isEqualTo(stubArticleRevision);
+    verify(mockHibernateTemplate, times(1)).execute(any());
   }
 
   @Test
@@ -330,6 +601,59 @@ public class ArticleCrudServiceImplTest extends AbstractStubbingArticleTest {
     assertThat(mockArticle).isEqualTo(stubArticle);
   }
 
+  @Test
+  public void testReadArticlesInChunks() throws Exception {
+    int articleCount = ArticleCrudServiceImpl.READ_ARTICLES_CHUNK_SIZE * 2 + 1;
+    List<ArticleIdentifier> articleIds = new ArrayList<>(articleCount);
+    for (int i = 0; i < articleCount; i++) {
+      articleIds.add(ArticleIdentifier.create("10.1371/journal.pone." + i));
+    }
+
+    Session session = mock(Session.class);
+    Query query = mock(Query.class);
+    List<Collection<String>> chunks = new ArrayList<>();
+    when(session.createQuery(any(String.class))).thenReturn(query);
+    when(query.setParameterList(eq("dois"), any(Collection.class))).thenAnswer(invocation -> {
+      chunks.add(invocation.getArgument(1));
+      return query;
+    });
+    when(query.list()).thenAnswer(invocation -> chunks.get(chunks.size() - 1).stream()
+        .map(doi -> createStubArticle(0L, doi))
+        .collect(Collectors.toList()));
+    when(mockHibernateTemplate.execute(any())).thenAnswer(invocation ->
+        ((HibernateCallback<?>) invocation.getArgument(0)).doInHibernate(session));
+
+    // Resolve in reverse order, to check that the result follows the input rather than the query
+    List<ArticleIdentifier> reversedIds = Lists.reverse(articleIds);
+    List<Article> articles = mockArticleCrudService.readArticles(reversedIds);
+
+    verify(mockHibernateTemplate, times(1)).execute(any());
+    verify(session, times(3)).createQuery(any(String.class));
+    assertEquals(articleCount, articles.size());
+    for (int i = 0; i < articleCount; i++) {
+      assertEquals(reversedIds.get(i).getDoiName(), articles.get(i).getDoi());
+    }
+  }
+
+  @Test
+  public void testReadArticlesReportsAllMissing() throws Exception {
+    Article found = createStubArticle(1L, "10.1371/journal.pone.0000001");
+    when(mockHibernateTemplate.execute(any())).thenReturn(
+        ImmutableMap.of(ArticleIdentifier.create(found.getDoi()), found));
+
+    try {
+      mockArticleCrudService.readArticles(ImmutableList.of(
+          ArticleIdentifier.create("10.1371/journal.pone.0000002"),
+          ArticleIdentifier.create(found.getDoi()),
+          ArticleIdentifier.create("10.1371/journal.pone.0000003")));
+      fail("Expecting exception, but nothing was thrown.");
+    } catch (RestClientException e) {
+      assertEquals(HttpStatus.NOT_FOUND, e.getResponseStatus());
+      assertEquals("Articles not found with DOIs: " +
+          "[\"10.1371/journal.pone.0000002\",\"10.1371/journal.pone.0000003\"]", e.getMessage());
+    }
+  }
+
   @Test
   public void testGetArticlesPublishedOn() throws Exception {
     Collection<ArticleRevision> dummyRevisions = createStubArticleRevisions();
@@ -418,6 +742,57 @@ public class ArticleCrudServiceImplTest extends AbstractStubbingArticleTest {
     verify(mockHibernateTemplate).findByCriteria(any(DetachedCriteria.class), anyInt(), anyInt());
   }
 
+  @Test
+  public void testGetArticleDoiPage() throws Exception {
+    Session session = mock(Session.class);
+    Query query = mock(Query.class);
+    when(session.createQuery(any(String.class))).thenReturn(query);
+    when(query.list()).thenReturn(ImmutableList.of(
+        new Object[]{"10.1371/journal.pone.0000003", java.sql.Timestamp.valueOf("2017-01-03 00:00:00"), 3L},
+        new Object[]{"10.1371/journal.pone.0000002", java.sql.Timestamp.valueOf("2017-01-02 00:00:00"), 2L},
+        new Object[]{"10.1371/journal.pone.0000001", java.sql.Timestamp.valueOf("2017-01-01 00:00:00"), 1L}));
+    when(mockHibernateTemplate.execute(any())).thenAnswer(invocation ->
+        ((HibernateCallback<?>) invocation.getArgument(0)).doInHibernate(session));
+
+    ArticleDoiCursor cursor = new ArticleDoiCursor(java.sql.Timestamp.valueOf("2017-01-04 00:00:00").toInstant(), 4L);
+    ArticleDoiPage page = mockArticleCrudService.getArticleDoiPage(Optional.of(cursor), 2, SortOrder.NEWEST,
+        Optional.empty(), Optional.empty(), false);
+
+    assertThat(page.getDois()).containsExactly("10.1371/journal.pone.0000003", "10.1371/journal.pone.0000002")
+        .inOrder();
+    assertNull(page.getTotalCount());
+    ArticleDoiCursor nextCursor = ArticleDoiCursor.decode(page.getNextCursor());
+    assertEquals(2L, nextCursor.getArticleId());
+    assertEquals(java.sql.Timestamp.valueOf("2017-01-02 00:00:00").toInstant(), nextCursor.getCreated());
+
+    // A single seek query, without counting the articles, that runs both columns of the index backwards
+    verify(session, times(1)).createQuery(any(String.class));
+    verify(session).createQuery(contains("article.articleId < :cursorArticleId"));
+    verify(session).createQuery(contains("ORDER BY article.created DESC, article.articleId DESC"));
+    verify(query).setLong("cursorArticleId", 4L);
+    verify(query).setMaxResults(3);
+  }
+
+  @Test
+  public void testGetLastArticleDoiPageWithCount() throws Exception {
+    Session session = mock(Session.class);
+    Query countQuery = mock(Query.class);
+    Query query = mock(Query.class);
+    when(session.createQuery(any(String.class))).thenReturn(countQuery).thenReturn(query);
+    when(countQuery.uniqueResult()).thenReturn(1L);
+    when(query.list()).thenReturn(ImmutableList.<Object[]>of(
+        new Object[]{"10.1371/journal.pone.0000001", java.sql.Timestamp.valueOf("2017-01-01 00:00:00"), 1L}));
+    when(mockHibernateTemplate.execute(any())).thenAnswer(invocation ->
+        ((HibernateCallback<?>) invocation.getArgument(0)).doInHibernate(session));
+
+    ArticleDoiPage page = mockArticleCrudService.getArticleDoiPage(Optional.empty(), 2, SortOrder.OLDEST,
+        Optional.empty(), Optional.empty(), true);
+
+    assertThat(page.getDois()).containsExactly("10.1371/journal.pone.0000001");
+    assertEquals(Long.valueOf(1L), page.getTotalCount());
+    assertNull(page.getNextCursor());
+  }
+
   @Test
   public void fromRelatedArticleLinkTest() {
     Article sourceArticle = mock(Article.class);
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.ambraproject.rhino.view.ViewFixtures;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArticleExportServiceImplTest {
+
+  private ArticleExportServiceImpl service;
+  private StatelessSession session;
+  private Query query;
+  private ScrollableResults results;
+
+  @Before
+  public void setUp() {
+    results = mock(ScrollableResults.class);
+    query = mock(Query.class);
+    when(query.scroll(any(ScrollMode.class))).thenReturn(results);
+    session = mock(StatelessSession.class);
+    when(session.createQuery(anyString())).thenReturn(query);
+    SessionFactory sessionFactory = mock(SessionFactory.class);
+    when(sessionFactory.openStatelessSession()).thenReturn(session);
+    HibernateTemplate hibernateTemplate = mock(HibernateTemplate.class);
+    when(hibernateTemplate.getSessionFactory()).thenReturn(sessionFactory);
+
+    service = new ArticleExportServiceImpl();
+    service.hibernateTemplate = hibernateTemplate;
+    service.entityGson = ViewFixtures.createGson(true, false);
+  }
+
+  private static Object[] row(long articleId, String doi, int revisionNumber, String journalKey, LocalDate date) {
+    return new Object[]{articleId, doi, revisionNumber, revisionNumber, journalKey,
+        "Title", "research-article", "vor", Date.valueOf(date), null};
+  }
+
+  @Test
+  public void testExportGroupsRevisionsByArticle() throws Exception {
+    when(results.next()).thenReturn(true, true, true, false);
+    when(results.get()).thenReturn(
+        row(1L, "10.1371/journal.pone.0000001", 1, "PLoSONE", LocalDate.of(2017, 1, 1)),
+        row(1L, "10.1371/journal.pone.0000001", 2, "PLoSONE", LocalDate.of(2017, 2, 1)),
+        row(2L, "10.1371/journal.pone.0000002", 1, "PLoSONE", LocalDate.of(2017, 3, 1)));
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    service.exportArticles(Optional.empty(), Optional.empty(), Optional.of("PLoSONE"), stream);
+
+    String[] lines = new String(stream.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    JsonObject first = new JsonParser().parse(lines[0]).getAsJsonObject();
+    assertEquals("10.1371/journal.pone.0000001", first.get("doi").getAsString());
+    JsonArray firstRevisions = first.getAsJsonArray("revisions");
+    assertEquals(2, firstRevisions.size());
+    assertEquals(2, firstRevisions.get(1).getAsJsonObject().get("revisionNumber").getAsInt());
+    assertEquals("2017-02-01", firstRevisions.get(1).getAsJsonObject().get("publicationDate").getAsString());
+    assertFalse(firstRevisions.get(1).getAsJsonObject().has("revisionDate"));
+    JsonObject second = new JsonParser().parse(lines[1]).getAsJsonObject();
+    assertEquals("10.1371/journal.pone.0000002", second.get("doi").getAsString());
+    assertEquals(1, second.getAsJsonArray("revisions").size());
+
+    verify(query).setString("journalKey", "PLoSONE");
+    verify(query).setFetchSize(ArticleExportServiceImpl.STREAMING_FETCH_SIZE);
+    verify(query).scroll(ScrollMode.FORWARD_ONLY);
+    verify(results).close();
+    verify(session).close();
+  }
+
+  @Test
+  public void testExportMixedJournalArticle() throws Exception {
+    // The article moved from PLoSONE to PLoSBiology; the query returns all of its revisions
+    when(results.next()).thenReturn(true, true, false);
+    when(results.get()).thenReturn(
+        row(1L, "10.1371/journal.pbio.0000001", 1, "PLoSONE", LocalDate.of(2017, 1, 1)),
+        row(1L, "10.1371/journal.pbio.0000001", 2, "PLoSBiology", LocalDate.of(2017, 2, 1)));
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    service.exportArticles(Optional.empty(), Optional.empty(), Optional.of("PLoSBiology"), stream);
+
+    ArgumentCaptor<String> hql = ArgumentCaptor.forClass(String.class);
+    verify(session).createQuery(hql.capture());
+    assertTrue(hql.getValue().contains("article.latestRevision.ingestion.journal.journalKey = :journalKey"));
+    assertFalse(hql.getValue().contains(" journal.journalKey = :journalKey"));
+
+    String[] lines = new String(stream.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    assertEquals(1, lines.length);
+    JsonArray revisions = new JsonParser().parse(lines[0]).getAsJsonObject().getAsJsonArray("revisions");
+    assertEquals(2, revisions.size());
+    assertEquals("PLoSONE", revisions.get(0).getAsJsonObject().get("journal").getAsString());
+    assertEquals("PLoSBiology", revisions.get(1).getAsJsonObject().get("journal").getAsString());
+  }
+
+  @Test
+  public void testExportNothing() throws Exception {
+    when(results.next()).thenReturn(false);
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    service.exportArticles(Optional.of(LocalDate.of(2017, 1, 1)), Optional.empty(), Optional.empty(), stream);
+
+    assertEquals(0, stream.size());
+    verify(query).setDate("fromDate", Date.valueOf(LocalDate.of(2017, 1, 1)));
+    verify(session).close();
+  }
+
+}
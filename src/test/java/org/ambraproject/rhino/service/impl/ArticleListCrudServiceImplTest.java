@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -47,12 +48,16 @@ public class ArticleListCrudServiceImplTest extends AbstractStubbingArticleTest
 
   private HibernateTemplate mockHibernateTemplate;
 
+  private ArticleCrudService mockArticleCrudService;
+
   @Before
   public void initMocks() throws IllegalAccessException, NoSuchFieldException {
     mockArticleListCrudService = applicationContext.getBean(ArticleListCrudService.class);
     reset(mockArticleListCrudService);
     mockHibernateTemplate = applicationContext.getBean(HibernateTemplate.class);
     reset(mockHibernateTemplate);
+    mockArticleCrudService = applicationContext.getBean(ArticleCrudService.class);
+    reset(mockArticleCrudService);
   }
 
   @Bean
@@ -96,7 +101,6 @@ public class ArticleListCrudServiceImplTest extends AbstractStubbingArticleTest
       displayName = ARTICLE_LIST_TITLE;
     }
     Set<ArticleIdentifier> articleIds = new HashSet<>();
-    Set<String> articleKeys = new HashSet<String>();
 
     when(mockHibernateTemplate.execute(any())).thenReturn(0L);
     when(mockHibernateTemplate.findByCriteria(any())).thenReturn(
@@ -104,10 +108,8 @@ public class ArticleListCrudServiceImplTest extends AbstractStubbingArticleTest
 
     if (article != null) {
       articleIds.add(ArticleIdentifier.create(article.getDoi()));
-      articleKeys.add(article.getDoi());
 
-      when(mockHibernateTemplate.findByNamedParam("from Article where doi in :articleKeys",
-          "articleKeys", articleKeys)).thenReturn(
+      when(mockArticleCrudService.readArticles(articleIds)).thenReturn(
           new ArrayList(Collections.singletonList(article))
       );
     }
@@ -194,22 +196,18 @@ public class ArticleListCrudServiceImplTest extends AbstractStubbingArticleTest
     ArticleListView articleListView = createStubArticleList();
 
     Article article = createStubArticle();
-    Set<String> articleKeys = new HashSet<String>();
-    articleKeys.add(article.getDoi());
+    Set<ArticleIdentifier> newArticleIds = new HashSet<>();
+    newArticleIds.add(ArticleIdentifier.create(article.getDoi()));
 
     when(mockHibernateTemplate.execute(any())).thenReturn(
         new ArrayList(Collections.singletonList(new Object[] {
             "valid-journal", articleListView.getArticleList()
         })));
 
-    when(mockHibernateTemplate.findByNamedParam("from Article where doi in :articleKeys",
-        "articleKeys", articleKeys)).thenReturn(
+    when(mockArticleCrudService.readArticles(newArticleIds)).thenReturn(
         new ArrayList(Collections.singletonList(article))
     );
 
-    Set<ArticleIdentifier> newArticleIds = new HashSet<>();
-    newArticleIds.add(ArticleIdentifier.create(article.getDoi()));
-
     ArticleListView newArticleListView = mockArticleListCrudService.update(identity, Optional.empty(), Optional.ofNullable(newArticleIds));
     assertThat(newArticleListView.getIdentity()).isEqualTo(identity);
     assertThat(newArticleListView.getArticleList().getArticles().size()).isEqualTo(newArticleIds.size());
@@ -225,15 +223,6 @@ public class ArticleListCrudServiceImplTest extends AbstractStubbingArticleTest
             "valid-journal", articleListView.getArticleList()
         })));
 
-
-    Set<String> articleKeys = new HashSet<String>();
-    articleKeys.add(createStubArticleDoi().toString());
-
-    when(mockHibernateTemplate.findByNamedParam("from Article where doi in :articleKeys",
-        "articleKeys", articleKeys)).thenReturn(
-        new ArrayList()
-    );
-
     Set<ArticleIdentifier> newArticleIds = new HashSet<>();
 
     ArticleListView newArticleListView = mockArticleListCrudService.update(identity, Optional.empty(), Optional.ofNullable(newArticleIds));
@@ -375,5 +364,166 @@ public class ArticleListCrudServiceImplTest extends AbstractStubbingArticleTest
     assertThat(listB.size()).isEqualTo(list2.size());
     assertThat(listB.contains(articleListView3));
   }
-}
 
+  /**
+   * A list that counts the calls that Hibernate would turn into join row writes.
+   */
+  private static class WriteCountingList<E> extends ArrayList<E> {
+    private int sets = 0;
+    private int adds = 0;
+    private int removes = 0;
+
+    WriteCountingList(Collection<? extends E> elements) {
+      super(elements);
+    }
+
+    @Override
+    public E set(int index, E element) {
+      sets++;
+      return super.set(index, element);
+    }
+
+    @Override
+    public boolean add(E element) {
+      adds++;
+      return super.add(element);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> elements) {
+      adds += elements.size();
+      return super.addAll(elements);
+    }
+
+    @Override
+    public E remove(int index) {
+      removes++;
+      return super.remove(index);
+    }
+  }
+
+  private static List<String> createSyntheticList(int size) {
+    List<String> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add("10.1371/journal.pone." + i);
+    }
+    return list;
+  }
+
+  @Test
+  public void testReplaceInPlace_Append() {
+    List<String> newElements = createSyntheticList(5001);
+    WriteCountingList<String> list = new WriteCountingList<>(newElements.subList(0, 5000));
+
+    ArticleListCrudServiceImpl.replaceInPlace(list, newElements);
+    assertThat(list).isEqualTo(newElements);
+    assertThat(list.sets).isEqualTo(0);
+    assertThat(list.adds).isEqualTo(1);
+    assertThat(list.removes).isEqualTo(0);
+  }
+
+  @Test
+  public void testReplaceInPlace_Swap() {
+    List<String> newElements = createSyntheticList(5000);
+    WriteCountingList<String> list = new WriteCountingList<>(newElements);
+    Collections.swap(newElements, 10, 4000);
+
+    ArticleListCrudServiceImpl.replaceInPlace(list, newElements);
+    assertThat(list).isEqualTo(newElements);
+    assertThat(list.sets).isEqualTo(2);
+    assertThat(list.adds).isEqualTo(0);
+    assertThat(list.removes).isEqualTo(0);
+  }
+
+  @Test
+  public void testReplaceInPlace_RemoveFromTail() {
+    List<String> oldElements = createSyntheticList(5000);
+    WriteCountingList<String> list = new WriteCountingList<>(oldElements);
+    List<String> newElements = oldElements.subList(0, 4990);
+
+    ArticleListCrudServiceImpl.replaceInPlace(list, newElements);
+    assertThat(list).isEqualTo(newElements);
+    assertThat(list.sets).isEqualTo(0);
+    assertThat(list.adds).isEqualTo(0);
+    assertThat(list.removes).isEqualTo(10);
+  }
+
+  @Test
+  public void testAddArticles_SkipsMembers() {
+    ArticleListIdentity identity = createStubArticleListIdentity();
+    Article articleA = createStubArticle();
+    Article articleB = createStubArticle(1L, "10.1371/journal.pone.0012345");
+    ArticleListView articleListView = createStubArticleList(null, null, articleA);
+    ArticleList articleList = articleListView.getArticleList();
+
+    when(mockHibernateTemplate.execute(any())).thenReturn(
+        new ArrayList(Collections.singletonList(new Object[] {
+            "valid-journal", articleList
+        })));
+    when(mockArticleCrudService.readArticles(Collections.singleton(ArticleIdentifier.create(articleB.getDoi()))))
+        .thenReturn(new ArrayList(Collections.singletonList(articleB)));
+
+    Set<ArticleIdentifier> articleIds = new LinkedHashSet<>();
+    articleIds.add(ArticleIdentifier.create(articleA.getDoi()));
+    articleIds.add(ArticleIdentifier.create(articleB.getDoi()));
+
+    ArticleListView newArticleListView = mockArticleListCrudService.addArticles(identity, articleIds);
+    assertThat(newArticleListView.getArticleList().getArticles()).containsExactly(articleA, articleB).inOrder();
+  }
+
+  @Test
+  public void testRemoveArticles_IgnoresNonMembers() {
+    ArticleListIdentity identity = createStubArticleListIdentity();
+    Article articleA = createStubArticle();
+    ArticleListView articleListView = createStubArticleList(null, null, articleA);
+    ArticleList articleList = articleListView.getArticleList();
+
+    when(mockHibernateTemplate.execute(any())).thenReturn(
+        new ArrayList(Collections.singletonList(new Object[] {
+            "valid-journal", articleList
+        })));
+
+    Set<ArticleIdentifier> articleIds = new HashSet<>();
+    articleIds.add(ArticleIdentifier.create(articleA.getDoi()));
+    articleIds.add(ArticleIdentifier.create("10.1371/journal.pone.0012345"));
+
+    ArticleListView newArticleListView = mockArticleListCrudService.removeArticles(identity, articleIds);
+    assertThat(newArticleListView.getArticleList().getArticles()).isEmpty();
+  }
+
+  @Test
+  public void testReadPage_Succeed() {
+    ArticleListIdentity identity = createStubArticleListIdentity();
+    Article articleA = createStubArticle();
+    ArticleListView articleListView = createStubArticleList(null, null, articleA);
+    ArticleList articleList = articleListView.getArticleList();
+    List<Article> page = Collections.singletonList(articleA);
+
+    when(mockHibernateTemplate.execute(any())).thenReturn(
+        new ArrayList(Collections.singletonList(new Object[] {
+            "valid-journal", articleList
+        }))).thenReturn(3L).thenReturn(page);
+
+    ServiceResponse<ArticleListView> response = mockArticleListCrudService.readPage(identity, 2, 1);
+    ArticleListView.Factory articleListViewFactory = applicationContext.getBean(ArticleListView.Factory.class);
+    assertThat(response.getBody()).isEqualTo(
+        articleListViewFactory.getPageView(articleList, ARTICLE_LIST_ID_JOURNAL, page, 3L));
+  }
+
+  @Test
+  public void testReadPage_PastEnd() {
+    ArticleListIdentity identity = createStubArticleListIdentity();
+    ArticleListView articleListView = createStubArticleList(null, null, createStubArticle());
+    ArticleList articleList = articleListView.getArticleList();
+
+    when(mockHibernateTemplate.execute(any())).thenReturn(
+        new ArrayList(Collections.singletonList(new Object[] {
+            "valid-journal", articleList
+        }))).thenReturn(1L);
+
+    ServiceResponse<ArticleListView> response = mockArticleListCrudService.readPage(identity, 2, 1);
+    ArticleListView.Factory articleListViewFactory = applicationContext.getBean(ArticleListView.Factory.class);
+    assertThat(response.getBody()).isEqualTo(
+        articleListViewFactory.getPageView(articleList, ARTICLE_LIST_ID_JOURNAL, Collections.emptyList(), 1L));
+  }
+}
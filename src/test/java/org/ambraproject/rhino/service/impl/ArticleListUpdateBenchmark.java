@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import org.ambraproject.rhino.model.Article;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rewriting a large synthetic article list with {@link ArticleListCrudServiceImpl#replaceInPlace} against
+ * clearing it and adding everything back, for an append, a swap of two articles, and a removal from the middle. Each
+ * benchmark also reports {@code rowsWritten}, the number of positions that Hibernate would write as join rows.
+ * <p>
+ * This is not run by the unit tests. Run it from the test classpath with the {@link #main} method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArticleListUpdateBenchmark {
+
+  @Param({"1000", "10000"})
+  private int size;
+
+  private List<Article> articles;
+  private List<Article> appended;
+  private List<Article> swapped;
+  private List<Article> removedFromMiddle;
+
+  @Setup
+  public void setUp() {
+    articles = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      articles.add(createArticle(i));
+    }
+
+    appended = new ArrayList<>(articles);
+    appended.add(createArticle(size));
+
+    swapped = new ArrayList<>(articles);
+    Collections.swap(swapped, size / 4, size * 3 / 4);
+
+    removedFromMiddle = new ArrayList<>(articles);
+    removedFromMiddle.remove(size / 2);
+  }
+
+  private static Article createArticle(int i) {
+    Article article = new Article();
+    article.setArticleId(i);
+    article.setDoi("10.1371/journal.pone." + i);
+    return article;
+  }
+
+  /**
+   * Counts the positions that would be written as join rows, in the way that Hibernate compares an indexed list to its
+   * snapshot: by index, with an element written wherever it differs from the one that was loaded.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class RowCounter {
+    public long rowsWritten;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      rowsWritten = 0;
+    }
+
+    void count(List<Article> snapshot, List<Article> result) {
+      int sharedSize = Math.min(snapshot.size(), result.size());
+      for (int i = 0; i < sharedSize; i++) {
+        if (snapshot.get(i) != result.get(i)) {
+          rowsWritten++;
+        }
+      }
+      rowsWritten += Math.abs(snapshot.size() - result.size());
+    }
+  }
+
+  private List<Article> clearAndAddAll(List<Article> newArticles, RowCounter counter) {
+    List<Article> list = new ArrayList<>(articles);
+    list.clear();
+    // Hibernate writes every row of a collection that was cleared, regardless of what is added back
+    counter.rowsWritten += Math.max(articles.size(), newArticles.size());
+    list.addAll(newArticles);
+    return list;
+  }
+
+  private List<Article> replaceInPlace(List<Article> newArticles, RowCounter counter) {
+    List<Article> list = new ArrayList<>(articles);
+    ArticleListCrudServiceImpl.replaceInPlace(list, newArticles);
+    counter.count(articles, list);
+    return list;
+  }
+
+  @Benchmark
+  public List<Article> appendByClear(RowCounter counter) {
+    return clearAndAddAll(appended, counter);
+  }
+
+  @Benchmark
+  public List<Article> appendInPlace(RowCounter counter) {
+    return replaceInPlace(appended, counter);
+  }
+
+  @Benchmark
+  public List<Article> swapByClear(RowCounter counter) {
+    return clearAndAddAll(swapped, counter);
+  }
+
+  @Benchmark
+  public List<Article> swapInPlace(RowCounter counter) {
+    return replaceInPlace(swapped, counter);
+  }
+
+  @Benchmark
+  public List<Article> removeByClear(RowCounter counter) {
+    return clearAndAddAll(removedFromMiddle, counter);
+  }
+
+  @Benchmark
+  public List<Article> removeInPlace(RowCounter counter) {
+    return replaceInPlace(removedFromMiddle, counter);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ArticleListUpdateBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+
+}
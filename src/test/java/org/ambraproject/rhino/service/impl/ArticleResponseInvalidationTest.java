@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import org.ambraproject.rhino.identity.ArticleIdentifier;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.rest.response.JsonResponseCache;
+import org.ambraproject.rhino.service.JournalTreeService;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.orm.hibernate3.HibernateCallback;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class ArticleResponseInvalidationTest {
+
+  private HibernateTemplate hibernateTemplate;
+  private Query query;
+  private JsonResponseCache jsonResponseCache;
+  private JournalTreeService journalTreeService;
+  private Article article;
+
+  @Before
+  public void setUp() {
+    Session session = mock(Session.class);
+    query = mock(Query.class);
+    when(session.createQuery(anyString())).thenReturn(query);
+    hibernateTemplate = mock(HibernateTemplate.class);
+    when(hibernateTemplate.execute(any())).thenAnswer(invocation ->
+        ((HibernateCallback<?>) invocation.getArgument(0)).doInHibernate(session));
+
+    jsonResponseCache = mock(JsonResponseCache.class);
+    journalTreeService = mock(JournalTreeService.class);
+    article = new Article();
+    article.setDoi("10.1371/journal.pone.0000001");
+  }
+
+  @Test
+  public void testInvalidatesArticleAndLists() {
+    when(query.uniqueResult()).thenReturn(0L);
+
+    ArticleResponseInvalidation.invalidate(hibernateTemplate, jsonResponseCache, journalTreeService, article);
+
+    verify(jsonResponseCache).invalidate(JsonResponseCache.articleTag(ArticleIdentifier.create(article.getDoi())),
+        JsonResponseCache.ARTICLE_LISTS_TAG);
+    verify(jsonResponseCache, never()).invalidate(JsonResponseCache.JOURNAL_HIERARCHY_TAG);
+    verifyZeroInteractions(journalTreeService);
+  }
+
+  @Test
+  public void testInvalidatesHierarchyForImageArticle() {
+    when(query.uniqueResult()).thenReturn(1L);
+
+    ArticleResponseInvalidation.invalidate(hibernateTemplate, jsonResponseCache, journalTreeService, article);
+
+    verify(jsonResponseCache).invalidate(JsonResponseCache.JOURNAL_HIERARCHY_TAG);
+    verify(journalTreeService).invalidate();
+  }
+
+  @Test
+  public void testSkipsQueryWithoutCaches() {
+    ArticleResponseInvalidation.invalidate(hibernateTemplate, null, null, article);
+
+    verifyZeroInteractions(hibernateTemplate);
+  }
+
+}
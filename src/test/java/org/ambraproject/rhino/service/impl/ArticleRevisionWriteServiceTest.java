@@ -6,9 +6,11 @@ import org.ambraproject.rhino.identity.Doi;
 import org.ambraproject.rhino.model.Article;
 import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.ambraproject.rhino.service.ArticleRevisionWriteService;
 import org.hibernate.Query;
+import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -82,6 +84,7 @@ public class ArticleRevisionWriteServiceTest extends AbstractStubbingArticleTest
         INGESTION_NUMBER);
 
     expectedArticleIngestion = createStubArticleIngestion(expectedArticle, INGESTION_NUMBER);
+    expectedArticleIngestion.setPublicationDate(java.sql.Date.valueOf("2016-06-01"));
 
     expectedArticleRevision = createStubArticleRevision(REVISION_ID, REVISION_NUMBER);
     expectedArticleRevision.setIngestion(expectedArticleIngestion);
@@ -111,8 +114,8 @@ public class ArticleRevisionWriteServiceTest extends AbstractStubbingArticleTest
 
       // Return appropriate data based on SQL.
       LOG.info("sql: {}", sql);
-      if (sql.contains("SELECT MAX(rev.revisionNumber)")) {
-        when(mockQuery.uniqueResult()).thenReturn(REVISION_NUMBER);
+      if (sql.contains("JOIN article.latestRevision")) {
+        when(mockQuery.uniqueResult()).thenReturn(expectedArticleRevision);
       } else if (sql.contains("FROM ArticleIngestion")) {
         when(mockQuery.uniqueResult()).thenReturn(expectedArticleIngestion);
       } else if (sql.contains("FROM ArticleRevision")) {
@@ -146,10 +149,25 @@ public class ArticleRevisionWriteServiceTest extends AbstractStubbingArticleTest
     assertThat(actualRevision).isEqualTo(refreshedArticleRevision);
 
     verify(mockArticleCrudService).refreshArticleRelationships(refreshedArticleRevision);
-    verify(mockHibernateTemplate, times(3)).execute(any());
-
-    // setParameter("doi", ...) in ArticleCrudServiceImpl.getLatestRevision().
-    verify(mockQuery).setParameter("doi", expectedArticle.getDoi());
+    verify(mockHibernateTemplate, times(2)).execute(any());
+
+    // setParameter("article", ...) in ArticleCrudServiceImpl.getLatestRevision().
+    verify(mockQuery).setParameter("article", expectedArticle);
+
+    // The new revision is always the latest
+    assertThat(expectedArticle.getLatestRevision()).isEqualTo(refreshedArticleRevision);
+    assertThat(expectedArticle.getLatestPublicationDate())
+        .isEqualTo(expectedArticleIngestion.getPublicationDate());
+    verify(mockHibernateTemplate).update(expectedArticle);
+
+    // The article had no summary, so one is created for the new revision
+    ArgumentCaptor<Object> saved = ArgumentCaptor.forClass(Object.class);
+    verify(mockHibernateTemplate, times(2)).save(saved.capture());
+    ArticleSummary summary = (ArticleSummary) saved.getAllValues().get(1);
+    assertThat(summary.getDoi()).isEqualTo(expectedArticle.getDoi());
+    assertThat(summary.getRevisionNumber()).isEqualTo(REVISION_NUMBER + 1);
+    assertThat(summary.getIngestionNumber()).isEqualTo(INGESTION_NUMBER);
+    assertThat(summary.getPublicationDate()).isEqualTo(expectedArticleIngestion.getPublicationDate());
 
     // setParameter("doi", ...) in ArticleCrudServiceImpl.getIngestion().
     verify(mockQuery).setParameter("doi", expectedDoi.getName());
@@ -176,8 +194,9 @@ public class ArticleRevisionWriteServiceTest extends AbstractStubbingArticleTest
     assertThat(actualRevision).isEqualTo(expectedArticleRevision);
 
     verify(mockArticleCrudService).refreshArticleRelationships(expectedArticleRevision);
-    verify(mockHibernateTemplate, times(4)).execute(any());
+    verify(mockHibernateTemplate, times(3)).execute(any());
     verify(mockHibernateTemplate).saveOrUpdate(expectedArticleRevision);
+    assertThat(expectedArticle.getLatestRevision()).isEqualTo(expectedArticleRevision);
 
     // setParameter("doi", ...) in ArticleCrudServiceImpl.getIngestion().
     // setParameter("doi", ...) in ArticleCrudServiceImpl.getRevision().
@@ -220,6 +239,7 @@ public class ArticleRevisionWriteServiceTest extends AbstractStubbingArticleTest
 
     verify(mockHibernateTemplate).saveOrUpdate(newRevision);
     verify(mockArticleCrudService).refreshArticleRelationships(newRevision);
+    assertThat(expectedArticle.getLatestRevision()).isEqualTo(newRevision);
   }
 
   /**
@@ -237,8 +257,12 @@ public class ArticleRevisionWriteServiceTest extends AbstractStubbingArticleTest
 
     verify(mockArticleCrudService).refreshArticleRelationships(expectedArticleRevision);
     verify(mockHibernateTemplate).delete(expectedArticleRevision);
-    verify(mockHibernateTemplate, times(5)).execute(any());
-    verify(mockQuery, times(5)).uniqueResult();
+    verify(mockHibernateTemplate, times(3)).execute(any());
+    verify(mockQuery, times(3)).uniqueResult();
+
+    // Repointed at the next latest revision, which the query stub returns
+    verify(mockQuery).setParameter("excluded", expectedArticleRevision);
+    verify(mockHibernateTemplate).update(expectedArticle);
   }
 
   /**
@@ -260,5 +284,6 @@ public class ArticleRevisionWriteServiceTest extends AbstractStubbingArticleTest
 
     verify(mockArticleCrudService, times(0)).refreshArticleRelationships(any());
     verify(mockHibernateTemplate).delete(expectedArticleRevision);
+    verify(mockHibernateTemplate, times(0)).update(any());
   }
 }
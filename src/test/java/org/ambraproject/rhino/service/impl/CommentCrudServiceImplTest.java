@@ -24,11 +24,14 @@ import org.springframework.test.context.ContextConfiguration;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -110,9 +113,36 @@ public class CommentCrudServiceImplTest extends AbstractStubbingArticleTest {
     when(mockArticleCrudService.readArticle(ArticleIdentifier.create("0"))).thenReturn(createStubArticle());
 
     when(mockHibernateTemplate.find(any(String.class), any(Object.class))).thenAnswer(new Returns(stubComments));
+    when(mockHibernateTemplate.execute(any()))
+        .thenReturn(new Object[]{(long) stubComments.size(), 1L, 0L, new Date()});
     when(mockRuntimeConfiguration.getCompetingInterestPolicyStart()).thenReturn(LocalDate.now());
 
-    mockCommentCrudService.serveComments(ArticleIdentifier.create("0"));
+    mockCommentCrudService.serveComments(ArticleIdentifier.create("0")).getIfChanged(null, null);
+  }
+
+  private String getCommentTreeEntityTag(Object[] version, LocalDate competingInterestPolicyStart)
+      throws IOException {
+    when(mockHibernateTemplate.execute(any())).thenReturn(version);
+    when(mockRuntimeConfiguration.getCompetingInterestPolicyStart()).thenReturn(competingInterestPolicyStart);
+    // A wildcard matches any tag, so the response reports its tag without building the view
+    return mockCommentCrudService.serveComments(ArticleIdentifier.create("0")).getIfChanged("*", null)
+        .asJsonResponse(new Gson()).getHeaders().getETag();
+  }
+
+  @Test
+  public void testCommentTreeEntityTag() throws Exception {
+    when(mockArticleCrudService.readArticle(ArticleIdentifier.create("0"))).thenReturn(createStubArticle());
+    Date lastModified = new Date();
+    LocalDate policyStart = LocalDate.of(2009, 3, 20);
+
+    String tag = getCommentTreeEntityTag(new Object[]{2L, 7L, 0L, lastModified}, policyStart);
+    assertEquals(tag, getCommentTreeEntityTag(new Object[]{2L, 7L, 0L, lastModified}, policyStart));
+
+    // Edited within the same second as the last modification
+    assertNotEquals(tag, getCommentTreeEntityTag(new Object[]{2L, 7L, 1L, lastModified}, policyStart));
+    // One comment deleted and another created within the same second
+    assertNotEquals(tag, getCommentTreeEntityTag(new Object[]{2L, 8L, 0L, lastModified}, policyStart));
+    assertNotEquals(tag, getCommentTreeEntityTag(new Object[]{2L, 7L, 0L, lastModified}, policyStart.plusDays(1)));
   }
 
   @Test
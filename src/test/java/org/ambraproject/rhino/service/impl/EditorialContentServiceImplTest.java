@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import com.google.common.base.Ticker;
+import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.service.EditorialObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.plos.crepo.exceptions.NotFoundException;
+import org.plos.crepo.model.identity.RepoId;
+import org.plos.crepo.model.identity.RepoVersion;
+import org.plos.crepo.model.metadata.RepoObjectMetadata;
+import org.plos.crepo.service.ContentRepoService;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EditorialContentServiceImplTest {
+
+  private static final String BUCKET = "editorial";
+  private static final String KEY = "homepage.html";
+  private static final Duration TIME_TO_LIVE = Duration.ofSeconds(60);
+
+  private static class FakeTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(Duration duration) {
+      nanos += duration.toNanos();
+    }
+  }
+
+  private ContentRepoService contentRepoService;
+  private FakeTicker ticker;
+  private EditorialContentServiceImpl service;
+
+  @Before
+  public void init() {
+    contentRepoService = mock(ContentRepoService.class);
+    ticker = new FakeTicker();
+    service = new EditorialContentServiceImpl(contentRepoService, BUCKET, 1 << 20, TIME_TO_LIVE, ticker);
+  }
+
+  private RepoObjectMetadata stubVersion(String uuid, byte[] content) {
+    RepoVersion version = RepoVersion.create(BUCKET, KEY, uuid);
+    RepoObjectMetadata metadata = mock(RepoObjectMetadata.class);
+    when(metadata.getVersion()).thenReturn(version);
+    when(metadata.getContentType()).thenReturn(Optional.of("text/html"));
+    when(metadata.getTimestamp()).thenReturn(new Timestamp(TimeUnit.DAYS.toMillis(1)));
+    when(contentRepoService.getRepoObject(version)).thenAnswer(invocation -> new ByteArrayInputStream(content));
+    return metadata;
+  }
+
+  @Test
+  public void testServesFromCacheWithinTimeToLive() throws IOException {
+    String uuid = UUID.randomUUID().toString();
+    RepoObjectMetadata metadata = stubVersion(uuid, new byte[]{1, 2, 3});
+    when(contentRepoService.getLatestRepoObjectMetadata(any(RepoId.class))).thenReturn(metadata);
+
+    EditorialObject first = service.read(KEY, "latest");
+    ticker.advance(TIME_TO_LIVE.minusSeconds(1));
+    EditorialObject second = service.read(KEY, "latest");
+
+    assertSame(first, second);
+    assertArrayEquals(new byte[]{1, 2, 3}, first.getContent());
+    assertEquals('"' + uuid + '"', first.getEntityTag());
+    assertEquals("text/html", first.getContentType().get());
+    verify(contentRepoService, times(1)).getLatestRepoObjectMetadata(any(RepoId.class));
+    verify(contentRepoService, times(1)).getRepoObject(any(RepoVersion.class));
+  }
+
+  @Test
+  public void testRevalidatesUnchangedObject() throws IOException {
+    RepoObjectMetadata metadata = stubVersion(UUID.randomUUID().toString(), new byte[]{1, 2, 3});
+    when(contentRepoService.getLatestRepoObjectMetadata(any(RepoId.class))).thenReturn(metadata);
+
+    EditorialObject first = service.read(KEY, "latest");
+    ticker.advance(TIME_TO_LIVE.plusSeconds(1));
+    EditorialObject second = service.read(KEY, "latest");
+
+    assertSame(first, second);
+    verify(contentRepoService, times(2)).getLatestRepoObjectMetadata(any(RepoId.class));
+    verify(contentRepoService, times(1)).getRepoObject(any(RepoVersion.class));
+    assertEquals(1L, service.getMetrics().get("unchangedCount"));
+  }
+
+  @Test
+  public void testRefetchesChangedObject() throws IOException {
+    RepoObjectMetadata oldMetadata = stubVersion(UUID.randomUUID().toString(), new byte[]{1, 2, 3});
+    RepoObjectMetadata newMetadata = stubVersion(UUID.randomUUID().toString(), new byte[]{4, 5});
+    when(contentRepoService.getLatestRepoObjectMetadata(any(RepoId.class))).thenReturn(oldMetadata, newMetadata);
+
+    service.read(KEY, "latest");
+    ticker.advance(TIME_TO_LIVE.plusSeconds(1));
+    EditorialObject changed = service.read(KEY, "latest");
+
+    assertArrayEquals(new byte[]{4, 5}, changed.getContent());
+    verify(contentRepoService, times(2)).getRepoObject(any(RepoVersion.class));
+  }
+
+  @Test
+  public void testDoesNotRevalidateSpecificVersion() throws IOException {
+    String uuid = UUID.randomUUID().toString();
+    RepoObjectMetadata metadata = stubVersion(uuid, new byte[]{1, 2, 3});
+    when(contentRepoService.getRepoObjectMetadata(any(RepoVersion.class))).thenReturn(metadata);
+
+    EditorialObject first = service.read(KEY, uuid);
+    ticker.advance(TIME_TO_LIVE.multipliedBy(10));
+    EditorialObject second = service.read(KEY, uuid);
+
+    assertSame(first, second);
+    verify(contentRepoService, times(1)).getRepoObjectMetadata(any(RepoVersion.class));
+    verify(contentRepoService, times(0)).getLatestRepoObjectMetadata(any(RepoId.class));
+  }
+
+  @Test
+  public void testMissingObject() throws IOException {
+    when(contentRepoService.getLatestRepoObjectMetadata(any(RepoId.class))).thenThrow(mock(NotFoundException.class));
+    try {
+      service.read(KEY, "latest");
+      fail("Expected RestClientException");
+    } catch (RestClientException e) {
+      assertEquals(HttpStatus.NOT_FOUND, e.getResponseStatus());
+    }
+  }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import org.ambraproject.rhino.identity.ArticleIdentifier;
+import org.ambraproject.rhino.identity.IssueIdentifier;
+import org.ambraproject.rhino.identity.VolumeIdentifier;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.Issue;
+import org.ambraproject.rhino.model.Volume;
+import org.ambraproject.rhino.rest.RestClientException;
+import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.service.IssueCrudService;
+import org.ambraproject.rhino.service.VolumeCrudService;
+import org.ambraproject.rhino.view.journal.IssueInputView;
+import org.ambraproject.rhino.view.journal.IssueOutputView;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+@ContextConfiguration(classes = IssueCrudServiceImplTest.class)
+@Configuration
+public class IssueCrudServiceImplTest extends AbstractStubbingArticleTest {
+
+  private static final String ISSUE_DOI = "10.1371/issue.pone.v01.i01";
+
+  private IssueCrudService mockIssueCrudService;
+
+  private HibernateTemplate mockHibernateTemplate;
+
+  private ArticleCrudService mockArticleCrudService;
+
+  private VolumeCrudService mockVolumeCrudService;
+
+  private final Article articleA = createStubArticle(1L, "10.1371/journal.pone.0000001");
+  private final Article articleB = createStubArticle(2L, "10.1371/journal.pone.0000002");
+  private final Article articleC = createStubArticle(3L, "10.1371/journal.pone.0000003");
+
+  @Before
+  public void initMocks() {
+    mockIssueCrudService = applicationContext.getBean(IssueCrudService.class);
+    reset(mockIssueCrudService);
+    mockHibernateTemplate = applicationContext.getBean(HibernateTemplate.class);
+    reset(mockHibernateTemplate);
+    mockArticleCrudService = applicationContext.getBean(ArticleCrudService.class);
+    reset(mockArticleCrudService);
+    mockVolumeCrudService = applicationContext.getBean(VolumeCrudService.class);
+    reset(mockVolumeCrudService);
+    stubReadArticles(articleA, articleB, articleC);
+  }
+
+  @Bean
+  public IssueCrudService issueCrudService() {
+    mockIssueCrudService = spy(IssueCrudServiceImpl.class);
+    LOG.debug("issueCrudService() * --> {}", mockIssueCrudService);
+    return mockIssueCrudService;
+  }
+
+  @Bean
+  public VolumeCrudService volumeCrudService() {
+    mockVolumeCrudService = mock(VolumeCrudService.class);
+    LOG.debug("volumeCrudService() * --> {}", mockVolumeCrudService);
+    return mockVolumeCrudService;
+  }
+
+  @Bean
+  public IssueOutputView.Factory issueOutputViewFactory() {
+    IssueOutputView.Factory mockIssueOutputViewFactory = mock(IssueOutputView.Factory.class);
+    LOG.debug("issueOutputViewFactory() * --> {}", mockIssueOutputViewFactory);
+    return mockIssueOutputViewFactory;
+  }
+
+  /**
+   * Make {@link ArticleCrudService#readArticles} behave as its implementation does: return an article for each
+   * identifier, repeats included, or report every missing DOI at once.
+   */
+  private void stubReadArticles(Article... existingArticles) {
+    Map<ArticleIdentifier, Article> articlesById = Stream.of(existingArticles)
+        .collect(Collectors.toMap(article -> ArticleIdentifier.create(article.getDoi()), article -> article));
+    when(mockArticleCrudService.readArticles(any())).thenAnswer(invocation -> {
+      Collection<ArticleIdentifier> articleIds = invocation.getArgument(0);
+      List<String> missingDois = articleIds.stream()
+          .filter(articleId -> !articlesById.containsKey(articleId))
+          .map(ArticleIdentifier::getDoiName)
+          .collect(Collectors.toList());
+      if (!missingDois.isEmpty()) {
+        throw new RestClientException("Articles not found with DOIs: " + missingDois, HttpStatus.NOT_FOUND);
+      }
+      return articleIds.stream().map(articlesById::get).collect(Collectors.toList());
+    });
+  }
+
+  private IssueInputView createInput(String json) {
+    return applicationContext.getBean(Gson.class).fromJson(json, IssueInputView.class);
+  }
+
+  private Issue createStubIssue() {
+    Issue issue = new Issue(ISSUE_DOI);
+    issue.setDisplayName("Issue 1");
+    issue.setArticles(new ArrayList<>(ImmutableList.of(articleC)));
+    return issue;
+  }
+
+  @Test
+  public void testUpdateWithImageArticleInArticleOrder() {
+    Issue issue = createStubIssue();
+    when(mockHibernateTemplate.execute(any())).thenReturn(issue);
+
+    mockIssueCrudService.update(IssueIdentifier.create(ISSUE_DOI), createInput("{" +
+        "\"articleOrder\": [\"" + articleA.getDoi() + "\", \"" + articleB.getDoi() + "\"], " +
+        "\"imageArticleDoi\": \"" + articleB.getDoi() + "\"}"));
+
+    // The image article is read along with the article order, and is not mistaken for the last of the issue's articles
+    verify(mockArticleCrudService).readArticles(ImmutableList.of(ArticleIdentifier.create(articleA.getDoi()),
+        ArticleIdentifier.create(articleB.getDoi()), ArticleIdentifier.create(articleB.getDoi())));
+    assertThat(issue.getArticles()).containsExactly(articleA, articleB).inOrder();
+    assertSame(articleB, issue.getImageArticle());
+    verify(mockHibernateTemplate).update(issue);
+  }
+
+  @Test
+  public void testUpdateImageArticleOnly() {
+    Issue issue = createStubIssue();
+    when(mockHibernateTemplate.execute(any())).thenReturn(issue);
+
+    mockIssueCrudService.update(IssueIdentifier.create(ISSUE_DOI),
+        createInput("{\"imageArticleDoi\": \"" + articleA.getDoi() + "\"}"));
+
+    assertThat(issue.getArticles()).containsExactly(articleC);
+    assertSame(articleA, issue.getImageArticle());
+    verify(mockHibernateTemplate).update(issue);
+  }
+
+  @Test
+  public void testUpdateArticleOrderOnly() {
+    Issue issue = createStubIssue();
+    issue.setImageArticle(articleC);
+    when(mockHibernateTemplate.execute(any())).thenReturn(issue);
+
+    mockIssueCrudService.update(IssueIdentifier.create(ISSUE_DOI), createInput("{" +
+        "\"articleOrder\": [\"" + articleB.getDoi() + "\", \"" + articleA.getDoi() + "\"]}"));
+
+    assertThat(issue.getArticles()).containsExactly(articleB, articleA).inOrder();
+    assertNull(issue.getImageArticle());
+  }
+
+  @Test
+  public void testUpdateWithMissingArticles() {
+    Issue issue = createStubIssue();
+    issue.setImageArticle(articleC);
+    when(mockHibernateTemplate.execute(any())).thenReturn(issue);
+    String missingArticleDoi = "10.1371/journal.pone.0000004";
+    String missingImageDoi = "10.1371/journal.pone.0000005";
+
+    try {
+      mockIssueCrudService.update(IssueIdentifier.create(ISSUE_DOI), createInput("{" +
+          "\"articleOrder\": [\"" + articleA.getDoi() + "\", \"" + missingArticleDoi + "\"], " +
+          "\"imageArticleDoi\": \"" + missingImageDoi + "\"}"));
+      fail("Expected RestClientException");
+    } catch (RestClientException e) {
+      assertEquals(HttpStatus.NOT_FOUND, e.getResponseStatus());
+      assertThat(e.getMessage()).contains(missingArticleDoi);
+      assertThat(e.getMessage()).contains(missingImageDoi);
+    }
+
+    assertThat(issue.getArticles()).containsExactly(articleC);
+    assertSame(articleC, issue.getImageArticle());
+    verify(mockHibernateTemplate, never()).update(any());
+  }
+
+  @Test
+  public void testCreateWithMissingImageArticle() {
+    when(mockHibernateTemplate.execute(any())).thenReturn(null); // no existing issue with the DOI
+
+    try {
+      mockIssueCrudService.create(VolumeIdentifier.create("10.1371/volume.pone.v01"), createInput("{" +
+          "\"doi\": \"" + ISSUE_DOI + "\", " +
+          "\"imageArticleDoi\": \"10.1371/journal.pone.0000004\"}"));
+      fail("Expected RestClientException");
+    } catch (RestClientException e) {
+      assertEquals(HttpStatus.NOT_FOUND, e.getResponseStatus());
+    }
+
+    verify(mockVolumeCrudService, never()).readVolume(any(VolumeIdentifier.class));
+    verify(mockHibernateTemplate, never()).save(any(Volume.class));
+  }
+
+}
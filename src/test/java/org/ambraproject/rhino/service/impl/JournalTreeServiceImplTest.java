@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.service.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import org.ambraproject.rhino.service.JournalTreeService;
+import org.ambraproject.rhino.view.ViewFixtures;
+import org.ambraproject.rhino.view.journal.IssueOutputView;
+import org.ambraproject.rhino.view.journal.JournalTree;
+import org.ambraproject.rhino.view.journal.VolumeOutputView;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.hibernate3.HibernateTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class JournalTreeServiceImplTest extends AbstractJUnit4SpringContextTests {
+
+  private static final Duration MAX_AGE = Duration.ofSeconds(60);
+
+  @Configuration
+  static class ContextConfiguration {
+    @Bean
+    public HibernateTemplate hibernateTemplate() {
+      return mock(HibernateTemplate.class);
+    }
+
+    @Bean
+    public Gson entityGson() {
+      return ViewFixtures.createGson(true, false);
+    }
+
+    @Bean
+    public VolumeOutputView.Factory volumeOutputViewFactory() {
+      return mock(VolumeOutputView.Factory.class);
+    }
+
+    @Bean
+    public IssueOutputView.Factory issueOutputViewFactory() {
+      return mock(IssueOutputView.Factory.class);
+    }
+
+    @Bean
+    public Clock clock() {
+      return mock(Clock.class);
+    }
+
+    @Bean
+    public JournalTreeService journalTreeService(Clock clock) {
+      return new JournalTreeServiceImpl(null, MAX_AGE, clock);
+    }
+  }
+
+  @Autowired
+  private HibernateTemplate hibernateTemplate;
+  @Autowired
+  private Clock clock;
+  @Autowired
+  private JournalTreeService journalTreeService;
+
+  private Instant now;
+
+  @Before
+  public void setUp() {
+    reset(hibernateTemplate);
+    when(hibernateTemplate.execute(any())).thenReturn(ImmutableList.of());
+    now = Instant.ofEpochSecond(1000000000L);
+    when(clock.instant()).thenAnswer(invocation -> now);
+  }
+
+  @Test
+  public void testTreeIsReused() {
+    JournalTree tree = journalTreeService.getJournalTree();
+    now = now.plus(MAX_AGE.minusSeconds(1));
+    assertSame(tree, journalTreeService.getJournalTree());
+    verify(hibernateTemplate, times(1)).execute(any());
+  }
+
+  @Test
+  public void testInvalidationRebuildsTree() {
+    JournalTree tree = journalTreeService.getJournalTree();
+    journalTreeService.invalidate();
+    assertNotSame(tree, journalTreeService.getJournalTree());
+  }
+
+  @Test
+  public void testExpiredTreeIsRebuilt() {
+    // Writes by other servers don't advance this instance's version, so the tree must not be kept forever
+    JournalTree tree = journalTreeService.getJournalTree();
+    now = now.plus(MAX_AGE);
+    JournalTree rebuilt = journalTreeService.getJournalTree();
+    assertNotSame(tree, rebuilt);
+    assertSame(rebuilt, journalTreeService.getJournalTree());
+    verify(hibernateTemplate, times(2)).execute(any());
+  }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ArchiveTest {
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(3);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static Map<String, ByteSource> createTestFiles() {
+    Random random = new Random(0);
+    Map<String, ByteSource> files = new LinkedHashMap<>();
+    files.put("manuscript.xml", ByteSource.wrap("<article/>".getBytes(StandardCharsets.UTF_8)));
+    for (int i = 1; i <= 5; i++) {
+      byte[] image = new byte[10000 * i];
+      random.nextBytes(image);
+      files.put("figure" + i + ".tif", ByteSource.wrap(image));
+    }
+    byte[] largeFile = new byte[3 << 20]; // larger than the in-memory prefetch buffer
+    random.nextBytes(largeFile);
+    files.put("video.mp4", ByteSource.wrap(largeFile));
+    files.put("manifest.xml", ByteSource.wrap("<manifest/>".getBytes(StandardCharsets.UTF_8)));
+    return files;
+  }
+
+  @Test
+  public void testPrefetchingWrite() throws IOException {
+    Map<String, ByteSource> files = createTestFiles();
+    Archive archive = Archive.pack("test.zip", files);
+
+    ByteArrayOutputStream zipFile = new ByteArrayOutputStream();
+    archive.write(zipFile, executor, 2);
+
+    Map<String, Integer> methods = new LinkedHashMap<>();
+    try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(zipFile.toByteArray()))) {
+      ZipEntry entry;
+      while ((entry = zipStream.getNextEntry()) != null) {
+        methods.put(entry.getName(), entry.getMethod());
+        assertArrayEquals(files.get(entry.getName()).read(), ByteStreams.toByteArray(zipStream));
+      }
+    }
+
+    assertEquals(files.keySet(), methods.keySet()); // same order as the original
+    for (Map.Entry<String, Integer> method : methods.entrySet()) {
+      int expected = Archive.isPrecompressed(method.getKey()) ? ZipEntry.STORED : ZipEntry.DEFLATED;
+      assertEquals(method.getKey(), expected, (int) method.getValue());
+    }
+  }
+
+  @Test
+  public void testPrefetchingWriteMatchesSerialWrite() throws IOException {
+    Map<String, ByteSource> files = createTestFiles();
+
+    ByteArrayOutputStream serial = new ByteArrayOutputStream();
+    Archive.pack("test.zip", files).write(serial);
+    ByteArrayOutputStream prefetched = new ByteArrayOutputStream();
+    Archive.pack("test.zip", files).write(prefetched, executor, 4);
+
+    Archive serialArchive = Archive.readZipFileIntoMemory("serial.zip", new ByteArrayInputStream(serial.toByteArray()));
+    Archive prefetchedArchive = Archive.readZipFileIntoMemory("prefetched.zip",
+        new ByteArrayInputStream(prefetched.toByteArray()));
+    assertEquals(serialArchive.getEntryNames(), prefetchedArchive.getEntryNames());
+    for (String entryName : serialArchive.getEntryNames()) {
+      assertArrayEquals(ByteStreams.toByteArray(serialArchive.openFile(entryName)),
+          ByteStreams.toByteArray(prefetchedArchive.openFile(entryName)));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testPrefetchFailure() throws IOException {
+    ByteSource failing = new ByteSource() {
+      @Override
+      public java.io.InputStream openStream() throws IOException {
+        throw new IOException("unavailable");
+      }
+    };
+    Archive archive = Archive.pack("test.zip", ImmutableMap.of(
+        "a.xml", ByteSource.wrap(new byte[]{1}),
+        "b.png", failing,
+        "c.xml", ByteSource.wrap(new byte[]{2})));
+    archive.write(new ByteArrayOutputStream(), executor, 2);
+  }
+
+  private static byte[] zip(Map<String, ByteSource> files) throws IOException {
+    ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+    Archive.pack("test.zip", files).write(zipped);
+    return zipped.toByteArray();
+  }
+
+  private static void assertContents(Map<String, ByteSource> expected, Archive archive) throws IOException {
+    assertEquals(expected.keySet(), archive.getEntryNames());
+    for (Map.Entry<String, ByteSource> entry : expected.entrySet()) {
+      assertArrayEquals(entry.getKey(), entry.getValue().read(),
+          ByteStreams.toByteArray(archive.openFile(entry.getKey())));
+    }
+  }
+
+  @Test
+  public void testReadIntoBufferPool() throws IOException {
+    Map<String, ByteSource> files = createTestFiles();
+    files.remove("video.mp4");
+    ArchiveBufferPool bufferPool = new ArchiveBufferPool(1 << 20, 4096);
+
+    Archive archive = Archive.readZipFileIntoMemory("test.zip", new ByteArrayInputStream(zip(files)), bufferPool);
+    assertContents(files, archive);
+    assertContents(files, archive); // may be read repeatedly
+    assertEquals(0L, bufferPool.getMetrics().get("spilledEntryCount"));
+    assertTrue((Long) bufferPool.getMetrics().get("inUseBytes") > 0L);
+
+    archive.close();
+    assertEquals(0L, bufferPool.getMetrics().get("inUseBytes"));
+  }
+
+  @Test
+  public void testReadIntoBufferPoolSpillsToDisk() throws IOException {
+    Map<String, ByteSource> files = createTestFiles();
+    ArchiveBufferPool bufferPool = new ArchiveBufferPool(64 * 1024, 4096);
+
+    try (Archive archive = Archive.readZipFileIntoMemory("test.zip", new ByteArrayInputStream(zip(files)),
+        bufferPool)) {
+      assertContents(files, archive);
+      Map<String, Object> metrics = bufferPool.getMetrics();
+      assertTrue((Long) metrics.get("spilledEntryCount") > 0L);
+      assertTrue((Long) metrics.get("peakInUseBytes") <= 64 * 1024);
+    }
+    assertEquals(0L, bufferPool.getMetrics().get("inUseBytes"));
+    assertTrue((Long) bufferPool.getMetrics().get("allocatedBytes") <= 64 * 1024);
+  }
+
+  @Test
+  public void testReadIntoBufferPoolFillsLastChunkExactly() throws IOException {
+    Map<String, ByteSource> files = new LinkedHashMap<>();
+    byte[] content = new byte[2 * 4096];
+    new Random(0).nextBytes(content);
+    files.put("exact.tif", ByteSource.wrap(content));
+    files.put("empty.txt", ByteSource.empty());
+    ArchiveBufferPool bufferPool = new ArchiveBufferPool(2 * 4096, 4096);
+
+    // The first entry uses the whole budget, and neither entry needs another chunk to find its end
+    try (Archive archive = Archive.readZipFileIntoMemory("test.zip", new ByteArrayInputStream(zip(files)),
+        bufferPool)) {
+      assertContents(files, archive);
+      assertEquals(0L, bufferPool.getMetrics().get("spilledEntryCount"));
+    }
+    assertEquals(0L, bufferPool.getMetrics().get("inUseBytes"));
+  }
+
+}
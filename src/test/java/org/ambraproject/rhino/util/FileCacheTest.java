@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class FileCacheTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static FileCache.ContentWriter writeBytes(int length, AtomicInteger counter) {
+    return stream -> {
+      counter.incrementAndGet();
+      for (int i = 0; i < length; i++) {
+        stream.write(i);
+      }
+    };
+  }
+
+  private static byte[] read(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) break;
+    }
+    channel.close();
+    return buffer.array();
+  }
+
+  @Test
+  public void testWritesOnce() throws IOException {
+    FileCache cache = new FileCache(temporaryFolder.getRoot().toPath(), 1 << 20, Duration.ofHours(1));
+    AtomicInteger writes = new AtomicInteger();
+
+    byte[] first = read(cache.open("key", writeBytes(100, writes)));
+    byte[] second = read(cache.open("key", writeBytes(100, writes)));
+
+    assertEquals(1, writes.get());
+    assertEquals(100, first.length);
+    assertEquals(first[99], second[99]);
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyReadOverSize() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    FileCache cache = new FileCache(directory, 250, Duration.ofHours(1));
+    AtomicInteger writes = new AtomicInteger();
+
+    cache.open("a", writeBytes(100, writes)).close();
+    Files.setLastModifiedTime(directory.resolve("a.cached"), FileTime.fromMillis(1000L));
+    cache.open("b", writeBytes(100, writes)).close();
+    cache.open("c", writeBytes(100, writes)).close();
+
+    assertFalse(Files.exists(directory.resolve("a.cached")));
+    assertTrue(Files.exists(directory.resolve("b.cached")));
+    assertTrue(Files.exists(directory.resolve("c.cached")));
+  }
+
+  @Test
+  public void testEvictsByAge() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    FileCache cache = new FileCache(directory, 1 << 20, Duration.ofMinutes(10));
+    AtomicInteger writes = new AtomicInteger();
+
+    cache.open("old", writeBytes(10, writes)).close();
+    Files.setLastModifiedTime(directory.resolve("old.cached"),
+        FileTime.fromMillis(System.currentTimeMillis() - Duration.ofMinutes(11).toMillis()));
+    cache.evict();
+
+    assertFalse(Files.exists(directory.resolve("old.cached")));
+  }
+
+  @Test
+  public void testScheduledEvictionRemovesIdleFiles() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    FileCache cache = new FileCache(directory, 1 << 20, Duration.ofMinutes(10));
+    cache.open("idle", writeBytes(10, new AtomicInteger())).close();
+    Files.setLastModifiedTime(directory.resolve("idle.cached"),
+        FileTime.fromMillis(System.currentTimeMillis() - Duration.ofMinutes(11).toMillis()));
+
+    ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    cache.scheduleEviction(executor);
+    ArgumentCaptor<Runnable> eviction = ArgumentCaptor.forClass(Runnable.class);
+    long interval = Duration.ofMinutes(1).toMillis();
+    verify(executor).scheduleWithFixedDelay(eviction.capture(), eq(interval), eq(interval),
+        eq(TimeUnit.MILLISECONDS));
+
+    // Nothing is written to the cache, but the scheduled run still evicts the idle file
+    eviction.getValue().run();
+    assertFalse(Files.exists(directory.resolve("idle.cached")));
+  }
+
+  @Test
+  public void testEvictionIntervalIsBounded() {
+    Path directory = temporaryFolder.getRoot().toPath();
+    assertEquals(Duration.ofMinutes(1), new FileCache(directory, 1, Duration.ofMinutes(2)).getEvictionInterval());
+    assertEquals(Duration.ofMinutes(30), new FileCache(directory, 1, Duration.ofHours(5)).getEvictionInterval());
+    assertEquals(Duration.ofHours(1), new FileCache(directory, 1, Duration.ofDays(7)).getEvictionInterval());
+  }
+
+  @Test
+  public void testConcurrentEvictionDoesNotBreakOpen() throws Exception {
+    Path directory = temporaryFolder.getRoot().toPath();
+    FileCache cache = new FileCache(directory, 1, Duration.ofHours(1)); // every eviction deletes every file
+    AtomicInteger writes = new AtomicInteger();
+    cache.open("key", writeBytes(100, writes)).close();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> evictions = executor.submit(() -> {
+        for (int i = 0; i < 1000; i++) {
+          cache.evict();
+        }
+        return null;
+      });
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(100, read(cache.open("key", writeBytes(100, writes))).length);
+      }
+      evictions.get();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsPathInKey() throws IOException {
+    new FileCache(temporaryFolder.getRoot().toPath(), 1 << 20, Duration.ofHours(1))
+        .open("../escape", writeBytes(1, new AtomicInteger()));
+  }
+
+}
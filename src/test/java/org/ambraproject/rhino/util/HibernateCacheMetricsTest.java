@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.common.collect.ImmutableMap;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HibernateCacheMetricsTest {
+
+  private static HibernateCacheMetrics createMetrics(Statistics statistics) {
+    SessionFactory sessionFactory = mock(SessionFactory.class);
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+    return new HibernateCacheMetrics(sessionFactory);
+  }
+
+  @Test
+  public void testDisabled() {
+    Statistics statistics = mock(Statistics.class);
+    when(statistics.isStatisticsEnabled()).thenReturn(false);
+    assertEquals(ImmutableMap.of("enabled", false), createMetrics(statistics).getMetrics());
+  }
+
+  @Test
+  public void testRegions() {
+    Statistics statistics = mock(Statistics.class);
+    when(statistics.isStatisticsEnabled()).thenReturn(true);
+    when(statistics.getSecondLevelCacheHitCount()).thenReturn(7L);
+    when(statistics.getSecondLevelCacheMissCount()).thenReturn(3L);
+    when(statistics.getQueryCacheHitCount()).thenReturn(5L);
+    when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{
+        "org.ambraproject.rhino.model.Journal", "org.ambraproject.rhino.model.Category"});
+    SecondLevelCacheStatistics journalStatistics = mock(SecondLevelCacheStatistics.class);
+    when(journalStatistics.getHitCount()).thenReturn(7L);
+    when(journalStatistics.getMissCount()).thenReturn(1L);
+    when(journalStatistics.getElementCountInMemory()).thenReturn(2L);
+    when(statistics.getSecondLevelCacheStatistics("org.ambraproject.rhino.model.Journal"))
+        .thenReturn(journalStatistics);
+
+    Map<String, Object> metrics = createMetrics(statistics).getMetrics();
+    assertEquals(true, metrics.get("enabled"));
+    assertEquals(7L, metrics.get("entityHitCount"));
+    assertEquals(3L, metrics.get("entityMissCount"));
+    assertEquals(5L, metrics.get("queryHitCount"));
+
+    Map<String, Object> regions = (Map<String, Object>) metrics.get("regions");
+    assertEquals(1, regions.size()); // the Category region has no statistics yet
+    Map<String, Object> journalMetrics = (Map<String, Object>) regions.get("org.ambraproject.rhino.model.Journal");
+    assertEquals(7L, journalMetrics.get("hitCount"));
+    assertEquals(1L, journalMetrics.get("missCount"));
+    assertEquals(2L, journalMetrics.get("elementCount"));
+  }
+
+}
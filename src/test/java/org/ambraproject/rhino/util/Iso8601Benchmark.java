@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.typeadapters.UtcDateTypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Iso8601} against the adapters it replaced, {@link UtcDateTypeAdapter} and the {@code toString} and
+ * {@code parse} methods of {@code java.time}. Allocation is reported by the GC profiler as {@code gc.alloc.rate.norm},
+ * in bytes per operation.
+ * <p>
+ * This is not run by the unit tests. Run it from the test classpath with the {@link #main} method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Iso8601Benchmark {
+
+  private static final int COUNT = 1000;
+
+  private final TypeAdapter<Date> legacyDateAdapter = new UtcDateTypeAdapter();
+  private final Date[] dates = new Date[COUNT];
+  private final Instant[] instants = new Instant[COUNT];
+  private final LocalDate[] localDates = new LocalDate[COUNT];
+  private final String[] formattedDates = new String[COUNT];
+  private final String[] formattedInstants = new String[COUNT];
+  private JsonWriter writer;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    for (int i = 0; i < COUNT; i++) {
+      long millis = 946684800000L + (long) (random.nextDouble() * 30 * 365 * 86400_000L);
+      dates[i] = new Date(millis);
+      instants[i] = Instant.ofEpochMilli(millis);
+      localDates[i] = LocalDate.ofEpochDay(millis / 86400_000L);
+      formattedDates[i] = Iso8601.format(dates[i]);
+      formattedInstants[i] = Iso8601.format(instants[i]);
+    }
+    writer = new JsonWriter(NULL_WRITER);
+    writer.setLenient(true); // allow top-level values to follow each other
+  }
+
+  /**
+   * A sink for the serialized output, so that the benchmark measures formatting rather than buffering.
+   */
+  private static final Writer NULL_WRITER = new Writer() {
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  };
+
+  @Benchmark
+  public void writeDateLegacy() throws IOException {
+    for (Date date : dates) {
+      legacyDateAdapter.write(writer, date);
+    }
+  }
+
+  @Benchmark
+  public void writeDate() throws IOException {
+    for (Date date : dates) {
+      Iso8601.DATE_ADAPTER.write(writer, date);
+    }
+  }
+
+  @Benchmark
+  public void writeInstantLegacy() throws IOException {
+    for (Instant instant : instants) {
+      writer.value(instant.toString());
+    }
+  }
+
+  @Benchmark
+  public void writeInstant() throws IOException {
+    for (Instant instant : instants) {
+      Iso8601.INSTANT_ADAPTER.write(writer, instant);
+    }
+  }
+
+  @Benchmark
+  public void writeLocalDateLegacy() throws IOException {
+    for (LocalDate localDate : localDates) {
+      writer.value(localDate.toString());
+    }
+  }
+
+  @Benchmark
+  public void writeLocalDate() throws IOException {
+    for (LocalDate localDate : localDates) {
+      Iso8601.LOCAL_DATE_ADAPTER.write(writer, localDate);
+    }
+  }
+
+  @Benchmark
+  public void parseDateLegacy(Blackhole blackhole) {
+    for (String formatted : formattedDates) {
+      blackhole.consume(legacyDateAdapter.fromJsonTree(new JsonPrimitive(formatted)));
+    }
+  }
+
+  @Benchmark
+  public void parseDate(Blackhole blackhole) {
+    // Read through a tree like parseDateLegacy, because UtcDateTypeAdapter's parser is private
+    for (String formatted : formattedDates) {
+      blackhole.consume(Iso8601.DATE_ADAPTER.fromJsonTree(new JsonPrimitive(formatted)));
+    }
+  }
+
+  @Benchmark
+  public void parseInstantLegacy(Blackhole blackhole) {
+    for (String formatted : formattedInstants) {
+      blackhole.consume(Instant.parse(formatted));
+    }
+  }
+
+  @Benchmark
+  public void parseInstant(Blackhole blackhole) {
+    for (String formatted : formattedInstants) {
+      blackhole.consume(Iso8601.parseInstant(formatted));
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(Iso8601Benchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.typeadapters.UtcDateTypeAdapter;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class Iso8601Test {
+
+  private static final long MIN_MILLIS = LocalDate.of(-20000, 1, 1).toEpochDay() * 86400_000L;
+  private static final long MAX_MILLIS = LocalDate.of(20000, 1, 1).toEpochDay() * 86400_000L;
+
+  private static final Gson LEGACY_GSON = new GsonBuilder()
+      .registerTypeAdapter(Date.class, new UtcDateTypeAdapter())
+      .create();
+
+  private static String formatLegacy(Date date) {
+    return LEGACY_GSON.toJsonTree(date).getAsString();
+  }
+
+  private static void assertParsesLikeLegacy(String text) {
+    Date expected;
+    try {
+      expected = LEGACY_GSON.fromJson('"' + text + '"', Date.class);
+    } catch (JsonParseException e) {
+      try {
+        Iso8601.parseDate(text);
+      } catch (JsonParseException expectedException) {
+        return;
+      }
+      throw new AssertionError("Expected failure to parse " + text);
+    }
+    assertEquals(expected, Iso8601.parseDate(text));
+  }
+
+  @Test
+  public void testLocalDateOnEveryDay() {
+    long end = LocalDate.of(10000, 12, 31).toEpochDay();
+    for (long epochDay = LocalDate.of(-1, 1, 1).toEpochDay(); epochDay <= end; epochDay++) {
+      LocalDate date = LocalDate.ofEpochDay(epochDay);
+      String formatted = Iso8601.format(date);
+      assertEquals(date.toString(), formatted);
+      assertEquals(date, Iso8601.parseLocalDate(formatted));
+    }
+  }
+
+  @Test
+  public void testDateOnEveryDay() {
+    long end = LocalDate.of(9999, 12, 31).toEpochDay();
+    Random random = new Random(0);
+    for (long epochDay = LocalDate.of(1500, 1, 1).toEpochDay(); epochDay <= end; epochDay++) {
+      Date date = new Date(epochDay * 86400_000L + random.nextInt(86400_000));
+      String formatted = Iso8601.format(date);
+      assertEquals(formatLegacy(date), formatted);
+      assertEquals(date, Iso8601.parseDate(formatted));
+    }
+  }
+
+  @Test
+  public void testDateAtRandom() {
+    Random random = new Random(0);
+    for (int i = 0; i < 200_000; i++) {
+      Date date = new Date(MIN_MILLIS + (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS)));
+      String formatted = Iso8601.format(date);
+      assertEquals(formatLegacy(date), formatted);
+      assertParsesLikeLegacy(formatted);
+    }
+  }
+
+  @Test
+  public void testInstantAtRandom() {
+    Random random = new Random(0);
+    long minSecond = MIN_MILLIS / 1000;
+    long maxSecond = MAX_MILLIS / 1000;
+    int[] nanoUnits = {1_000_000_000, 1_000_000, 1000, 1};
+    for (int i = 0; i < 200_000; i++) {
+      long epochSecond = minSecond + (long) (random.nextDouble() * (maxSecond - minSecond));
+      int nanoUnit = nanoUnits[i % nanoUnits.length];
+      int nano = (nanoUnit == 1_000_000_000) ? 0 : random.nextInt(1_000_000_000 / nanoUnit) * nanoUnit;
+      Instant instant = Instant.ofEpochSecond(epochSecond, nano);
+      String formatted = Iso8601.format(instant);
+      assertEquals(instant.toString(), formatted);
+      assertEquals(instant, Iso8601.parseInstant(formatted));
+    }
+  }
+
+  @Test
+  public void testParseInstantWithAnyFraction() {
+    String fraction = "123456789";
+    for (int digits = 0; digits <= fraction.length(); digits++) {
+      String text = "2017-06-15T12:34:56" + (digits == 0 ? "" : "." + fraction.substring(0, digits)) + "Z";
+      assertEquals(Instant.parse(text), Iso8601.parseInstant(text));
+    }
+  }
+
+  @Test
+  public void testParseLenientForms() {
+    assertEquals(Instant.parse("2017-06-15t12:34:56z"), Iso8601.parseInstant("2017-06-15t12:34:56z"));
+    assertEquals(Instant.parse("2017-06-15T24:00:00Z"), Iso8601.parseInstant("2017-06-15T24:00:00Z"));
+    assertEquals(Instant.parse("+12017-06-15T12:34:56Z"), Iso8601.parseInstant("+12017-06-15T12:34:56Z"));
+    assertEquals(LocalDate.parse("+12017-06-15"), Iso8601.parseLocalDate("+12017-06-15"));
+    for (String text : new String[]{"2017-06-15T12:34:56Z", "2017-06-15T12:34Z", "20170615T123456Z",
+        "2017-06-15T12:34:56.789+05:30", "2017-06-15T12:34:56.7Z", "1500-06-15T12:34:56.789Z"}) {
+      assertParsesLikeLegacy(text);
+    }
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void testInvalidLocalDate() {
+    Iso8601.parseLocalDate("2017-02-29");
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void testInvalidInstant() {
+    Iso8601.parseInstant("2017-06-15T12:60:00Z");
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void testInvalidDate() {
+    Iso8601.parseDate("2017-04-31T00:00:00.000Z");
+  }
+
+  @Test
+  public void testAdapters() {
+    Gson gson = JsonAdapterUtil.makeGsonBuilder().create();
+    Date date = new Date(1497530096789L);
+    assertEquals("\"2017-06-15T12:34:56.789Z\"", gson.toJson(date));
+    assertEquals(date, gson.fromJson("\"2017-06-15T12:34:56.789Z\"", Date.class));
+    assertEquals("null", gson.toJson(null, Date.class));
+    assertEquals(null, gson.fromJson("null", Date.class));
+  }
+
+}
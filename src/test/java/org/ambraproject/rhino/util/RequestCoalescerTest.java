@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestCoalescerTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static long getMetric(RequestCoalescer coalescer, String endpoint, String name) {
+    Map<?, ?> endpointMetrics = (Map<?, ?>) coalescer.getMetrics().get(endpoint);
+    return (endpointMetrics == null) ? 0L : (Long) endpointMetrics.get(name);
+  }
+
+  /**
+   * Start requests that block in the shared computation until every one of them is waiting for it.
+   */
+  private List<Future<String>> startBlockedRequests(RequestCoalescer coalescer, int requestCount,
+                                                    RequestCoalescer.Computation<String, IOException> computation)
+      throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < requestCount; i++) {
+      results.add(executor.submit(() -> coalescer.execute("test", "key", () -> {
+        release.await();
+        return computation.compute();
+      })));
+    }
+    while (getMetric(coalescer, "test", "coalescedCount") < requestCount - 1) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+    return results;
+  }
+
+  @Test
+  public void testSharesResult() throws Exception {
+    RequestCoalescer coalescer = new RequestCoalescer(Duration.ofMinutes(1));
+    AtomicInteger computations = new AtomicInteger();
+    List<Future<String>> results = startBlockedRequests(coalescer, 8,
+        () -> "result" + computations.incrementAndGet());
+
+    String first = results.get(0).get(1, TimeUnit.MINUTES);
+    for (Future<String> result : results) {
+      assertSame(first, result.get(1, TimeUnit.MINUTES));
+    }
+    assertEquals(1, computations.get());
+    assertEquals(8L, getMetric(coalescer, "test", "requestCount"));
+    assertEquals(7L, getMetric(coalescer, "test", "coalescedCount"));
+
+    assertEquals("Does not cache after completion", "result2", coalescer.execute("test", "key",
+        () -> "result" + computations.incrementAndGet()));
+  }
+
+  @Test
+  public void testSharesException() throws Exception {
+    RequestCoalescer coalescer = new RequestCoalescer(Duration.ofMinutes(1));
+    List<Future<String>> results = startBlockedRequests(coalescer, 4, () -> {
+      throw new IOException("shared");
+    });
+    for (Future<String> result : results) {
+      try {
+        result.get(1, TimeUnit.MINUTES);
+        fail("Expected exception");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof IOException);
+        assertEquals("shared", e.getCause().getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testComputesAfterTimeout() throws Exception {
+    RequestCoalescer coalescer = new RequestCoalescer(Duration.ofMillis(10));
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> slow = executor.submit(() -> coalescer.execute("test", "key", () -> {
+      release.await();
+      return "slow";
+    }));
+    while ((Integer) coalescer.getMetrics().get("inFlightCount") < 1) {
+      Thread.sleep(10);
+    }
+
+    assertEquals("fast", coalescer.execute("test", "key", () -> "fast"));
+    assertEquals(1L, getMetric(coalescer, "test", "timeoutCount"));
+
+    release.countDown();
+    assertEquals("slow", slow.get(1, TimeUnit.MINUTES));
+  }
+
+}
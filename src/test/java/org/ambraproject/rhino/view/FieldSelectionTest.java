@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonObject;
+import org.ambraproject.rhino.rest.RestClientException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FieldSelectionTest {
+
+  @Test
+  public void testParse() {
+    assertTrue(FieldSelection.parse(null).isAll());
+    assertEquals(FieldSelection.parse("title,doi"), FieldSelection.parse(" doi , title,"));
+    assertEquals("doi,title", FieldSelection.parse("title,doi").toString());
+    assertEquals("*", FieldSelection.ALL.toString());
+  }
+
+  @Test(expected = RestClientException.class)
+  public void testParseEmpty() {
+    FieldSelection.parse(" , ");
+  }
+
+  @Test
+  public void testIncludesOnly() {
+    assertTrue(FieldSelection.parse("a,b").includesOnly(ImmutableSet.of("a", "b", "c")));
+    assertFalse(FieldSelection.parse("a,d").includesOnly(ImmutableSet.of("a", "b", "c")));
+    assertFalse(FieldSelection.ALL.includesOnly(ImmutableSet.of("a", "b", "c")));
+  }
+
+  @Test
+  public void testProject() {
+    JsonObject object = new JsonObject();
+    object.addProperty("c", 3);
+    object.addProperty("a", 1);
+    object.addProperty("b", 2);
+
+    JsonObject projected = FieldSelection.parse("b,c").project(object.deepCopy());
+    assertEquals("{\"c\":3,\"b\":2}", projected.toString());
+    assertEquals(object, FieldSelection.ALL.project(object.deepCopy()));
+  }
+
+}
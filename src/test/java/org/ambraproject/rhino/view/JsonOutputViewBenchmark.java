@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view;
+
+import com.google.gson.Gson;
+import org.ambraproject.rhino.view.article.ArticleRevisionView;
+import org.ambraproject.rhino.view.comment.CommentOutputView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing views by building a {@code JsonObject} tree ({@link JsonOutputView#serialize}) against writing
+ * them directly ({@link StreamingOutputView#write}). Allocation is reported by the GC profiler as {@code
+ * gc.alloc.rate.norm}, in bytes per operation.
+ * <p>
+ * This is not run by the unit tests. Run it from the test classpath with the {@link #main} method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonOutputViewBenchmark {
+
+  private Gson treeGson;
+  private Gson streamingGson;
+  private List<ArticleRevisionView> articleViews;
+  private List<CommentOutputView> commentViews;
+
+  @Setup
+  public void setUp() {
+    treeGson = ViewFixtures.createGson(false, false);
+    streamingGson = ViewFixtures.createGson(true, false);
+    articleViews = ViewFixtures.createArticleRevisionViews(1000);
+    commentViews = ViewFixtures.createCommentViews(100);
+  }
+
+  /**
+   * A sink for the serialized output, so that the benchmark measures serialization rather than buffering.
+   */
+  private static final OutputStream NULL_STREAM = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  private static void write(Gson gson, Object views) throws IOException {
+    Writer writer = new OutputStreamWriter(NULL_STREAM, StandardCharsets.UTF_8);
+    gson.toJson(views, writer);
+    writer.flush();
+  }
+
+  @Benchmark
+  public void articleRevisionViewsAsTree() throws IOException {
+    write(treeGson, articleViews);
+  }
+
+  @Benchmark
+  public void articleRevisionViewsStreamed() throws IOException {
+    write(streamingGson, articleViews);
+  }
+
+  @Benchmark
+  public void commentViewsAsTree() throws IOException {
+    write(treeGson, commentViews);
+  }
+
+  @Benchmark
+  public void commentViewsStreamed() throws IOException {
+    write(streamingGson, commentViews);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(JsonOutputViewBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.ArticleItem;
+import org.ambraproject.rhino.model.ArticleList;
+import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
+import org.ambraproject.rhino.model.Comment;
+import org.ambraproject.rhino.model.Issue;
+import org.ambraproject.rhino.model.Journal;
+import org.ambraproject.rhino.model.Volume;
+import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.service.IssueCrudService;
+import org.ambraproject.rhino.service.JournalCrudService;
+import org.ambraproject.rhino.view.article.ArticleRevisionView;
+import org.ambraproject.rhino.view.comment.CommentNodeView;
+import org.ambraproject.rhino.view.journal.ArticleListView;
+import org.ambraproject.rhino.view.journal.IssueOutputView;
+import org.ambraproject.rhino.view.journal.VolumeOutputView;
+import org.ambraproject.rhino.view.user.UserIdView;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration
+public class StreamingOutputViewTest extends AbstractJUnit4SpringContextTests {
+  @Configuration
+  static class ContextConfiguration {
+    @Bean
+    public ArticleCrudService articleCrudService() {
+      return mock(ArticleCrudService.class);
+    }
+
+    @Bean
+    public IssueCrudService issueCrudService() {
+      return mock(IssueCrudService.class);
+    }
+
+    @Bean
+    public JournalCrudService journalCrudService() {
+      return mock(JournalCrudService.class);
+    }
+
+    @Bean
+    public ArticleRevisionView.Factory articleRevisionViewFactory() {
+      return new ArticleRevisionView.Factory();
+    }
+
+    @Bean
+    public VolumeOutputView.Factory volumeOutputViewFactory() {
+      return new VolumeOutputView.Factory();
+    }
+
+    @Bean
+    public IssueOutputView.Factory issueOutputViewFactory() {
+      return new IssueOutputView.Factory();
+    }
+
+    @Bean
+    public ArticleListView.Factory articleListViewFactory() {
+      return new ArticleListView.Factory();
+    }
+  }
+
+  @Autowired
+  private ArticleCrudService articleCrudService;
+  @Autowired
+  private VolumeOutputView.Factory volumeOutputViewFactory;
+  @Autowired
+  private IssueOutputView.Factory issueOutputViewFactory;
+  @Autowired
+  private ArticleListView.Factory articleListViewFactory;
+
+  private List<ArticleRevision> revisions;
+  private Journal journal;
+
+  @Before
+  public void setUp() {
+    revisions = ViewFixtures.createArticleRevisions(6);
+    journal = revisions.get(0).getIngestion().getJournal();
+
+    // Every article but the last has a latest revision
+    Map<Article, ArticleSummary> summaries = new HashMap<>();
+    for (ArticleRevision revision : revisions.subList(0, revisions.size() - 1)) {
+      summaries.put(revision.getIngestion().getArticle(), ArticleSummary.create(revision));
+    }
+    reset(articleCrudService);
+    when(articleCrudService.getArticleSummaries(any())).thenAnswer(invocation -> {
+      List<Article> articles = invocation.getArgument(0);
+      return articles.stream().filter(summaries::containsKey)
+          .collect(Collectors.toMap(article -> article, summaries::get));
+    });
+  }
+
+  private static void assertSameOutput(Object views) {
+    for (boolean prettyPrint : new boolean[]{false, true}) {
+      Gson treeGson = ViewFixtures.createGson(false, prettyPrint);
+      Gson streamingGson = ViewFixtures.createGson(true, prettyPrint);
+      assertEquals(treeGson.toJson(views), streamingGson.toJson(views));
+      assertEquals(treeGson.toJsonTree(views), streamingGson.toJsonTree(views));
+    }
+  }
+
+  private List<Article> getArticles() {
+    return revisions.stream().map(revision -> revision.getIngestion().getArticle()).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testArticleRevisionViews() {
+    assertSameOutput(ViewFixtures.createArticleRevisionViews(20));
+  }
+
+  @Test
+  public void testCategoryAssignmentViews() {
+    assertSameOutput(ViewFixtures.createCategoryAssignmentViews(5));
+  }
+
+  @Test
+  public void testCommentViews() {
+    assertSameOutput(ViewFixtures.createCommentViews(4));
+  }
+
+  @Test
+  public void testCommentNodeViews() {
+    CommentNodeView.Factory factory = new CommentNodeView.Factory(ViewFixtures.createRuntimeConfiguration());
+    List<CommentNodeView> views = new ArrayList<>();
+    for (Comment comment : ViewFixtures.createComments(2)) {
+      views.add(factory.create(comment));
+      views.add(factory.create(comment, comment.getArticle().getDoi()));
+    }
+    assertSameOutput(views);
+  }
+
+  @Test
+  public void testUserIdViews() {
+    assertSameOutput(ImmutableList.of(new UserIdView(0L), new UserIdView(Long.MAX_VALUE)));
+  }
+
+  private Volume createVolume() {
+    Volume volume = new Volume();
+    volume.setDoi("10.1371/volume.pone.v01");
+    volume.setDisplayName("Volume \"1\"");
+    return volume;
+  }
+
+  @Test
+  public void testVolumeOutputViews() {
+    Volume unnamed = new Volume();
+    unnamed.setDoi("10.1371/volume.pone.v02");
+    assertSameOutput(ImmutableList.of(
+        volumeOutputViewFactory.getView(createVolume(), journal),
+        volumeOutputViewFactory.getView(unnamed, journal)));
+  }
+
+  @Test
+  public void testIssueOutputViews() {
+    ArticleRevision imageRevision = revisions.get(0);
+    Article imageArticle = imageRevision.getIngestion().getArticle();
+    ArticleItem figure = new ArticleItem();
+    figure.setDoi(imageArticle.getDoi() + ".g001");
+    figure.setItemType("figure");
+    ArticleItem manuscript = new ArticleItem();
+    manuscript.setDoi(imageArticle.getDoi());
+    manuscript.setItemType("article");
+    when(articleCrudService.getLatestRevision(imageArticle)).thenReturn(Optional.of(imageRevision));
+    when(articleCrudService.getAllArticleItems(imageRevision.getIngestion()))
+        .thenReturn(ImmutableList.of(manuscript, figure));
+
+    Issue withImage = new Issue();
+    withImage.setDoi("10.1371/issue.pone.v01.i01");
+    withImage.setDisplayName("Issue <1>");
+    withImage.setImageArticle(imageArticle);
+    Issue withoutImage = new Issue();
+    withoutImage.setDoi("10.1371/issue.pone.v01.i02");
+
+    VolumeOutputView volumeView = volumeOutputViewFactory.getView(createVolume(), journal);
+    assertSameOutput(ImmutableList.of(
+        issueOutputViewFactory.getView(withImage, volumeView),
+        issueOutputViewFactory.getView(withoutImage, volumeView)));
+  }
+
+  @Test
+  public void testArticleListViews() {
+    ArticleList articleList = new ArticleList();
+    articleList.setListType("admin");
+    articleList.setListKey("plosone_news");
+    articleList.setDisplayName("PLOS ONE \"News\"");
+    articleList.setArticles(getArticles());
+
+    String journalKey = journal.getJournalKey();
+    assertSameOutput(ImmutableList.of(
+        articleListViewFactory.getView(articleList, journalKey),
+        articleListViewFactory.getView(articleList, journalKey, true),
+        articleListViewFactory.getPageView(articleList, journalKey, getArticles().subList(2, 6), 6L)));
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.ambraproject.rhino.config.RhinoConfiguration;
+import org.ambraproject.rhino.config.RuntimeConfiguration;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.ArticleCategoryAssignment;
+import org.ambraproject.rhino.model.ArticleIngestion;
+import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.Category;
+import org.ambraproject.rhino.model.Comment;
+import org.ambraproject.rhino.model.Journal;
+import org.ambraproject.rhino.view.article.ArticleRevisionView;
+import org.ambraproject.rhino.view.article.CategoryAssignmentView;
+import org.ambraproject.rhino.view.comment.CommentOutputView;
+import org.ambraproject.rhino.view.comment.CompetingInterestPolicy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Views built from unpersisted entities, for comparing the tree-building and streaming forms of {@link
+ * JsonOutputView}s.
+ */
+public final class ViewFixtures {
+  private ViewFixtures() {
+    throw new AssertionError("Not instantiable");
+  }
+
+  /**
+   * Create a Gson instance that is configured like {@link RhinoConfiguration#entityGson}.
+   *
+   * @param streaming   whether to use {@link StreamingOutputView#write} where available; if {@code false}, every view
+   *                    is serialized through a tree with {@link JsonOutputView#serialize}
+   * @param prettyPrint whether to pretty-print
+   */
+  public static Gson createGson(boolean streaming, boolean prettyPrint) {
+    GsonBuilder builder = RhinoConfiguration.makeEntityGsonBuilder(streaming);
+    if (prettyPrint) {
+      builder.setPrettyPrinting();
+    }
+    return builder.create();
+  }
+
+  private static final Date BASE_DATE = java.sql.Date.valueOf(LocalDate.of(2017, 1, 1));
+
+  private static Date plusDays(int days) {
+    return new Date(BASE_DATE.getTime() + days * 86400000L);
+  }
+
+  static List<ArticleRevisionView> createArticleRevisionViews(int count) {
+    return createArticleRevisions(count).stream().map(ArticleRevisionView::getView).collect(Collectors.toList());
+  }
+
+  static List<ArticleRevision> createArticleRevisions(int count) {
+    Journal journal = new Journal();
+    journal.setJournalKey("PLoSONE");
+    journal.setTitle("PLOS ONE");
+    journal.seteIssn("1932-6203");
+
+    List<ArticleRevision> revisions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Article article = new Article();
+      article.setDoi("10.1371/journal.pone." + String.format("%07d", i));
+
+      ArticleIngestion ingestion = new ArticleIngestion();
+      ingestion.setArticle(article);
+      ingestion.setIngestionNumber(i % 3 + 1);
+      ingestion.setJournal(journal);
+      ingestion.setTitle((i % 10 == 0) ? null : "Effects of <i>\"quoted\"</i> & escaped \u00e9l\u00e9ments, part " + i);
+      ingestion.setPublicationDate(new java.sql.Date(plusDays(i).getTime()));
+      if (i % 2 == 0) {
+        ingestion.setRevisionDate(new java.sql.Date(plusDays(i + 30).getTime()));
+      }
+      ingestion.setPublicationStage((i % 5 == 0) ? null : "vor-update-to-uncorrected-proof");
+      ingestion.setArticleType("Research Article");
+
+      ArticleRevision revision = new ArticleRevision();
+      revision.setIngestion(ingestion);
+      revision.setRevisionNumber(i % 4 + 1);
+      revisions.add(revision);
+    }
+    return revisions;
+  }
+
+  static List<CategoryAssignmentView> createCategoryAssignmentViews(int count) {
+    List<CategoryAssignmentView> views = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Category category = new Category();
+      category.setPath("/Biology and life sciences/Category " + i);
+      ArticleCategoryAssignment assignment = new ArticleCategoryAssignment();
+      assignment.setCategory(category);
+      assignment.setWeight(i * 7);
+      views.add(new CategoryAssignmentView(assignment));
+    }
+    return views;
+  }
+
+  static RuntimeConfiguration createRuntimeConfiguration() {
+    RuntimeConfiguration runtimeConfiguration = mock(RuntimeConfiguration.class);
+    when(runtimeConfiguration.getCompetingInterestPolicyStart()).thenReturn(LocalDate.of(2017, 1, 15));
+    return runtimeConfiguration;
+  }
+
+  /**
+   * @param count the number of top-level comments, each of which has a chain of replies
+   * @return the comments, each followed by its replies
+   */
+  static List<Comment> createComments(int count) {
+    Article article = new Article();
+    article.setDoi("10.1371/journal.pone.0000001");
+
+    List<Comment> comments = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Comment parent = null;
+      for (int depth = 0; depth < 3; depth++) {
+        Comment comment = new Comment();
+        comment.setCommentId((long) comments.size());
+        comment.setArticle(article);
+        comment.setParent(parent);
+        comment.setUserProfileID((depth == 1) ? null : 1000L + i);
+        comment.setCommentUri("info:doi/10.1371/annotation/" + comments.size());
+        comment.setTitle((depth == 2) ? null : "Comment " + i + "." + depth);
+        comment.setBody("A <b>comment</b> body with \"quotes\" and \u00fcnic\u00f8de");
+        comment.setCompetingInterestBody((i % 2 == 0) ? "None declared" : null);
+        comment.setCreated(plusDays(i + depth));
+        comment.setLastModified(plusDays(i + depth));
+        comments.add(comment);
+        parent = comment;
+      }
+    }
+    return comments;
+  }
+
+  /**
+   * @param count the number of top-level comments, each of which has a chain of replies
+   */
+  static List<CommentOutputView> createCommentViews(int count) {
+    List<Comment> comments = createComments(count);
+    Article article = comments.get(0).getArticle();
+    CommentOutputView.Factory factory = new CommentOutputView.Factory(
+        new CompetingInterestPolicy(createRuntimeConfiguration()), comments, article);
+    return comments.stream()
+        .filter(comment -> comment.getParent() == null)
+        .map(factory::buildView)
+        .collect(Collectors.toList());
+  }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view.article;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.ambraproject.rhino.BaseRhinoTest;
+import org.ambraproject.rhino.config.RuntimeConfiguration;
+import org.ambraproject.rhino.content.xml.ArticleXml;
+import org.ambraproject.rhino.content.xml.CustomMetadataExtractor;
+import org.ambraproject.rhino.content.xml.XmlContentException;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.ArticleIngestion;
+import org.ambraproject.rhino.model.Journal;
+import org.ambraproject.rhino.model.article.ArticleMetadata;
+import org.ambraproject.rhino.service.ArticleCrudService;
+import org.ambraproject.rhino.view.FieldSelection;
+import org.ambraproject.rhino.view.ViewFixtures;
+import org.junit.Before;
+import org.junit.Test;
+import org.plos.crepo.model.identity.RepoVersion;
+import org.plos.crepo.model.metadata.RepoObjectMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.AbstractJUnit4SpringContextTests;
+import org.w3c.dom.Document;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration
+public class ArticleIngestionViewTest extends AbstractJUnit4SpringContextTests {
+  @Configuration
+  static class ContextConfiguration {
+    @Bean
+    public ArticleCrudService articleCrudService() {
+      return mock(ArticleCrudService.class);
+    }
+
+    @Bean
+    public RuntimeConfiguration runtimeConfiguration() {
+      return mock(RuntimeConfiguration.class);
+    }
+
+    @Bean
+    public CustomMetadataExtractor.Factory customMetadataExtractorFactory() {
+      return new CustomMetadataExtractor.Factory();
+    }
+
+    @Bean
+    public ArticleIngestionView.Factory articleIngestionViewFactory() {
+      return new ArticleIngestionView.Factory();
+    }
+  }
+
+  @Autowired
+  private ArticleCrudService articleCrudService;
+
+  @Autowired
+  private ArticleIngestionView.Factory articleIngestionViewFactory;
+
+  private ArticleIngestion ingestion;
+
+  private static final List<String> FIELD_PARAMETERS = ImmutableList.of(
+      "doi,title,publicationDate,journal",
+      "title",
+      "bucketName,ingestionNumber",
+      "revisionDate,publicationStage,articleType",
+      "doi,abstractText,assetsLinkedFromManuscript",
+      "editors,title,noSuchField");
+
+  @Before
+  public void setUp() throws IOException, XmlContentException {
+    Document manuscript = BaseRhinoTest.parseTestFile("journal.pone.0055490.xml");
+    ArticleMetadata metadata = new ArticleXml(manuscript).build();
+
+    Journal journal = new Journal();
+    journal.setJournalKey("PLoSONE");
+    journal.setTitle("PLOS ONE");
+    Article article = new Article();
+    article.setDoi(metadata.getDoi());
+
+    // Persisted as in HibernatePersistenceServiceImpl.persistIngestion
+    ingestion = new ArticleIngestion();
+    ingestion.setArticle(article);
+    ingestion.setIngestionNumber(1);
+    ingestion.setJournal(journal);
+    ingestion.setTitle(metadata.getTitle());
+    ingestion.setPublicationDate(java.sql.Date.valueOf(metadata.getPublicationDate()));
+    ingestion.setArticleType(metadata.getArticleType());
+
+    RepoObjectMetadata objectMetadata = mock(RepoObjectMetadata.class);
+    when(objectMetadata.getVersion())
+        .thenReturn(RepoVersion.create("corpus", "manuscript", "d3b07384-d9a0-4c8e-9b1f-2b2f6a1e7c51"));
+    reset(articleCrudService);
+    when(articleCrudService.getManuscriptMetadata(ingestion)).thenReturn(objectMetadata);
+    when(articleCrudService.getManuscriptXml(objectMetadata)).thenReturn(manuscript);
+  }
+
+  @Test
+  public void testSelectionIsEquivalentToFullView() {
+    for (boolean streaming : new boolean[]{false, true}) {
+      Gson gson = ViewFixtures.createGson(streaming, false);
+      JsonObject full = gson.toJsonTree(articleIngestionViewFactory.getView(ingestion)).getAsJsonObject();
+      for (String parameter : FIELD_PARAMETERS) {
+        FieldSelection fields = FieldSelection.parse(parameter);
+        ArticleIngestionView view = articleIngestionViewFactory.getView(ingestion, fields);
+
+        JsonObject expected = fields.project(full.deepCopy());
+        assertFalse(expected.entrySet().isEmpty());
+        assertEquals(parameter, expected, gson.toJsonTree(view));
+        assertEquals(parameter, gson.toJson(expected), gson.toJson(view));
+      }
+    }
+  }
+
+  @Test
+  public void testDatabaseFieldsDoNotReadManuscript() {
+    FieldSelection fields = FieldSelection.parse("doi,title,publicationDate,journal");
+    ArticleIngestionView view = articleIngestionViewFactory.getView(ingestion, fields);
+    JsonObject serialized = ViewFixtures.createGson(true, false).toJsonTree(view).getAsJsonObject();
+
+    assertEquals(4, serialized.size());
+    verify(articleCrudService, never()).getManuscriptMetadata(any());
+    verify(articleCrudService, never()).getManuscriptXml(any(RepoObjectMetadata.class));
+  }
+
+  @Test
+  public void testManuscriptFieldsReadManuscript() {
+    articleIngestionViewFactory.getView(ingestion, FieldSelection.parse("title,abstractText"));
+    verify(articleCrudService).getManuscriptXml(any(RepoObjectMetadata.class));
+  }
+
+}
@@ -24,6 +24,10 @@ package org.ambraproject.rhino.view.article;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Date;
@@ -31,12 +35,14 @@ import java.util.List;
 import java.util.Optional;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 import org.ambraproject.rhino.identity.ArticleIdentifier;
 import org.ambraproject.rhino.model.Article;
 import org.ambraproject.rhino.model.ArticleIngestion;
 import org.ambraproject.rhino.model.ArticleRelationship;
 import org.ambraproject.rhino.model.ArticleRevision;
+import org.ambraproject.rhino.model.ArticleSummary;
 import org.ambraproject.rhino.model.Journal;
 import org.ambraproject.rhino.service.ArticleCrudService;
 import org.junit.Before;
@@ -80,6 +86,7 @@ public class RelationshipViewFactoryTest extends AbstractJUnit4SpringContextTest
 
   @Before
   public void setupArticleRelations() {
+    reset(articleCrudService);
     Date date = new Date(1571349735000L);
     rel = mock(ArticleRelationship.class);
     when(rel.getType()).thenReturn("corrected-article");
@@ -95,10 +102,14 @@ public class RelationshipViewFactoryTest extends AbstractJUnit4SpringContextTest
     when(journal.geteIssn()).thenReturn("0000-0000");
     when(articleCrudService.getLatestRevision(source)).thenReturn(Optional.of(sourceRevision));
     when(articleCrudService.getLatestRevision(target)).thenReturn(Optional.of(targetRevision));
+    when(articleCrudService.getArticleSummaries(any())).thenAnswer(invocation -> ImmutableMap.of(
+        source, ArticleSummary.create(sourceRevision), target, ArticleSummary.create(targetRevision)));
     when(sourceRevision.getIngestion()).thenReturn(sourceIngestion);
     when(targetRevision.getIngestion()).thenReturn(targetIngestion);
     when(sourceRevision.getRevisionNumber()).thenReturn(1);
     when(targetRevision.getRevisionNumber()).thenReturn(1);
+    when(sourceIngestion.getArticle()).thenReturn(source);
+    when(targetIngestion.getArticle()).thenReturn(target);
     when(sourceIngestion.getJournal()).thenReturn(journal);
     when(targetIngestion.getJournal()).thenReturn(journal);
     when(sourceIngestion.getPublicationDate()).thenReturn(date);
@@ -132,6 +143,16 @@ public class RelationshipViewFactoryTest extends AbstractJUnit4SpringContextTest
     assertEquals("Source", views.get(0).getTitle());
   }
 
+  @Test
+  public void testGetRelationshipViewsReadsSummariesInBulk() {
+    when(articleCrudService.getRelationshipsFrom(any(ArticleIdentifier.class))).thenReturn(ImmutableList.of(rel, rel));
+    when(articleCrudService.getRelationshipsTo(any(ArticleIdentifier.class))).thenReturn(ImmutableList.of(rel));
+    List<RelationshipView> views = relationshipViewFactory.getRelationshipViews(ArticleIdentifier.create("10.9999/journal.xxx.1"));
+    assertEquals(2, views.size());
+    verify(articleCrudService, times(1)).getArticleSummaries(any());
+    verify(articleCrudService, never()).getLatestRevision(any());
+  }
+
   @Test
   public void testGetRelationshipInvertUnknownType() {
     when(rel.getType()).thenReturn("new-type");
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2017 Public Library of Science
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package org.ambraproject.rhino.view.journal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import org.ambraproject.rhino.identity.IssueIdentifier;
+import org.ambraproject.rhino.identity.VolumeIdentifier;
+import org.ambraproject.rhino.model.Article;
+import org.ambraproject.rhino.model.Issue;
+import org.ambraproject.rhino.model.Journal;
+import org.ambraproject.rhino.model.Volume;
+import org.ambraproject.rhino.rest.response.CachedJsonResponse;
+import org.ambraproject.rhino.view.ViewFixtures;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JournalTreeTest {
+
+  private static Issue createIssue(String doi) {
+    Issue issue = new Issue();
+    issue.setDoi(doi);
+    issue.setDisplayName("Issue " + doi);
+    issue.setLastModified(new Date(1500000000000L));
+    return issue;
+  }
+
+  private static Volume createVolume(String doi, Issue... issues) {
+    Volume volume = new Volume();
+    volume.setDoi(doi);
+    volume.setDisplayName("Volume " + doi);
+    volume.setLastModified(new Date(1400000000000L));
+    volume.setIssues(new ArrayList<>(ImmutableList.copyOf(issues)));
+    return volume;
+  }
+
+  private static Journal createJournal(String journalKey, Volume... volumes) {
+    Journal journal = new Journal();
+    journal.setJournalKey(journalKey);
+    journal.setTitle("Journal " + journalKey);
+    journal.seteIssn("1234-567" + journalKey.length());
+    journal.setLastModified(new Date(1300000000000L));
+    journal.setVolumes(new ArrayList<>(ImmutableList.copyOf(volumes)));
+    return journal;
+  }
+
+  private static String asString(CachedJsonResponse response) {
+    return new String(response.getBody(), StandardCharsets.UTF_8);
+  }
+
+  private static void testFragmentsMatchViews(boolean prettyPrint) {
+    Gson gson = ViewFixtures.createGson(true, prettyPrint);
+    Issue issue1 = createIssue("10.1371/issue.test.v01.i01");
+    Issue issue2 = createIssue("10.1371/issue.test.v01.i02");
+    Volume volume = createVolume("10.1371/volume.test.v01", issue1, issue2);
+    Journal journal = createJournal("TestJournal", volume);
+    journal.setCurrentIssue(issue2);
+    Journal emptyJournal = createJournal("EmptyJournal");
+
+    VolumeOutputView.Factory volumeOutputViewFactory = new VolumeOutputView.Factory();
+    IssueOutputView.Factory issueOutputViewFactory = new IssueOutputView.Factory();
+    JournalTree tree = JournalTree.build(7L, ImmutableList.of(journal, emptyJournal), gson,
+        volumeOutputViewFactory, issueOutputViewFactory);
+    assertEquals(7L, tree.getVersion());
+
+    assertEquals(gson.toJson(ImmutableList.of(JournalOutputView.getView(journal), JournalOutputView.getView(emptyJournal))),
+        asString(tree.getJournalList()));
+    CachedJsonResponse journalResponse = tree.getJournal("TestJournal").get();
+    assertEquals(gson.toJson(JournalOutputView.getView(journal)), asString(journalResponse));
+    assertEquals(journal.getLastModified().toInstant(), journalResponse.getLastModified());
+
+    VolumeOutputView volumeView = volumeOutputViewFactory.getView(volume, journal);
+    assertEquals(gson.toJson(volumeView), asString(tree.getVolume(VolumeIdentifier.create(volume.getDoi())).get()));
+    assertEquals(gson.toJson(ImmutableList.of(volumeView)), asString(tree.getVolumes("TestJournal").get()));
+    assertEquals("[]", asString(tree.getVolumes("EmptyJournal").get()));
+
+    List<IssueOutputView> issueViews = ImmutableList.of(issue1, issue2).stream()
+        .map(issue -> issueOutputViewFactory.getView(issue, volumeView))
+        .collect(Collectors.toList());
+    assertEquals(gson.toJson(issueViews.get(0)), asString(tree.getIssue(IssueIdentifier.create(issue1.getDoi())).get()));
+    assertEquals(gson.toJson(issueViews),
+        asString(tree.getIssues(VolumeIdentifier.create(volume.getDoi())).get()));
+    assertEquals(gson.toJson(issueViews.get(1)), asString(tree.getCurrentIssue("TestJournal").get()));
+    assertFalse(tree.getCurrentIssue("EmptyJournal").isPresent());
+
+    assertEquals(1, tree.getVolumeCount());
+    assertEquals(2, tree.getIssueCount());
+  }
+
+  @Test
+  public void testFragmentsMatchViews() {
+    testFragmentsMatchViews(false);
+    testFragmentsMatchViews(true);
+  }
+
+  @Test
+  public void testLookups() {
+    Issue issue = createIssue("10.1371/issue.test.v01.i01");
+    Volume volume = createVolume("10.1371/volume.test.v01", issue);
+    JournalTree tree = JournalTree.build(0L, ImmutableList.of(createJournal("TestJournal", volume)),
+        ViewFixtures.createGson(true, false), new VolumeOutputView.Factory(), new IssueOutputView.Factory());
+
+    // DOIs match without regard to case, as in the database
+    assertTrue(tree.getVolume(VolumeIdentifier.create("10.1371/VOLUME.TEST.V01")).isPresent());
+    assertTrue(tree.getIssue(IssueIdentifier.create("10.1371/Issue.Test.v01.i01")).isPresent());
+
+    assertFalse(tree.getJournal("OtherJournal").isPresent());
+    assertFalse(tree.getVolumes("OtherJournal").isPresent());
+    assertFalse(tree.getVolume(VolumeIdentifier.create("10.1371/volume.test.v02")).isPresent());
+    assertFalse(tree.getIssues(VolumeIdentifier.create("10.1371/volume.test.v02")).isPresent());
+    assertFalse(tree.getIssue(IssueIdentifier.create("10.1371/issue.test.v01.i02")).isPresent());
+  }
+
+  @Test
+  public void testIssueThatCannotBeBuiltIsLeftOut() {
+    Article imageArticle = new Article();
+    imageArticle.setDoi("10.1371/image.test.v01.i01");
+    Issue brokenIssue = createIssue("10.1371/issue.test.v01.i01");
+    brokenIssue.setImageArticle(imageArticle);
+    Issue goodIssue = createIssue("10.1371/issue.test.v02.i01");
+    Volume brokenVolume = createVolume("10.1371/volume.test.v01", brokenIssue);
+    Volume goodVolume = createVolume("10.1371/volume.test.v02", goodIssue);
+    Journal journal = createJournal("TestJournal", brokenVolume, goodVolume);
+    journal.setCurrentIssue(brokenIssue);
+
+    IssueOutputView.Factory issueOutputViewFactory = mock(IssueOutputView.Factory.class);
+    when(issueOutputViewFactory.getView(any(Issue.class), any(VolumeOutputView.class))).thenCallRealMethod();
+    doThrow(new RuntimeException("Image article has no published revisions."))
+        .when(issueOutputViewFactory).getView(eq(brokenIssue), any(VolumeOutputView.class));
+    JournalTree tree = JournalTree.build(0L, ImmutableList.of(journal), ViewFixtures.createGson(true, false),
+        new VolumeOutputView.Factory(), issueOutputViewFactory);
+
+    assertFalse(tree.getIssue(IssueIdentifier.create(brokenIssue.getDoi())).isPresent());
+    assertFalse(tree.getIssues(VolumeIdentifier.create(brokenVolume.getDoi())).isPresent());
+    assertFalse(tree.getCurrentIssue("TestJournal").isPresent());
+    assertTrue(tree.getVolume(VolumeIdentifier.create(brokenVolume.getDoi())).isPresent());
+    assertTrue(tree.getIssue(IssueIdentifier.create(goodIssue.getDoi())).isPresent());
+    assertTrue(tree.getIssues(VolumeIdentifier.create(goodVolume.getDoi())).isPresent());
+  }
+
+}